@@ -0,0 +1,121 @@
+package com.jstarcraft.core.benchmark.codec;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.jstarcraft.core.codec.ContentCodec;
+import com.jstarcraft.core.codec.csv.CsvContentCodec;
+import com.jstarcraft.core.codec.kryo.KryoContentCodec;
+import com.jstarcraft.core.codec.specification.CodecDefinition;
+import com.jstarcraft.core.codec.standard.StandardContentCodec;
+
+/**
+ * 原始类型数组编解码基准测试
+ *
+ * <pre>
+ * 以1K到1M个元素的int[]与float[](坐标,属性)对比编解码耗时.
+ * 对比数组转换器的改动时,在改动前后的版本上分别运行并比较结果.
+ *
+ * java -jar jstarcraft-core-benchmark/target/benchmarks.jar ArrayCodecBenchmark
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArrayCodecBenchmark {
+
+    @Param({ "STANDARD", "CSV", "KRYO" })
+    private String format;
+
+    @Param({ "INT", "FLOAT" })
+    private String element;
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    private int size;
+
+    private ContentCodec codec;
+
+    private Class<?> type;
+
+    private Object instance;
+
+    private byte[] data;
+
+    @Setup(Level.Trial)
+    public void start() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (element) {
+        case "INT":
+            int[] integers = new int[size];
+            for (int index = 0; index < size; index++) {
+                integers[index] = random.nextInt(100000);
+            }
+            type = int[].class;
+            instance = integers;
+            break;
+        case "FLOAT":
+            float[] floats = new float[size];
+            for (int index = 0; index < size; index++) {
+                floats[index] = random.nextFloat() * 1000F;
+            }
+            type = float[].class;
+            instance = floats;
+            break;
+        default:
+            throw new IllegalArgumentException(element);
+        }
+        CodecDefinition definition = CodecDefinition.instanceOf(type, type.getComponentType());
+        switch (format) {
+        case "STANDARD":
+            codec = new StandardContentCodec(definition);
+            break;
+        case "CSV":
+            codec = new CsvContentCodec(definition);
+            break;
+        case "KRYO":
+            codec = new KryoContentCodec(definition);
+            break;
+        default:
+            throw new IllegalArgumentException(format);
+        }
+        data = codec.encode(type, instance);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(type, instance);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return codec.decode(type, data);
+    }
+
+    public static void main(String[] arguments) throws Exception {
+        Options options = new OptionsBuilder().include(ArrayCodecBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
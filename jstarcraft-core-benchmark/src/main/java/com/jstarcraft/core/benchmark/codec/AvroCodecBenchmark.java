@@ -0,0 +1,113 @@
+package com.jstarcraft.core.benchmark.codec;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.jstarcraft.core.codec.avro.AvroContentCodec;
+import com.jstarcraft.core.codec.specification.CodecDefinition;
+
+/**
+ * Avro小消息编解码基准测试
+ *
+ * <pre>
+ * FACTORY为每次调用创建Decoder/Encoder的工厂方式,REUSE为复用BinaryDecoder/BinaryEncoder的默认方式.
+ * 两者都使用按照类型缓存的Schema与DatumReader/DatumWriter.
+ * 对比缓存的改动时,在改动前后的版本上分别运行FACTORY并比较结果.
+ *
+ * java -jar jstarcraft-core-benchmark/target/benchmarks.jar AvroCodecBenchmark -prof gc
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvroCodecBenchmark {
+
+    public static class MockMessage {
+
+        private int id;
+
+        private long timestamp;
+
+        private String name;
+
+        private double speed;
+
+        public MockMessage() {
+        }
+
+    }
+
+    @Param({ "FACTORY", "REUSE" })
+    private String mode;
+
+    private AvroContentCodec codec;
+
+    private MockMessage instance;
+
+    private byte[] data;
+
+    @Setup(Level.Trial)
+    public void start() {
+        CodecDefinition definition = CodecDefinition.instanceOf(MockMessage.class);
+        switch (mode) {
+        case "FACTORY":
+            codec = new AvroContentCodec(definition, (schema, input) -> {
+                return DecoderFactory.get().binaryDecoder(input, null);
+            }, (schema, output) -> {
+                return EncoderFactory.get().binaryEncoder(output, null);
+            });
+            break;
+        case "REUSE":
+            codec = new AvroContentCodec(definition);
+            break;
+        default:
+            throw new IllegalArgumentException(mode);
+        }
+        instance = new MockMessage();
+        instance.id = 1;
+        instance.timestamp = System.currentTimeMillis();
+        instance.name = "birdy";
+        instance.speed = 1D;
+        data = codec.encode(MockMessage.class, instance);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(MockMessage.class, instance);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return codec.decode(MockMessage.class, data);
+    }
+
+    public static void main(String[] arguments) throws Exception {
+        Options options = new OptionsBuilder().include(AvroCodecBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build();
+        new Runner(options).run();
+    }
+
+}
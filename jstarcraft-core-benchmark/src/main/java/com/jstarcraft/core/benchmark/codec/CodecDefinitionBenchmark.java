@@ -0,0 +1,84 @@
+package com.jstarcraft.core.benchmark.codec;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+import com.jstarcraft.core.codec.specification.CodecDefinition;
+import com.jstarcraft.core.codec.standard.StandardContentCodec;
+
+/**
+ * 类型定义多线程查找基准测试
+ *
+ * <pre>
+ * 所有线程共享同一个CodecDefinition,分别查找注册的类型与未注册的子类型.
+ * 查找路径没有锁,吞吐量应该随线程数增长.
+ *
+ * java -jar jstarcraft-core-benchmark/target/benchmarks.jar CodecDefinitionBenchmark -t max
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+public class CodecDefinitionBenchmark {
+
+    /** 未注册的子类型 */
+    public static class MockChildObject extends MockNumberObject {
+    }
+
+    private CodecDefinition definition;
+
+    private StandardContentCodec codec;
+
+    private MockNumberObject instance;
+
+    @Setup(Level.Trial)
+    public void start() {
+        definition = CodecDefinition.instanceOf(MockNumberObject.class);
+        codec = new StandardContentCodec(definition);
+        instance = MockNumberObject.instanceOf(1);
+    }
+
+    @Benchmark
+    public ClassDefinition lookupRegistered() {
+        return definition.getClassDefinition(MockNumberObject.class);
+    }
+
+    @Benchmark
+    public ClassDefinition lookupInherited() {
+        return definition.getClassDefinition(MockChildObject.class);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(MockNumberObject.class, instance);
+    }
+
+    public static void main(String[] arguments) throws Exception {
+        Options options = new OptionsBuilder().include(CodecDefinitionBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.jstarcraft.core.benchmark.codec;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.jstarcraft.core.codec.compression.Compressor;
+import com.jstarcraft.core.codec.compression.DeflateCompressor;
+import com.jstarcraft.core.codec.compression.Lz4Compressor;
+import com.jstarcraft.core.codec.compression.ZstdCompressor;
+import com.jstarcraft.core.codec.specification.CodecDefinition;
+import com.jstarcraft.core.codec.standard.StandardContentCodec;
+import com.jstarcraft.core.utility.PressUtility;
+import com.jstarcraft.core.utility.StringUtility;
+
+/**
+ * 压缩基准测试
+ *
+ * <pre>
+ * 以重复度较高的文本对比各种压缩器的压缩/解压耗时.
+ * PRESS为PressUtility(每次新建Deflater/Inflater,解压提交到线程池).
+ * codec系列为Standard编解码长字符串,用于调整压缩阈值:
+ * 在阈值附近对比压缩与不压缩(threshold为Integer.MAX_VALUE)的耗时与大小.
+ *
+ * java -jar jstarcraft-core-benchmark/target/benchmarks.jar CompressionBenchmark
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({ "PRESS", "DEFLATE", "LZ4", "ZSTD", "NONE" })
+    private String algorithm;
+
+    @Param({ "256", "1024", "16384" })
+    private int size;
+
+    private Compressor compressor;
+
+    private byte[] content;
+
+    private byte[] data;
+
+    private StandardContentCodec codec;
+
+    private String text;
+
+    private byte[] encoding;
+
+    @Setup(Level.Trial)
+    public void start() {
+        switch (algorithm) {
+        case "PRESS":
+        case "DEFLATE":
+            compressor = new DeflateCompressor(5);
+            break;
+        case "LZ4":
+            compressor = new Lz4Compressor();
+            break;
+        case "ZSTD":
+            compressor = new ZstdCompressor();
+            break;
+        case "NONE":
+            compressor = null;
+            break;
+        default:
+            throw new IllegalArgumentException(algorithm);
+        }
+        StringBuilder buffer = new StringBuilder(size);
+        for (int index = 0; buffer.length() < size; index++) {
+            buffer.append("{\"id\":").append(index).append(",\"name\":\"item").append(index % 10).append("\"}");
+        }
+        text = buffer.substring(0, size);
+        content = text.getBytes(StringUtility.CHARSET);
+        data = compress();
+        // 阈值为0使所有字符串都尝试压缩
+        codec = new StandardContentCodec(CodecDefinition.instanceOf(String.class), false, true, compressor, 0);
+        encoding = codec.encode(String.class, text);
+    }
+
+    @Benchmark
+    public byte[] compress() {
+        switch (algorithm) {
+        case "PRESS":
+            return PressUtility.zip(content, 5);
+        case "NONE":
+            return content;
+        default:
+            return compressor.compress(content);
+        }
+    }
+
+    @Benchmark
+    public byte[] decompress() {
+        switch (algorithm) {
+        case "PRESS":
+            return PressUtility.unzip(data, 30, TimeUnit.SECONDS);
+        case "NONE":
+            return data;
+        default:
+            return compressor.decompress(data);
+        }
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(String.class, text);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return codec.decode(String.class, encoding);
+    }
+
+    public static void main(String[] arguments) throws Exception {
+        Options options = new OptionsBuilder().include(CompressionBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
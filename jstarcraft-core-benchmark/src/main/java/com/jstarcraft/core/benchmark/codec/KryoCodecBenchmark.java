@@ -0,0 +1,75 @@
+package com.jstarcraft.core.benchmark.codec;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.jstarcraft.core.codec.kryo.KryoContentCodec;
+import com.jstarcraft.core.codec.specification.CodecDefinition;
+
+/**
+ * Kryo多线程编解码基准测试
+ *
+ * <pre>
+ * 所有线程共享同一个KryoContentCodec,吞吐量应该随线程数增长.
+ * 通过-t指定线程数对比(例如-t 1与-t max).
+ *
+ * java -jar jstarcraft-core-benchmark/target/benchmarks.jar KryoCodecBenchmark -t max
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+public class KryoCodecBenchmark {
+
+    private KryoContentCodec codec;
+
+    private MockNumberObject instance;
+
+    private byte[] data;
+
+    @Setup(Level.Trial)
+    public void start() {
+        CodecDefinition definition = CodecDefinition.instanceOf(MockNumberObject.class);
+        codec = new KryoContentCodec(definition);
+        instance = MockNumberObject.instanceOf(1);
+        data = codec.encode(MockNumberObject.class, instance);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(MockNumberObject.class, instance);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return codec.decode(MockNumberObject.class, data);
+    }
+
+    public static void main(String[] arguments) throws Exception {
+        Options options = new OptionsBuilder().include(KryoCodecBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
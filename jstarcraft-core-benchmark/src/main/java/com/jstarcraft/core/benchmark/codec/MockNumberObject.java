@@ -0,0 +1,60 @@
+package com.jstarcraft.core.benchmark.codec;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 模仿数值对象
+ *
+ * <pre>
+ * 以原始类型字段为主,对应数值密集的游戏状态.
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+public class MockNumberObject {
+
+    private int id;
+
+    private byte level;
+
+    private short experience;
+
+    private int gold;
+
+    private long timestamp;
+
+    private float x;
+
+    private float y;
+
+    private double speed;
+
+    private Integer energy;
+
+    private Long version;
+
+    private BigDecimal balance;
+
+    public MockNumberObject() {
+    }
+
+    public static MockNumberObject instanceOf(int id) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        MockNumberObject instance = new MockNumberObject();
+        instance.id = id;
+        instance.level = (byte) random.nextInt(Byte.MAX_VALUE);
+        instance.experience = (short) random.nextInt(Short.MAX_VALUE);
+        instance.gold = random.nextInt();
+        instance.timestamp = System.currentTimeMillis();
+        instance.x = random.nextFloat();
+        instance.y = random.nextFloat();
+        instance.speed = random.nextDouble();
+        instance.energy = random.nextInt(1000);
+        instance.version = random.nextLong();
+        instance.balance = BigDecimal.valueOf(random.nextLong(), 2);
+        return instance;
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.jstarcraft.core.benchmark.codec;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.jstarcraft.core.codec.ContentCodec;
+import com.jstarcraft.core.codec.kryo.KryoContentCodec;
+import com.jstarcraft.core.codec.protobuf.ProtobufContentCodec;
+import com.jstarcraft.core.codec.specification.CodecDefinition;
+import com.jstarcraft.core.codec.standard.StandardContentCodec;
+
+/**
+ * 数值编解码基准测试
+ *
+ * <pre>
+ * 以数值密集的对象对比Standard,Kryo与Protobuf的编解码吞吐量与分配速率.
+ * 对比数值转换器的改动时,在改动前后的版本上分别运行并比较结果.
+ * REFLECTION为不生成序列化器(反射读写属性)的Standard,用于对比生成的序列化器.
+ *
+ * mvn -Pbenchmark package -DskipTests
+ * java -jar jstarcraft-core-benchmark/target/benchmarks.jar StandardCodecBenchmark -prof gc
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StandardCodecBenchmark {
+
+    @Param({ "STANDARD", "REFLECTION", "KRYO", "PROTOBUF" })
+    private String format;
+
+    private ContentCodec codec;
+
+    private MockNumberObject instance;
+
+    private byte[] data;
+
+    @Setup(Level.Trial)
+    public void start() {
+        CodecDefinition definition = CodecDefinition.instanceOf(MockNumberObject.class);
+        switch (format) {
+        case "STANDARD":
+            codec = new StandardContentCodec(definition);
+            break;
+        case "REFLECTION":
+            codec = new StandardContentCodec(definition, false, false);
+            break;
+        case "KRYO":
+            codec = new KryoContentCodec(definition);
+            break;
+        case "PROTOBUF":
+            codec = new ProtobufContentCodec(definition);
+            break;
+        default:
+            throw new IllegalArgumentException(format);
+        }
+        instance = MockNumberObject.instanceOf(1);
+        data = codec.encode(MockNumberObject.class, instance);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(MockNumberObject.class, instance);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return codec.decode(MockNumberObject.class, data);
+    }
+
+    public static void main(String[] arguments) throws Exception {
+        Options options = new OptionsBuilder().include(StandardCodecBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.jstarcraft.core.benchmark.codec;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.jstarcraft.core.codec.specification.CodecDefinition;
+import com.jstarcraft.core.codec.standard.StandardContentCodec;
+import com.jstarcraft.core.common.reflection.TypeUtility;
+
+/**
+ * 引用跟踪基准测试
+ *
+ * <pre>
+ * 编码N个不同的字符串/对象,每个值都需要查找引用索引.
+ * 线性查找的耗时随N平方增长,散列查找随N线性增长.
+ *
+ * java -jar jstarcraft-core-benchmark/target/benchmarks.jar StandardReferenceBenchmark
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StandardReferenceBenchmark {
+
+    @Param({ "10", "100", "1000", "10000", "100000" })
+    private int size;
+
+    private StandardContentCodec codec;
+
+    private Type stringType;
+
+    private ArrayList<String> strings;
+
+    private Type objectType;
+
+    private ArrayList<MockNumberObject> objects;
+
+    @Setup(Level.Trial)
+    public void start() {
+        stringType = TypeUtility.parameterize(ArrayList.class, String.class);
+        objectType = TypeUtility.parameterize(ArrayList.class, MockNumberObject.class);
+        codec = new StandardContentCodec(CodecDefinition.instanceOf(stringType, objectType));
+        strings = new ArrayList<>(size);
+        objects = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            strings.add("item" + index);
+            objects.add(MockNumberObject.instanceOf(index));
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeStrings() {
+        return codec.encode(stringType, strings);
+    }
+
+    @Benchmark
+    public byte[] encodeObjects() {
+        return codec.encode(objectType, objects);
+    }
+
+    public static void main(String[] arguments) throws Exception {
+        Options options = new OptionsBuilder().include(StandardReferenceBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
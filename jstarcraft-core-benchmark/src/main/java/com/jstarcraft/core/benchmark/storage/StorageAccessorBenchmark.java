@@ -0,0 +1,147 @@
+package com.jstarcraft.core.benchmark.storage;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import com.jstarcraft.core.common.identification.IdentityObject;
+import com.jstarcraft.core.storage.ConditionType;
+import com.jstarcraft.core.storage.StorageAccessor;
+import com.jstarcraft.core.storage.StorageCondition;
+import com.jstarcraft.core.storage.StoragePagination;
+
+/**
+ * 访问器基准测试
+ *
+ * <pre>
+ * 对所有访问器执行相同的负载,每个(环境,方法)在独立的JVM中运行.
+ * 吞吐量通过ops/s比较,分配速率通过GC分析器(-prof gc)比较.
+ *
+ * mvn -Pbenchmark package -DskipTests
+ * java -jar jstarcraft-core-benchmark/target/benchmarks.jar StorageAccessorBenchmark -prof gc
+ * java -jar jstarcraft-core-benchmark/target/benchmarks.jar StorageAccessorBenchmark -p environment=HIBERNATE,MYBATIS
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageAccessorBenchmark {
+
+    @Param({ "LUCENE", "BERKELEY", "HIBERNATE", "MYBATIS", "MONGO" })
+    private StorageEnvironment environment;
+
+    /** 预置数据数量 */
+    @Param({ "10000" })
+    private int size;
+
+    private ClassPathXmlApplicationContext context;
+
+    private StorageAccessor accessor;
+
+    private Class clazz;
+
+    /** 创建删除使用的主键(在预置数据之后) */
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new ClassPathXmlApplicationContext(environment.getConfiguration());
+        accessor = context.getBean(environment.getAccessorClass());
+        clazz = environment.getOrmClass();
+        for (int index = 0; index < size; index++) {
+            accessor.createInstance(clazz, environment.instanceOf(index, environment.getValue(index)));
+        }
+        sequence = size;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        // 创建删除的数据已经删除,只需要删除预置数据
+        for (int index = 0; index < size; index++) {
+            accessor.deleteInstance(clazz, environment.getKey(index));
+        }
+        context.close();
+    }
+
+    private int random() {
+        return ThreadLocalRandom.current().nextInt(size);
+    }
+
+    @Benchmark
+    public IdentityObject getInstance() {
+        return accessor.getInstance(clazz, environment.getKey(random()));
+    }
+
+    /**
+     * 读取-修改-写入
+     *
+     * @return
+     */
+    @Benchmark
+    public boolean updateInstance() {
+        IdentityObject instance = accessor.getInstance(clazz, environment.getKey(random()));
+        return accessor.updateInstance(clazz, instance);
+    }
+
+    /**
+     * 创建并删除(保持数据量不变)
+     *
+     * @return
+     */
+    @Benchmark
+    public boolean createDeleteInstance() {
+        int id = sequence++;
+        accessor.createInstance(clazz, environment.instanceOf(id, environment.getValue(id)));
+        return accessor.deleteInstance(clazz, environment.getKey(id));
+    }
+
+    @Benchmark
+    public Map queryIdentities() {
+        return accessor.queryIdentities(clazz, environment.getIndexName(), new StorageCondition<>(ConditionType.Equal, environment.getValue(random())));
+    }
+
+    @Benchmark
+    public List queryIntersection() {
+        Map<String, Object> condition = Collections.singletonMap(environment.getIndexName(), environment.getValue(random()));
+        return accessor.queryIntersection(clazz, condition, new StoragePagination(1 + ThreadLocalRandom.current().nextInt(10), 10));
+    }
+
+    @Benchmark
+    public void iterate(Blackhole hole) {
+        accessor.iterate(hole::consume, clazz, null);
+    }
+
+    public static void main(String[] arguments) throws Exception {
+        Options options = new OptionsBuilder().include(StorageAccessorBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.jstarcraft.core.benchmark.storage;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import com.jstarcraft.core.common.identification.IdentityObject;
+import com.jstarcraft.core.storage.StorageAccessor;
+import com.jstarcraft.core.storage.berkeley.BerkeleyAccessor;
+import com.jstarcraft.core.storage.berkeley.entity.Pack;
+import com.jstarcraft.core.storage.hibernate.HibernateAccessor;
+import com.jstarcraft.core.storage.lucene.LuceneAccessor;
+import com.jstarcraft.core.storage.mongo.MongoAccessor;
+import com.jstarcraft.core.storage.mybatis.MyBatisAccessor;
+
+/**
+ * 存储环境
+ *
+ * <pre>
+ * 每个环境复用存储模块测试的Spring配置与实体,全部在本地运行(H2,Berkeley JE,Lucene,嵌入式Mongo).
+ * 所有环境的实体都有一个取值为id % 10的索引字段,保证不同访问器的查询选择度相同.
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+public enum StorageEnvironment {
+
+    LUCENE("com/jstarcraft/core/storage/lucene/LuceneAccessorTestCase-context.xml", LuceneAccessor.class, com.jstarcraft.core.storage.lucene.MockObject.class, "money") {
+
+        @Override
+        IdentityObject<?> instanceOf(int id, int value) {
+            return com.jstarcraft.core.storage.lucene.MockObject.instanceOf(id, "birdy", "mickey", value, Instant.EPOCH, com.jstarcraft.core.storage.lucene.MockEnumeration.RANDOM);
+        }
+
+    },
+
+    BERKELEY("com/jstarcraft/core/storage/berkeley/BerkeleyAccessorTestCase-context.xml", BerkeleyAccessor.class, Pack.class, "size") {
+
+        @Override
+        Comparable<?> getKey(int id) {
+            return Long.valueOf(id);
+        }
+
+        @Override
+        IdentityObject<?> instanceOf(int id, int value) {
+            return new Pack(id, value, null);
+        }
+
+    },
+
+    HIBERNATE("com/jstarcraft/core/storage/hibernate/HibernateAccessorTestCase-context.xml", HibernateAccessor.class, com.jstarcraft.core.storage.hibernate.MockObject.class, "money") {
+
+        @Override
+        IdentityObject<?> instanceOf(int id, int value) {
+            return com.jstarcraft.core.storage.hibernate.MockObject.instanceOf(id, "birdy", "mickey", value, LocalDateTime.of(2010, 1, 1, 0, 0, 0), com.jstarcraft.core.storage.hibernate.MockEnumeration.RANDOM);
+        }
+
+    },
+
+    MYBATIS("com/jstarcraft/core/storage/mybatis/MyBatisAccessorTestCase-context.xml", MyBatisAccessor.class, com.jstarcraft.core.storage.mybatis.MockObject.class, "money") {
+
+        @Override
+        IdentityObject<?> instanceOf(int id, int value) {
+            return com.jstarcraft.core.storage.mybatis.MockObject.instanceOf(id, "birdy", "mickey", value, com.jstarcraft.core.storage.mybatis.MockEnumeration.RANDOM);
+        }
+
+    },
+
+    MONGO("com/jstarcraft/core/storage/mongo/MongoAccessorTestCase-context.xml", MongoAccessor.class, com.jstarcraft.core.storage.mongo.MockObject.class, "money") {
+
+        @Override
+        IdentityObject<?> instanceOf(int id, int value) {
+            return com.jstarcraft.core.storage.mongo.MockObject.instanceOf(id, "birdy", "mickey", value, Instant.EPOCH, com.jstarcraft.core.storage.mongo.MockEnumeration.RANDOM);
+        }
+
+    };
+
+    /** Spring配置 */
+    private final String configuration;
+
+    /** 访问器类型 */
+    private final Class<? extends StorageAccessor> accessorClass;
+
+    /** 实体类型 */
+    private final Class<? extends IdentityObject<?>> ormClass;
+
+    /** 索引字段 */
+    private final String indexName;
+
+    private StorageEnvironment(String configuration, Class<? extends StorageAccessor> accessorClass, Class<? extends IdentityObject<?>> ormClass, String indexName) {
+        this.configuration = configuration;
+        this.accessorClass = accessorClass;
+        this.ormClass = ormClass;
+        this.indexName = indexName;
+    }
+
+    String getConfiguration() {
+        return configuration;
+    }
+
+    Class<? extends StorageAccessor> getAccessorClass() {
+        return accessorClass;
+    }
+
+    Class<? extends IdentityObject<?>> getOrmClass() {
+        return ormClass;
+    }
+
+    String getIndexName() {
+        return indexName;
+    }
+
+    /**
+     * 获取主键
+     *
+     * @param id
+     * @return
+     */
+    Comparable<?> getKey(int id) {
+        return Integer.valueOf(id);
+    }
+
+    /**
+     * 获取索引值
+     *
+     * @param id
+     * @return
+     */
+    int getValue(int id) {
+        return id % 10;
+    }
+
+    /**
+     * 创建实体
+     *
+     * @param id
+     * @param value
+     *            索引值
+     * @return
+     */
+    abstract IdentityObject<?> instanceOf(int id, int value);
+
+}
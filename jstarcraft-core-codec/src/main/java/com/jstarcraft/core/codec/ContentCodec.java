@@ -3,10 +3,19 @@ package com.jstarcraft.core.codec;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+
+import com.jstarcraft.core.common.io.ByteBufferInputStream;
+import com.jstarcraft.core.common.io.ByteBufferOutputStream;
 
 /**
  * 消息内容编解码器
  * 
+ * <pre>
+ * ByteBuffer方法直接读写缓冲(包括直接内存与Netty的ByteBuf.nioBuffer()视图),不会复制为中间的byte[].
+ * 解码读取buffer从position到limit的内容,编码从position开始写入,两者都会推进buffer的position.
+ * </pre>
+ * 
  * @author Birdy
  */
 public interface ContentCodec {
@@ -47,4 +56,30 @@ public interface ContentCodec {
      */
     void encode(Type type, Object content, OutputStream stream);
 
+    /**
+     * 解码内容
+     * 
+     * @param type
+     * @param buffer
+     * @return
+     */
+    default Object decode(Type type, ByteBuffer buffer) {
+        return decode(type, new ByteBufferInputStream(buffer));
+    }
+
+    /**
+     * 编码内容
+     * 
+     * <pre>
+     * buffer剩余空间不足时抛出异常.
+     * </pre>
+     * 
+     * @param type
+     * @param content
+     * @param buffer
+     */
+    default void encode(Type type, Object content, ByteBuffer buffer) {
+        encode(type, content, new ByteBufferOutputStream(buffer));
+    }
+
 }
@@ -0,0 +1,27 @@
+package com.jstarcraft.core.codec.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Protobuf字段
+ * 
+ * <pre>
+ * 指定属性的Protobuf字段编号(默认根据属性名称的哈希值计算编号,参考ProtobufDefinition).
+ * 字段模式标注在字段上,方法模式标注在Getter上.
+ * </pre>
+ * 
+ * @author Birdy
+ */
+@Target({ ElementType.METHOD, ElementType.FIELD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ProtobufField {
+
+    /**
+     * 字段编号
+     */
+    int value();
+
+}
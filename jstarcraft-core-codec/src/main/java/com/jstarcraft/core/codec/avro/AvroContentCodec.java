@@ -9,14 +9,19 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 
 import org.apache.avro.Schema;
 import org.apache.avro.data.TimeConversions.TimestampMillisConversion;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
 import org.apache.avro.io.Encoder;
+import org.apache.avro.io.EncoderFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,6 +37,13 @@ import com.jstarcraft.core.codec.specification.CodecDefinition;
 /**
  * Avro编解码器
  * 
+ * <pre>
+ * 按照类型缓存(可空的)Schema与DatumReader/DatumWriter(线程安全,可以复用).
+ * 没有指定编解码器工厂时使用二进制格式,并且每个线程复用BinaryDecoder/BinaryEncoder.
+ * 从字节流解码时使用不预读的DirectBinaryDecoder,保证流中后续的消息不会被读走.
+ * 解码完成之后复用的解码器指向空内容,不再引用调用方的数组或者字节流.
+ * </pre>
+ * 
  * @author Yue Zhen Wei
  *
  */
@@ -39,6 +51,21 @@ public class AvroContentCodec implements ContentCodec {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AvroContentCodec.class);
 
+    /** 空内容(解码完成之后复用的解码器指向空内容) */
+    private static final byte[] EMPTY = new byte[0];
+
+    private class AvroHolder {
+
+        /** 字节数组解码器 */
+        private BinaryDecoder decoder;
+
+        /** 字节流解码器(不预读) */
+        private BinaryDecoder directDecoder;
+
+        private BinaryEncoder encoder;
+
+    }
+
     private CodecDefinition codecDefinition;
 
     private BiFunction<Schema, InputStream, Decoder> decoderFactory;
@@ -47,6 +74,34 @@ public class AvroContentCodec implements ContentCodec {
 
     private AvroData utility;
 
+    /** 类型与Schema映射 */
+    private ConcurrentHashMap<Type, Schema> schemas = new ConcurrentHashMap<>();
+
+    /** 类型与读取器映射 */
+    private ConcurrentHashMap<Type, DatumReader<Object>> readers = new ConcurrentHashMap<>();
+
+    /** 类型与写入器映射 */
+    private ConcurrentHashMap<Type, DatumWriter<Object>> writers = new ConcurrentHashMap<>();
+
+    private ThreadLocal<AvroHolder> threadHolder = new ThreadLocal<AvroHolder>() {
+
+        @Override
+        protected AvroHolder initialValue() {
+            AvroHolder holder = new AvroHolder();
+            return holder;
+        }
+
+    };
+
+    /**
+     * 使用二进制格式
+     * 
+     * @param codecDefinition
+     */
+    public AvroContentCodec(CodecDefinition codecDefinition) {
+        this(codecDefinition, null, null);
+    }
+
     public AvroContentCodec(CodecDefinition codecDefinition, BiFunction<Schema, InputStream, Decoder> decoderFactory, BiFunction<Schema, OutputStream, Encoder> encoderFactory) {
         this.codecDefinition = codecDefinition;
         this.decoderFactory = decoderFactory;
@@ -68,8 +123,57 @@ public class AvroContentCodec implements ContentCodec {
         this.utility.addLogicalTypeConversion(new TypeConversion(WildcardType.class, "wildcard-type"));
     }
 
+    private Schema getSchema(Type type) {
+        Schema schema = schemas.get(type);
+        if (schema == null) {
+            schema = utility.getSchema(type);
+            schema = utility.makeNullable(schema);
+            schemas.putIfAbsent(type, schema);
+        }
+        return schema;
+    }
+
+    private DatumReader<Object> getReader(Type type) {
+        DatumReader<Object> reader = readers.get(type);
+        if (reader == null) {
+            reader = new AvroDatumReader<>(getSchema(type), utility);
+            DatumReader<Object> current = readers.putIfAbsent(type, reader);
+            if (current != null) {
+                reader = current;
+            }
+        }
+        return reader;
+    }
+
+    private DatumWriter<Object> getWriter(Type type) {
+        DatumWriter<Object> writer = writers.get(type);
+        if (writer == null) {
+            writer = new AvroDatumWriter<>(getSchema(type), utility);
+            DatumWriter<Object> current = writers.putIfAbsent(type, writer);
+            if (current != null) {
+                writer = current;
+            }
+        }
+        return writer;
+    }
+
     @Override
     public Object decode(Type type, byte[] content) {
+        if (decoderFactory == null) {
+            try {
+                DatumReader<Object> reader = getReader(type);
+                AvroHolder holder = threadHolder.get();
+                BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(content, holder.decoder);
+                try {
+                    return reader.read(null, decoder);
+                } finally {
+                    holder.decoder = DecoderFactory.get().binaryDecoder(EMPTY, decoder);
+                }
+            } catch (Exception exception) {
+                String message = "Avro解码失败:" + exception.getMessage();
+                throw new CodecException(message, exception);
+            }
+        }
         try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(content)) {
             return decode(type, byteArrayInputStream);
         } catch (Exception exception) {
@@ -81,10 +185,17 @@ public class AvroContentCodec implements ContentCodec {
     @Override
     public Object decode(Type type, InputStream stream) {
         try {
-            Schema schema = utility.getSchema(type);
-            schema = utility.makeNullable(schema);
-            DatumReader reader = new AvroDatumReader(schema, utility);
-            Decoder decoder = decoderFactory.apply(schema, stream);
+            DatumReader<Object> reader = getReader(type);
+            if (decoderFactory == null) {
+                AvroHolder holder = threadHolder.get();
+                BinaryDecoder decoder = DecoderFactory.get().directBinaryDecoder(stream, holder.directDecoder);
+                try {
+                    return reader.read(null, decoder);
+                } finally {
+                    holder.directDecoder = DecoderFactory.get().directBinaryDecoder(new ByteArrayInputStream(EMPTY), decoder);
+                }
+            }
+            Decoder decoder = decoderFactory.apply(getSchema(type), stream);
             return reader.read(null, decoder);
         } catch (Exception exception) {
             String message = "Avro解码失败:" + exception.getMessage();
@@ -108,10 +219,15 @@ public class AvroContentCodec implements ContentCodec {
     @Override
     public void encode(Type type, Object content, OutputStream stream) {
         try {
-            Schema schema = utility.getSchema(type);
-            schema = utility.makeNullable(schema);
-            DatumWriter writer = new AvroDatumWriter(schema, utility);
-            Encoder encoder = encoderFactory.apply(schema, stream);
+            DatumWriter<Object> writer = getWriter(type);
+            Encoder encoder;
+            if (encoderFactory == null) {
+                AvroHolder holder = threadHolder.get();
+                holder.encoder = EncoderFactory.get().binaryEncoder(stream, holder.encoder);
+                encoder = holder.encoder;
+            } else {
+                encoder = encoderFactory.apply(getSchema(type), stream);
+            }
             writer.write(content, encoder);
             encoder.flush();
         } catch (Exception exception) {
@@ -3,6 +3,7 @@ package com.jstarcraft.core.codec.cbor;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,6 +16,7 @@ import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.jstarcraft.core.codec.ContentCodec;
 import com.jstarcraft.core.codec.exception.CodecException;
+import com.jstarcraft.core.codec.json.JacksonUtility;
 import com.jstarcraft.core.common.conversion.json.JsonUtility;
 import com.jstarcraft.core.common.conversion.json.TypeJacksonDeserializer;
 import com.jstarcraft.core.common.conversion.json.TypeJacksonSerializer;
@@ -77,6 +79,17 @@ public class CborContentCodec implements ContentCodec {
         }
     }
 
+    @Override
+    public Object decode(Type type, ByteBuffer buffer) {
+        try {
+            return JacksonUtility.buffer2Object(typeConverter, type, buffer);
+        } catch (Exception exception) {
+            String message = "CBOR解码异常";
+            LOGGER.error(message, exception);
+            throw new CodecException(message, exception);
+        }
+    }
+
     @Override
     public byte[] encode(Type type, Object content) {
         try {
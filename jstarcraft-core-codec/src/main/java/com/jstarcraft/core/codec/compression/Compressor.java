@@ -0,0 +1,36 @@
+package com.jstarcraft.core.codec.compression;
+
+/**
+ * 压缩器
+ * 
+ * <pre>
+ * 在调用线程上同步压缩/解压,实现必须是线程安全的.
+ * 压缩结果必须自描述(解压时不需要额外提供原始长度).
+ * 解压的数据可能来自网络,实现必须限制解压以后的最大长度,超过时抛出CodecException.
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ */
+public interface Compressor {
+
+    /** 默认解压最大长度(16MB) */
+    int DEFAULT_MAXIMUM = 16 * 1024 * 1024;
+
+    /**
+     * 压缩
+     * 
+     * @param content
+     * @return
+     */
+    byte[] compress(byte[] content);
+
+    /**
+     * 解压
+     * 
+     * @param content
+     * @return
+     */
+    byte[] decompress(byte[] content);
+
+}
@@ -0,0 +1,149 @@
+package com.jstarcraft.core.codec.compression;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.jstarcraft.core.codec.exception.CodecException;
+import com.jstarcraft.core.utility.StringUtility;
+
+/**
+ * Deflate压缩器(zlib格式)
+ * 
+ * <pre>
+ * 与PressUtility.zip/unzip的格式一致.
+ * 每个线程持有独立的Deflater/Inflater以及可以复用的缓冲,使用之后重置而不是销毁.
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ */
+public class DeflateCompressor implements Compressor {
+
+    /** 缓冲初始容量 */
+    private static final int BUFFER_SIZE = 1024;
+
+    /** 缓冲保留容量(超过时丢弃,避免个别大数据长期占用内存) */
+    private static final int BUFFER_LIMIT = 1024 * 1024;
+
+    private class DeflateHolder {
+
+        private final Deflater deflater;
+
+        private final Inflater inflater;
+
+        private byte[] buffer;
+
+        private DeflateHolder() {
+            this.deflater = new Deflater(level);
+            this.inflater = new Inflater();
+            this.buffer = new byte[BUFFER_SIZE];
+        }
+
+        private void keepBuffer(byte[] buffer) {
+            this.buffer = buffer.length > BUFFER_LIMIT ? new byte[BUFFER_SIZE] : buffer;
+        }
+
+    }
+
+    /** 压缩等级 */
+    private final int level;
+
+    /** 解压最大长度 */
+    private final int maximum;
+
+    private final ThreadLocal<DeflateHolder> threadHolder = new ThreadLocal<DeflateHolder>() {
+
+        @Override
+        protected DeflateHolder initialValue() {
+            DeflateHolder holder = new DeflateHolder();
+            return holder;
+        }
+
+    };
+
+    /**
+     * 
+     * @param level
+     *            压缩等级(0-9)
+     */
+    public DeflateCompressor(int level) {
+        this(level, DEFAULT_MAXIMUM);
+    }
+
+    /**
+     * 
+     * @param level
+     *            压缩等级(0-9)
+     * @param maximum
+     *            解压最大长度
+     */
+    public DeflateCompressor(int level, int maximum) {
+        if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            String message = StringUtility.format("非法的压缩等级[{}]", level);
+            throw new IllegalArgumentException(message);
+        }
+        if (maximum < 0) {
+            String message = StringUtility.format("非法的解压最大长度[{}]", maximum);
+            throw new IllegalArgumentException(message);
+        }
+        this.level = level;
+        this.maximum = maximum;
+    }
+
+    @Override
+    public byte[] compress(byte[] content) {
+        DeflateHolder holder = threadHolder.get();
+        Deflater deflater = holder.deflater;
+        byte[] buffer = holder.buffer;
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            int size = 0;
+            while (!deflater.finished()) {
+                if (size == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                size += deflater.deflate(buffer, size, buffer.length - size);
+            }
+            return Arrays.copyOf(buffer, size);
+        } finally {
+            deflater.reset();
+            holder.keepBuffer(buffer);
+        }
+    }
+
+    @Override
+    public byte[] decompress(byte[] content) {
+        DeflateHolder holder = threadHolder.get();
+        Inflater inflater = holder.inflater;
+        byte[] buffer = holder.buffer;
+        try {
+            inflater.setInput(content);
+            int size = 0;
+            while (!inflater.finished()) {
+                if (size == buffer.length) {
+                    // 缓冲最多比最大长度多1个字节,用于判断是否超过最大长度
+                    buffer = Arrays.copyOf(buffer, (int) Math.min(buffer.length * 2L, Math.min(maximum + 1L, Integer.MAX_VALUE - 8)));
+                }
+                int count = inflater.inflate(buffer, size, buffer.length - size);
+                if (count == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new CodecException("Deflate解压失败:数据不完整");
+                }
+                size += count;
+                if (size > maximum) {
+                    String message = StringUtility.format("Deflate解压失败:原始长度超过最大长度[{}]", maximum);
+                    throw new CodecException(message);
+                }
+            }
+            return Arrays.copyOf(buffer, size);
+        } catch (DataFormatException exception) {
+            throw new CodecException("Deflate解压失败:" + exception.getMessage(), exception);
+        } finally {
+            inflater.reset();
+            holder.keepBuffer(buffer);
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.jstarcraft.core.codec.compression;
+
+import com.jstarcraft.core.codec.exception.CodecException;
+
+import com.jstarcraft.core.utility.StringUtility;
+
+import net.jpountz.lz4.LZ4CompressorWithLength;
+import net.jpountz.lz4.LZ4DecompressorWithLength;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+/**
+ * LZ4压缩器
+ * 
+ * <pre>
+ * 使用LZ4块格式,并且在块之前记录原始长度.
+ * 优先使用lz4-java自带的本地库,不可用时退化为纯Java实现.
+ * 压缩率低于Deflate,但是压缩/解压速度快一个数量级.
+ * 解压使用安全解压器(会校验输入的边界),因为解压的数据可能来自网络.
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ */
+public class Lz4Compressor implements Compressor {
+
+    private final LZ4CompressorWithLength compressor;
+
+    private final LZ4SafeDecompressor decompressor;
+
+    /** 解压最大长度 */
+    private final int maximum;
+
+    public Lz4Compressor() {
+        this(0);
+    }
+
+    /**
+     * 
+     * @param level
+     *            压缩等级(0为快速压缩,1-17为高压缩率压缩)
+     */
+    public Lz4Compressor(int level) {
+        this(level, DEFAULT_MAXIMUM);
+    }
+
+    /**
+     * 
+     * @param level
+     *            压缩等级(0为快速压缩,1-17为高压缩率压缩)
+     * @param maximum
+     *            解压最大长度
+     */
+    public Lz4Compressor(int level, int maximum) {
+        if (maximum < 0) {
+            String message = StringUtility.format("非法的解压最大长度[{}]", maximum);
+            throw new IllegalArgumentException(message);
+        }
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = new LZ4CompressorWithLength(level == 0 ? factory.fastCompressor() : factory.highCompressor(level));
+        this.decompressor = factory.safeDecompressor();
+        this.maximum = maximum;
+    }
+
+    @Override
+    public byte[] compress(byte[] content) {
+        return compressor.compress(content);
+    }
+
+    @Override
+    public byte[] decompress(byte[] content) {
+        try {
+            // 与LZ4CompressorWithLength的格式一致:4个字节(小端)的原始长度+LZ4块
+            if (content.length < 4) {
+                throw new CodecException("LZ4解压失败:数据不完整");
+            }
+            int size = LZ4DecompressorWithLength.getDecompressedLength(content);
+            if (size < 0 || size > maximum) {
+                String message = StringUtility.format("LZ4解压失败:原始长度[{}]无效或者超过最大长度[{}]", size, maximum);
+                throw new CodecException(message);
+            }
+            byte[] data = new byte[size];
+            int count = decompressor.decompress(content, 4, content.length - 4, data, 0);
+            if (count != size) {
+                String message = StringUtility.format("LZ4解压失败:原始长度[{}]与解压长度[{}]不一致", size, count);
+                throw new CodecException(message);
+            }
+            return data;
+        } catch (LZ4Exception exception) {
+            throw new CodecException("LZ4解压失败:" + exception.getMessage(), exception);
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.jstarcraft.core.codec.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdException;
+import com.jstarcraft.core.codec.exception.CodecException;
+import com.jstarcraft.core.utility.StringUtility;
+
+/**
+ * Zstandard压缩器
+ * 
+ * <pre>
+ * 使用zstd-jni自带的本地库,压缩帧中记录原始长度.
+ * 压缩率接近甚至超过Deflate,同时速度快数倍.
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ */
+public class ZstdCompressor implements Compressor {
+
+    /** 压缩等级 */
+    private final int level;
+
+    /** 解压最大长度 */
+    private final int maximum;
+
+    public ZstdCompressor() {
+        this(3);
+    }
+
+    /**
+     * 
+     * @param level
+     *            压缩等级(1-22)
+     */
+    public ZstdCompressor(int level) {
+        this(level, DEFAULT_MAXIMUM);
+    }
+
+    /**
+     * 
+     * @param level
+     *            压缩等级(1-22)
+     * @param maximum
+     *            解压最大长度
+     */
+    public ZstdCompressor(int level, int maximum) {
+        if (maximum < 0) {
+            String message = StringUtility.format("非法的解压最大长度[{}]", maximum);
+            throw new IllegalArgumentException(message);
+        }
+        this.level = level;
+        this.maximum = maximum;
+    }
+
+    @Override
+    public byte[] compress(byte[] content) {
+        return Zstd.compress(content, level);
+    }
+
+    @Override
+    public byte[] decompress(byte[] content) {
+        try {
+            long size = Zstd.decompressedSize(content);
+            if (size < 0 || size > maximum) {
+                String message = StringUtility.format("Zstd解压失败:原始长度[{}]无效或者超过最大长度[{}]", size, maximum);
+                throw new CodecException(message);
+            }
+            return Zstd.decompress(content, (int) size);
+        } catch (ZstdException exception) {
+            throw new CodecException("Zstd解压失败:" + exception.getMessage(), exception);
+        }
+    }
+
+}
@@ -16,11 +16,114 @@ import com.jstarcraft.core.utility.StringUtility;
 /**
  * 数组转换器
  * 
+ * <pre>
+ * 数值与布尔的原始类型数组直接读写元素文本,不经过装箱与元素转换器(格式与元素转换器一致).
+ * </pre>
+ * 
  * @author Birdy
  *
  */
 public class ArrayConverter implements CsvConverter<Object> {
 
+    /**
+     * 读取原始类型数组(char[]除外)
+     * 
+     * @param in
+     * @param clazz
+     * @param length
+     * @return 不支持的类型返回null
+     */
+    private static Object readPrimitive(Iterator<String> in, Class<?> clazz, int length) {
+        if (clazz == boolean.class) {
+            boolean[] instance = new boolean[length];
+            for (int index = 0; index < length; index++) {
+                instance[index] = in.next().equals(BooleanConverter.TRUE);
+            }
+            return instance;
+        } else if (clazz == byte.class) {
+            byte[] instance = new byte[length];
+            for (int index = 0; index < length; index++) {
+                instance[index] = Byte.parseByte(in.next());
+            }
+            return instance;
+        } else if (clazz == short.class) {
+            short[] instance = new short[length];
+            for (int index = 0; index < length; index++) {
+                instance[index] = Short.parseShort(in.next());
+            }
+            return instance;
+        } else if (clazz == int.class) {
+            int[] instance = new int[length];
+            for (int index = 0; index < length; index++) {
+                instance[index] = Integer.parseInt(in.next());
+            }
+            return instance;
+        } else if (clazz == long.class) {
+            long[] instance = new long[length];
+            for (int index = 0; index < length; index++) {
+                instance[index] = Long.parseLong(in.next());
+            }
+            return instance;
+        } else if (clazz == float.class) {
+            float[] instance = new float[length];
+            for (int index = 0; index < length; index++) {
+                instance[index] = Float.parseFloat(in.next());
+            }
+            return instance;
+        } else if (clazz == double.class) {
+            double[] instance = new double[length];
+            for (int index = 0; index < length; index++) {
+                instance[index] = Double.parseDouble(in.next());
+            }
+            return instance;
+        }
+        return null;
+    }
+
+    /**
+     * 写出原始类型数组(char[]除外)
+     * 
+     * @param out
+     * @param clazz
+     * @param instance
+     * @return 不支持的类型返回false
+     * @throws Exception
+     */
+    private static boolean writePrimitive(CSVPrinter out, Class<?> clazz, Object instance) throws Exception {
+        if (clazz == boolean.class) {
+            for (boolean element : (boolean[]) instance) {
+                out.print(element ? BooleanConverter.TRUE : BooleanConverter.FALSE);
+            }
+        } else if (clazz == byte.class) {
+            for (byte element : (byte[]) instance) {
+                out.print(Byte.toString(element));
+            }
+        } else if (clazz == short.class) {
+            for (short element : (short[]) instance) {
+                out.print(Short.toString(element));
+            }
+        } else if (clazz == int.class) {
+            for (int element : (int[]) instance) {
+                out.print(Integer.toString(element));
+            }
+        } else if (clazz == long.class) {
+            for (long element : (long[]) instance) {
+                out.print(Long.toString(element));
+            }
+        } else if (clazz == float.class) {
+            for (float element : (float[]) instance) {
+                out.print(Float.toString(element));
+            }
+        } else if (clazz == double.class) {
+            for (double element : (double[]) instance) {
+                out.print(Double.toString(element));
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
     @Override
     public Object readValueFrom(CsvReader context, Type type) throws Exception {
         // TODO 处理null
@@ -41,7 +144,11 @@ public class ArrayConverter implements CsvConverter<Object> {
             componentType = clazz.getComponentType();
             componentClass = clazz.getComponentType();
         }
-        Object instance = Array.newInstance(componentClass, length);
+        Object instance = readPrimitive(in, componentClass, length);
+        if (instance != null) {
+            return instance;
+        }
+        instance = Array.newInstance(componentClass, length);
         Specification specification = Specification.getSpecification(componentClass);
         CsvConverter converter = context.getCsvConverter(specification);
         for (int index = 0; index < length; index++) {
@@ -72,6 +179,9 @@ public class ArrayConverter implements CsvConverter<Object> {
         }
         int length = Array.getLength(instance);
         out.print(length);
+        if (writePrimitive(out, componentClass, instance)) {
+            return;
+        }
         Specification specification = Specification.getSpecification(componentClass);
         CsvConverter converter = context.getCsvConverter(specification);
         for (int index = 0; index < length; index++) {
@@ -0,0 +1,60 @@
+package com.jstarcraft.core.codec.json;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jstarcraft.core.common.conversion.json.JsonUtility;
+import com.jstarcraft.core.common.io.ByteBufferInputStream;
+import com.jstarcraft.core.common.reflection.Specification;
+
+/**
+ * Jackson工具
+ *
+ * <pre>
+ * 供基于ObjectMapper的编解码器(JSON,CBOR,Ion,MessagePack,YAML)共用.
+ * </pre>
+ *
+ * @author Birdy
+ */
+public class JacksonUtility {
+
+    private static JavaType getJava(Type type) {
+        Specification specification = Specification.getSpecification(type);
+        if (Specification.TYPE == specification) {
+            return JsonUtility.type2Java(Type.class);
+        } else {
+            return JsonUtility.type2Java(type);
+        }
+    }
+
+    /**
+     * 从缓冲解码内容
+     *
+     * <pre>
+     * 堆内缓冲直接解析底层数组,直接内存通过ByteBufferInputStream读取.
+     * 读取buffer从position到limit的内容,完成后推进buffer的position.
+     * </pre>
+     *
+     * @param mapper
+     * @param type
+     * @param buffer
+     * @return
+     * @throws IOException
+     */
+    public static Object buffer2Object(ObjectMapper mapper, Type type, ByteBuffer buffer) throws IOException {
+        JavaType java = getJava(type);
+        if (!buffer.hasArray()) {
+            return mapper.readValue(new ByteBufferInputStream(buffer), java);
+        }
+        byte[] content = buffer.array();
+        int offset = buffer.arrayOffset() + buffer.position();
+        int length = buffer.remaining();
+        Object value = mapper.readValue(content, offset, length, java);
+        buffer.position(buffer.limit());
+        return value;
+    }
+
+}
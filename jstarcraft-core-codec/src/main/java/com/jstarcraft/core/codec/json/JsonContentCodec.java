@@ -3,6 +3,7 @@ package com.jstarcraft.core.codec.json;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -79,6 +80,17 @@ public class JsonContentCodec implements ContentCodec {
         }
     }
 
+    @Override
+    public Object decode(Type type, ByteBuffer buffer) {
+        try {
+            return JacksonUtility.buffer2Object(typeConverter, type, buffer);
+        } catch (Exception exception) {
+            String message = "JSON解码异常";
+            LOGGER.error(message, exception);
+            throw new CodecException(message, exception);
+        }
+    }
+
     @Override
     public byte[] encode(Type type, Object content) {
         try {
@@ -4,11 +4,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Array;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
+import com.esotericsoftware.kryo.io.ByteBufferOutput;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import com.jstarcraft.core.codec.ContentCodec;
@@ -21,15 +24,65 @@ import com.jstarcraft.core.common.reflection.TypeUtility;
 /**
  * Kryo格式编解码器
  * 
+ * <pre>
+ * Kryo实例不是线程安全的,每个线程持有独立的Kryo以及可以复用的Input/Output缓冲.
+ * </pre>
+ * 
  * @author Birdy
  */
 public class KryoContentCodec implements ContentCodec {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(KryoContentCodec.class);
 
+    /** 缓冲初始容量 */
+    private static final int BUFFER_SIZE = 1024;
+
+    /** 缓冲保留容量(超过时丢弃,避免个别大对象长期占用内存) */
+    private static final int BUFFER_LIMIT = 1024 * 1024;
+
+    private static final byte[] EMPTY = new byte[] {};
+
+    private class KryoHolder {
+
+        private final Kryo kryo;
+
+        /** 字节数组输入(直接包装字节数组) */
+        private final Input arrayInput;
+
+        /** 输入流输入 */
+        private final Input streamInput;
+
+        /** 字节数组输出 */
+        private Output arrayOutput;
+
+        /** 输出流输出 */
+        private final Output streamOutput;
+
+        private KryoHolder() {
+            this.kryo = getKryo();
+            this.arrayInput = new Input();
+            this.streamInput = new Input(BUFFER_SIZE);
+            this.arrayOutput = new Output(BUFFER_SIZE, -1);
+            this.streamOutput = new Output(BUFFER_SIZE);
+        }
+
+    }
+
     private final CodecDefinition codecDefinition;
 
-    private final Kryo kryo;
+    private final boolean registration;
+
+    private final int dimension;
+
+    private final ThreadLocal<KryoHolder> threadHolder = new ThreadLocal<KryoHolder>() {
+
+        @Override
+        protected KryoHolder initialValue() {
+            KryoHolder holder = new KryoHolder();
+            return holder;
+        }
+
+    };
 
     public KryoContentCodec(CodecDefinition definition) {
         this(true, 5, definition);
@@ -37,11 +90,16 @@ public class KryoContentCodec implements ContentCodec {
 
     public KryoContentCodec(boolean registration, int dimension, CodecDefinition definition) {
         this.codecDefinition = definition;
+        this.registration = registration;
+        this.dimension = dimension;
+    }
+
+    private Kryo getKryo() {
         Kryo kryo = new Kryo();
         kryo.setReferences(true);
         kryo.setRegistrationRequired(registration);
         if (registration) {
-            for (ClassDefinition classDefinition : definition.getClassDefinitions()) {
+            for (ClassDefinition classDefinition : codecDefinition.getClassDefinitions()) {
                 Class<?> clazz = classDefinition.getType();
                 if (clazz == void.class || clazz == Void.class) {
                     // TODO
@@ -63,7 +121,34 @@ public class KryoContentCodec implements ContentCodec {
                 }
             }
         }
-        this.kryo = kryo;
+        return kryo;
+    }
+
+    private Object readValue(Kryo kryo, Type type, Input input) {
+        Specification specification = Specification.getSpecification(type);
+        if (specification == Specification.TYPE) {
+            Type value = TypeUtility.string2Type(kryo.readObject(input, String.class));
+            return value;
+        } else {
+            if (kryo.isRegistrationRequired()) {
+                return kryo.readObject(input, TypeUtility.getRawType(type, null));
+            } else {
+                return kryo.readClassAndObject(input);
+            }
+        }
+    }
+
+    private void writeValue(Kryo kryo, Type type, Object content, Output output) {
+        Specification specification = Specification.getSpecification(type);
+        if (specification == Specification.TYPE) {
+            kryo.writeObject(output, TypeUtility.type2String((Type) content));
+        } else {
+            if (kryo.isRegistrationRequired()) {
+                kryo.writeObject(output, content);
+            } else {
+                kryo.writeClassAndObject(output, content);
+            }
+        }
     }
 
     @Override
@@ -71,42 +156,52 @@ public class KryoContentCodec implements ContentCodec {
         if (content.length == 0) {
             return null;
         }
-        try (Input byteBufferInput = new Input(content)) {
-            Specification specification = Specification.getSpecification(type);
-            if (specification == Specification.TYPE) {
-                Type value = TypeUtility.string2Type(kryo.readObject(byteBufferInput, String.class));
-                return value;
-            } else {
-                if (kryo.isRegistrationRequired()) {
-                    return kryo.readObject(byteBufferInput, TypeUtility.getRawType(type, null));
-                } else {
-                    return kryo.readClassAndObject(byteBufferInput);
-                }
-            }
+        KryoHolder holder = threadHolder.get();
+        Input input = holder.arrayInput;
+        try {
+            input.setBuffer(content);
+            return readValue(holder.kryo, type, input);
         } catch (Exception exception) {
             String message = "Kryo解码异常";
             LOGGER.error(message, exception);
             throw new CodecException(message, exception);
+        } finally {
+            // 释放字节数组的引用
+            input.setBuffer(EMPTY);
         }
     }
 
     @Override
     public Object decode(Type type, InputStream stream) {
-        try (Input byteBufferInput = new Input(stream)) {
+        KryoHolder holder = threadHolder.get();
+        Input input = holder.streamInput;
+        try {
+            input.setInputStream(stream);
             if (stream.available() == 0) {
                 return null;
             }
-            Specification specification = Specification.getSpecification(type);
-            if (specification == Specification.TYPE) {
-                Type value = TypeUtility.string2Type(kryo.readObject(byteBufferInput, String.class));
-                return value;
-            } else {
-                if (kryo.isRegistrationRequired()) {
-                    return kryo.readObject(byteBufferInput, TypeUtility.getRawType(type, null));
-                } else {
-                    return kryo.readClassAndObject(byteBufferInput);
-                }
-            }
+            return readValue(holder.kryo, type, input);
+        } catch (Exception exception) {
+            String message = "Kryo解码异常";
+            LOGGER.error(message, exception);
+            throw new CodecException(message, exception);
+        } finally {
+            input.close();
+            input.setInputStream(null);
+        }
+    }
+
+    @Override
+    public Object decode(Type type, ByteBuffer buffer) {
+        if (!buffer.hasRemaining()) {
+            return null;
+        }
+        KryoHolder holder = threadHolder.get();
+        try {
+            ByteBufferInput byteBufferInput = new ByteBufferInput(buffer);
+            Object value = readValue(holder.kryo, type, byteBufferInput);
+            buffer.position(byteBufferInput.position());
+            return value;
         } catch (Exception exception) {
             String message = "Kryo解码异常";
             LOGGER.error(message, exception);
@@ -119,44 +214,55 @@ public class KryoContentCodec implements ContentCodec {
         if (content == null) {
             return new byte[] {};
         }
-        try (Output byteBufferOutput = new Output(1024, -1)) {
-            Specification specification = Specification.getSpecification(type);
-            if (specification == Specification.TYPE) {
-                kryo.writeObject(byteBufferOutput, TypeUtility.type2String((Type) content));
-                byte[] value = byteBufferOutput.toBytes();
-                return value;
-            } else {
-                if (kryo.isRegistrationRequired()) {
-                    kryo.writeObject(byteBufferOutput, content);
-                    return byteBufferOutput.toBytes();
-                } else {
-                    kryo.writeClassAndObject(byteBufferOutput, content);
-                    return byteBufferOutput.toBytes();
-                }
-            }
+        KryoHolder holder = threadHolder.get();
+        Output output = holder.arrayOutput;
+        try {
+            output.clear();
+            writeValue(holder.kryo, type, content, output);
+            return output.toBytes();
         } catch (Exception exception) {
             String message = "Kryo编码异常";
             LOGGER.error(message, exception);
             throw new CodecException(message, exception);
+        } finally {
+            if (output.getBuffer().length > BUFFER_LIMIT) {
+                holder.arrayOutput = new Output(BUFFER_SIZE, -1);
+            }
         }
     }
 
     @Override
     public void encode(Type type, Object content, OutputStream stream) {
-        try (Output byteBufferOutput = new Output(stream)) {
+        KryoHolder holder = threadHolder.get();
+        Output output = holder.streamOutput;
+        try {
+            output.setOutputStream(stream);
             if (content == null) {
                 return;
             }
-            Specification specification = Specification.getSpecification(type);
-            if (specification == Specification.TYPE) {
-                kryo.writeObject(byteBufferOutput, TypeUtility.type2String((Type) content));
-            } else {
-                if (kryo.isRegistrationRequired()) {
-                    kryo.writeObject(byteBufferOutput, content);
-                } else {
-                    kryo.writeClassAndObject(byteBufferOutput, content);
-                }
-            }
+            writeValue(holder.kryo, type, content, output);
+        } catch (Exception exception) {
+            String message = "Kryo编码异常";
+            LOGGER.error(message, exception);
+            throw new CodecException(message, exception);
+        } finally {
+            output.close();
+            output.setOutputStream(null);
+        }
+    }
+
+    @Override
+    public void encode(Type type, Object content, ByteBuffer buffer) {
+        if (content == null) {
+            return;
+        }
+        KryoHolder holder = threadHolder.get();
+        try {
+            // ByteBufferOutput以capacity为上限,通过切片限制写入不超过limit
+            ByteBuffer slice = buffer.slice().order(buffer.order());
+            ByteBufferOutput byteBufferOutput = new ByteBufferOutput(slice);
+            writeValue(holder.kryo, type, content, byteBufferOutput);
+            buffer.position(buffer.position() + byteBufferOutput.position());
         } catch (Exception exception) {
             String message = "Kryo编码异常";
             LOGGER.error(message, exception);
@@ -3,6 +3,7 @@ package com.jstarcraft.core.codec.msgpack;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 import java.math.BigDecimal;
 
 import org.msgpack.jackson.dataformat.MessagePackFactory;
@@ -16,6 +17,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.jstarcraft.core.codec.ContentCodec;
 import com.jstarcraft.core.codec.exception.CodecException;
+import com.jstarcraft.core.codec.json.JacksonUtility;
 import com.jstarcraft.core.codec.specification.CodecDefinition;
 import com.jstarcraft.core.common.conversion.json.BigDecimalJacksonDeserializer;
 import com.jstarcraft.core.common.conversion.json.BigDecimalJacksonSerializer;
@@ -86,6 +88,17 @@ public class MessagePackContentCodec implements ContentCodec {
         }
     }
 
+    @Override
+    public Object decode(Type type, ByteBuffer buffer) {
+        try {
+            return JacksonUtility.buffer2Object(typeConverter, type, buffer);
+        } catch (Exception exception) {
+            String message = "MessagePack解码异常";
+            LOGGER.error(message, exception);
+            throw new CodecException(message, exception);
+        }
+    }
+
     @Override
     public byte[] encode(Type type, Object content) {
         try {
@@ -0,0 +1,130 @@
+package com.jstarcraft.core.codec.protobuf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.jstarcraft.core.codec.ContentCodec;
+import com.jstarcraft.core.codec.exception.CodecException;
+import com.jstarcraft.core.codec.protobuf.converter.ObjectConverter;
+import com.jstarcraft.core.codec.protobuf.converter.ProtobufContext;
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+import com.jstarcraft.core.codec.specification.CodecDefinition;
+import com.jstarcraft.core.common.reflection.Specification;
+import com.jstarcraft.core.common.reflection.TypeUtility;
+
+/**
+ * Protobuf格式的编解码器
+ * 
+ * <pre>
+ * 不需要.proto生成的类,字段编号由{@link ProtobufDefinition}根据{@link CodecDefinition}分配.
+ * 对象直接编码为消息,可以与同样编号的.proto消息互通;
+ * 其它类型(以及无法用字段表达的null元素与嵌套容器)编码为只有字段1的值消息.
+ * null编码为空内容,空内容解码为null.
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ */
+public class ProtobufContentCodec implements ContentCodec {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProtobufContentCodec.class);
+
+    private CodecDefinition codecDefinition;
+
+    private ProtobufDefinition protobufDefinition;
+
+    public ProtobufContentCodec(CodecDefinition codecDefinition) {
+        this.codecDefinition = codecDefinition;
+        this.protobufDefinition = new ProtobufDefinition(codecDefinition);
+    }
+
+    private Object decode(Type type, CodedInputStream input) throws Exception {
+        ProtobufContext context = new ProtobufContext(codecDefinition, protobufDefinition, input);
+        Specification specification = Specification.getSpecification(type);
+        ClassDefinition classDefinition = codecDefinition.getClassDefinition(TypeUtility.getRawType(type, null));
+        if (specification == Specification.OBJECT) {
+            ObjectConverter converter = (ObjectConverter) context.getProtobufConverter(specification);
+            return converter.readMessage(context, classDefinition);
+        } else {
+            return context.readValue(type, classDefinition);
+        }
+    }
+
+    private void encode(Type type, Object content, CodedOutputStream output) throws Exception {
+        ProtobufContext context = new ProtobufContext(codecDefinition, protobufDefinition, output);
+        Specification specification = Specification.getSpecification(type);
+        ClassDefinition classDefinition = codecDefinition.getClassDefinition(TypeUtility.getRawType(type, null));
+        if (specification == Specification.OBJECT) {
+            ObjectConverter converter = (ObjectConverter) context.getProtobufConverter(specification);
+            converter.writeMessage(context, classDefinition, content);
+        } else {
+            context.writeValue(type, classDefinition, content);
+        }
+        output.flush();
+    }
+
+    @Override
+    public Object decode(Type type, byte[] content) {
+        if (content == null || content.length == 0) {
+            return null;
+        }
+        try {
+            return decode(type, CodedInputStream.newInstance(content));
+        } catch (Exception exception) {
+            String message = "Protobuf解码失败:" + exception.getMessage();
+            LOGGER.error(message, exception);
+            throw new CodecException(message, exception);
+        }
+    }
+
+    @Override
+    public Object decode(Type type, InputStream stream) {
+        try {
+            if (stream.available() == 0) {
+                return null;
+            }
+            return decode(type, CodedInputStream.newInstance(stream));
+        } catch (Exception exception) {
+            String message = "Protobuf解码失败:" + exception.getMessage();
+            LOGGER.error(message, exception);
+            throw new CodecException(message, exception);
+        }
+    }
+
+    @Override
+    public byte[] encode(Type type, Object content) {
+        if (content == null) {
+            return new byte[] {};
+        }
+        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
+            encode(type, content, byteArrayOutputStream);
+            return byteArrayOutputStream.toByteArray();
+        } catch (Exception exception) {
+            String message = "Protobuf编码失败:" + exception.getMessage();
+            LOGGER.error(message, exception);
+            throw new CodecException(message, exception);
+        }
+    }
+
+    @Override
+    public void encode(Type type, Object content, OutputStream stream) {
+        try {
+            if (content == null) {
+                return;
+            }
+            encode(type, content, CodedOutputStream.newInstance(stream));
+        } catch (Exception exception) {
+            String message = "Protobuf编码失败:" + exception.getMessage();
+            LOGGER.error(message, exception);
+            throw new CodecException(message, exception);
+        }
+    }
+
+}
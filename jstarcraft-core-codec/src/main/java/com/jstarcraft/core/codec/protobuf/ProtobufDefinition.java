@@ -0,0 +1,121 @@
+package com.jstarcraft.core.codec.protobuf;
+
+import java.lang.reflect.AnnotatedElement;
+
+import com.jstarcraft.core.codec.annotation.ProtobufField;
+import com.jstarcraft.core.codec.exception.CodecDefinitionException;
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+import com.jstarcraft.core.codec.specification.CodecDefinition;
+import com.jstarcraft.core.codec.specification.PropertyDefinition;
+import com.jstarcraft.core.common.reflection.Specification;
+import com.jstarcraft.core.utility.StringUtility;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+
+/**
+ * Protobuf定义
+ * 
+ * <pre>
+ * 为每个对象类型的属性分配字段编号,编号只取决于属性自身,增加或者删除其它属性不会改变已有属性的编号:
+ * 默认根据属性名称的哈希值(String.hashCode)计算编号,范围为[1,262143]并且跳过Protobuf保留的[19000,19999],
+ * 可以通过{@link ProtobufField}指定编号(例如与.proto消息互通或者需要更短的字段标签).
+ * 编号重复时抛出异常,此时需要通过{@link ProtobufField}为其中一个属性指定编号.
+ * 重命名属性会改变默认编号,需要兼容旧数据时应该通过{@link ProtobufField}保留原来的编号.
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ */
+public class ProtobufDefinition {
+
+    /** 最大字段编号 */
+    private static final int MAXIMUM_NUMBER = (1 << 29) - 1;
+
+    /** 默认字段编号的上限(字段标签不超过3个字节) */
+    private static final int DEFAULT_NUMBER = (1 << 18) - 1;
+
+    /** Protobuf保留字段编号的下限 */
+    private static final int RESERVED_MINIMUM = 19000;
+
+    /** Protobuf保留字段编号的上限 */
+    private static final int RESERVED_MAXIMUM = 19999;
+
+    /** 字段编号(按照类型代号索引) */
+    private final int[][] numbers;
+
+    /** 字段编号与属性索引的映射(按照类型代号索引) */
+    private final Int2IntOpenHashMap[] indexes;
+
+    public ProtobufDefinition(CodecDefinition definition) {
+        int size = 0;
+        for (ClassDefinition classDefinition : definition.getClassDefinitions()) {
+            size = Math.max(size, classDefinition.getCode());
+        }
+        this.numbers = new int[size + 1][];
+        this.indexes = new Int2IntOpenHashMap[size + 1];
+        for (ClassDefinition classDefinition : definition.getClassDefinitions()) {
+            if (classDefinition.getSpecification() != Specification.OBJECT) {
+                continue;
+            }
+            PropertyDefinition[] properties = classDefinition.getProperties();
+            int[] numbers = new int[properties.length];
+            Int2IntOpenHashMap indexes = new Int2IntOpenHashMap(properties.length);
+            indexes.defaultReturnValue(-1);
+            for (int index = 0; index < properties.length; index++) {
+                PropertyDefinition property = properties[index];
+                AnnotatedElement element = property.getGetter() != null ? property.getGetter() : property.getField();
+                ProtobufField annotation = element == null ? null : element.getAnnotation(ProtobufField.class);
+                int number = annotation == null ? getNumber(property.getName()) : annotation.value();
+                if (number < 1 || number > MAXIMUM_NUMBER || (number >= RESERVED_MINIMUM && number <= RESERVED_MAXIMUM)) {
+                    String message = StringUtility.format("类型[{}]属性[{}]的Protobuf字段编号[{}]无效", classDefinition.getName(), property.getName(), number);
+                    throw new CodecDefinitionException(message);
+                }
+                if (indexes.containsKey(number)) {
+                    String message = StringUtility.format("类型[{}]属性[{}]与属性[{}]的Protobuf字段编号[{}]冲突", classDefinition.getName(), property.getName(), properties[indexes.get(number)].getName(), number);
+                    throw new CodecDefinitionException(message);
+                }
+                numbers[index] = number;
+                indexes.put(number, index);
+            }
+            this.numbers[classDefinition.getCode()] = numbers;
+            this.indexes[classDefinition.getCode()] = indexes;
+        }
+    }
+
+    /**
+     * 根据属性名称计算默认字段编号
+     * 
+     * @param name
+     * @return
+     */
+    static int getNumber(String name) {
+        int reserved = RESERVED_MAXIMUM - RESERVED_MINIMUM + 1;
+        int number = Math.floorMod(name.hashCode(), DEFAULT_NUMBER - reserved) + 1;
+        if (number >= RESERVED_MINIMUM) {
+            number += reserved;
+        }
+        return number;
+    }
+
+    /**
+     * 获取类型的字段编号(按照属性顺序)
+     * 
+     * @param definition
+     * @return
+     */
+    public int[] getNumbers(ClassDefinition definition) {
+        return numbers[definition.getCode()];
+    }
+
+    /**
+     * 获取字段编号对应的属性索引
+     * 
+     * @param definition
+     * @param number
+     * @return 不存在时为-1
+     */
+    public int getIndex(ClassDefinition definition, int number) {
+        return indexes[definition.getCode()].get(number);
+    }
+
+}
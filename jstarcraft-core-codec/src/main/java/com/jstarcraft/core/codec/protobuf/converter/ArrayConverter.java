@@ -0,0 +1,214 @@
+package com.jstarcraft.core.codec.protobuf.converter;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+import com.jstarcraft.core.common.reflection.TypeUtility;
+
+import it.unimi.dsi.fastutil.booleans.BooleanArrayList;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+/**
+ * 数组转换器
+ * 
+ * <pre>
+ * byte[]对应bytes.
+ * 其它原始类型数组对应packed的重复字段,读取时兼容未packed的元素.
+ * 引用类型数组对应值消息的重复字段,使null元素与嵌套数组可以表达.
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ */
+public class ArrayConverter extends ProtobufConverter<Object> {
+
+    private void readElement(CodedInputStream input, Class<?> clazz, Object instance) throws Exception {
+        if (clazz == boolean.class) {
+            ((BooleanArrayList) instance).add(input.readBool());
+        } else if (clazz == char.class || clazz == short.class || clazz == int.class) {
+            ((IntArrayList) instance).add(input.readInt32());
+        } else if (clazz == long.class) {
+            ((LongArrayList) instance).add(input.readInt64());
+        } else if (clazz == float.class) {
+            ((FloatArrayList) instance).add(input.readFloat());
+        } else {
+            ((DoubleArrayList) instance).add(input.readDouble());
+        }
+    }
+
+    private Object getElements(Class<?> clazz) {
+        if (clazz == boolean.class) {
+            return new BooleanArrayList();
+        } else if (clazz == char.class || clazz == short.class || clazz == int.class) {
+            return new IntArrayList();
+        } else if (clazz == long.class) {
+            return new LongArrayList();
+        } else if (clazz == float.class) {
+            return new FloatArrayList();
+        } else {
+            return new DoubleArrayList();
+        }
+    }
+
+    @Override
+    public Object readValueFrom(ProtobufContext context, int wireType, Type type, ClassDefinition definition, Object instance) throws Exception {
+        CodedInputStream input = context.getInputStream();
+        Class<?> clazz = TypeUtility.getRawType(type, null);
+        clazz = clazz.getComponentType();
+        if (clazz == byte.class) {
+            return input.readByteArray();
+        }
+        if (clazz.isPrimitive()) {
+            if (instance == null) {
+                instance = getElements(clazz);
+            }
+            if (wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                // packed
+                int limit = context.beginLimit(wireType);
+                while (input.getBytesUntilLimit() > 0) {
+                    readElement(input, clazz, instance);
+                }
+                context.endLimit(limit);
+            } else {
+                readElement(input, clazz, instance);
+            }
+        } else {
+            if (instance == null) {
+                instance = new ArrayList<>();
+            }
+            definition = context.getClassDefinition(clazz);
+            ((ArrayList) instance).add(context.readElement(wireType, clazz, definition));
+        }
+        return instance;
+    }
+
+    @Override
+    public void writeValueTo(ProtobufContext context, int number, Type type, ClassDefinition definition, Object instance) throws Exception {
+        CodedOutputStream output = context.getOutputStream();
+        Class<?> clazz = TypeUtility.getRawType(type, null);
+        clazz = clazz.getComponentType();
+        if (clazz == byte.class) {
+            output.writeByteArray(number, (byte[]) instance);
+        } else if (clazz == boolean.class) {
+            boolean[] array = (boolean[]) instance;
+            output.writeTag(number, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(array.length);
+            for (boolean element : array) {
+                output.writeBoolNoTag(element);
+            }
+        } else if (clazz == char.class) {
+            char[] array = (char[]) instance;
+            int size = 0;
+            for (char element : array) {
+                size += CodedOutputStream.computeInt32SizeNoTag(element);
+            }
+            output.writeTag(number, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(size);
+            for (char element : array) {
+                output.writeInt32NoTag(element);
+            }
+        } else if (clazz == short.class) {
+            short[] array = (short[]) instance;
+            int size = 0;
+            for (short element : array) {
+                size += CodedOutputStream.computeInt32SizeNoTag(element);
+            }
+            output.writeTag(number, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(size);
+            for (short element : array) {
+                output.writeInt32NoTag(element);
+            }
+        } else if (clazz == int.class) {
+            int[] array = (int[]) instance;
+            int size = 0;
+            for (int element : array) {
+                size += CodedOutputStream.computeInt32SizeNoTag(element);
+            }
+            output.writeTag(number, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(size);
+            for (int element : array) {
+                output.writeInt32NoTag(element);
+            }
+        } else if (clazz == long.class) {
+            long[] array = (long[]) instance;
+            int size = 0;
+            for (long element : array) {
+                size += CodedOutputStream.computeInt64SizeNoTag(element);
+            }
+            output.writeTag(number, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(size);
+            for (long element : array) {
+                output.writeInt64NoTag(element);
+            }
+        } else if (clazz == float.class) {
+            float[] array = (float[]) instance;
+            output.writeTag(number, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(array.length * 4);
+            for (float element : array) {
+                output.writeFloatNoTag(element);
+            }
+        } else if (clazz == double.class) {
+            double[] array = (double[]) instance;
+            output.writeTag(number, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(array.length * 8);
+            for (double element : array) {
+                output.writeDoubleNoTag(element);
+            }
+        } else {
+            definition = context.getClassDefinition(clazz);
+            int size = Array.getLength(instance);
+            for (int index = 0; index < size; index++) {
+                context.writeElement(number, clazz, definition, Array.get(instance, index));
+            }
+        }
+    }
+
+    @Override
+    public Object completeValue(Type type, ClassDefinition definition, Object instance) {
+        Class<?> clazz = TypeUtility.getRawType(type, null);
+        clazz = clazz.getComponentType();
+        if (clazz == byte.class) {
+            return instance;
+        } else if (clazz == boolean.class) {
+            return ((BooleanArrayList) instance).toBooleanArray();
+        } else if (clazz == char.class) {
+            IntArrayList elements = (IntArrayList) instance;
+            char[] array = new char[elements.size()];
+            for (int index = 0; index < array.length; index++) {
+                array[index] = (char) elements.getInt(index);
+            }
+            return array;
+        } else if (clazz == short.class) {
+            IntArrayList elements = (IntArrayList) instance;
+            short[] array = new short[elements.size()];
+            for (int index = 0; index < array.length; index++) {
+                array[index] = (short) elements.getInt(index);
+            }
+            return array;
+        } else if (clazz == int.class) {
+            return ((IntArrayList) instance).toIntArray();
+        } else if (clazz == long.class) {
+            return ((LongArrayList) instance).toLongArray();
+        } else if (clazz == float.class) {
+            return ((FloatArrayList) instance).toFloatArray();
+        } else if (clazz == double.class) {
+            return ((DoubleArrayList) instance).toDoubleArray();
+        } else {
+            ArrayList<?> elements = (ArrayList<?>) instance;
+            Object array = Array.newInstance(clazz, elements.size());
+            for (int index = 0, size = elements.size(); index < size; index++) {
+                Array.set(array, index, elements.get(index));
+            }
+            return array;
+        }
+    }
+
+}
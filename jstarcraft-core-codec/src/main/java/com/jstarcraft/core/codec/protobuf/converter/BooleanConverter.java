@@ -0,0 +1,37 @@
+package com.jstarcraft.core.codec.protobuf.converter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+
+/**
+ * 布尔转换器(bool)
+ * 
+ * @author Birdy
+ *
+ */
+public class BooleanConverter extends ProtobufConverter<Object> {
+
+    @Override
+    public Object readValueFrom(ProtobufContext context, int wireType, Type type, ClassDefinition definition, Object instance) throws IOException {
+        boolean value = context.getInputStream().readBool();
+        if (type == AtomicBoolean.class) {
+            return new AtomicBoolean(value);
+        }
+        return value;
+    }
+
+    @Override
+    public void writeValueTo(ProtobufContext context, int number, Type type, ClassDefinition definition, Object instance) throws IOException {
+        boolean value;
+        if (type == AtomicBoolean.class) {
+            value = ((AtomicBoolean) instance).get();
+        } else {
+            value = (Boolean) instance;
+        }
+        context.getOutputStream().writeBool(number, value);
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.jstarcraft.core.codec.protobuf.converter;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+import com.jstarcraft.core.common.reflection.TypeUtility;
+
+/**
+ * 集合转换器
+ * 
+ * <pre>
+ * 集合对应值消息的重复字段,使null元素与嵌套集合可以表达.
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ */
+public class CollectionConverter extends ProtobufConverter<Collection<?>> {
+
+    @Override
+    public Object readValueFrom(ProtobufContext context, int wireType, Type type, ClassDefinition definition, Object instance) throws Exception {
+        Collection collection = (Collection) instance;
+        if (collection == null) {
+            collection = (Collection) definition.getInstance();
+        }
+        // 兼容UniMi
+        type = TypeUtility.refineType(type, Collection.class);
+        ParameterizedType parameterizedType = (ParameterizedType) type;
+        Type[] types = parameterizedType.getActualTypeArguments();
+        Type elementType = types[0];
+        definition = context.getClassDefinition(TypeUtility.getRawType(elementType, null));
+        collection.add(context.readElement(wireType, elementType, definition));
+        return collection;
+    }
+
+    @Override
+    public void writeValueTo(ProtobufContext context, int number, Type type, ClassDefinition definition, Collection<?> instance) throws Exception {
+        // 兼容UniMi
+        type = TypeUtility.refineType(type, Collection.class);
+        ParameterizedType parameterizedType = (ParameterizedType) type;
+        Type[] types = parameterizedType.getActualTypeArguments();
+        Type elementType = types[0];
+        definition = context.getClassDefinition(TypeUtility.getRawType(elementType, null));
+        for (Object element : instance) {
+            context.writeElement(number, elementType, definition, element);
+        }
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.jstarcraft.core.codec.protobuf.converter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+import com.jstarcraft.core.common.reflection.TypeUtility;
+
+/**
+ * 枚举转换器(enum,按照序号编码)
+ * 
+ * @author Birdy
+ *
+ */
+public class EnumerationConverter extends ProtobufConverter<Enum<?>> {
+
+    @Override
+    public Object readValueFrom(ProtobufContext context, int wireType, Type type, ClassDefinition definition, Object instance) throws IOException {
+        int ordinal = context.getInputStream().readEnum();
+        Class<?> clazz = TypeUtility.getRawType(type, null);
+        return clazz.getEnumConstants()[ordinal];
+    }
+
+    @Override
+    public void writeValueTo(ProtobufContext context, int number, Type type, ClassDefinition definition, Enum<?> instance) throws IOException {
+        context.getOutputStream().writeEnum(number, instance.ordinal());
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.jstarcraft.core.codec.protobuf.converter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.Date;
+
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+
+/**
+ * 时间转换器(int64,毫秒)
+ * 
+ * @author Birdy
+ *
+ */
+public class InstantConverter extends ProtobufConverter<Object> {
+
+    @Override
+    public Object readValueFrom(ProtobufContext context, int wireType, Type type, ClassDefinition definition, Object instance) throws IOException {
+        long time = context.getInputStream().readInt64();
+        if (type == Date.class) {
+            return new Date(time);
+        } else {
+            return Instant.ofEpochMilli(time);
+        }
+    }
+
+    @Override
+    public void writeValueTo(ProtobufContext context, int number, Type type, ClassDefinition definition, Object instance) throws IOException {
+        long time;
+        if (type == Date.class) {
+            time = ((Date) instance).getTime();
+        } else {
+            time = ((Instant) instance).toEpochMilli();
+        }
+        context.getOutputStream().writeInt64(number, time);
+    }
+
+}
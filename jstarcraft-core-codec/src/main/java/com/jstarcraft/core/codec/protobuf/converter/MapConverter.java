@@ -0,0 +1,101 @@
+package com.jstarcraft.core.codec.protobuf.converter;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+import com.jstarcraft.core.common.reflection.Specification;
+import com.jstarcraft.core.common.reflection.TypeUtility;
+
+/**
+ * 映射转换器
+ * 
+ * <pre>
+ * 与Protobuf的map字段一致,映射对应条目消息的重复字段,条目消息的键为字段1,值为字段2(null不写出).
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ */
+public class MapConverter extends ProtobufConverter<Map<Object, Object>> {
+
+    /** 键的字段编号 */
+    private static final int KEY_NUMBER = 1;
+
+    /** 值的字段编号 */
+    private static final int VALUE_NUMBER = 2;
+
+    @Override
+    public Object readValueFrom(ProtobufContext context, int wireType, Type type, ClassDefinition definition, Object instance) throws Exception {
+        Map map = (Map) instance;
+        if (map == null) {
+            map = (Map) definition.getInstance();
+        }
+        // 兼容UniMi
+        type = TypeUtility.refineType(type, Map.class);
+        ParameterizedType parameterizedType = (ParameterizedType) type;
+        Type[] types = parameterizedType.getActualTypeArguments();
+        Type keyType = types[0];
+        Type valueType = types[1];
+        ProtobufConverter keyConverter = context.getProtobufConverter(Specification.getSpecification(keyType));
+        ProtobufConverter valueConverter = context.getProtobufConverter(Specification.getSpecification(valueType));
+        ClassDefinition keyDefinition = context.getClassDefinition(TypeUtility.getRawType(keyType, null));
+        ClassDefinition valueDefinition = context.getClassDefinition(TypeUtility.getRawType(valueType, null));
+        CodedInputStream input = context.getInputStream();
+        Object key = null;
+        Object value = null;
+        int limit = context.beginLimit(wireType);
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+            case KEY_NUMBER:
+                key = keyConverter.readValueFrom(context, WireFormat.getTagWireType(tag), keyType, keyDefinition, key);
+                break;
+            case VALUE_NUMBER:
+                value = valueConverter.readValueFrom(context, WireFormat.getTagWireType(tag), valueType, valueDefinition, value);
+                break;
+            default:
+                input.skipField(tag);
+            }
+        }
+        context.endLimit(limit);
+        if (key != null) {
+            key = keyConverter.completeValue(keyType, keyDefinition, key);
+        }
+        if (value != null) {
+            value = valueConverter.completeValue(valueType, valueDefinition, value);
+        }
+        map.put(key, value);
+        return map;
+    }
+
+    @Override
+    public void writeValueTo(ProtobufContext context, int number, Type type, ClassDefinition definition, Map<Object, Object> instance) throws Exception {
+        // 兼容UniMi
+        type = TypeUtility.refineType(type, Map.class);
+        ParameterizedType parameterizedType = (ParameterizedType) type;
+        Type[] types = parameterizedType.getActualTypeArguments();
+        Type keyType = types[0];
+        Type valueType = types[1];
+        ProtobufConverter keyConverter = context.getProtobufConverter(Specification.getSpecification(keyType));
+        ProtobufConverter valueConverter = context.getProtobufConverter(Specification.getSpecification(valueType));
+        ClassDefinition keyDefinition = context.getClassDefinition(TypeUtility.getRawType(keyType, null));
+        ClassDefinition valueDefinition = context.getClassDefinition(TypeUtility.getRawType(valueType, null));
+        for (Entry<Object, Object> entry : instance.entrySet()) {
+            context.beginMessage();
+            Object key = entry.getKey();
+            if (key != null) {
+                keyConverter.writeValueTo(context, KEY_NUMBER, keyType, keyDefinition, key);
+            }
+            Object value = entry.getValue();
+            if (value != null) {
+                valueConverter.writeValueTo(context, VALUE_NUMBER, valueType, valueDefinition, value);
+            }
+            context.endMessage(number);
+        }
+    }
+
+}
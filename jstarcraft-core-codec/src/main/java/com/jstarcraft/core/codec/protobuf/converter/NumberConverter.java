@@ -0,0 +1,74 @@
+package com.jstarcraft.core.codec.protobuf.converter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.jstarcraft.core.codec.exception.CodecConvertionException;
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+
+/**
+ * 数值转换器
+ * 
+ * <pre>
+ * byte/short/int(AtomicInteger)对应int32,long(AtomicLong)对应int64,
+ * float对应float,double对应double,BigInteger/BigDecimal对应string.
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ */
+public class NumberConverter extends ProtobufConverter<Number> {
+
+    @Override
+    public Object readValueFrom(ProtobufContext context, int wireType, Type type, ClassDefinition definition, Object instance) throws IOException {
+        CodedInputStream in = context.getInputStream();
+        if (type == Byte.class || type == byte.class) {
+            return (byte) in.readInt32();
+        } else if (type == Short.class || type == short.class) {
+            return (short) in.readInt32();
+        } else if (type == Integer.class || type == int.class) {
+            return in.readInt32();
+        } else if (type == AtomicInteger.class) {
+            return new AtomicInteger(in.readInt32());
+        } else if (type == Long.class || type == long.class) {
+            return in.readInt64();
+        } else if (type == AtomicLong.class) {
+            return new AtomicLong(in.readInt64());
+        } else if (type == Float.class || type == float.class) {
+            return in.readFloat();
+        } else if (type == Double.class || type == double.class) {
+            return in.readDouble();
+        } else if (type == BigInteger.class) {
+            return new BigInteger(in.readString());
+        } else if (type == BigDecimal.class) {
+            return new BigDecimal(in.readString());
+        } else {
+            throw new CodecConvertionException();
+        }
+    }
+
+    @Override
+    public void writeValueTo(ProtobufContext context, int number, Type type, ClassDefinition definition, Number instance) throws IOException {
+        CodedOutputStream out = context.getOutputStream();
+        if (type == Byte.class || type == byte.class || type == Short.class || type == short.class || type == Integer.class || type == int.class || type == AtomicInteger.class) {
+            out.writeInt32(number, instance.intValue());
+        } else if (type == Long.class || type == long.class || type == AtomicLong.class) {
+            out.writeInt64(number, instance.longValue());
+        } else if (type == Float.class || type == float.class) {
+            out.writeFloat(number, instance.floatValue());
+        } else if (type == Double.class || type == double.class) {
+            out.writeDouble(number, instance.doubleValue());
+        } else if (type == BigInteger.class || type == BigDecimal.class) {
+            out.writeString(number, instance.toString());
+        } else {
+            throw new CodecConvertionException();
+        }
+    }
+
+}
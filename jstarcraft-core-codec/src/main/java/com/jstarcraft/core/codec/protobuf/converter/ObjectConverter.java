@@ -0,0 +1,118 @@
+package com.jstarcraft.core.codec.protobuf.converter;
+
+import java.lang.reflect.Type;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import com.jstarcraft.core.codec.exception.CodecConvertionException;
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+import com.jstarcraft.core.codec.specification.PropertyDefinition;
+import com.jstarcraft.core.utility.StringUtility;
+
+/**
+ * 对象转换器(嵌套消息)
+ * 
+ * <pre>
+ * 属性按照{@link com.jstarcraft.core.codec.protobuf.ProtobufDefinition}的字段编号写出,null属性不写出.
+ * 未知的字段编号会被跳过,便于协议演进.
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ */
+public class ObjectConverter extends ProtobufConverter<Object> {
+
+    /**
+     * 读取消息(读取到当前限制为止)
+     * 
+     * @param context
+     * @param definition
+     * @return
+     * @throws Exception
+     */
+    public Object readMessage(ProtobufContext context, ClassDefinition definition) throws Exception {
+        Object instance;
+        try {
+            instance = definition.getInstance();
+        } catch (Exception exception) {
+            String message = StringUtility.format("获取类型[{}]实例异常", definition.getName());
+            throw new CodecConvertionException(message, exception);
+        }
+        CodedInputStream input = context.getInputStream();
+        PropertyDefinition[] properties = definition.getProperties();
+        // 重复字段需要合并,所以属性值在读取完毕之后再赋值
+        Object[] values = new Object[properties.length];
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            int index = context.getIndex(definition, WireFormat.getTagFieldNumber(tag));
+            if (index == -1) {
+                input.skipField(tag);
+                continue;
+            }
+            PropertyDefinition property = properties[index];
+            ProtobufConverter converter = context.getProtobufConverter(property.getSpecification());
+            ClassDefinition propertyDefinition = context.getClassDefinition(property.getCode());
+            values[index] = converter.readValueFrom(context, WireFormat.getTagWireType(tag), property.getType(), propertyDefinition, values[index]);
+        }
+        for (int index = 0; index < properties.length; index++) {
+            Object value = values[index];
+            if (value == null) {
+                continue;
+            }
+            PropertyDefinition property = properties[index];
+            ProtobufConverter converter = context.getProtobufConverter(property.getSpecification());
+            ClassDefinition propertyDefinition = context.getClassDefinition(property.getCode());
+            value = converter.completeValue(property.getType(), propertyDefinition, value);
+            try {
+                property.setValue(instance, value);
+            } catch (Exception exception) {
+                String message = StringUtility.format("赋值[{}]实例属性[{}]异常", definition.getName(), property.getName());
+                throw new CodecConvertionException(message, exception);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 写出消息(不包括标签与长度)
+     * 
+     * @param context
+     * @param definition
+     * @param instance
+     * @throws Exception
+     */
+    public void writeMessage(ProtobufContext context, ClassDefinition definition, Object instance) throws Exception {
+        PropertyDefinition[] properties = definition.getProperties();
+        int[] numbers = context.getNumbers(definition);
+        for (int index = 0; index < properties.length; index++) {
+            PropertyDefinition property = properties[index];
+            Object value;
+            try {
+                value = property.getValue(instance);
+            } catch (Exception exception) {
+                String message = StringUtility.format("取值[{}]实例属性[{}]异常", definition.getName(), property.getName());
+                throw new CodecConvertionException(message, exception);
+            }
+            if (value != null) {
+                ProtobufConverter converter = context.getProtobufConverter(property.getSpecification());
+                ClassDefinition propertyDefinition = context.getClassDefinition(property.getCode());
+                converter.writeValueTo(context, numbers[index], property.getType(), propertyDefinition, value);
+            }
+        }
+    }
+
+    @Override
+    public Object readValueFrom(ProtobufContext context, int wireType, Type type, ClassDefinition definition, Object instance) throws Exception {
+        int limit = context.beginLimit(wireType);
+        instance = readMessage(context, definition);
+        context.endLimit(limit);
+        return instance;
+    }
+
+    @Override
+    public void writeValueTo(ProtobufContext context, int number, Type type, ClassDefinition definition, Object instance) throws Exception {
+        context.beginMessage();
+        writeMessage(context, definition, instance);
+        context.endMessage(number);
+    }
+
+}
@@ -0,0 +1,244 @@
+package com.jstarcraft.core.codec.protobuf.converter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.EnumMap;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.jstarcraft.core.codec.exception.CodecConvertionException;
+import com.jstarcraft.core.codec.protobuf.ProtobufDefinition;
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+import com.jstarcraft.core.codec.specification.CodecDefinition;
+import com.jstarcraft.core.common.reflection.Specification;
+import com.jstarcraft.core.utility.StringUtility;
+
+/**
+ * 协议上下文
+ *
+ * <pre>
+ * 值消息:只有字段1的消息,没有字段1代表null.
+ * 用于根内容(对象除外),引用类型的数组/集合元素,使null元素与嵌套容器可以表达.
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+public class ProtobufContext {
+
+    /** 值消息的字段编号 */
+    public static final int VALUE_NUMBER = 1;
+
+    protected static final EnumMap<Specification, ProtobufConverter<?>> converters = new EnumMap<>(Specification.class);
+
+    static {
+        converters.put(Specification.ARRAY, new ArrayConverter());
+        converters.put(Specification.BOOLEAN, new BooleanConverter());
+        converters.put(Specification.COLLECTION, new CollectionConverter());
+        converters.put(Specification.ENUMERATION, new EnumerationConverter());
+        converters.put(Specification.MAP, new MapConverter());
+        converters.put(Specification.NUMBER, new NumberConverter());
+        converters.put(Specification.OBJECT, new ObjectConverter());
+        converters.put(Specification.STRING, new StringConverter());
+        converters.put(Specification.INSTANT, new InstantConverter());
+        converters.put(Specification.TYPE, new TypeConverter());
+        converters.put(Specification.VOID, new VoidConverter());
+    }
+
+    /** 嵌套消息缓冲 */
+    private static class ProtobufBuffer extends ByteArrayOutputStream {
+
+        private byte[] getBuffer() {
+            return buf;
+        }
+
+    }
+
+    /** 协议定义 */
+    private final CodecDefinition definition;
+
+    /** 字段编号定义 */
+    private final ProtobufDefinition protobuf;
+
+    private final CodedInputStream input;
+
+    /** 输出(按照嵌套深度索引,0为根输出) */
+    private final ArrayList<CodedOutputStream> outputs;
+
+    /** 嵌套消息缓冲(按照嵌套深度索引,0为null) */
+    private final ArrayList<ProtobufBuffer> buffers;
+
+    /** 嵌套深度 */
+    private int depth;
+
+    public ProtobufContext(CodecDefinition definition, ProtobufDefinition protobuf, CodedInputStream input) {
+        this.definition = definition;
+        this.protobuf = protobuf;
+        this.input = input;
+        this.outputs = null;
+        this.buffers = null;
+    }
+
+    public ProtobufContext(CodecDefinition definition, ProtobufDefinition protobuf, CodedOutputStream output) {
+        this.definition = definition;
+        this.protobuf = protobuf;
+        this.input = null;
+        this.outputs = new ArrayList<>();
+        this.outputs.add(output);
+        this.buffers = new ArrayList<>();
+        this.buffers.add(null);
+    }
+
+    public ProtobufConverter getProtobufConverter(Specification specification) {
+        ProtobufConverter converter = converters.get(specification);
+        return converter;
+    }
+
+    protected ClassDefinition getClassDefinition(int index) {
+        return definition.getClassDefinition(index);
+    }
+
+    protected ClassDefinition getClassDefinition(Class<?> clazz) {
+        return definition.getClassDefinition(clazz);
+    }
+
+    protected int[] getNumbers(ClassDefinition definition) {
+        return protobuf.getNumbers(definition);
+    }
+
+    protected int getIndex(ClassDefinition definition, int number) {
+        return protobuf.getIndex(definition, number);
+    }
+
+    public CodedInputStream getInputStream() {
+        return input;
+    }
+
+    public CodedOutputStream getOutputStream() {
+        return outputs.get(depth);
+    }
+
+    /**
+     * 开始嵌套消息(长度限定的字段需要先写长度,所以嵌套消息先写到缓冲)
+     *
+     * @return
+     */
+    protected CodedOutputStream beginMessage() {
+        depth++;
+        if (depth == outputs.size()) {
+            ProtobufBuffer buffer = new ProtobufBuffer();
+            buffers.add(buffer);
+            outputs.add(CodedOutputStream.newInstance(buffer));
+        } else {
+            buffers.get(depth).reset();
+        }
+        return outputs.get(depth);
+    }
+
+    /**
+     * 结束嵌套消息(作为指定字段写到上一层)
+     *
+     * @param number
+     * @throws IOException
+     */
+    protected void endMessage(int number) throws IOException {
+        outputs.get(depth).flush();
+        ProtobufBuffer buffer = buffers.get(depth);
+        depth--;
+        CodedOutputStream output = outputs.get(depth);
+        output.writeTag(number, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(buffer.size());
+        output.writeRawBytes(buffer.getBuffer(), 0, buffer.size());
+    }
+
+    /**
+     * 开始读取长度限定的字段
+     *
+     * @param wireType
+     * @return 之前的限制
+     * @throws IOException
+     */
+    protected int beginLimit(int wireType) throws IOException {
+        if (wireType != WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+            String message = StringUtility.format("线路类型[{}]不是长度限定", wireType);
+            throw new CodecConvertionException(message);
+        }
+        int length = input.readRawVarint32();
+        return input.pushLimit(length);
+    }
+
+    protected void endLimit(int limit) {
+        input.popLimit(limit);
+    }
+
+    /**
+     * 读取值消息(读取到当前限制为止)
+     *
+     * @param type
+     * @param definition
+     * @return
+     * @throws Exception
+     */
+    public Object readValue(Type type, ClassDefinition definition) throws Exception {
+        ProtobufConverter converter = getProtobufConverter(Specification.getSpecification(type));
+        Object value = null;
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (WireFormat.getTagFieldNumber(tag) == VALUE_NUMBER) {
+                value = converter.readValueFrom(this, WireFormat.getTagWireType(tag), type, definition, value);
+            } else {
+                input.skipField(tag);
+            }
+        }
+        return value == null ? null : converter.completeValue(type, definition, value);
+    }
+
+    /**
+     * 写出值消息
+     *
+     * @param type
+     * @param definition
+     * @param value
+     * @throws Exception
+     */
+    public void writeValue(Type type, ClassDefinition definition, Object value) throws Exception {
+        if (value != null) {
+            ProtobufConverter converter = getProtobufConverter(Specification.getSpecification(type));
+            converter.writeValueTo(this, VALUE_NUMBER, type, definition, value);
+        }
+    }
+
+    /**
+     * 读取作为元素的值消息(长度限定)
+     *
+     * @param wireType
+     * @param type
+     * @param definition
+     * @return
+     * @throws Exception
+     */
+    protected Object readElement(int wireType, Type type, ClassDefinition definition) throws Exception {
+        int limit = beginLimit(wireType);
+        Object element = readValue(type, definition);
+        endLimit(limit);
+        return element;
+    }
+
+    /**
+     * 写出作为元素的值消息(长度限定)
+     *
+     * @param number
+     * @param type
+     * @param definition
+     * @param element
+     * @throws Exception
+     */
+    protected void writeElement(int number, Type type, ClassDefinition definition, Object element) throws Exception {
+        beginMessage();
+        writeValue(type, definition, element);
+        endMessage(number);
+    }
+
+}
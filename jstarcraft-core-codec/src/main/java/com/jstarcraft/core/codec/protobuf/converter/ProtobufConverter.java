@@ -0,0 +1,61 @@
+package com.jstarcraft.core.codec.protobuf.converter;
+
+import java.lang.reflect.Type;
+
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+
+/**
+ * 协议转换器
+ * 
+ * <pre>
+ * 重复字段(数组,集合与映射)的每次出现都会调用readValueFrom,并且传入之前读取的内容以便合并.
+ * 字段全部读取之后通过completeValue得到最终的内容.
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ * @param <T>
+ */
+public abstract class ProtobufConverter<T> {
+
+    /**
+     * 从指定上下文读取内容(字段标签已经读取)
+     * 
+     * @param context
+     * @param wireType
+     *            字段的线路类型
+     * @param type
+     * @param definition
+     * @param instance
+     *            同一字段之前读取的内容(第一次为null)
+     * @return
+     * @throws Exception
+     */
+    abstract public Object readValueFrom(ProtobufContext context, int wireType, Type type, ClassDefinition definition, Object instance) throws Exception;
+
+    /**
+     * 将指定内容(非null)写到上下文的指定字段
+     * 
+     * @param context
+     * @param number
+     *            字段编号
+     * @param type
+     * @param definition
+     * @param instance
+     * @throws Exception
+     */
+    abstract public void writeValueTo(ProtobufContext context, int number, Type type, ClassDefinition definition, T instance) throws Exception;
+
+    /**
+     * 完成读取(将合并的内容转换为最终的内容)
+     * 
+     * @param type
+     * @param definition
+     * @param instance
+     * @return
+     */
+    public Object completeValue(Type type, ClassDefinition definition, Object instance) {
+        return instance;
+    }
+
+}
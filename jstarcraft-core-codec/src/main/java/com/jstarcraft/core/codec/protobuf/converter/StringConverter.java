@@ -0,0 +1,30 @@
+package com.jstarcraft.core.codec.protobuf.converter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+
+/**
+ * 字符串转换器(string)
+ * 
+ * @author Birdy
+ *
+ */
+public class StringConverter extends ProtobufConverter<Object> {
+
+    @Override
+    public Object readValueFrom(ProtobufContext context, int wireType, Type type, ClassDefinition definition, Object instance) throws IOException {
+        String value = context.getInputStream().readString();
+        if (type == char.class || type == Character.class) {
+            return value.charAt(0);
+        }
+        return value;
+    }
+
+    @Override
+    public void writeValueTo(ProtobufContext context, int number, Type type, ClassDefinition definition, Object instance) throws IOException {
+        context.getOutputStream().writeString(number, instance.toString());
+    }
+
+}
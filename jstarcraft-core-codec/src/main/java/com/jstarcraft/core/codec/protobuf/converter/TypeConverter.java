@@ -0,0 +1,27 @@
+package com.jstarcraft.core.codec.protobuf.converter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+import com.jstarcraft.core.common.reflection.TypeUtility;
+
+/**
+ * 类型转换器(string)
+ * 
+ * @author Birdy
+ *
+ */
+public class TypeConverter extends ProtobufConverter<Type> {
+
+    @Override
+    public Object readValueFrom(ProtobufContext context, int wireType, Type type, ClassDefinition definition, Object instance) throws IOException {
+        return TypeUtility.string2Type(context.getInputStream().readString());
+    }
+
+    @Override
+    public void writeValueTo(ProtobufContext context, int number, Type type, ClassDefinition definition, Type instance) throws IOException {
+        context.getOutputStream().writeString(number, TypeUtility.type2String(instance));
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.jstarcraft.core.codec.protobuf.converter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+
+/**
+ * 未知转换器(不写出任何内容)
+ * 
+ * @author Birdy
+ *
+ */
+public class VoidConverter extends ProtobufConverter<Object> {
+
+    @Override
+    public Object readValueFrom(ProtobufContext context, int wireType, Type type, ClassDefinition definition, Object instance) throws IOException {
+        // 跳过只依赖线路类型(标签=编号<<3|线路类型)
+        context.getInputStream().skipField((ProtobufContext.VALUE_NUMBER << 3) | wireType);
+        return null;
+    }
+
+    @Override
+    public void writeValueTo(ProtobufContext context, int number, Type type, ClassDefinition definition, Object instance) throws IOException {
+    }
+
+}
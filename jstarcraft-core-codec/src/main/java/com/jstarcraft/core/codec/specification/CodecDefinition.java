@@ -49,8 +49,8 @@ public class CodecDefinition {
     private AtomicInteger codeManager = new AtomicInteger();
     /** 索引-定义映射 */
     private ArrayList<ClassDefinition> code2Definitions;
-    /** 类型-定义映射 */
-    private HashMap<Type, ClassDefinition> type2Definitions = new HashMap<>();
+    /** 类型-定义映射(写时复制,读取不需要加锁) */
+    private volatile HashMap<Type, ClassDefinition> type2Definitions = new HashMap<>();
 
     private CodecDefinition() {
     }
@@ -78,6 +78,11 @@ public class CodecDefinition {
     /**
      * 获取类型定义
      * 
+     * <pre>
+     * 未注册的类型按照父类查找,并且缓存到类型-定义映射.
+     * 缓存时复制映射再替换,所以查找路径没有锁.
+     * </pre>
+     * 
      * @param clazz
      * @return
      */
@@ -90,18 +95,21 @@ public class CodecDefinition {
             // 存在类型映射
             return definition;
         }
-        synchronized (this) {
-            Class<?> type = clazz;
-            while (type != Object.class) {
-                type = type.getSuperclass();
-                if (type == Object.class) {
-                    throw new CodecDefinitionException(clazz.getName());
-                }
-                definition = type2Definitions.get(type);
-                if (definition != null) {
-                    type2Definitions.put(clazz, definition);
-                }
+        Class<?> type = clazz.getSuperclass();
+        while (type != null && type != Object.class) {
+            definition = type2Definitions.get(type);
+            if (definition != null) {
+                break;
             }
+            type = type.getSuperclass();
+        }
+        if (definition == null) {
+            throw new CodecDefinitionException(clazz.getName());
+        }
+        synchronized (this) {
+            HashMap<Type, ClassDefinition> definitions = new HashMap<>(type2Definitions);
+            definitions.put(clazz, definition);
+            type2Definitions = definitions;
         }
         return definition;
     }
@@ -45,6 +45,33 @@ public class PropertyDefinition implements Comparable<PropertyDefinition> {
         return specification;
     }
 
+    public Method getGetter() {
+        return getter;
+    }
+
+    public Method getSetter() {
+        return setter;
+    }
+
+    /**
+     * 获取字段(基于访问器的属性返回null)
+     * 
+     * @return
+     */
+    public Field getField() {
+        return getter == null && setter == null ? field : null;
+    }
+
+    /**
+     * 是否为原始类型字段(可以不装箱读写)
+     * 
+     * @return
+     */
+    public boolean isPrimitive() {
+        Field field = getField();
+        return field != null && field.getType().isPrimitive();
+    }
+
     public Object getValue(Object object) throws Exception {
         Object value = null;
         if (getter != null) {
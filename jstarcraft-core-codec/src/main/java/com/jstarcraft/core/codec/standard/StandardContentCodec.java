@@ -12,9 +12,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.jstarcraft.core.codec.ContentCodec;
+import com.jstarcraft.core.codec.compression.Compressor;
 import com.jstarcraft.core.codec.exception.CodecException;
 import com.jstarcraft.core.codec.specification.ClassDefinition;
 import com.jstarcraft.core.codec.specification.CodecDefinition;
+import com.jstarcraft.core.codec.standard.converter.StandardContext;
 import com.jstarcraft.core.codec.standard.converter.StandardConverter;
 import com.jstarcraft.core.common.reflection.Specification;
 import com.jstarcraft.core.common.reflection.TypeUtility;
@@ -30,8 +32,56 @@ public class StandardContentCodec implements ContentCodec {
 
     private CodecDefinition codecDefinition;
 
+    /** 编码时字符串是否按照equals去重 */
+    private boolean deduplication;
+
+    /** 对象序列化器(null代表使用反射) */
+    private StandardSerializer[] serializers;
+
+    /** 字符串压缩器(null代表不压缩) */
+    private Compressor compressor;
+
+    /** 字符串压缩阈值(字节) */
+    private int threshold;
+
     public StandardContentCodec(CodecDefinition definition) {
+        this(definition, false);
+    }
+
+    public StandardContentCodec(CodecDefinition definition, boolean deduplication) {
+        this(definition, deduplication, true);
+    }
+
+    /**
+     * 
+     * @param definition
+     * @param deduplication
+     *            编码时字符串是否按照equals去重
+     * @param generation
+     *            是否为对象类型生成序列化器(否则使用反射)
+     */
+    public StandardContentCodec(CodecDefinition definition, boolean deduplication, boolean generation) {
+        this(definition, deduplication, generation, StandardContext.DEFAULT_COMPRESSOR, StandardContext.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * 
+     * @param definition
+     * @param deduplication
+     *            编码时字符串是否按照equals去重
+     * @param generation
+     *            是否为对象类型生成序列化器(否则使用反射)
+     * @param compressor
+     *            字符串压缩器(null代表不压缩,编解码双方必须一致)
+     * @param threshold
+     *            字符串压缩阈值(UTF-8字节长度超过时压缩)
+     */
+    public StandardContentCodec(CodecDefinition definition, boolean deduplication, boolean generation, Compressor compressor, int threshold) {
         this.codecDefinition = definition;
+        this.deduplication = deduplication;
+        this.serializers = generation ? StandardSerializer.instanceOf(definition) : null;
+        this.compressor = compressor;
+        this.threshold = threshold;
     }
 
     @Override
@@ -48,7 +98,7 @@ public class StandardContentCodec implements ContentCodec {
     @Override
     public Object decode(Type type, InputStream stream) {
         try {
-            StandardReader context = new StandardReader(stream, codecDefinition);
+            StandardReader context = new StandardReader(stream, codecDefinition, serializers, compressor);
             StandardConverter converter = context.getStandardConverter(Specification.getSpecification(type));
             ClassDefinition classDefinition = codecDefinition.getClassDefinition(TypeUtility.getRawType(type, null));
             return converter.readValueFrom(context, type, classDefinition);
@@ -74,7 +124,7 @@ public class StandardContentCodec implements ContentCodec {
     @Override
     public void encode(Type type, Object content, OutputStream stream) {
         try {
-            StandardWriter context = new StandardWriter(stream, codecDefinition);
+            StandardWriter context = new StandardWriter(stream, codecDefinition, deduplication, serializers, compressor, threshold);
             StandardConverter converter = context.getStandardConverter(Specification.getSpecification(type));
             ClassDefinition classDefinition = codecDefinition.getClassDefinition(TypeUtility.getRawType(type, null));
             converter.writeValueTo(context, type, classDefinition, content);
@@ -1,25 +1,42 @@
 package com.jstarcraft.core.codec.standard;
 
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.InputStream;
 
+import com.jstarcraft.core.codec.compression.Compressor;
 import com.jstarcraft.core.codec.specification.CodecDefinition;
 import com.jstarcraft.core.codec.standard.converter.StandardContext;
+import com.jstarcraft.core.common.io.IoUtility;
 
 /**
  * Standard协议读入器
- * 
+ *
  * <pre>
  * 每次解码都必须使用
+ * 数值通过复用的字节数组批量读取并组装为原始类型,不会预读超出当前内容的数据.
  * </pre>
- * 
+ *
  * @author Birdy
  */
 public class StandardReader extends StandardContext {
 
     private InputStream inputStream;
 
+    /** 数值缓冲 */
+    private final byte[] buffer = new byte[Long.BYTES];
+
     public StandardReader(InputStream inputStream, CodecDefinition definition) {
-        super(definition);
+        this(inputStream, definition, null);
+    }
+
+    public StandardReader(InputStream inputStream, CodecDefinition definition, StandardSerializer[] serializers) {
+        super(definition, false, serializers);
+        this.inputStream = inputStream;
+    }
+
+    public StandardReader(InputStream inputStream, CodecDefinition definition, StandardSerializer[] serializers, Compressor compressor) {
+        super(definition, false, serializers, compressor, DEFAULT_THRESHOLD);
         this.inputStream = inputStream;
     }
 
@@ -27,4 +44,53 @@ public class StandardReader extends StandardContext {
         return inputStream;
     }
 
+    /**
+     * 复用读入器
+     * 
+     * @param inputStream
+     */
+    public void reset(InputStream inputStream) {
+        reset();
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * 读取字节
+     *
+     * @return
+     * @throws IOException
+     */
+    public byte readByte() throws IOException {
+        int data = inputStream.read();
+        if (data < 0) {
+            throw new EOFException();
+        }
+        return (byte) data;
+    }
+
+    /**
+     * 读取指定长度的大端数据
+     *
+     * @param length
+     *            不超过8
+     * @return
+     * @throws IOException
+     */
+    public long readBytes(int length) throws IOException {
+        IoUtility.readFully(inputStream, buffer, 0, length);
+        long value = 0L;
+        for (int index = 0; index < length; index++) {
+            value = (value << Byte.SIZE) | (buffer[index] & 0xFF);
+        }
+        return value;
+    }
+
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat((int) readBytes(Float.BYTES));
+    }
+
+    public double readDouble() throws IOException {
+        return Double.longBitsToDouble(readBytes(Double.BYTES));
+    }
+
 }
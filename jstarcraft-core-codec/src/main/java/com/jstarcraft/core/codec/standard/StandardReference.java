@@ -1,20 +1,44 @@
 package com.jstarcraft.core.codec.standard;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Standard编解码引用
- * 
+ *
+ * <pre>
+ * 按照放入顺序分配索引,通过开放寻址的散列表查找索引(O(1)).
+ * 默认使用引用比较(System.identityHashCode),equality为true时使用equals比较(用于字符串去重).
+ * 散列表在第一次查找索引时才建立,解码过程(只按索引取值)不会产生散列开销.
+ * </pre>
+ *
  * @author Birdy
  *
  * @param <T>
  */
 public class StandardReference<T> {
 
+    /** 最小容量 */
+    private static final int MINIMUM_CAPACITY = 16;
+
+    /** 是否使用equals比较 */
+    private final boolean equality;
+
     private final ArrayList<T> references = new ArrayList<>();
 
+    /** 散列槽(保存索引+1,0代表空槽) */
+    private int[] slots;
+
+    public StandardReference() {
+        this(false);
+    }
+
+    public StandardReference(boolean equality) {
+        this.equality = equality;
+    }
+
     public T getValue(int index) {
-        if (index > references.size()) {
+        if (index >= references.size()) {
             return null;
         }
         T object = references.get(index);
@@ -22,20 +46,75 @@ public class StandardReference<T> {
     }
 
     public int getIndex(T value) {
-        // 不使用equal方法比较,而使用引用比较
-        int size = references.size();
-        for (int index = 0; index < size; index++) {
-            if (references.get(index) == value) {
+        if (slots == null) {
+            rehash(MINIMUM_CAPACITY);
+        }
+        int mask = slots.length - 1;
+        for (int cursor = hash(value) & mask;; cursor = (cursor + 1) & mask) {
+            int index = slots[cursor] - 1;
+            if (index < 0) {
+                return -1;
+            }
+            T reference = references.get(index);
+            // 默认不使用equal方法比较,而使用引用比较
+            if (reference == value || (equality && reference.equals(value))) {
                 return index;
             }
         }
-        return -1;
     }
 
     public int putValue(T value) {
         int index = references.size();
         references.add(value);
+        if (slots != null) {
+            if (references.size() * 2 > slots.length) {
+                rehash(slots.length * 2);
+            } else {
+                insert(value, index);
+            }
+        }
         return index;
     }
 
-}
\ No newline at end of file
+    /**
+     * 清空引用(保留已经分配的空间,使上下文可以复用)
+     */
+    public void reset() {
+        references.clear();
+        if (slots != null) {
+            Arrays.fill(slots, 0);
+        }
+    }
+
+    public int getSize() {
+        return references.size();
+    }
+
+    private int hash(T value) {
+        int hash = equality ? value.hashCode() : System.identityHashCode(value);
+        // 扰动(避免低位聚集)
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private void insert(T value, int index) {
+        int mask = slots.length - 1;
+        int cursor = hash(value) & mask;
+        while (slots[cursor] != 0) {
+            cursor = (cursor + 1) & mask;
+        }
+        slots[cursor] = index + 1;
+    }
+
+    private void rehash(int capacity) {
+        while (references.size() * 2 > capacity) {
+            capacity *= 2;
+        }
+        slots = new int[capacity];
+        int size = references.size();
+        for (int index = 0; index < size; index++) {
+            insert(references.get(index), index);
+        }
+    }
+
+}
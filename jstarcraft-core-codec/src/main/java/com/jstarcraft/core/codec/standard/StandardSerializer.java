@@ -0,0 +1,337 @@
+package com.jstarcraft.core.codec.standard;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+import com.jstarcraft.core.codec.specification.CodecDefinition;
+import com.jstarcraft.core.codec.specification.PropertyDefinition;
+import com.jstarcraft.core.codec.standard.converter.NumberConverter;
+import com.jstarcraft.core.codec.standard.converter.StandardContext;
+import com.jstarcraft.core.codec.standard.converter.StandardConverter;
+import com.jstarcraft.core.common.reflection.Specification;
+import com.jstarcraft.core.utility.StringUtility;
+
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewMethod;
+
+/**
+ * Standard对象序列化器
+ *
+ * <pre>
+ * 为每个对象类型生成(Javassist)专用的属性读写代码,替代{@link com.jstarcraft.core.codec.standard.converter.ObjectConverter}的反射循环:
+ * 1.公共类型的公共访问器直接调用;
+ * 2.公共类型的公共字段直接读写,其它字段通过{@link Field}读写(原始类型使用getInt/setInt等方法,不装箱,并且由Field检查值的类型);
+ * 3.原始类型数值不装箱,直接调用{@link NumberConverter}的原始类型方法;
+ * 4.每个属性的转换器,类型与定义在生成时确定,不再按规范查找.
+ * 其它情况(例如非公共的访问器)仍然使用{@link PropertyDefinition}反射读写.
+ * 编解码格式与ObjectConverter完全一致.
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+public abstract class StandardSerializer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StandardSerializer.class);
+
+    /** 类:序列化器后缀 */
+    private final static String CLASS_SUFFIX = "_SERIALIZER_";
+
+    private static final ClassPool classPool = ClassPool.getDefault();
+
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    /** 已经生成的序列化器类型(类型与属性相同的定义共享) */
+    private static final HashMap<List<Object>, Class<? extends StandardSerializer>> classes = new HashMap<>();
+
+    /** 类型定义 */
+    protected ClassDefinition definition;
+
+    /** 属性定义 */
+    protected PropertyDefinition[] properties;
+
+    /** 属性字段(没有访问器的属性) */
+    protected Field[] fields;
+
+    /** 属性转换器 */
+    protected StandardConverter[] converters;
+
+    /** 属性类型 */
+    protected Type[] types;
+
+    /** 属性类型定义 */
+    protected ClassDefinition[] definitions;
+
+    /**
+     * 创建实例
+     *
+     * @return
+     * @throws Exception
+     */
+    public abstract Object newInstance() throws Exception;
+
+    /**
+     * 按照属性顺序读取实例的属性
+     *
+     * @param context
+     * @param instance
+     * @throws Exception
+     */
+    public abstract void readProperties(StandardReader context, Object instance) throws Exception;
+
+    /**
+     * 按照属性顺序写出实例的属性
+     *
+     * @param context
+     * @param instance
+     * @throws Exception
+     */
+    public abstract void writeProperties(StandardWriter context, Object instance) throws Exception;
+
+    /**
+     * 为所有对象类型生成序列化器
+     *
+     * @param definition
+     * @return 按照类型代号索引(不支持的类型为null)
+     */
+    public static StandardSerializer[] instanceOf(CodecDefinition definition) {
+        int size = 0;
+        for (ClassDefinition classDefinition : definition.getClassDefinitions()) {
+            size = Math.max(size, classDefinition.getCode());
+        }
+        StandardSerializer[] serializers = new StandardSerializer[size + 1];
+        for (ClassDefinition classDefinition : definition.getClassDefinitions()) {
+            if (classDefinition.getSpecification() != Specification.OBJECT || classDefinition.getType() == null) {
+                continue;
+            }
+            try {
+                serializers[classDefinition.getCode()] = instanceOf(definition, classDefinition);
+            } catch (Exception exception) {
+                // 生成失败时使用反射
+                String message = StringUtility.format("生成类型[{}]的序列化器异常", classDefinition.getName());
+                LOGGER.warn(message, exception);
+            }
+        }
+        return serializers;
+    }
+
+    /**
+     * 为指定对象类型生成序列化器
+     *
+     * @param definition
+     * @param classDefinition
+     * @return
+     * @throws Exception
+     */
+    public static StandardSerializer instanceOf(CodecDefinition definition, ClassDefinition classDefinition) throws Exception {
+        PropertyDefinition[] properties = classDefinition.getProperties();
+        Class<? extends StandardSerializer> clazz = getClass(classDefinition);
+        StandardSerializer serializer = clazz.newInstance();
+        serializer.definition = classDefinition;
+        serializer.properties = properties;
+        serializer.fields = new Field[properties.length];
+        serializer.converters = new StandardConverter[properties.length];
+        serializer.types = new Type[properties.length];
+        serializer.definitions = new ClassDefinition[properties.length];
+        for (int index = 0; index < properties.length; index++) {
+            PropertyDefinition property = properties[index];
+            serializer.fields[index] = property.getField();
+            serializer.converters[index] = StandardContext.getConverter(property.getSpecification());
+            serializer.types[index] = property.getType();
+            serializer.definitions[index] = definition.getClassDefinition(property.getCode());
+        }
+        return serializer;
+    }
+
+    private static synchronized Class<? extends StandardSerializer> getClass(ClassDefinition definition) throws Exception {
+        Class<?> clazz = definition.getType();
+        PropertyDefinition[] properties = definition.getProperties();
+        Object[] keys = new Object[properties.length + 1];
+        keys[0] = clazz;
+        for (int index = 0; index < properties.length; index++) {
+            keys[index + 1] = properties[index].getName();
+        }
+        List<Object> key = Arrays.asList(keys);
+        Class<? extends StandardSerializer> serializer = classes.get(key);
+        if (serializer == null) {
+            serializer = generateClass(clazz, properties);
+            classes.put(key, serializer);
+        }
+        return serializer;
+    }
+
+    /**
+     * 生成序列化器类型
+     *
+     * <pre>
+     * public class [StandardSerializer]_SERIALIZER_[index] extends StandardSerializer {
+     *     public Object newInstance() {...}
+     *     public void readProperties(StandardReader context, Object instance) {...}
+     *     public void writeProperties(StandardWriter context, Object instance) {...}
+     * }
+     * </pre>
+     *
+     * @param clazz
+     * @param properties
+     * @return
+     * @throws Exception
+     */
+    @SuppressWarnings("unchecked")
+    private static Class<? extends StandardSerializer> generateClass(Class<?> clazz, PropertyDefinition[] properties) throws Exception {
+        classPool.insertClassPath(new ClassClassPath(clazz));
+        classPool.insertClassPath(new ClassClassPath(StandardSerializer.class));
+        CtClass serializerClass = classPool.makeClass(StandardSerializer.class.getName() + CLASS_SUFFIX + counter.incrementAndGet());
+        serializerClass.setSuperclass(classPool.get(StandardSerializer.class.getName()));
+        // 只有公共类型才能在生成的代码中直接引用
+        boolean access = isPublic(clazz) && clazz.getClassLoader() == StandardSerializer.class.getClassLoader();
+        String instance = StringUtility.format("(({}) $2)", clazz.getName().replace('$', '.'));
+
+        StringBuilder builder = new StringBuilder("public Object newInstance() throws Exception {");
+        Constructor<?> constructor = null;
+        try {
+            constructor = clazz.getConstructor();
+        } catch (NoSuchMethodException exception) {
+        }
+        if (access && constructor != null && !Modifier.isAbstract(clazz.getModifiers())) {
+            builder.append(StringUtility.format("return new {}();", clazz.getName().replace('$', '.')));
+        } else {
+            builder.append("return this.definition.getInstance();");
+        }
+        builder.append("}");
+        serializerClass.addMethod(CtNewMethod.make(builder.toString(), serializerClass));
+
+        StringBuilder reader = new StringBuilder("public void readProperties(").append(StandardReader.class.getName()).append(" context, Object instance) throws Exception {");
+        StringBuilder writer = new StringBuilder("public void writeProperties(").append(StandardWriter.class.getName()).append(" context, Object instance) throws Exception {");
+        for (int index = 0; index < properties.length; index++) {
+            PropertyDefinition property = properties[index];
+            Field field = property.getField();
+            Method getter = property.getGetter();
+            Method setter = property.getSetter();
+            Class<?> type = field != null ? field.getType() : (getter != null ? getter.getReturnType() : null);
+            boolean directGetter = access && getter != null && Modifier.isPublic(getter.getModifiers());
+            boolean directSetter = access && setter != null && Modifier.isPublic(setter.getModifiers()) && isPublic(setter.getParameterTypes()[0]);
+            String getValue = directGetter ? StringUtility.format("{}.{}()", instance, getter.getName()) : null;
+            String setValue = directSetter ? StringUtility.format("{}.{}({}", instance, setter.getName(), getCast(setter.getParameterTypes()[0])) : null;
+            if (field != null) {
+                int modifiers = field.getModifiers();
+                if (access && Modifier.isPublic(modifiers) && !Modifier.isFinal(modifiers) && isPublic(type)) {
+                    // 公共字段
+                    getValue = StringUtility.format("{}.{}", instance, field.getName());
+                    setValue = StringUtility.format("{}.{} = ({}", instance, field.getName(), getCast(type));
+                } else {
+                    // 非公共字段(引用类型由Field.set检查类型)
+                    String name = getPrimitiveName(type);
+                    getValue = StringUtility.format("this.fields[{}].get{}($2)", index, name);
+                    setValue = StringUtility.format("this.fields[{}].set{}($2, {}", index, name, type.isPrimitive() ? getCast(type) : "");
+                }
+            }
+            if (type != null && type.isPrimitive() && property.getSpecification() == Specification.NUMBER && getValue != null && setValue != null) {
+                // 原始类型数值
+                String read;
+                String write;
+                if (type == float.class) {
+                    read = StringUtility.format("{}.readFloat($1)", NumberConverter.class.getName());
+                    write = StringUtility.format("{}.writeFloat($1, {});", NumberConverter.class.getName(), getValue);
+                } else if (type == double.class) {
+                    read = StringUtility.format("{}.readDouble($1)", NumberConverter.class.getName());
+                    write = StringUtility.format("{}.writeDouble($1, {});", NumberConverter.class.getName(), getValue);
+                } else {
+                    String minimum = getMinimum(type) + "L";
+                    read = StringUtility.format("{}.readInteger($1, {})", NumberConverter.class.getName(), minimum);
+                    write = StringUtility.format("{}.writeInteger($1, (long) {}, {});", NumberConverter.class.getName(), getValue, minimum);
+                }
+                reader.append(setValue).append(read).append(");");
+                writer.append(write);
+            } else if (type != null && !type.isPrimitive() && getValue != null && setValue != null) {
+                // 引用类型
+                reader.append(StringUtility.format("{ Object value = this.converters[{}].readValueFrom($1, this.types[{}], this.definitions[{}]);", index, index, index));
+                reader.append(StringUtility.format("if (value != null) { {}value); } }", setValue));
+                writer.append(StringUtility.format("this.converters[{}].writeValueTo($1, this.types[{}], this.definitions[{}], {});", index, index, index, getValue));
+            } else {
+                // 反射
+                reader.append(StringUtility.format("{ Object value = this.converters[{}].readValueFrom($1, this.types[{}], this.definitions[{}]);", index, index, index));
+                reader.append(StringUtility.format("if (value != null) { this.properties[{}].setValue($2, value); } }", index));
+                writer.append(StringUtility.format("this.converters[{}].writeValueTo($1, this.types[{}], this.definitions[{}], this.properties[{}].getValue($2));", index, index, index, index));
+            }
+        }
+        reader.append("}");
+        writer.append("}");
+        serializerClass.addMethod(CtNewMethod.make(reader.toString(), serializerClass));
+        serializerClass.addMethod(CtNewMethod.make(writer.toString(), serializerClass));
+        Class<? extends StandardSerializer> serializer = (Class<? extends StandardSerializer>) serializerClass.toClass(StandardSerializer.class.getClassLoader(), StandardSerializer.class.getProtectionDomain());
+        serializerClass.detach();
+        return serializer;
+    }
+
+    private static boolean isPublic(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        for (Class<?> clazz = type; clazz != null; clazz = clazz.getEnclosingClass()) {
+            if (!Modifier.isPublic(clazz.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取类型转换代码(非公共类型不转换)
+     *
+     * @param type
+     * @return
+     */
+    private static String getCast(Class<?> type) {
+        if (type.isPrimitive()) {
+            return "(" + type.getName() + ") ";
+        }
+        if (!isPublic(type)) {
+            return "";
+        }
+        return "(" + getTypeName(type) + ") ";
+    }
+
+    private static String getTypeName(Class<?> type) {
+        if (type.isArray()) {
+            return getTypeName(type.getComponentType()) + "[]";
+        }
+        return type.getName().replace('$', '.');
+    }
+
+    private static String getPrimitiveName(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return "";
+        }
+        String name = type.getName();
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static long getMinimum(Class<?> type) {
+        if (type == byte.class) {
+            return Byte.MIN_VALUE;
+        } else if (type == short.class) {
+            return Short.MIN_VALUE;
+        } else if (type == int.class) {
+            return Integer.MIN_VALUE;
+        } else {
+            return Long.MIN_VALUE;
+        }
+    }
+
+}
@@ -1,25 +1,44 @@
 package com.jstarcraft.core.codec.standard;
 
+import java.io.IOException;
 import java.io.OutputStream;
 
+import com.jstarcraft.core.codec.compression.Compressor;
 import com.jstarcraft.core.codec.specification.CodecDefinition;
 import com.jstarcraft.core.codec.standard.converter.StandardContext;
 
 /**
  * Standard协议写出器
- * 
+ *
  * <pre>
  * 每次编码都必须使用
+ * 数值先在复用的字节数组中组装,再批量写出.
  * </pre>
- * 
+ *
  * @author Birdy
  */
 public class StandardWriter extends StandardContext {
 
     private OutputStream outputStream;
 
+    /** 数值缓冲 */
+    private final byte[] buffer = new byte[Long.BYTES];
+
     public StandardWriter(OutputStream outputStream, CodecDefinition definition) {
-        super(definition);
+        this(outputStream, definition, false);
+    }
+
+    public StandardWriter(OutputStream outputStream, CodecDefinition definition, boolean deduplication) {
+        this(outputStream, definition, deduplication, null);
+    }
+
+    public StandardWriter(OutputStream outputStream, CodecDefinition definition, boolean deduplication, StandardSerializer[] serializers) {
+        super(definition, deduplication, serializers);
+        this.outputStream = outputStream;
+    }
+
+    public StandardWriter(OutputStream outputStream, CodecDefinition definition, boolean deduplication, StandardSerializer[] serializers, Compressor compressor, int threshold) {
+        super(definition, deduplication, serializers, compressor, threshold);
         this.outputStream = outputStream;
     }
 
@@ -27,4 +46,48 @@ public class StandardWriter extends StandardContext {
         return outputStream;
     }
 
+    /**
+     * 复用写出器
+     * 
+     * @param outputStream
+     */
+    public void reset(OutputStream outputStream) {
+        reset();
+        this.outputStream = outputStream;
+    }
+
+    /**
+     * 写出字节
+     *
+     * @param data
+     * @throws IOException
+     */
+    public void writeByte(int data) throws IOException {
+        outputStream.write(data);
+    }
+
+    /**
+     * 写出指定长度的大端数据
+     *
+     * @param value
+     * @param length
+     *            不超过8
+     * @throws IOException
+     */
+    public void writeBytes(long value, int length) throws IOException {
+        for (int index = length - 1; index >= 0; index--) {
+            buffer[index] = (byte) value;
+            value >>>= Byte.SIZE;
+        }
+        outputStream.write(buffer, 0, length);
+    }
+
+    public void writeFloat(float value) throws IOException {
+        writeBytes(Float.floatToIntBits(value), Float.BYTES);
+    }
+
+    public void writeDouble(double value) throws IOException {
+        writeBytes(Double.doubleToLongBits(value), Double.BYTES);
+    }
+
 }
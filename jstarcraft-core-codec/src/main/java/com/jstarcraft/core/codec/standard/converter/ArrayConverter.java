@@ -4,6 +4,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Array;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 
 import com.jstarcraft.core.codec.exception.CodecConvertionException;
 import com.jstarcraft.core.codec.specification.ClassDefinition;
@@ -17,6 +18,12 @@ import com.jstarcraft.core.utility.StringUtility;
 /**
  * 数组转换器
  * 
+ * <pre>
+ * 原始类型数组(byte[]除外)作为连续的数据块读写,不经过装箱与元素转换器:
+ * [标记][长度][类型代号][数据块长度][数据块]
+ * boolean为单字节,char为无符号变长整数,short/int/long为ZigZag变长整数,float/double为定长大端.
+ * </pre>
+ * 
  * @author Birdy
  *
  */
@@ -34,6 +41,159 @@ public class ArrayConverter extends StandardConverter<Object> {
     /** 0000 0003(引用标记) */
     private static final byte REFERENCE_MARK = (byte) 0x03;
 
+    /** 0000 0004(原始标记) */
+    private static final byte PRIMITIVE_MARK = (byte) 0x04;
+
+    /**
+     * 读取数据块中的变长整数
+     * 
+     * @param buffer
+     * @return
+     */
+    private static long readVariable(ByteBuffer buffer) {
+        long value = 0L;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte data = buffer.get();
+            value |= (long) (data & 0x7F) << shift;
+            if (data >= 0) {
+                return value;
+            }
+        }
+        throw new CodecConvertionException("变长整数格式错误");
+    }
+
+    /**
+     * 写出变长整数到数据块
+     * 
+     * @param buffer
+     * @param value
+     */
+    private static void writeVariable(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0L) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long encodeZigZag(long value) {
+        return (value << 1) ^ (value >> (Long.SIZE - 1));
+    }
+
+    private static long decodeZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1L);
+    }
+
+    /**
+     * 读取原始类型数组
+     * 
+     * @param context
+     * @param clazz
+     * @param size
+     * @return
+     * @throws Exception
+     */
+    private static Object readPrimitive(StandardReader context, Class<?> clazz, int size) throws Exception {
+        int length = NumberConverter.readInteger(context);
+        byte[] data = new byte[length];
+        IoUtility.readFully(context.getInputStream(), data, 0, length);
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (clazz == boolean.class) {
+            boolean[] instance = new boolean[size];
+            for (int index = 0; index < size; index++) {
+                instance[index] = buffer.get() != 0;
+            }
+            return instance;
+        } else if (clazz == char.class) {
+            char[] instance = new char[size];
+            for (int index = 0; index < size; index++) {
+                instance[index] = (char) readVariable(buffer);
+            }
+            return instance;
+        } else if (clazz == short.class) {
+            short[] instance = new short[size];
+            for (int index = 0; index < size; index++) {
+                instance[index] = (short) decodeZigZag(readVariable(buffer));
+            }
+            return instance;
+        } else if (clazz == int.class) {
+            int[] instance = new int[size];
+            for (int index = 0; index < size; index++) {
+                instance[index] = (int) decodeZigZag(readVariable(buffer));
+            }
+            return instance;
+        } else if (clazz == long.class) {
+            long[] instance = new long[size];
+            for (int index = 0; index < size; index++) {
+                instance[index] = decodeZigZag(readVariable(buffer));
+            }
+            return instance;
+        } else if (clazz == float.class) {
+            float[] instance = new float[size];
+            buffer.asFloatBuffer().get(instance);
+            return instance;
+        } else {
+            double[] instance = new double[size];
+            buffer.asDoubleBuffer().get(instance);
+            return instance;
+        }
+    }
+
+    /**
+     * 写出原始类型数组
+     * 
+     * @param context
+     * @param clazz
+     * @param instance
+     * @param size
+     * @throws Exception
+     */
+    private static void writePrimitive(StandardWriter context, Class<?> clazz, Object instance, int size) throws Exception {
+        ByteBuffer buffer;
+        if (clazz == boolean.class) {
+            boolean[] array = (boolean[]) instance;
+            buffer = ByteBuffer.allocate(size);
+            for (boolean element : array) {
+                buffer.put(element ? (byte) 1 : (byte) 0);
+            }
+        } else if (clazz == char.class) {
+            char[] array = (char[]) instance;
+            buffer = ByteBuffer.allocate(size * 3);
+            for (char element : array) {
+                writeVariable(buffer, element);
+            }
+        } else if (clazz == short.class) {
+            short[] array = (short[]) instance;
+            buffer = ByteBuffer.allocate(size * 3);
+            for (short element : array) {
+                writeVariable(buffer, encodeZigZag(element));
+            }
+        } else if (clazz == int.class) {
+            int[] array = (int[]) instance;
+            buffer = ByteBuffer.allocate(size * 5);
+            for (int element : array) {
+                writeVariable(buffer, encodeZigZag(element));
+            }
+        } else if (clazz == long.class) {
+            long[] array = (long[]) instance;
+            buffer = ByteBuffer.allocate(size * 10);
+            for (long element : array) {
+                writeVariable(buffer, encodeZigZag(element));
+            }
+        } else if (clazz == float.class) {
+            buffer = ByteBuffer.allocate(size * Float.BYTES);
+            buffer.asFloatBuffer().put((float[]) instance);
+            buffer.position(buffer.capacity());
+        } else {
+            buffer = ByteBuffer.allocate(size * Double.BYTES);
+            buffer.asDoubleBuffer().put((double[]) instance);
+            buffer.position(buffer.capacity());
+        }
+        int length = buffer.position();
+        NumberConverter.writeNumber(context, length);
+        context.getOutputStream().write(buffer.array(), 0, length);
+    }
+
     @Override
     public Object readValueFrom(StandardReader context, Type type, ClassDefinition definition) throws Exception {
         InputStream in = context.getInputStream();
@@ -43,8 +203,8 @@ public class ArrayConverter extends StandardConverter<Object> {
             return null;
         }
         if (mark == EXPLICIT_MARK) {
-            int size = NumberConverter.readNumber(in).intValue();
-            int code = NumberConverter.readNumber(in).intValue();
+            int size = NumberConverter.readInteger(context);
+            int code = NumberConverter.readInteger(context);
             Object instance = null;
             definition = context.getClassDefinition(code);
             if (definition.getType() == byte.class) {
@@ -66,12 +226,19 @@ public class ArrayConverter extends StandardConverter<Object> {
                 }
             }
             return instance;
+        } else if (mark == PRIMITIVE_MARK) {
+            int size = NumberConverter.readInteger(context);
+            int code = NumberConverter.readInteger(context);
+            definition = context.getClassDefinition(code);
+            Object instance = readPrimitive(context, definition.getType(), size);
+            context.putArrayValue(instance);
+            return instance;
         } else if (mark == IMPLICIT_MARK) {
-            int size = NumberConverter.readNumber(in).intValue();
+            int size = NumberConverter.readInteger(context);
             Object[] instance = new Object[size];
             context.putArrayValue(instance);
             for (int index = 0; index < size; index++) {
-                int code = NumberConverter.readNumber(in).intValue();
+                int code = NumberConverter.readInteger(context);
                 definition = context.getClassDefinition(code);
                 StandardConverter converter = context.getStandardConverter(definition.getSpecification());
                 Object element = converter.readValueFrom(context, definition.getType(), definition);
@@ -79,8 +246,8 @@ public class ArrayConverter extends StandardConverter<Object> {
             }
             return instance;
         } else if (mark == REFERENCE_MARK) {
-            int reference = NumberConverter.readNumber(in).intValue();
-            Object[] instance = (Object[]) context.getArrayValue(reference);
+            int reference = NumberConverter.readInteger(context);
+            Object instance = context.getArrayValue(reference);
             return instance;
         }
         String message = StringUtility.format("类型码[{}]没有对应标记码[{}]", type, mark);
@@ -99,7 +266,7 @@ public class ArrayConverter extends StandardConverter<Object> {
         if (reference != -1) {
             information |= REFERENCE_MARK;
             out.write(information);
-            NumberConverter.writeNumber(out, reference);
+            NumberConverter.writeNumber(context, reference);
         } else {
             Class<?> clazz = TypeUtility.getRawType(type, null);
             clazz = clazz.getComponentType();
@@ -108,24 +275,34 @@ public class ArrayConverter extends StandardConverter<Object> {
                 context.putArrayValue(instance);
                 out.write(information);
                 int size = Array.getLength(instance);
-                NumberConverter.writeNumber(out, size);
+                NumberConverter.writeNumber(context, size);
                 for (int index = 0; index < size; index++) {
                     Object element = Array.get(instance, index);
                     definition = context.getClassDefinition(element == null ? Object.class : element.getClass());
                     int code = definition.getCode();
-                    NumberConverter.writeNumber(out, code);
+                    NumberConverter.writeNumber(context, code);
                     StandardConverter converter = context.getStandardConverter(definition.getSpecification());
                     converter.writeValueTo(context, definition.getType(), definition, element);
                 }
+            } else if (clazz.isPrimitive() && clazz != byte.class) {
+                information |= PRIMITIVE_MARK;
+                context.putArrayValue(instance);
+                out.write(information);
+                int size = Array.getLength(instance);
+                NumberConverter.writeNumber(context, size);
+                definition = context.getClassDefinition(clazz);
+                int code = definition.getCode();
+                NumberConverter.writeNumber(context, code);
+                writePrimitive(context, clazz, instance, size);
             } else {
                 information |= EXPLICIT_MARK;
                 context.putArrayValue(instance);
                 out.write(information);
                 int size = Array.getLength(instance);
-                NumberConverter.writeNumber(out, size);
+                NumberConverter.writeNumber(context, size);
                 definition = context.getClassDefinition(clazz);
                 int code = definition.getCode();
-                NumberConverter.writeNumber(out, code);
+                NumberConverter.writeNumber(context, code);
                 if (clazz == byte.class) {
                     // 对字节数组做特殊处理
                     byte[] data = (byte[]) instance;
@@ -43,7 +43,7 @@ public class CollectionConverter extends StandardConverter<Collection<?>> {
             return null;
         }
         if (mark == EXPLICIT_MARK) {
-            int size = NumberConverter.readNumber(in).intValue();
+            int size = NumberConverter.readInteger(context);
             Collection instance = (Collection) definition.getInstance();
             context.putCollectionValue(instance);
             ParameterizedType parameterizedType = (ParameterizedType) type;
@@ -57,11 +57,11 @@ public class CollectionConverter extends StandardConverter<Collection<?>> {
             }
             return instance;
         } else if (mark == IMPLICIT_MARK) {
-            int size = NumberConverter.readNumber(in).intValue();
+            int size = NumberConverter.readInteger(context);
             Collection instance = (Collection) definition.getInstance();
             context.putCollectionValue(instance);
             for (int index = 0; index < size; index++) {
-                int code = NumberConverter.readNumber(in).intValue();
+                int code = NumberConverter.readInteger(context);
                 definition = context.getClassDefinition(code);
                 StandardConverter converter = context.getStandardConverter(definition.getSpecification());
                 Object element = converter.readValueFrom(context, definition.getType(), definition);
@@ -69,7 +69,7 @@ public class CollectionConverter extends StandardConverter<Collection<?>> {
             }
             return instance;
         } else if (mark == REFERENCE_MARK) {
-            int reference = NumberConverter.readNumber(in).intValue();
+            int reference = NumberConverter.readInteger(context);
             Collection instance = (Collection) context.getCollectionValue(reference);
             return instance;
         }
@@ -89,17 +89,17 @@ public class CollectionConverter extends StandardConverter<Collection<?>> {
         if (reference != -1) {
             information |= REFERENCE_MARK;
             out.write(information);
-            NumberConverter.writeNumber(out, reference);
+            NumberConverter.writeNumber(context, reference);
         } else {
             if (type instanceof Class) {
                 information |= IMPLICIT_MARK;
                 context.putCollectionValue(instance);
                 out.write(information);
                 int size = instance.size();
-                NumberConverter.writeNumber(out, size);
+                NumberConverter.writeNumber(context, size);
                 for (Object element : instance) {
                     definition = context.getClassDefinition(element == null ? void.class : element.getClass());
-                    NumberConverter.writeNumber(out, definition.getCode());
+                    NumberConverter.writeNumber(context, definition.getCode());
                     StandardConverter converter = context.getStandardConverter(definition.getSpecification());
                     converter.writeValueTo(context, definition.getType(), definition, element);
                 }
@@ -108,7 +108,7 @@ public class CollectionConverter extends StandardConverter<Collection<?>> {
                 context.putCollectionValue(instance);
                 out.write(information);
                 int size = instance.size();
-                NumberConverter.writeNumber(out, size);
+                NumberConverter.writeNumber(context, size);
                 ParameterizedType parameterizedType = (ParameterizedType) type;
                 Type[] types = parameterizedType.getActualTypeArguments();
                 Type elementType = types[0];
@@ -23,7 +23,7 @@ public class EnumerationConverter extends StandardConverter<Object> {
     @Override
     public Object readValueFrom(StandardReader context, Type type, ClassDefinition definition) throws IOException {
         InputStream in = context.getInputStream();
-        int ordinal = NumberConverter.readNumber(in).intValue();
+        int ordinal = NumberConverter.readInteger(context);
         if (ordinal == NULL_MARK) {
             return null;
         }
@@ -40,7 +40,7 @@ public class EnumerationConverter extends StandardConverter<Object> {
         }
         Enum<?> enumeration = (Enum<?>) instance;
         int ordinal = enumeration.ordinal() + 1;
-        NumberConverter.writeNumber(out, ordinal);
+        NumberConverter.writeNumber(context, ordinal);
     }
 
 }
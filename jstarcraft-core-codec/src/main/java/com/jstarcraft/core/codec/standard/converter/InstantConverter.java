@@ -38,7 +38,7 @@ public class InstantConverter extends StandardConverter<Object> {
         if (mark == NULL_MARK) {
             return null;
         }
-        long time = NumberConverter.readNumber(in).longValue();
+        long time = NumberConverter.readLong(context);
         if (mark == DATE_MARK) {
             Date value = new Date(time);
             return value;
@@ -70,7 +70,7 @@ public class InstantConverter extends StandardConverter<Object> {
             throw new CodecConvertionException();
         }
         out.write(information);
-        NumberConverter.writeNumber(out, time);
+        NumberConverter.writeNumber(context, time);
     }
 
 }
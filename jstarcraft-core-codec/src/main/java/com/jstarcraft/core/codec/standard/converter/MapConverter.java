@@ -44,7 +44,7 @@ public class MapConverter extends StandardConverter<Map<Object, Object>> {
             return null;
         }
         if (mark == EXPLICIT_MARK) {
-            int size = NumberConverter.readNumber(in).intValue();
+            int size = NumberConverter.readInteger(context);
             Map instance = (Map) definition.getInstance();
             context.putMapValue(instance);
             StandardConverter converter = context.getStandardConverter(Specification.TYPE);
@@ -63,15 +63,15 @@ public class MapConverter extends StandardConverter<Map<Object, Object>> {
             }
             return instance;
         } else if (mark == IMPLICIT_MARK) {
-            int size = NumberConverter.readNumber(in).intValue();
+            int size = NumberConverter.readInteger(context);
             Map instance = (Map) definition.getInstance();
             context.putMapValue(instance);
             for (int index = 0; index < size; index++) {
-                int code = NumberConverter.readNumber(in).intValue();
+                int code = NumberConverter.readInteger(context);
                 definition = context.getClassDefinition(code);
                 Type keyType = definition.getType();
                 StandardConverter keyConverter = context.getStandardConverter(definition.getSpecification());
-                code = NumberConverter.readNumber(in).intValue();
+                code = NumberConverter.readInteger(context);
                 definition = context.getClassDefinition(code);
                 Type valueType = definition.getType();
                 StandardConverter valueConverter = context.getStandardConverter(definition.getSpecification());
@@ -83,7 +83,7 @@ public class MapConverter extends StandardConverter<Map<Object, Object>> {
             }
             return instance;
         } else if (mark == REFERENCE_MARK) {
-            int reference = NumberConverter.readNumber(in).intValue();
+            int reference = NumberConverter.readInteger(context);
             Map instance = (Map) context.getMapValue(reference);
             return instance;
         }
@@ -103,20 +103,20 @@ public class MapConverter extends StandardConverter<Map<Object, Object>> {
         if (reference != -1) {
             information |= REFERENCE_MARK;
             out.write(information);
-            NumberConverter.writeNumber(out, reference);
+            NumberConverter.writeNumber(context, reference);
         } else {
             if (type instanceof Class) {
                 information |= IMPLICIT_MARK;
                 context.putMapValue(instance);
                 out.write(information);
                 int size = instance.size();
-                NumberConverter.writeNumber(out, size);
+                NumberConverter.writeNumber(context, size);
                 for (Entry<Object, Object> keyValue : instance.entrySet()) {
                     ClassDefinition keyDefinition = context.getClassDefinition(keyValue.getKey().getClass());
-                    NumberConverter.writeNumber(out, keyDefinition.getCode());
+                    NumberConverter.writeNumber(context, keyDefinition.getCode());
                     StandardConverter keyConverter = context.getStandardConverter(keyDefinition.getSpecification());
                     ClassDefinition valueDefinition = context.getClassDefinition(keyValue.getValue() == null ? void.class : keyValue.getValue().getClass());
-                    NumberConverter.writeNumber(out, valueDefinition.getCode());
+                    NumberConverter.writeNumber(context, valueDefinition.getCode());
                     StandardConverter valueConverter = context.getStandardConverter(valueDefinition.getSpecification());
                     keyConverter.writeValueTo(context, keyValue.getKey().getClass(), keyDefinition, keyValue.getKey());
                     valueConverter.writeValueTo(context, keyValue.getValue() == null ? void.class : keyValue.getValue().getClass(), valueDefinition, keyValue.getValue());
@@ -126,7 +126,7 @@ public class MapConverter extends StandardConverter<Map<Object, Object>> {
                 context.putMapValue(instance);
                 out.write(information);
                 int size = instance.size();
-                NumberConverter.writeNumber(out, size);
+                NumberConverter.writeNumber(context, size);
                 definition = context.getClassDefinition(instance.getClass());
                 ParameterizedType parameterizedType = (ParameterizedType) type;
                 Type[] types = parameterizedType.getActualTypeArguments();
@@ -1,13 +1,7 @@
 package com.jstarcraft.core.codec.standard.converter;
 
-import java.io.DataInput;
-import java.io.DataInputStream;
-import java.io.DataOutput;
-import java.io.DataOutputStream;
-import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.lang.reflect.Field;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -24,7 +18,13 @@ import com.jstarcraft.core.utility.StringUtility;
 
 /**
  * 数值转换器
- * 
+ *
+ * <pre>
+ * 整数(Byte,Short,Integer,Long)与浮点数(Float,Double)在读写过程中保持原始类型,只在返回时装箱.
+ * 原始类型字段通过{@link #readFieldFrom}与{@link #writeFieldTo}读写,完全不装箱.
+ * BigDecimal使用二进制格式:非标度值的绝对值 + 标度(ZigZag).
+ * </pre>
+ *
  * @author Birdy
  *
  */
@@ -38,7 +38,7 @@ public class NumberConverter extends StandardConverter<Number> {
 
     /**
      * 0000 1000(用于标记数值类型的正负)
-     * 
+     *
      * <pre>
      * Byte,Short,Integer与Long类型使用-0代表Integer.MIN_VALUE与Long.MIN_VALUE
      * </pre>
@@ -47,7 +47,7 @@ public class NumberConverter extends StandardConverter<Number> {
 
     /**
      * 0111 1111(长度掩码)
-     * 
+     *
      * <pre>
      * 规约:
      * 如果数值小于等于LENGTH_MASK,数据会保存在LENGTH_MASK的字节中,如果数值大于LENGTH_MASK,长度会保存在LENGTH_MASK的字节中.
@@ -56,80 +56,50 @@ public class NumberConverter extends StandardConverter<Number> {
      */
     private static final byte LENGTH_MASK = (byte) 0x7F;
 
-    /** 1111 1111(数据掩码) */
-    private static final int DATA_MASK = 0xFF;
-
     /** 字节位数 */
     private static final byte BYTE_BIT = 8;
 
-    /** Short位数 */
-    private static final byte SHORT_BIT = 16;
-
-    /** Integer位数 */
-    private static final byte INTEGER_BIT = 32;
-
     /** Long位数 */
     private static final byte LONG_BIT = 64;
 
     @Override
     public Number readValueFrom(StandardReader context, Type type, ClassDefinition definition) throws IOException {
-        InputStream in = context.getInputStream();
-        byte information = (byte) in.read();
+        byte information = context.readByte();
         byte mark = getMark(information);
         if (mark == NULL_MARK) {
             return null;
         }
         boolean switchMark = ((information & SWITCH_MARK) != 0);
         if (type == Byte.class || type == byte.class) {
-            byte value = readNumber(in).byteValue();
-            if (switchMark && value == 0) {
-                return Byte.MIN_VALUE;
-            }
-            return switchMark ? (byte) -value : value;
+            return (byte) readSigned(context, switchMark, Byte.MIN_VALUE);
         } else if (type == Short.class || type == short.class) {
-            short value = readNumber(in).shortValue();
-            if (switchMark && value == 0) {
-                return Short.MIN_VALUE;
-            }
-            return switchMark ? (short) -value : value;
+            return (short) readSigned(context, switchMark, Short.MIN_VALUE);
         } else if (type == Integer.class || type == int.class || type == AtomicInteger.class) {
-            int value = readNumber(in).intValue();
-            value = switchMark ? (value == 0 ? Integer.MIN_VALUE : -value) : value;
+            int value = (int) readSigned(context, switchMark, Integer.MIN_VALUE);
             if (type == AtomicInteger.class) {
                 return new AtomicInteger(value);
             } else {
                 return value;
             }
         } else if (type == Long.class || type == long.class || type == AtomicLong.class) {
-            long value = readNumber(in).longValue();
-            value = switchMark ? (value == 0L ? Long.MIN_VALUE : -value) : value;
+            long value = readSigned(context, switchMark, Long.MIN_VALUE);
             if (type == AtomicLong.class) {
                 return new AtomicLong(value);
             } else {
                 return value;
             }
         } else if (type == BigInteger.class) {
-            BigInteger value = (BigInteger) readNumber(in);
+            BigInteger value = readBigInteger(context);
             return switchMark ? value.negate() : value;
         } else if (type == Float.class || type == float.class) {
-            DataInput dataInput = new DataInputStream(in);
-            float value = dataInput.readFloat();
-            return value;
+            return context.readFloat();
         } else if (type == Double.class || type == double.class) {
-            DataInput dataInput = new DataInputStream(in);
-            double value = dataInput.readDouble();
-            return value;
+            return context.readDouble();
         } else if (type == BigDecimal.class) {
-            information = (byte) in.read();
-            if (information >= 0) {
-                byte[] data = new byte[information];
-                IoUtility.read(in, data);
-                String decimal = new String(data, StringUtility.CHARSET);
-                BigDecimal value = new BigDecimal(decimal);
-                return switchMark ? value.negate() : value;
-            } else {
-                throw new CodecConvertionException();
-            }
+            BigInteger unscaled = readBigInteger(context);
+            long scale = readLong(context);
+            BigDecimal value = new BigDecimal(unscaled, (int) ((scale >>> 1) ^ -(scale & 1)));
+            return switchMark ? value.negate() : value;
         }
         String message = StringUtility.format("类型码[{}]没有对应标记码[{}]", type, mark);
         throw new CodecConvertionException(message);
@@ -137,182 +107,319 @@ public class NumberConverter extends StandardConverter<Number> {
 
     @Override
     public void writeValueTo(StandardWriter context, Type type, ClassDefinition definition, Number instance) throws IOException {
-        OutputStream out = context.getOutputStream();
         byte information = ClassDefinition.getMark(Specification.NUMBER);
         if (instance == null) {
-            out.write(information);
+            context.writeByte(information);
             return;
         }
         if (type == Byte.class || type == byte.class) {
-            byte number = instance.byteValue();
-            if (number < 0) {
-                information |= SWITCH_MARK | NUMERICAL_MARK;
-                if (number == Byte.MIN_VALUE) {
-                    number = 0;
-                } else {
-                    number = (byte) -number;
-                }
-            } else {
-                information |= NUMERICAL_MARK;
-            }
-            out.write(information);
-            writeNumber(out, number);
+            writeInteger(context, instance.byteValue(), Byte.MIN_VALUE);
         } else if (type == Short.class || type == short.class) {
-            short number = instance.shortValue();
-            if (number < 0) {
-                information |= SWITCH_MARK | NUMERICAL_MARK;
-                if (number == Short.MIN_VALUE) {
-                    number = 0;
-                } else {
-                    number = (short) -number;
-                }
-            } else {
-                information |= NUMERICAL_MARK;
-            }
-            out.write(information);
-            writeNumber(out, number);
+            writeInteger(context, instance.shortValue(), Short.MIN_VALUE);
         } else if (type == Integer.class || type == int.class || type == AtomicInteger.class) {
-            int number = instance.intValue();
-            if (number < 0) {
-                information |= SWITCH_MARK | NUMERICAL_MARK;
-                if (number == Integer.MIN_VALUE) {
-                    number = 0;
-                } else {
-                    number = -number;
-                }
-            } else {
-                information |= NUMERICAL_MARK;
-            }
-            out.write(information);
-            writeNumber(out, number);
+            writeInteger(context, instance.intValue(), Integer.MIN_VALUE);
         } else if (type == Long.class || type == long.class || type == AtomicLong.class) {
-            if (instance.longValue() == Long.MIN_VALUE) {
-                information |= SWITCH_MARK | NUMERICAL_MARK;
-                instance = 0;
-            } else {
-                long number = instance.longValue();
-                if (number < 0) {
-                    information |= SWITCH_MARK | NUMERICAL_MARK;
-                    number = -number;
-                } else {
-                    information |= NUMERICAL_MARK;
-                }
-                instance = number;
-            }
-            out.write(information);
-            writeNumber(out, instance);
+            writeInteger(context, instance.longValue(), Long.MIN_VALUE);
         } else if (type == BigInteger.class) {
             BigInteger number = (BigInteger) instance;
-            if (number.compareTo(BigInteger.ZERO) < 0) {
+            if (number.signum() < 0) {
                 information |= SWITCH_MARK | NUMERICAL_MARK;
                 number = number.negate();
             } else {
                 information |= NUMERICAL_MARK;
             }
-            instance = number;
-            out.write(information);
-            writeNumber(out, instance);
+            context.writeByte(information);
+            writeNumber(context, number);
         } else if (type == Float.class || type == float.class) {
-            float number = instance.floatValue();
-            information |= NUMERICAL_MARK;
-            out.write(information);
-            DataOutput dataOutput = new DataOutputStream(out);
-            dataOutput.writeFloat(number);
+            context.writeByte(information | NUMERICAL_MARK);
+            context.writeFloat(instance.floatValue());
         } else if (type == Double.class || type == double.class) {
-            double number = instance.doubleValue();
-            information |= NUMERICAL_MARK;
-            out.write(information);
-            DataOutput dataOutput = new DataOutputStream(out);
-            dataOutput.writeDouble(number);
+            context.writeByte(information | NUMERICAL_MARK);
+            context.writeDouble(instance.doubleValue());
         } else if (type == BigDecimal.class) {
             BigDecimal number = (BigDecimal) instance;
-            information |= NUMERICAL_MARK;
-            out.write(information);
-            String decimal = number.toString();
-            byte[] data = decimal.getBytes(StringUtility.CHARSET);
-            if (data.length > LENGTH_MASK) {
-                throw new CodecConvertionException();
+            if (number.signum() < 0) {
+                information |= SWITCH_MARK | NUMERICAL_MARK;
+                number = number.negate();
+            } else {
+                information |= NUMERICAL_MARK;
             }
-            out.write(data.length);
-            IoUtility.write(data, out);
+            context.writeByte(information);
+            writeNumber(context, number.unscaledValue());
+            int scale = number.scale();
+            writeNumber(context, ((long) scale << 1) ^ (scale >> 31));
         } else {
             throw new CodecConvertionException();
         }
     }
 
-    static Number readNumber(InputStream in) throws IOException {
-        byte information = (byte) in.read();
+    /**
+     * 读取原始类型字段
+     *
+     * @param context
+     * @param field
+     * @param instance
+     * @throws Exception
+     */
+    static void readFieldFrom(StandardReader context, Field field, Object instance) throws Exception {
+        byte information = context.readByte();
+        byte mark = getMark(information);
+        if (mark == NULL_MARK) {
+            return;
+        }
+        boolean switchMark = ((information & SWITCH_MARK) != 0);
+        Class<?> clazz = field.getType();
+        if (clazz == int.class) {
+            field.setInt(instance, (int) readSigned(context, switchMark, Integer.MIN_VALUE));
+        } else if (clazz == long.class) {
+            field.setLong(instance, readSigned(context, switchMark, Long.MIN_VALUE));
+        } else if (clazz == float.class) {
+            field.setFloat(instance, context.readFloat());
+        } else if (clazz == double.class) {
+            field.setDouble(instance, context.readDouble());
+        } else if (clazz == short.class) {
+            field.setShort(instance, (short) readSigned(context, switchMark, Short.MIN_VALUE));
+        } else if (clazz == byte.class) {
+            field.setByte(instance, (byte) readSigned(context, switchMark, Byte.MIN_VALUE));
+        } else {
+            String message = StringUtility.format("类型码[{}]没有对应标记码[{}]", clazz, mark);
+            throw new CodecConvertionException(message);
+        }
+    }
+
+    /**
+     * 写出原始类型字段
+     *
+     * @param context
+     * @param field
+     * @param instance
+     * @throws Exception
+     */
+    static void writeFieldTo(StandardWriter context, Field field, Object instance) throws Exception {
+        byte information = ClassDefinition.getMark(Specification.NUMBER);
+        Class<?> clazz = field.getType();
+        if (clazz == int.class) {
+            writeInteger(context, field.getInt(instance), Integer.MIN_VALUE);
+        } else if (clazz == long.class) {
+            writeInteger(context, field.getLong(instance), Long.MIN_VALUE);
+        } else if (clazz == float.class) {
+            context.writeByte(information | NUMERICAL_MARK);
+            context.writeFloat(field.getFloat(instance));
+        } else if (clazz == double.class) {
+            context.writeByte(information | NUMERICAL_MARK);
+            context.writeDouble(field.getDouble(instance));
+        } else if (clazz == short.class) {
+            writeInteger(context, field.getShort(instance), Short.MIN_VALUE);
+        } else if (clazz == byte.class) {
+            writeInteger(context, field.getByte(instance), Byte.MIN_VALUE);
+        } else {
+            throw new CodecConvertionException();
+        }
+    }
+
+    /**
+     * 读取整数(标记之后的部分)
+     *
+     * @param context
+     * @param switchMark
+     * @param minimum
+     *            -0代表的最小值
+     * @return
+     * @throws IOException
+     */
+    private static long readSigned(StandardReader context, boolean switchMark, long minimum) throws IOException {
+        long value = readLong(context);
+        if (switchMark) {
+            return value == 0L ? minimum : -value;
+        }
+        return value;
+    }
+
+    /**
+     * 读取整数(包括标记)
+     *
+     * <pre>
+     * 供原始类型字段使用,Null标记返回0.
+     * </pre>
+     *
+     * @param context
+     * @param minimum
+     *            -0代表的最小值
+     * @return
+     * @throws IOException
+     */
+    public static long readInteger(StandardReader context, long minimum) throws IOException {
+        byte information = context.readByte();
+        if (getMark(information) == NULL_MARK) {
+            return 0L;
+        }
+        return readSigned(context, (information & SWITCH_MARK) != 0, minimum);
+    }
+
+    /**
+     * 写出整数(包括标记)
+     *
+     * @param context
+     * @param number
+     * @param minimum
+     *            使用-0代表的最小值
+     * @throws IOException
+     */
+    public static void writeInteger(StandardWriter context, long number, long minimum) throws IOException {
+        byte information = ClassDefinition.getMark(Specification.NUMBER);
+        if (number < 0) {
+            information |= SWITCH_MARK | NUMERICAL_MARK;
+            number = number == minimum ? 0L : -number;
+        } else {
+            information |= NUMERICAL_MARK;
+        }
+        context.writeByte(information);
+        writeNumber(context, number);
+    }
+
+    /**
+     * 读取浮点数(包括标记)
+     *
+     * @param context
+     * @return
+     * @throws IOException
+     */
+    public static float readFloat(StandardReader context) throws IOException {
+        byte information = context.readByte();
+        if (getMark(information) == NULL_MARK) {
+            return 0F;
+        }
+        return context.readFloat();
+    }
+
+    /**
+     * 写出浮点数(包括标记)
+     *
+     * @param context
+     * @param number
+     * @throws IOException
+     */
+    public static void writeFloat(StandardWriter context, float number) throws IOException {
+        context.writeByte(ClassDefinition.getMark(Specification.NUMBER) | NUMERICAL_MARK);
+        context.writeFloat(number);
+    }
+
+    /**
+     * 读取浮点数(包括标记)
+     *
+     * @param context
+     * @return
+     * @throws IOException
+     */
+    public static double readDouble(StandardReader context) throws IOException {
+        byte information = context.readByte();
+        if (getMark(information) == NULL_MARK) {
+            return 0D;
+        }
+        return context.readDouble();
+    }
+
+    /**
+     * 写出浮点数(包括标记)
+     *
+     * @param context
+     * @param number
+     * @throws IOException
+     */
+    public static void writeDouble(StandardWriter context, double number) throws IOException {
+        context.writeByte(ClassDefinition.getMark(Specification.NUMBER) | NUMERICAL_MARK);
+        context.writeDouble(number);
+    }
+
+    /**
+     * 读取非负数值
+     *
+     * @param context
+     * @return
+     * @throws IOException
+     */
+    static long readLong(StandardReader context) throws IOException {
+        byte information = context.readByte();
         if (information >= 0) {
             return information;
         }
         int length = information & LENGTH_MASK;
-        if (in.available() < length || length < 0) {
-            throw new EOFException();
-        }
-        if (length < (SHORT_BIT / BYTE_BIT)) {
-            short value = 0;
-            for (int bit = BYTE_BIT * (length - 1); bit >= 0; bit -= BYTE_BIT) {
-                short data = (byte) in.read();
-                value |= (data & DATA_MASK) << bit;
-            }
-            return value;
-        } else if (length < (INTEGER_BIT / BYTE_BIT)) {
-            int value = 0;
-            for (int bit = BYTE_BIT * (length - 1); bit >= 0; bit -= BYTE_BIT) {
-                int data = (byte) in.read();
-                value |= (data & DATA_MASK) << bit;
-            }
-            return value;
-        } else if (length < (LONG_BIT / BYTE_BIT)) {
-            long value = 0;
-            for (int bit = BYTE_BIT * (length - 1); bit >= 0; bit -= BYTE_BIT) {
-                long data = (byte) in.read();
-                value |= (data & DATA_MASK) << bit;
-            }
-            return value;
+        if (length <= LONG_BIT / BYTE_BIT) {
+            return context.readBytes(length);
         } else {
-            byte[] data = new byte[length];
-            IoUtility.read(in, data);
-            BigInteger value = new BigInteger(data);
-            return value;
+            return readBigInteger(context, length).longValue();
         }
     }
 
-    static void writeNumber(OutputStream out, Number value) throws IOException {
-        if (value instanceof BigInteger) {
-            BigInteger number = (BigInteger) value;
-            if (number.compareTo(BigInteger.ZERO) >= 0) {
-                byte[] data = number.toByteArray();
-                if (data.length > LENGTH_MASK) {
-                    String message = StringUtility.format("Number数值的长度为{},不符合协议格式.", data.length);
-                    throw new CodecConvertionException(message);
-                }
-                out.write(data.length | ~LENGTH_MASK);
-                IoUtility.write(data, out);
-            }
+    /**
+     * 读取非负数值
+     *
+     * @param context
+     * @return
+     * @throws IOException
+     */
+    static int readInteger(StandardReader context) throws IOException {
+        return (int) readLong(context);
+    }
+
+    /**
+     * 读取非负数值
+     *
+     * @param context
+     * @return
+     * @throws IOException
+     */
+    static BigInteger readBigInteger(StandardReader context) throws IOException {
+        byte information = context.readByte();
+        if (information >= 0) {
+            return BigInteger.valueOf(information);
+        }
+        int length = information & LENGTH_MASK;
+        return readBigInteger(context, length);
+    }
+
+    private static BigInteger readBigInteger(StandardReader context, int length) throws IOException {
+        byte[] data = new byte[length];
+        IoUtility.readFully(context.getInputStream(), data);
+        return new BigInteger(1, data);
+    }
+
+    /**
+     * 写出非负数值
+     *
+     * @param context
+     * @param number
+     * @throws IOException
+     */
+    static void writeNumber(StandardWriter context, long number) throws IOException {
+        if (number < 0) {
+            String message = StringUtility.format("Number数值的大小为{},不符合协议格式.", number);
+            throw new CodecConvertionException(message);
+        }
+        if (number <= LENGTH_MASK) {
+            context.writeByte((byte) number);
         } else {
-            long number = value.longValue();
-            if (number >= 0) {
-                if (number <= LENGTH_MASK) {
-                    byte data = (byte) number;
-                    out.write(data);
-                } else if (number <= Long.MAX_VALUE) {
-                    for (int bit = (number <= Short.MAX_VALUE) ? SHORT_BIT : (number <= Integer.MAX_VALUE ? INTEGER_BIT : LONG_BIT); bit > 0; bit -= BYTE_BIT) {
-                        if (number >>> (bit - BYTE_BIT) > 0) {
-                            byte length = (byte) (bit / BYTE_BIT);
-                            out.write(length | ~LENGTH_MASK);
-                            for (bit -= BYTE_BIT; bit >= 0; bit -= BYTE_BIT) {
-                                byte data = (byte) ((number >> bit) & DATA_MASK);
-                                out.write(data);
-                            }
-                            return;
-                        }
-                    }
-                    String message = StringUtility.format("Number数值的大小为{},不符合协议格式.", value);
-                    throw new CodecConvertionException(message);
-                }
-            }
+            int length = (LONG_BIT - Long.numberOfLeadingZeros(number) + BYTE_BIT - 1) / BYTE_BIT;
+            context.writeByte(length | ~LENGTH_MASK);
+            context.writeBytes(number, length);
+        }
+    }
+
+    /**
+     * 写出非负数值
+     *
+     * @param context
+     * @param number
+     * @throws IOException
+     */
+    static void writeNumber(StandardWriter context, BigInteger number) throws IOException {
+        byte[] data = number.toByteArray();
+        if (data.length > LENGTH_MASK) {
+            String message = StringUtility.format("Number数值的长度为{},不符合协议格式.", data.length);
+            throw new CodecConvertionException(message);
         }
+        context.writeByte(data.length | ~LENGTH_MASK);
+        context.getOutputStream().write(data);
     }
 
 }
@@ -8,6 +8,7 @@ import com.jstarcraft.core.codec.exception.CodecConvertionException;
 import com.jstarcraft.core.codec.specification.ClassDefinition;
 import com.jstarcraft.core.codec.specification.PropertyDefinition;
 import com.jstarcraft.core.codec.standard.StandardReader;
+import com.jstarcraft.core.codec.standard.StandardSerializer;
 import com.jstarcraft.core.codec.standard.StandardWriter;
 import com.jstarcraft.core.common.reflection.Specification;
 import com.jstarcraft.core.utility.StringUtility;
@@ -38,6 +39,20 @@ public class ObjectConverter extends StandardConverter<Object> {
             return null;
         }
         if (mark == OBJECT_MARK) {
+            StandardSerializer serializer = context.getStandardSerializer(definition);
+            if (serializer != null) {
+                // 生成的序列化器
+                Object instance;
+                try {
+                    instance = serializer.newInstance();
+                } catch (Exception exception) {
+                    String message = StringUtility.format("获取类型[{}]实例异常", definition.getName());
+                    throw new CodecConvertionException(message, exception);
+                }
+                context.putObjectValue(instance);
+                serializer.readProperties(context, instance);
+                return instance;
+            }
             PropertyDefinition[] properties = definition.getProperties();
             Object instance;
             try {
@@ -49,6 +64,16 @@ public class ObjectConverter extends StandardConverter<Object> {
             context.putObjectValue(instance);
             for (int index = 0; index < properties.length; index++) {
                 PropertyDefinition property = properties[index];
+                if (property.isPrimitive() && property.getSpecification() == Specification.NUMBER) {
+                    // 原始类型数值字段不装箱
+                    try {
+                        NumberConverter.readFieldFrom(context, property.getField(), instance);
+                    } catch (IllegalAccessException exception) {
+                        String message = StringUtility.format("赋值[{}]实例属性[{}]异常", definition.getName(), property.getName());
+                        throw new CodecConvertionException(message, exception);
+                    }
+                    continue;
+                }
                 StandardConverter converter = context.getStandardConverter(property.getSpecification());
                 definition = context.getClassDefinition(property.getCode());
                 Object value = converter.readValueFrom(context, property.getType(), definition);
@@ -64,7 +89,7 @@ public class ObjectConverter extends StandardConverter<Object> {
             }
             return instance;
         } else if (mark == REFERENCE_MARK) {
-            int reference = NumberConverter.readNumber(in).intValue();
+            int reference = NumberConverter.readInteger(context);
             Object value = context.getObjectValue(reference);
             return value;
         }
@@ -84,15 +109,33 @@ public class ObjectConverter extends StandardConverter<Object> {
         if (reference != -1) {
             information |= REFERENCE_MARK;
             out.write(information);
-            NumberConverter.writeNumber(out, reference);
+            NumberConverter.writeNumber(context, reference);
         } else {
             information |= OBJECT_MARK;
             out.write(information);
             context.putObjectValue(instance);
+            StandardSerializer serializer = context.getStandardSerializer(definition);
+            if (serializer != null) {
+                // 生成的序列化器
+                try {
+                    serializer.writeProperties(context, instance);
+                } catch (CodecConvertionException exception) {
+                    throw exception;
+                } catch (Exception exception) {
+                    String message = StringUtility.format("取值[{}]实例属性异常", definition.getName());
+                    throw new CodecConvertionException(message, exception);
+                }
+                return;
+            }
             PropertyDefinition[] properties = definition.getProperties();
             for (PropertyDefinition property : properties) {
                 Object value;
                 try {
+                    if (property.isPrimitive() && property.getSpecification() == Specification.NUMBER) {
+                        // 原始类型数值字段不装箱
+                        NumberConverter.writeFieldTo(context, property.getField(), instance);
+                        continue;
+                    }
                     value = property.getValue(instance);
                     StandardConverter converter = context.getStandardConverter(property.getSpecification());
                     definition = context.getClassDefinition(property.getCode());
@@ -2,9 +2,12 @@ package com.jstarcraft.core.codec.standard.converter;
 
 import java.util.EnumMap;
 
+import com.jstarcraft.core.codec.compression.Compressor;
+import com.jstarcraft.core.codec.compression.DeflateCompressor;
 import com.jstarcraft.core.codec.specification.ClassDefinition;
 import com.jstarcraft.core.codec.specification.CodecDefinition;
 import com.jstarcraft.core.codec.standard.StandardReference;
+import com.jstarcraft.core.codec.standard.StandardSerializer;
 import com.jstarcraft.core.common.reflection.Specification;
 
 /**
@@ -15,6 +18,12 @@ import com.jstarcraft.core.common.reflection.Specification;
  */
 public abstract class StandardContext {
 
+    /** 默认压缩器(与之前的字符串压缩格式一致) */
+    public static final Compressor DEFAULT_COMPRESSOR = new DeflateCompressor(5);
+
+    /** 默认压缩阈值(字节) */
+    public static final int DEFAULT_THRESHOLD = 1024;
+
     protected static final EnumMap<Specification, StandardConverter<?>> converters = new EnumMap<>(Specification.class);
 
     static {
@@ -34,6 +43,15 @@ public abstract class StandardContext {
     /** 协议定义 */
     private final CodecDefinition definition;
 
+    /** 对象序列化器(按照类型代号索引) */
+    private final StandardSerializer[] serializers;
+
+    /** 字符串压缩器 */
+    private final Compressor compressor;
+
+    /** 字符串压缩阈值(超过时压缩) */
+    private final int threshold;
+
     /** 读写上下文过程的数组引用 */
     protected StandardReference<Object> arrayReference = new StandardReference<Object>();
     /** 读写上下文过程的集合引用 */
@@ -43,10 +61,63 @@ public abstract class StandardContext {
     /** 读写上下文过程的对象引用 */
     protected StandardReference<Object> objectReference = new StandardReference<Object>();
     /** 读写上下文过程的字符串引用 */
-    protected StandardReference<String> stringReference = new StandardReference<String>();
+    protected StandardReference<String> stringReference;
 
     public StandardContext(CodecDefinition definition) {
+        this(definition, false);
+    }
+
+    /**
+     * 
+     * @param definition
+     * @param deduplication
+     *            字符串是否按照equals去重(否则按照引用)
+     */
+    public StandardContext(CodecDefinition definition, boolean deduplication) {
+        this(definition, deduplication, null);
+    }
+
+    /**
+     * 
+     * @param definition
+     * @param deduplication
+     *            字符串是否按照equals去重(否则按照引用)
+     * @param serializers
+     *            对象序列化器(null代表使用反射)
+     */
+    public StandardContext(CodecDefinition definition, boolean deduplication, StandardSerializer[] serializers) {
+        this(definition, deduplication, serializers, DEFAULT_COMPRESSOR, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * 
+     * @param definition
+     * @param deduplication
+     *            字符串是否按照equals去重(否则按照引用)
+     * @param serializers
+     *            对象序列化器(null代表使用反射)
+     * @param compressor
+     *            字符串压缩器(null代表不压缩)
+     * @param threshold
+     *            字符串压缩阈值(字节)
+     */
+    public StandardContext(CodecDefinition definition, boolean deduplication, StandardSerializer[] serializers, Compressor compressor, int threshold) {
         this.definition = definition;
+        this.stringReference = new StandardReference<String>(deduplication);
+        this.serializers = serializers;
+        this.compressor = compressor;
+        this.threshold = threshold;
+    }
+
+    /**
+     * 清空所有引用(使上下文可以在消息之间复用)
+     */
+    public void reset() {
+        arrayReference.reset();
+        collectionReference.reset();
+        mapReference.reset();
+        objectReference.reset();
+        stringReference.reset();
     }
 
     public StandardConverter getStandardConverter(Specification specification) {
@@ -54,6 +125,26 @@ public abstract class StandardContext {
         return converter;
     }
 
+    public static StandardConverter getConverter(Specification specification) {
+        StandardConverter converter = converters.get(specification);
+        return converter;
+    }
+
+    protected StandardSerializer getStandardSerializer(ClassDefinition definition) {
+        if (serializers == null) {
+            return null;
+        }
+        return serializers[definition.getCode()];
+    }
+
+    protected Compressor getCompressor() {
+        return compressor;
+    }
+
+    protected int getThreshold() {
+        return threshold;
+    }
+
     protected ClassDefinition getClassDefinition(int index) {
         return definition.getClassDefinition(index);
     }
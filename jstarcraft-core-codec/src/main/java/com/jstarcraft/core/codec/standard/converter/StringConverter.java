@@ -5,15 +5,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Type;
-import java.util.concurrent.TimeUnit;
 
+import com.jstarcraft.core.codec.compression.Compressor;
 import com.jstarcraft.core.codec.exception.CodecConvertionException;
 import com.jstarcraft.core.codec.specification.ClassDefinition;
 import com.jstarcraft.core.codec.standard.StandardReader;
 import com.jstarcraft.core.codec.standard.StandardWriter;
 import com.jstarcraft.core.common.io.IoUtility;
 import com.jstarcraft.core.common.reflection.Specification;
-import com.jstarcraft.core.utility.PressUtility;
 import com.jstarcraft.core.utility.StringUtility;
 
 /**
@@ -33,12 +32,9 @@ public class StringConverter extends StandardConverter<Object> {
     /** 0000 0001(引用标记) */
     private static final byte REFERENCE_MARK = (byte) 0x02;
 
-    /** 0000 0002(Zip标记) */
+    /** 0000 0003(压缩标记,压缩算法由上下文的压缩器决定) */
     private static final byte ZIP_MARK = (byte) 0x03;
 
-    /** Zip限制 */
-    private static final Integer ZIP_LIMIT = 1024;
-
     public Object readValueFrom(StandardReader context, Type type, ClassDefinition definition) throws IOException {
         InputStream in = context.getInputStream();
         byte information = (byte) in.read();
@@ -47,7 +43,7 @@ public class StringConverter extends StandardConverter<Object> {
             return null;
         }
         if (mark == STRING_MARK) {
-            int length = NumberConverter.readNumber(in).intValue();
+            int length = NumberConverter.readInteger(context);
             if (in.available() < length) {
                 throw new EOFException();
             }
@@ -61,7 +57,7 @@ public class StringConverter extends StandardConverter<Object> {
                 return value;
             }
         } else if (mark == REFERENCE_MARK) {
-            int reference = NumberConverter.readNumber(in).intValue();
+            int reference = NumberConverter.readInteger(context);
             String value = context.getStringValue(reference);
             if (type == char.class || type == Character.class) {
                 return value.charAt(0);
@@ -69,13 +65,18 @@ public class StringConverter extends StandardConverter<Object> {
                 return value;
             }
         } else if (mark == ZIP_MARK) {
-            int length = NumberConverter.readNumber(in).intValue();
+            int length = NumberConverter.readInteger(context);
             if (in.available() < length) {
                 throw new EOFException();
             }
             byte[] bytes = new byte[length];
             IoUtility.read(in, bytes);
-            bytes = PressUtility.unzip(bytes, 30, TimeUnit.SECONDS);
+            Compressor compressor = context.getCompressor();
+            if (compressor == null) {
+                String message = StringUtility.format("类型码[{}]的内容已压缩,但是没有压缩器", type);
+                throw new CodecConvertionException(message);
+            }
+            bytes = compressor.decompress(bytes);
             String value = new String(bytes, StringUtility.CHARSET);
             context.putStringValue(value);
             if (type == char.class || type == Character.class) {
@@ -105,19 +106,24 @@ public class StringConverter extends StandardConverter<Object> {
         if (reference != -1) {
             information |= REFERENCE_MARK;
             out.write(information);
-            NumberConverter.writeNumber(out, reference);
+            NumberConverter.writeNumber(context, reference);
         } else {
             context.putStringValue(element);
             byte[] bytes = element.getBytes(StringUtility.CHARSET);
-            if (bytes.length > ZIP_LIMIT) {
-                information |= ZIP_MARK;
-                bytes = PressUtility.zip(bytes, 5);
-            } else {
-                information |= STRING_MARK;
+            Compressor compressor = context.getCompressor();
+            byte mark = STRING_MARK;
+            if (compressor != null && bytes.length > context.getThreshold()) {
+                byte[] zip = compressor.compress(bytes);
+                // 压缩无效(例如随机内容)时保持原样
+                if (zip.length < bytes.length) {
+                    mark = ZIP_MARK;
+                    bytes = zip;
+                }
             }
+            information |= mark;
             out.write(information);
             int length = bytes.length;
-            NumberConverter.writeNumber(out, length);
+            NumberConverter.writeNumber(context, length);
             IoUtility.write(bytes, out);
         }
     }
@@ -3,6 +3,7 @@ package com.jstarcraft.core.codec.yaml;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +15,7 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.jstarcraft.core.codec.ContentCodec;
 import com.jstarcraft.core.codec.exception.CodecException;
+import com.jstarcraft.core.codec.json.JacksonUtility;
 import com.jstarcraft.core.codec.specification.CodecDefinition;
 import com.jstarcraft.core.common.conversion.json.JsonUtility;
 import com.jstarcraft.core.common.conversion.json.TypeJacksonDeserializer;
@@ -79,6 +81,17 @@ public class YamlContentCodec implements ContentCodec {
         }
     }
 
+    @Override
+    public Object decode(Type type, ByteBuffer buffer) {
+        try {
+            return JacksonUtility.buffer2Object(typeConverter, type, buffer);
+        } catch (Exception exception) {
+            String message = "YAML解码异常";
+            LOGGER.error(message, exception);
+            throw new CodecException(message, exception);
+        }
+    }
+
     @Override
     public byte[] encode(Type type, Object content) {
         try {
@@ -4,15 +4,26 @@ import java.io.File;
 import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.io.FileUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.jstarcraft.core.codec.exception.CodecDefinitionException;
+import com.jstarcraft.core.codec.specification.ClassDefinition;
 import com.jstarcraft.core.codec.specification.CodecDefinition;
 
 public class CodecDefinitionTestCase {
 
+    /** 未注册的子类型 */
+    private static class MockChildObject extends MockSimpleObject {
+    }
+
     @Test
     public void testByte() throws Exception {
         Collection<Type> protocolClasses = new LinkedList<>();
@@ -30,4 +41,46 @@ public class CodecDefinitionTestCase {
         FileUtils.writeByteArrayToFile(file, bytes);
     }
 
+    @Test
+    public void testInheritance() throws Exception {
+        CodecDefinition definition = CodecDefinition.instanceOf(MockSimpleObject.class);
+        ClassDefinition parent = definition.getClassDefinition(MockSimpleObject.class);
+        // 未注册的子类型使用父类型的定义
+        Assert.assertSame(parent, definition.getClassDefinition(MockChildObject.class));
+        Assert.assertSame(parent, definition.getClassDefinition(MockChildObject.class));
+        Assert.assertSame(parent, definition.getClassDefinition(MockChildObject[][].class));
+        try {
+            definition.getClassDefinition(Thread.class);
+            Assert.fail();
+        } catch (CodecDefinitionException exception) {
+        }
+
+        // 多线程同时查找与缓存
+        definition = CodecDefinition.instanceOf(MockSimpleObject.class);
+        ClassDefinition expect = definition.getClassDefinition(MockSimpleObject.class);
+        CodecDefinition instance = definition;
+        int size = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(size);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger errors = new AtomicInteger();
+        for (int thread = 0; thread < size; thread++) {
+            executor.submit(() -> {
+                try {
+                    latch.await();
+                    for (int index = 0; index < 10000; index++) {
+                        if (instance.getClassDefinition(MockChildObject.class) != expect || instance.getClassDefinition(MockSimpleObject.class) != expect) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } catch (Exception exception) {
+                    errors.incrementAndGet();
+                }
+            });
+        }
+        latch.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        Assert.assertEquals(0, errors.get());
+    }
+
 }
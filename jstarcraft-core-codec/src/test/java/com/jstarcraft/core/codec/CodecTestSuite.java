@@ -4,15 +4,20 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import com.jstarcraft.core.codec.avro.AvroBinaryContentCodecTestCase;
 import com.jstarcraft.core.codec.avro.AvroContentCodecTestCase;
 import com.jstarcraft.core.codec.cbor.CborContentCodecTestCase;
+import com.jstarcraft.core.codec.compression.CompressorTestCase;
 import com.jstarcraft.core.codec.csv.CsvContentCodecTestCase;
 import com.jstarcraft.core.codec.hessian.HessianContentCodecTestCase;
 import com.jstarcraft.core.codec.ion.IonContentCodecTestCase;
 import com.jstarcraft.core.codec.json.JsonContentCodecTestCase;
 import com.jstarcraft.core.codec.kryo.KryoContentCodecTestCase;
 import com.jstarcraft.core.codec.msgpack.MessagePackContentCodecTestCase;
+import com.jstarcraft.core.codec.protobuf.ProtobufContentCodecTestCase;
 import com.jstarcraft.core.codec.standard.StandardContentCodecTestCase;
+import com.jstarcraft.core.codec.standard.StandardReferenceTestCase;
+import com.jstarcraft.core.codec.standard.StandardSerializerTestCase;
 import com.jstarcraft.core.codec.thrift.ThriftContentCodecTestCase;
 import com.jstarcraft.core.codec.xml.XmlContentCodecTestCase;
 import com.jstarcraft.core.codec.yaml.YamlContentCodecTestCase;
@@ -24,8 +29,12 @@ import com.jstarcraft.core.codec.yaml.YamlContentCodecTestCase;
 
         AvroContentCodecTestCase.class,
 
+        AvroBinaryContentCodecTestCase.class,
+
         CborContentCodecTestCase.class,
 
+        CompressorTestCase.class,
+
         CsvContentCodecTestCase.class,
 
         HessianContentCodecTestCase.class,
@@ -38,8 +47,14 @@ import com.jstarcraft.core.codec.yaml.YamlContentCodecTestCase;
 
         MessagePackContentCodecTestCase.class,
 
+        ProtobufContentCodecTestCase.class,
+
         StandardContentCodecTestCase.class,
 
+        StandardReferenceTestCase.class,
+
+        StandardSerializerTestCase.class,
+
         ThriftContentCodecTestCase.class,
 
         XmlContentCodecTestCase.class,
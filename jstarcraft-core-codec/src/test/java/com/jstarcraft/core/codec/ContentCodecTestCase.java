@@ -9,6 +9,7 @@ import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -445,6 +446,47 @@ public abstract class ContentCodecTestCase {
         testConvert(ByteArrayList.class, list);
     }
 
+    private void testBuffer(ByteBuffer buffer, Type type, Object instance) {
+        contentCodec.encode(type, instance, buffer);
+        buffer.flip();
+        byte[] data = contentCodec.encode(type, instance);
+        Assert.assertThat(buffer.remaining(), CoreMatchers.equalTo(data.length));
+        Assert.assertThat(contentCodec.decode(type, buffer), CoreMatchers.equalTo(instance));
+        Assert.assertFalse(buffer.hasRemaining());
+
+        // 与byte[]方法互通
+        buffer.clear();
+        buffer.put(data).flip();
+        Assert.assertThat(contentCodec.decode(type, buffer), CoreMatchers.equalTo(instance));
+        Assert.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void testBuffer() throws Exception {
+        Type type = MockComplexObject.class;
+        Object instance = MockComplexObject.instanceOf(Integer.MAX_VALUE, "birdy", "hong", 10, Instant.now(), MockEnumeration.TERRAN);
+        // 堆内缓冲
+        testBuffer(ByteBuffer.allocate(64 * 1024), type, instance);
+        // 直接缓冲
+        testBuffer(ByteBuffer.allocateDirect(64 * 1024), type, instance);
+        // 非零偏移的缓冲视图
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        buffer.position(128);
+        testBuffer(buffer.slice(), type, instance);
+        // 剩余空间不足时不可以越过limit写入
+        byte[] data = contentCodec.encode(type, instance);
+        buffer = ByteBuffer.allocate(data.length + 16);
+        buffer.limit(data.length - 1);
+        try {
+            contentCodec.encode(type, instance, buffer);
+            Assert.fail();
+        } catch (Exception exception) {
+        }
+        for (int index = buffer.limit(); index < buffer.capacity(); index++) {
+            Assert.assertEquals(0, buffer.array()[index]);
+        }
+    }
+
     private void testPerformance(ContentCodec contentCodec, Type type, Object instance) {
         byte[] data = contentCodec.encode(type, instance);
         String message = StringUtility.format("格式化{}大小:{},{}", type.getTypeName(), data.length, Arrays.toString(data));
@@ -0,0 +1,37 @@
+package com.jstarcraft.core.codec.avro;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jstarcraft.core.codec.ContentCodec;
+import com.jstarcraft.core.codec.MockSimpleObject;
+import com.jstarcraft.core.codec.specification.CodecDefinition;
+
+public class AvroBinaryContentCodecTestCase extends AvroContentCodecTestCase {
+
+    @Override
+    protected ContentCodec getContentCodec(CodecDefinition protocolDefinition) {
+        // 复用BinaryDecoder/BinaryEncoder
+        final AvroContentCodec codec = new AvroContentCodec(protocolDefinition);
+        return codec;
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        // 同一个字节流中连续的消息(解码不能预读后续的消息)
+        MockSimpleObject left = MockSimpleObject.instanceOf(1, "left");
+        MockSimpleObject right = MockSimpleObject.instanceOf(2, "right");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        contentCodec.encode(MockSimpleObject.class, left, output);
+        contentCodec.encode(MockSimpleObject.class, right, output);
+        ByteArrayInputStream input = new ByteArrayInputStream(output.toByteArray());
+        Assert.assertThat(contentCodec.decode(MockSimpleObject.class, input), CoreMatchers.equalTo(left));
+        Assert.assertThat(contentCodec.decode(MockSimpleObject.class, input), CoreMatchers.equalTo(right));
+        Assert.assertThat(input.available(), CoreMatchers.equalTo(0));
+    }
+
+}
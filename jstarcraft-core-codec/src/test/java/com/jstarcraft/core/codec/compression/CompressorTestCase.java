@@ -0,0 +1,155 @@
+package com.jstarcraft.core.codec.compression;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jstarcraft.core.codec.exception.CodecException;
+import com.jstarcraft.core.codec.specification.CodecDefinition;
+import com.jstarcraft.core.codec.standard.StandardContentCodec;
+import com.jstarcraft.core.utility.PressUtility;
+import com.jstarcraft.core.utility.StringUtility;
+
+public class CompressorTestCase {
+
+    private static byte[] getText(int size) {
+        StringBuilder buffer = new StringBuilder(size);
+        while (buffer.length() < size) {
+            buffer.append("JStarCraft框架").append(buffer.length() % 100);
+        }
+        return buffer.substring(0, size).getBytes(StringUtility.CHARSET);
+    }
+
+    private static byte[] getRandom(int size) {
+        byte[] data = new byte[size];
+        ThreadLocalRandom.current().nextBytes(data);
+        return data;
+    }
+
+    private void testCompressor(Compressor compressor) {
+        for (int size : new int[] { 0, 1, 100, 1024, 100000, 2 * 1024 * 1024 }) {
+            byte[] text = getText(size);
+            byte[] zip = compressor.compress(text);
+            Assert.assertArrayEquals(text, compressor.decompress(zip));
+            if (size >= 1024) {
+                Assert.assertTrue(zip.length < text.length);
+            }
+            byte[] random = getRandom(size);
+            Assert.assertArrayEquals(random, compressor.decompress(compressor.compress(random)));
+        }
+    }
+
+    @Test
+    public void testDeflate() {
+        testCompressor(new DeflateCompressor(5));
+        testCompressor(new DeflateCompressor(1));
+
+        // 与PressUtility的格式一致
+        Compressor compressor = new DeflateCompressor(5);
+        byte[] text = getText(10000);
+        Assert.assertArrayEquals(PressUtility.zip(text, 5), compressor.compress(text));
+
+        // 不完整的数据
+        byte[] zip = compressor.compress(text);
+        try {
+            compressor.decompress(Arrays.copyOf(zip, zip.length / 2));
+            Assert.fail();
+        } catch (CodecException exception) {
+        }
+    }
+
+    @Test
+    public void testLz4() {
+        testCompressor(new Lz4Compressor());
+        testCompressor(new Lz4Compressor(9));
+    }
+
+    @Test
+    public void testZstd() {
+        testCompressor(new ZstdCompressor());
+        testCompressor(new ZstdCompressor(19));
+    }
+
+    @Test
+    public void testMaximum() {
+        int maximum = 10000;
+        for (Compressor compressor : new Compressor[] { new DeflateCompressor(5, maximum), new Lz4Compressor(0, maximum), new ZstdCompressor(3, maximum) }) {
+            byte[] text = Arrays.copyOf(getText(maximum), maximum);
+            Assert.assertArrayEquals(text, compressor.decompress(compressor.compress(text)));
+            // 超过最大长度
+            try {
+                compressor.decompress(compressor.compress(Arrays.copyOf(getText(maximum + 1), maximum + 1)));
+                Assert.fail();
+            } catch (CodecException exception) {
+            }
+        }
+
+        // 篡改原始长度的LZ4数据
+        Compressor compressor = new Lz4Compressor();
+        byte[] zip = compressor.compress(getText(1000));
+        zip[0] = (byte) 0xFF;
+        try {
+            compressor.decompress(zip);
+            Assert.fail();
+        } catch (CodecException exception) {
+        }
+        zip = compressor.compress(getText(1000));
+        try {
+            compressor.decompress(Arrays.copyOf(zip, zip.length / 2));
+            Assert.fail();
+        } catch (CodecException exception) {
+        }
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        Compressor compressor = new DeflateCompressor(5);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int index = 0; index < futures.length; index++) {
+                int size = 1000 * (index + 1);
+                futures[index] = executor.submit(() -> {
+                    for (int times = 0; times < 100; times++) {
+                        byte[] text = getText(size);
+                        Assert.assertArrayEquals(text, compressor.decompress(compressor.compress(text)));
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStandard() {
+        CodecDefinition definition = CodecDefinition.instanceOf(String.class);
+        String text = new String(getText(10000), StringUtility.CHARSET);
+        byte[] plain = new StandardContentCodec(definition, false, true, null, 0).encode(String.class, text);
+        for (Compressor compressor : new Compressor[] { new DeflateCompressor(5), new Lz4Compressor(), new ZstdCompressor() }) {
+            StandardContentCodec codec = new StandardContentCodec(definition, false, true, compressor, 1024);
+            byte[] data = codec.encode(String.class, text);
+            Assert.assertTrue(data.length < plain.length);
+            Assert.assertThat(codec.decode(String.class, data), CoreMatchers.equalTo(text));
+        }
+
+        // 默认的压缩器与之前的格式一致
+        StandardContentCodec codec = new StandardContentCodec(definition);
+        byte[] data = codec.encode(String.class, text);
+        Assert.assertThat(new StandardContentCodec(definition, false, true, new DeflateCompressor(5), 1024).decode(String.class, data), CoreMatchers.equalTo(text));
+
+        // 未超过阈值或者压缩无效时不压缩
+        codec = new StandardContentCodec(definition, false, true, new Lz4Compressor(), Integer.MAX_VALUE);
+        Assert.assertArrayEquals(plain, codec.encode(String.class, text));
+    }
+
+}
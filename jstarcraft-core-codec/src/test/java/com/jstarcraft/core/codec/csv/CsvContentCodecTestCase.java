@@ -12,4 +12,17 @@ public class CsvContentCodecTestCase extends ContentCodecTestCase {
         return codec;
     }
 
+    @Override
+    public void testArray() throws Exception {
+        super.testArray();
+
+        // 原始类型数组直接读写元素文本
+        testConvert(boolean[].class, new boolean[] { true, false, true });
+        testConvert(short[].class, new short[] { 0, Short.MIN_VALUE, Short.MAX_VALUE, -1 });
+        testConvert(long[].class, new long[] { 0L, Long.MIN_VALUE, Long.MAX_VALUE, -1L });
+        testConvert(float[].class, new float[] { 0F, -Float.MAX_VALUE, Float.MIN_VALUE, Float.NaN });
+        testConvert(double[].class, new double[] { 0D, -Double.MAX_VALUE, Double.MIN_VALUE, Double.NEGATIVE_INFINITY });
+        testConvert(int[].class, new int[0]);
+    }
+
 }
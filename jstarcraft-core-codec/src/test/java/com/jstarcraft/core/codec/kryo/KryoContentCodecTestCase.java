@@ -1,10 +1,23 @@
 package com.jstarcraft.core.codec.kryo;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
 
 import com.jstarcraft.core.codec.ContentCodec;
 import com.jstarcraft.core.codec.ContentCodecTestCase;
+import com.jstarcraft.core.codec.MockComplexObject;
 import com.jstarcraft.core.codec.MockEnumeration;
 import com.jstarcraft.core.codec.specification.CodecDefinition;
 
@@ -36,4 +49,41 @@ public class KryoContentCodecTestCase extends ContentCodecTestCase {
         testConvert(HashMap.class, map);
     }
 
+    @Test
+    public void testConcurrent() throws Exception {
+        int thread = Math.max(4, Runtime.getRuntime().availableProcessors());
+        int times = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(thread);
+        try {
+            ArrayList<Future<Integer>> futures = new ArrayList<>(thread);
+            CountDownLatch latch = new CountDownLatch(thread);
+            for (int index = 0; index < thread; index++) {
+                int id = index;
+                futures.add(executor.submit(() -> {
+                    latch.countDown();
+                    latch.await();
+                    // 每个线程使用不同的对象,共享同一个编解码器
+                    MockComplexObject object = MockComplexObject.instanceOf(id, "birdy", "hong", id + 1, Instant.now(), MockEnumeration.TERRAN);
+                    for (int time = 0; time < times; time++) {
+                        byte[] data = contentCodec.encode(MockComplexObject.class, object);
+                        Assert.assertThat(contentCodec.decode(MockComplexObject.class, data), CoreMatchers.equalTo(object));
+                        try (ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+                            contentCodec.encode(MockComplexObject.class, object, output);
+                            Assert.assertArrayEquals(data, output.toByteArray());
+                            try (ByteArrayInputStream input = new ByteArrayInputStream(output.toByteArray())) {
+                                Assert.assertThat(contentCodec.decode(MockComplexObject.class, input), CoreMatchers.equalTo(object));
+                            }
+                        }
+                    }
+                    return times;
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                Assert.assertThat(future.get(), CoreMatchers.equalTo(times));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
 }
@@ -0,0 +1,143 @@
+package com.jstarcraft.core.codec.protobuf;
+
+import java.util.Objects;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.protobuf.UnknownFieldSet;
+import com.jstarcraft.core.codec.ContentCodec;
+import com.jstarcraft.core.codec.ContentCodecTestCase;
+import com.jstarcraft.core.codec.MockSimpleObject;
+import com.jstarcraft.core.codec.annotation.ProtobufField;
+import com.jstarcraft.core.codec.exception.CodecDefinitionException;
+import com.jstarcraft.core.codec.specification.CodecDefinition;
+import com.jstarcraft.core.utility.StringUtility;
+
+public class ProtobufContentCodecTestCase extends ContentCodecTestCase {
+
+    /** 指定字段编号的对象 */
+    private static class MockNumberObject {
+
+        @ProtobufField(10)
+        private int id;
+
+        @ProtobufField(3)
+        private String name;
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof MockNumberObject)) {
+                return false;
+            }
+            MockNumberObject that = (MockNumberObject) object;
+            return id == that.id && Objects.equals(name, that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name);
+        }
+
+    }
+
+    /** 字段编号冲突的对象 */
+    private static class MockConflictObject {
+
+        @ProtobufField(1)
+        private int id;
+
+        @ProtobufField(1)
+        private String name;
+
+    }
+
+    /** 旧版本的对象 */
+    private static class MockOlderObject {
+
+        private int id;
+
+        private String name;
+
+    }
+
+    /** 新版本的对象(增加了排序在前面的属性) */
+    private static class MockNewerObject {
+
+        private int age;
+
+        private int id;
+
+        private String name;
+
+    }
+
+    @Override
+    protected ContentCodec getContentCodec(CodecDefinition protocolDefinition) {
+        ProtobufContentCodec codec = new ProtobufContentCodec(protocolDefinition);
+        return codec;
+    }
+
+    @Test
+    public void testWire() throws Exception {
+        // 默认根据属性名称计算编号,编码结果可以被标准的Protobuf解析
+        MockSimpleObject object = MockSimpleObject.instanceOf(Long.MAX_VALUE, "birdy");
+        byte[] data = contentCodec.encode(MockSimpleObject.class, object);
+        UnknownFieldSet fields = UnknownFieldSet.parseFrom(data);
+        Assert.assertThat(fields.getField(ProtobufDefinition.getNumber("id")).getVarintList().get(0), CoreMatchers.equalTo(Long.MAX_VALUE));
+        Assert.assertThat(fields.getField(ProtobufDefinition.getNumber("name")).getLengthDelimitedList().get(0).toString(StringUtility.CHARSET), CoreMatchers.equalTo("birdy"));
+
+        // 未知字段被跳过
+        UnknownFieldSet unknown = UnknownFieldSet.newBuilder(fields).addField(100, UnknownFieldSet.Field.newBuilder().addFixed32(1).build()).build();
+        Assert.assertThat(contentCodec.decode(MockSimpleObject.class, unknown.toByteArray()), CoreMatchers.equalTo(object));
+    }
+
+    @Test
+    public void testField() throws Exception {
+        // 通过注解指定编号
+        CodecDefinition definition = CodecDefinition.instanceOf(MockNumberObject.class);
+        ContentCodec codec = new ProtobufContentCodec(definition);
+        MockNumberObject object = new MockNumberObject();
+        object.id = 1;
+        object.name = "birdy";
+        byte[] data = codec.encode(MockNumberObject.class, object);
+        UnknownFieldSet fields = UnknownFieldSet.parseFrom(data);
+        Assert.assertTrue(fields.hasField(10));
+        Assert.assertTrue(fields.hasField(3));
+        Assert.assertThat(codec.decode(MockNumberObject.class, data), CoreMatchers.equalTo(object));
+
+        // 编号冲突
+        try {
+            new ProtobufContentCodec(CodecDefinition.instanceOf(MockConflictObject.class));
+            Assert.fail();
+        } catch (CodecDefinitionException exception) {
+        }
+    }
+
+    @Test
+    public void testNumber() throws Exception {
+        // 默认编号避开保留范围
+        for (int index = 0; index < 100000; index++) {
+            int number = ProtobufDefinition.getNumber("field" + index);
+            Assert.assertTrue(number >= 1 && number < (1 << 18));
+            Assert.assertFalse(number >= 19000 && number <= 19999);
+        }
+
+        // 增加属性不会改变已有属性的编号
+        ContentCodec olderCodec = new ProtobufContentCodec(CodecDefinition.instanceOf(MockOlderObject.class));
+        ContentCodec newerCodec = new ProtobufContentCodec(CodecDefinition.instanceOf(MockNewerObject.class));
+        MockOlderObject older = new MockOlderObject();
+        older.id = 1;
+        older.name = "birdy";
+        MockNewerObject newer = (MockNewerObject) newerCodec.decode(MockNewerObject.class, olderCodec.encode(MockOlderObject.class, older));
+        Assert.assertThat(newer.age, CoreMatchers.equalTo(0));
+        Assert.assertThat(newer.id, CoreMatchers.equalTo(1));
+        Assert.assertThat(newer.name, CoreMatchers.equalTo("birdy"));
+        newer.age = 10;
+        older = (MockOlderObject) olderCodec.decode(MockOlderObject.class, newerCodec.encode(MockNewerObject.class, newer));
+        Assert.assertThat(older.id, CoreMatchers.equalTo(1));
+        Assert.assertThat(older.name, CoreMatchers.equalTo("birdy"));
+    }
+
+}
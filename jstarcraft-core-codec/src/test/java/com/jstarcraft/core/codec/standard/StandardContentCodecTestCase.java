@@ -1,8 +1,12 @@
 package com.jstarcraft.core.codec.standard;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.junit.Assert;
+
 import com.jstarcraft.core.codec.ContentCodec;
 import com.jstarcraft.core.codec.ContentCodecTestCase;
 import com.jstarcraft.core.codec.MockEnumeration;
@@ -22,6 +26,27 @@ public class StandardContentCodecTestCase extends ContentCodecTestCase {
 
         Object[] array = new Object[] { MockEnumeration.TERRAN, 0, null, "string" };
         testConvert(Object[].class, array);
+
+        // 原始类型数组作为数据块读写
+        testConvert(boolean[].class, new boolean[] { true, false, true });
+        testConvert(char[].class, new char[] { 'a', Character.MIN_VALUE, Character.MAX_VALUE });
+        testConvert(short[].class, new short[] { 0, Short.MIN_VALUE, Short.MAX_VALUE, -1 });
+        testConvert(int[].class, new int[] { 0, Integer.MIN_VALUE, Integer.MAX_VALUE, -1 });
+        testConvert(long[].class, new long[] { 0L, Long.MIN_VALUE, Long.MAX_VALUE, -1L });
+        testConvert(float[].class, new float[] { 0F, -Float.MAX_VALUE, Float.MIN_VALUE, Float.NaN });
+        testConvert(double[].class, new double[] { 0D, -Double.MAX_VALUE, Double.MIN_VALUE, Double.NEGATIVE_INFINITY });
+        testConvert(int[].class, new int[0]);
+        int[] values = new int[100000];
+        for (int index = 0; index < values.length; index++) {
+            values[index] = index - values.length / 2;
+        }
+        testConvert(int[].class, values);
+
+        // 同一个原始类型数组的引用
+        int[][] references = new int[][] { values, values };
+        int[][] copy = (int[][]) contentCodec.decode(int[][].class, contentCodec.encode(int[][].class, references));
+        Assert.assertSame(copy[0], copy[1]);
+        Assert.assertArrayEquals(values, copy[1]);
     }
 
     @Override
@@ -36,4 +61,20 @@ public class StandardContentCodecTestCase extends ContentCodecTestCase {
         testConvert(HashMap.class, map);
     }
 
+    @Override
+    public void testNumber() throws Exception {
+        super.testNumber();
+
+        // 二进制格式的BigInteger与BigDecimal
+        testConvert(BigInteger.class, BigInteger.ZERO);
+        testConvert(BigInteger.class, BigInteger.valueOf(100L));
+        testConvert(BigInteger.class, BigInteger.valueOf(-100L));
+        testConvert(BigInteger.class, BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.TEN));
+        testConvert(BigDecimal.class, BigDecimal.ZERO);
+        testConvert(BigDecimal.class, new BigDecimal("0.00"));
+        testConvert(BigDecimal.class, new BigDecimal("-3.1415926535897932384626433832795"));
+        testConvert(BigDecimal.class, new BigDecimal("1E+100"));
+        testConvert(BigDecimal.class, new BigDecimal("-1E-100"));
+    }
+
 }
@@ -0,0 +1,86 @@
+package com.jstarcraft.core.codec.standard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jstarcraft.core.codec.specification.CodecDefinition;
+import com.jstarcraft.core.common.reflection.TypeUtility;
+import com.jstarcraft.core.utility.StringUtility;
+
+public class StandardReferenceTestCase {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Test
+    public void testIdentity() {
+        StandardReference<String> reference = new StandardReference<>();
+        int size = 1000;
+        String[] values = new String[size];
+        for (int index = 0; index < size; index++) {
+            values[index] = String.valueOf(index);
+            Assert.assertThat(reference.getIndex(values[index]), CoreMatchers.equalTo(-1));
+            Assert.assertThat(reference.putValue(values[index]), CoreMatchers.equalTo(index));
+        }
+        for (int index = 0; index < size; index++) {
+            Assert.assertThat(reference.getIndex(values[index]), CoreMatchers.equalTo(index));
+            Assert.assertThat(reference.getValue(index), CoreMatchers.sameInstance(values[index]));
+            // 相等但是不同引用
+            Assert.assertThat(reference.getIndex(new String(values[index])), CoreMatchers.equalTo(-1));
+        }
+        Assert.assertNull(reference.getValue(size));
+
+        reference.reset();
+        Assert.assertThat(reference.getSize(), CoreMatchers.equalTo(0));
+        Assert.assertThat(reference.getIndex(values[0]), CoreMatchers.equalTo(-1));
+        Assert.assertThat(reference.putValue(values[1]), CoreMatchers.equalTo(0));
+        Assert.assertThat(reference.getIndex(values[1]), CoreMatchers.equalTo(0));
+    }
+
+    @Test
+    public void testEquality() {
+        StandardReference<String> reference = new StandardReference<>(true);
+        reference.putValue("birdy");
+        Assert.assertThat(reference.getIndex(new String("birdy")), CoreMatchers.equalTo(0));
+        Assert.assertThat(reference.getIndex("mickey"), CoreMatchers.equalTo(-1));
+    }
+
+    @Test
+    public void testDeduplication() {
+        CodecDefinition definition = CodecDefinition.instanceOf(TypeUtility.parameterize(ArrayList.class, String.class));
+        List<String> strings = new ArrayList<>(Arrays.asList(new String("birdy"), new String("birdy"), new String("birdy")));
+        byte[] identity = new StandardContentCodec(definition).encode(TypeUtility.parameterize(ArrayList.class, String.class), strings);
+        StandardContentCodec codec = new StandardContentCodec(definition, true);
+        byte[] equality = codec.encode(TypeUtility.parameterize(ArrayList.class, String.class), strings);
+        Assert.assertTrue(equality.length < identity.length);
+        Assert.assertThat(codec.decode(TypeUtility.parameterize(ArrayList.class, String.class), equality), CoreMatchers.equalTo(strings));
+    }
+
+    @Test
+    public void testPerformance() {
+        for (int size = 10; size <= 100000; size *= 10) {
+            Object[] values = new Object[size];
+            for (int index = 0; index < size; index++) {
+                values[index] = new Object();
+            }
+            long now = System.currentTimeMillis();
+            StandardReference<Object> reference = new StandardReference<>();
+            for (int index = 0; index < size; index++) {
+                if (reference.getIndex(values[index]) == -1) {
+                    reference.putValue(values[index]);
+                }
+            }
+            for (int index = 0; index < size; index++) {
+                Assert.assertThat(reference.getIndex(values[index]), CoreMatchers.equalTo(index));
+            }
+            logger.debug(StringUtility.format("引用{}个对象一共消耗{}毫秒.", size, System.currentTimeMillis() - now));
+        }
+    }
+
+}
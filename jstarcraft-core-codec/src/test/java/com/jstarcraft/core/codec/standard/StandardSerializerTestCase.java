@@ -0,0 +1,104 @@
+package com.jstarcraft.core.codec.standard;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jstarcraft.core.codec.MockComplexObject;
+import com.jstarcraft.core.codec.MockEnumeration;
+import com.jstarcraft.core.codec.specification.ClassDefinition;
+import com.jstarcraft.core.codec.specification.CodecDefinition;
+
+public class StandardSerializerTestCase {
+
+    /** 私有类型与私有原始类型字段(只能通过Field访问) */
+    private static class MockPrimitiveObject {
+
+        private boolean bool;
+
+        private char character;
+
+        private byte byteValue;
+
+        private short shortValue;
+
+        private int intValue;
+
+        private long longValue;
+
+        private float floatValue;
+
+        private double doubleValue;
+
+        private Integer wrapper;
+
+        private String string;
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof MockPrimitiveObject)) {
+                return false;
+            }
+            MockPrimitiveObject that = (MockPrimitiveObject) object;
+            return bool == that.bool && character == that.character && byteValue == that.byteValue && shortValue == that.shortValue && intValue == that.intValue && longValue == that.longValue && Float.compare(floatValue, that.floatValue) == 0 && Double.compare(doubleValue, that.doubleValue) == 0 && Objects.equals(wrapper, that.wrapper) && Objects.equals(string, that.string);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(intValue, longValue, string);
+        }
+
+    }
+
+    private void testSerializer(Class<?> clazz, Object instance) {
+        CodecDefinition definition = CodecDefinition.instanceOf(clazz);
+        ClassDefinition classDefinition = definition.getClassDefinition(clazz);
+        StandardSerializer[] serializers = StandardSerializer.instanceOf(definition);
+        Assert.assertNotNull(serializers[classDefinition.getCode()]);
+
+        StandardContentCodec generation = new StandardContentCodec(definition, false, true);
+        StandardContentCodec reflection = new StandardContentCodec(definition, false, false);
+        byte[] left = generation.encode(clazz, instance);
+        byte[] right = reflection.encode(clazz, instance);
+        // 生成的序列化器与反射的编码格式一致
+        Assert.assertArrayEquals(right, left);
+        Assert.assertThat(generation.decode(clazz, right), CoreMatchers.equalTo(instance));
+        Assert.assertThat(reflection.decode(clazz, left), CoreMatchers.equalTo(instance));
+    }
+
+    @Test
+    public void testComplex() {
+        MockComplexObject instance = MockComplexObject.instanceOf(0, "birdy", "hong", 10, Instant.now(), MockEnumeration.TERRAN);
+        testSerializer(MockComplexObject.class, instance);
+    }
+
+    @Test
+    public void testPrimitive() {
+        MockPrimitiveObject instance = new MockPrimitiveObject();
+        testSerializer(MockPrimitiveObject.class, instance);
+
+        instance.bool = true;
+        instance.character = 'B';
+        instance.byteValue = Byte.MIN_VALUE;
+        instance.shortValue = Short.MIN_VALUE;
+        instance.intValue = Integer.MIN_VALUE;
+        instance.longValue = Long.MIN_VALUE;
+        instance.floatValue = -Float.MAX_VALUE;
+        instance.doubleValue = Double.NaN;
+        instance.wrapper = -1;
+        instance.string = "birdy";
+        testSerializer(MockPrimitiveObject.class, instance);
+
+        instance.byteValue = Byte.MAX_VALUE;
+        instance.shortValue = Short.MAX_VALUE;
+        instance.intValue = Integer.MAX_VALUE;
+        instance.longValue = Long.MAX_VALUE;
+        instance.floatValue = Float.MIN_VALUE;
+        instance.doubleValue = Double.NEGATIVE_INFINITY;
+        testSerializer(MockPrimitiveObject.class, instance);
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.jstarcraft.core.common.conversion.json;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.util.List;
 
@@ -86,6 +88,37 @@ public class JsonUtility {
         }
     }
 
+    /**
+     * 将任意实例转换为JSON并写到输出流(不产生中间字符串)
+     * 
+     * @param instance
+     * @param stream
+     */
+    public static void object2Stream(Object instance, OutputStream stream) {
+        try {
+            TYPE_CONVERTER.writeValue(stream, instance);
+        } catch (Exception exception) {
+            String message = StringUtility.format("将对象[{}]转换为JSON字节流时异常", instance);
+            throw new RuntimeException(message, exception);
+        }
+    }
+
+    /**
+     * 从输入流读取JSON并转换为任意实例(不产生中间字符串)
+     * 
+     * @param stream
+     * @param type
+     * @return
+     */
+    public static <T> T stream2Object(InputStream stream, Type type) {
+        try {
+            return (T) TYPE_CONVERTER.readValue(stream, TYPE_FACTORY.constructType(type));
+        } catch (Exception exception) {
+            String message = StringUtility.format("将JSON字节流转换为类型[{}]的对象时异常", type);
+            throw new RuntimeException(message, exception);
+        }
+    }
+
     /**
      * Type转JavaType
      * 
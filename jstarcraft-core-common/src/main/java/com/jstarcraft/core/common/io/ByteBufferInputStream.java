@@ -0,0 +1,62 @@
+package com.jstarcraft.core.common.io;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * ByteBuffer输入流
+ *
+ * <pre>
+ * 直接读取缓冲的内容(从position到limit),读取会推进缓冲的position.
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+public class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public int read() {
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] data, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        length = Math.min(length, buffer.remaining());
+        buffer.get(data, offset, length);
+        return length;
+    }
+
+    @Override
+    public long skip(long length) {
+        int skip = (int) Math.max(0L, Math.min(length, buffer.remaining()));
+        buffer.position(buffer.position() + skip);
+        return skip;
+    }
+
+    @Override
+    public String toString() {
+        return "ByteBufferInputStream [buffer=" + buffer + "]";
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.jstarcraft.core.common.io;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * ByteBuffer输出流
+ *
+ * <pre>
+ * 直接写入缓冲(从position开始),写入会推进缓冲的position.
+ * 缓冲不会扩容,剩余空间不足时抛出{@link java.nio.BufferOverflowException}.
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+public class ByteBufferOutputStream extends OutputStream {
+
+    private final ByteBuffer buffer;
+
+    public ByteBufferOutputStream(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public void write(int data) {
+        buffer.put((byte) data);
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) {
+        buffer.put(data, offset, length);
+    }
+
+    @Override
+    public String toString() {
+        return "ByteBufferOutputStream [buffer=" + buffer + "]";
+    }
+
+}
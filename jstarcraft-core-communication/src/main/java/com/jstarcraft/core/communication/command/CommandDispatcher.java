@@ -19,6 +19,7 @@ import com.jstarcraft.core.codec.ContentCodec;
 import com.jstarcraft.core.codec.csv.CsvContentCodec;
 import com.jstarcraft.core.codec.json.JsonContentCodec;
 import com.jstarcraft.core.codec.kryo.KryoContentCodec;
+import com.jstarcraft.core.codec.protobuf.ProtobufContentCodec;
 import com.jstarcraft.core.codec.specification.CodecDefinition;
 import com.jstarcraft.core.codec.standard.StandardContentCodec;
 import com.jstarcraft.core.common.lifecycle.LifecycleState;
@@ -172,8 +173,14 @@ public class CommandDispatcher<T> {
         Map<Byte, ContentCodec> codecs = new HashMap<>();
         codecs.put(MessageFormat.CSV.getMark(), new CsvContentCodec(codecDefinition));
         codecs.put(MessageFormat.JSON.getMark(), new JsonContentCodec(codecDefinition));
-        codecs.put(MessageFormat.KRYO.getMark(), new KryoContentCodec(codecDefinition));
+        // Kryo与Protocol Buffers是可选依赖,只在类路径存在时注册
+        if (isPresent("com.esotericsoftware.kryo.Kryo")) {
+            codecs.put(MessageFormat.KRYO.getMark(), new KryoContentCodec(codecDefinition));
+        }
         codecs.put(MessageFormat.STANDARD.getMark(), new StandardContentCodec(codecDefinition));
+        if (isPresent("com.google.protobuf.CodedInputStream")) {
+            codecs.put(MessageFormat.PROTOBUF.getMark(), new ProtobufContentCodec(codecDefinition));
+        }
         this.codecs = codecs;
 
         this.wait = wait;
@@ -182,6 +189,15 @@ public class CommandDispatcher<T> {
         expireThread.start();
     }
 
+    private static boolean isPresent(String name) {
+        try {
+            Class.forName(name, false, CommandDispatcher.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError exception) {
+            return false;
+        }
+    }
+
     /**
      * 启动调度器
      * 
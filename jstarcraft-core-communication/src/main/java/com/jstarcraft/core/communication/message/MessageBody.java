@@ -5,13 +5,13 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+import com.jstarcraft.core.codec.compression.Compressor;
+import com.jstarcraft.core.codec.compression.DeflateCompressor;
 import com.jstarcraft.core.common.io.IoUtility;
-import com.jstarcraft.core.utility.PressUtility;
 
 /**
  * 信息体
@@ -25,6 +25,9 @@ import com.jstarcraft.core.utility.PressUtility;
  */
 public class MessageBody {
 
+    /** Zip压缩器(在调用线程上压缩/解压,解压超过Compressor.DEFAULT_MAXIMUM的信息体会被拒绝) */
+    private static final Compressor COMPRESSOR = new DeflateCompressor(5, Compressor.DEFAULT_MAXIMUM);
+
     /** 内容 */
     private byte[] content;
 
@@ -85,7 +88,7 @@ public class MessageBody {
         byte[] content = new byte[dataInputStream.available()];
         IoUtility.read(dataInputStream, content);
         if (value.zip) {
-            content = PressUtility.unzip(content, 5, TimeUnit.SECONDS);
+            content = COMPRESSOR.decompress(content);
         }
         value.content = content;
         return value;
@@ -101,7 +104,7 @@ public class MessageBody {
         dataOutputStream.writeByte(information);
         byte[] content = value.content;
         if (value.zip) {
-            content = PressUtility.zip(content, 5);
+            content = COMPRESSOR.compress(content);
         }
         IoUtility.write(content, dataOutputStream);
         byte[] data = byteArrayOutputStream.toByteArray();
@@ -25,7 +25,10 @@ public enum MessageFormat {
     KRYO((byte) 0x04),
 
     /** 框架 */
-    STANDARD((byte) 0x05);
+    STANDARD((byte) 0x05),
+
+    /** Protobuf */
+    PROTOBUF((byte) 0x06);
 
     /** Zip掩码 */
     public final static byte ZIP_MASK = (byte) 0x80;
@@ -63,6 +66,8 @@ public enum MessageFormat {
             return KRYO;
         case 0x05:
             return STANDARD;
+        case 0x06:
+            return PROTOBUF;
         default:
             return null;
         }
@@ -19,6 +19,7 @@ import com.jstarcraft.core.codec.ContentCodec;
 import com.jstarcraft.core.codec.csv.CsvContentCodec;
 import com.jstarcraft.core.codec.json.JsonContentCodec;
 import com.jstarcraft.core.codec.kryo.KryoContentCodec;
+import com.jstarcraft.core.codec.protobuf.ProtobufContentCodec;
 import com.jstarcraft.core.codec.specification.CodecDefinition;
 import com.jstarcraft.core.codec.standard.StandardContentCodec;
 
@@ -66,6 +67,26 @@ public class CommunicationMessageTestCase {
         testMessageCodec(MessageFormat.STANDARD, string, codecs);
     }
 
+    @Test
+    public void testProtobufCodec() throws IOException {
+        Collection<Type> protocolClasses = new LinkedList<>();
+        protocolClasses.add(MockComplexObject.class);
+        protocolClasses.add(MockEnumeration.class);
+        protocolClasses.add(MockSimpleObject.class);
+        CodecDefinition protocolDefinition = CodecDefinition.instanceOf(protocolClasses);
+
+        Map<Byte, ContentCodec> codecs = new HashMap<>();
+        ProtobufContentCodec protobufContentCodec = new ProtobufContentCodec(protocolDefinition);
+        codecs.put(MessageFormat.PROTOBUF.getMark(), protobufContentCodec);
+
+        MockComplexObject content = MockComplexObject.instanceOf(0, "birdy", "hong", 10, Instant.now(), MockEnumeration.TERRAN);
+        testMessageCodec(MessageFormat.PROTOBUF, content, codecs);
+        Object[] contents = new MockComplexObject[] { content };
+        testMessageCodec(MessageFormat.PROTOBUF, contents, codecs);
+        testMessageCodec(MessageFormat.PROTOBUF, null, codecs);
+        testMessageCodec(MessageFormat.PROTOBUF, "birdy", codecs);
+    }
+
     private void testMessageCodec(MessageFormat format, Object content, Map<Byte, ContentCodec> codecs) throws IOException {
         ContentCodec codec = codecs.get(format.getMark());
         byte[] data = codec.encode(content == null ? void.class : content.getClass(), content);
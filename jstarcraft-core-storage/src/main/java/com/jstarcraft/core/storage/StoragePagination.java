@@ -1,5 +1,7 @@
 package com.jstarcraft.core.storage;
 
+import java.util.Objects;
+
 /**
  * ORM分页
  * 
@@ -12,13 +14,23 @@ public class StoragePagination {
     private final int page;
     /** 大小(至少为1) */
     private final int size;
+    /** 是否为键集分页 */
+    private final boolean keyset;
+    /** 键集分页的起点(上一页最后一条记录的主键,不包含;null表示从头开始) */
+    private final Comparable<?> key;
 
     public StoragePagination(int page, int size) {
+        this(page, size, false, null);
+    }
+
+    private StoragePagination(int page, int size, boolean keyset, Comparable<?> key) {
         if (page < 1 || size < 1) {
             throw new IllegalArgumentException("分页的页码与大小至少为1");
         }
         this.page = page;
         this.size = size;
+        this.keyset = keyset;
+        this.key = key;
     }
 
     /**
@@ -57,4 +69,62 @@ public class StoragePagination {
         return size;
     }
 
+    /**
+     * 是否为键集分页
+     * 
+     * <pre>
+     * 键集分页按照主键顺序从{@link #getKey()}之后开始获取,代价只与分页大小有关,不受页码影响.
+     * 不支持键集分页的访问器(例如Lucene与命名查询)抛出StorageQueryException,不会按照第一页处理.
+     * </pre>
+     * 
+     * @return
+     */
+    public boolean isKeyset() {
+        return keyset;
+    }
+
+    /**
+     * 获取键集分页的起点
+     * 
+     * @return
+     */
+    public <K extends Comparable<?>> K getKey() {
+        return (K) key;
+    }
+
+    /**
+     * 键集分页
+     * 
+     * @param key
+     *            上一页最后一条记录的主键(不包含),null表示从头开始
+     * @param size
+     * @return
+     */
+    public static StoragePagination keysetOf(Comparable<?> key, int size) {
+        return new StoragePagination(1, size, true, key);
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int hash = 1;
+        hash = prime * hash + page;
+        hash = prime * hash + size;
+        hash = prime * hash + Boolean.hashCode(keyset);
+        hash = prime * hash + Objects.hashCode(key);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object)
+            return true;
+        if (object == null)
+            return false;
+        if (getClass() != object.getClass())
+            return false;
+        StoragePagination that = (StoragePagination) object;
+        return this.page == that.page && this.size == that.size && this.keyset == that.keyset && Objects.equals(this.key, that.key);
+    }
+
 }
@@ -0,0 +1,186 @@
+package com.jstarcraft.core.storage.asynchronous;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.jstarcraft.core.common.identification.IdentityObject;
+import com.jstarcraft.core.storage.StorageAccessor;
+import com.jstarcraft.core.storage.StorageCondition;
+import com.jstarcraft.core.storage.StorageIterator;
+import com.jstarcraft.core.storage.StoragePagination;
+
+/**
+ * 异步访问器
+ *
+ * <pre>
+ * 与{@link StorageAccessor}一一对应,所有方法立即返回,结果通过CompletableFuture获取.
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+public interface AsynchronousAccessor {
+
+    // 基础增删查改接口部分
+
+    /**
+     * 获取指定的对象
+     *
+     * @param clazz
+     * @param id
+     * @return
+     */
+    <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<T> getInstance(Class<T> clazz, K id);
+
+    /**
+     * 保存指定的对象
+     *
+     * @param clazz
+     * @param object
+     * @return
+     */
+    <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Boolean> createInstance(Class<T> clazz, T object);
+
+    /**
+     * 根据主键,删除指定的对象
+     *
+     * @param clazz
+     * @param id
+     * @return
+     */
+    <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Boolean> deleteInstance(Class<T> clazz, K id);
+
+    /**
+     * 删除指定的对象
+     *
+     * @param clazz
+     * @param object
+     * @return
+     */
+    <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Boolean> deleteInstance(Class<T> clazz, T object);
+
+    /**
+     * 更新指定的对象
+     *
+     * @param clazz
+     * @param object
+     * @return
+     */
+    <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Boolean> updateInstance(Class<T> clazz, T object);
+
+    /**
+     * 查询指定索引范围的主键映射
+     *
+     * @param clazz
+     * @param name
+     * @param condition
+     * @return
+     */
+    <K extends Comparable, I, T extends IdentityObject<K>> CompletableFuture<Map<K, I>> queryIdentities(Class<T> clazz, String name, StorageCondition<I> condition);
+
+    /**
+     * 查询指定索引范围的对象集合
+     *
+     * @param clazz
+     * @param name
+     * @param condition
+     * @return
+     */
+    <K extends Comparable, I, T extends IdentityObject<K>> CompletableFuture<List<T>> queryInstances(Class<T> clazz, String name, StorageCondition<I> condition);
+
+    // 结构化查询接口部分
+
+    /**
+     * 查询指定分页,返回对象的集合
+     *
+     * @param clazz
+     * @param pagination
+     * @return
+     */
+    <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<List<T>> queryInstances(Class<T> clazz, StoragePagination pagination);
+
+    /**
+     * 查询指定交集条件,返回对象的集合
+     *
+     * @param clazz
+     * @param condition
+     * @param pagination
+     * @return
+     */
+    <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<List<T>> queryIntersection(Class<T> clazz, Map<String, Object> condition, StoragePagination pagination);
+
+    /**
+     * 查询指定并集条件,返回对象的集合
+     *
+     * @param clazz
+     * @param condition
+     * @param pagination
+     * @return
+     */
+    <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<List<T>> queryUnion(Class<T> clazz, Map<String, Object> condition, StoragePagination pagination);
+
+    /**
+     * 查询对象总数
+     *
+     * @param clazz
+     * @return
+     */
+    <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Long> countInstances(Class<T> clazz);
+
+    /**
+     * 查询指定交集条件的对象总数
+     *
+     * @param clazz
+     * @param condition
+     * @return
+     */
+    <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Long> countIntersection(Class<T> clazz, Map<String, Object> condition);
+
+    /**
+     * 查询指定并集条件的对象总数
+     *
+     * @param clazz
+     * @param condition
+     * @return
+     */
+    <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Long> countUnion(Class<T> clazz, Map<String, Object> condition);
+
+    /**
+     * 使用迭代器遍历对象
+     *
+     * <pre>
+     * 只是在访问器的线程上执行同步遍历,迭代器在该线程上被调用,遍历期间一直占用该线程.
+     * 不提供按需拉取(背压)的能力,调用者无法暂停遍历;需要按自身节奏消费时,应该使用分页查询(例如{@link StoragePagination#keysetOf})逐页获取.
+     * </pre>
+     *
+     * @param iterator
+     * @param clazz
+     * @param pagination
+     * @return 遍历完成时完成
+     */
+    <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Void> iterate(StorageIterator<T> iterator, Class<T> clazz, StoragePagination pagination);
+
+    /**
+     * 按照指定交集条件查询并使用迭代器遍历对象
+     *
+     * @param iterator
+     * @param clazz
+     * @param condition
+     * @param pagination
+     * @return 遍历完成时完成
+     */
+    <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Void> iterateIntersection(StorageIterator<T> iterator, Class<T> clazz, Map<String, Object> condition, StoragePagination pagination);
+
+    /**
+     * 按照指定并集条件查询并使用迭代器遍历对象
+     *
+     * @param iterator
+     * @param clazz
+     * @param condition
+     * @param pagination
+     * @return 遍历完成时完成
+     */
+    <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Void> iterateUnion(StorageIterator<T> iterator, Class<T> clazz, Map<String, Object> condition, StoragePagination pagination);
+
+}
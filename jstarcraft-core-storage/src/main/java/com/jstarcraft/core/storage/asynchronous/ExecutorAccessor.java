@@ -0,0 +1,183 @@
+package com.jstarcraft.core.storage.asynchronous;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.jstarcraft.core.common.identification.IdentityObject;
+import com.jstarcraft.core.storage.StorageAccessor;
+import com.jstarcraft.core.storage.StorageCondition;
+import com.jstarcraft.core.storage.StorageIterator;
+import com.jstarcraft.core.storage.StoragePagination;
+import com.jstarcraft.core.utility.NameThreadFactory;
+
+/**
+ * 线程池异步访问器
+ *
+ * <pre>
+ * 在有界的线程池上执行任意同步访问器,适用于所有访问器.
+ * 线程池的队列满时不会阻塞调用者,而是返回以{@link RejectedExecutionException}失败的结果,由调用者决定重试或者降级.
+ * 遍历方法在线程池的线程上执行同步访问器的遍历,遍历期间占用一个线程.
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+public class ExecutorAccessor implements AsynchronousAccessor, AutoCloseable {
+
+    /** 同步访问器 */
+    private final StorageAccessor accessor;
+
+    /** 线程池 */
+    private final ExecutorService executor;
+
+    public ExecutorAccessor(StorageAccessor accessor, int threadSize, int queueSize) {
+        this.accessor = accessor;
+        this.executor = new ThreadPoolExecutor(threadSize, threadSize, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), new NameThreadFactory("StorageAccessor"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private <V> CompletableFuture<V> execute(Supplier<V> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException exception) {
+            CompletableFuture<V> future = new CompletableFuture<>();
+            future.completeExceptionally(exception);
+            return future;
+        }
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<T> getInstance(Class<T> clazz, K id) {
+        return execute(() -> {
+            return accessor.getInstance(clazz, id);
+        });
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Boolean> createInstance(Class<T> clazz, T object) {
+        return execute(() -> {
+            return accessor.createInstance(clazz, object);
+        });
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Boolean> deleteInstance(Class<T> clazz, K id) {
+        return execute(() -> {
+            return accessor.deleteInstance(clazz, id);
+        });
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Boolean> deleteInstance(Class<T> clazz, T object) {
+        return execute(() -> {
+            return accessor.deleteInstance(clazz, object);
+        });
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Boolean> updateInstance(Class<T> clazz, T object) {
+        return execute(() -> {
+            return accessor.updateInstance(clazz, object);
+        });
+    }
+
+    @Override
+    public <K extends Comparable, I, T extends IdentityObject<K>> CompletableFuture<Map<K, I>> queryIdentities(Class<T> clazz, String name, StorageCondition<I> condition) {
+        return execute(() -> {
+            return accessor.queryIdentities(clazz, name, condition);
+        });
+    }
+
+    @Override
+    public <K extends Comparable, I, T extends IdentityObject<K>> CompletableFuture<List<T>> queryInstances(Class<T> clazz, String name, StorageCondition<I> condition) {
+        return execute(() -> {
+            return accessor.queryInstances(clazz, name, condition);
+        });
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<List<T>> queryInstances(Class<T> clazz, StoragePagination pagination) {
+        return execute(() -> {
+            return accessor.queryInstances(clazz, pagination);
+        });
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<List<T>> queryIntersection(Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
+        return execute(() -> {
+            return accessor.queryIntersection(clazz, condition, pagination);
+        });
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<List<T>> queryUnion(Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
+        return execute(() -> {
+            return accessor.queryUnion(clazz, condition, pagination);
+        });
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Long> countInstances(Class<T> clazz) {
+        return execute(() -> {
+            return accessor.countInstances(clazz);
+        });
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Long> countIntersection(Class<T> clazz, Map<String, Object> condition) {
+        return execute(() -> {
+            return accessor.countIntersection(clazz, condition);
+        });
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Long> countUnion(Class<T> clazz, Map<String, Object> condition) {
+        return execute(() -> {
+            return accessor.countUnion(clazz, condition);
+        });
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Void> iterate(StorageIterator<T> iterator, Class<T> clazz, StoragePagination pagination) {
+        return execute(() -> {
+            accessor.iterate(iterator, clazz, pagination);
+            return null;
+        });
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Void> iterateIntersection(StorageIterator<T> iterator, Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
+        return execute(() -> {
+            accessor.iterateIntersection(iterator, clazz, condition, pagination);
+            return null;
+        });
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> CompletableFuture<Void> iterateUnion(StorageIterator<T> iterator, Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
+        return execute(() -> {
+            accessor.iterateUnion(iterator, clazz, condition, pagination);
+            return null;
+        });
+    }
+
+    /**
+     * 关闭线程池(等待已经提交的任务完成)
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
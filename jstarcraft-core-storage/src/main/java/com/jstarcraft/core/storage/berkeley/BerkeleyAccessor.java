@@ -28,11 +28,14 @@ import com.jstarcraft.core.storage.StorageMetadata;
 import com.jstarcraft.core.storage.StoragePagination;
 import com.jstarcraft.core.storage.berkeley.exception.BerkeleyStateException;
 import com.jstarcraft.core.storage.berkeley.exception.BerkeleyVersionException;
+import com.jstarcraft.core.storage.exception.StorageConfigurationException;
 import com.jstarcraft.core.utility.DelayElement;
 import com.jstarcraft.core.utility.SensitivityQueue;
 import com.jstarcraft.core.utility.StringUtility;
+import com.sleepycat.je.DatabaseConfig;
 import com.sleepycat.je.Environment;
 import com.sleepycat.je.EnvironmentConfig;
+import com.sleepycat.je.SecondaryConfig;
 import com.sleepycat.je.Transaction;
 import com.sleepycat.persist.EntityStore;
 import com.sleepycat.persist.StoreConfig;
@@ -177,13 +180,25 @@ public class BerkeleyAccessor implements StorageAccessor {
         }
 
         for (Entry<String, TreeSet<BerkeleyMetadata>> keyValue : store2Matadatas.entrySet()) {
+            // 延迟写是贮存级别的配置,同一贮存的实体必须一致
+            Boolean deferredWrite = null;
+            for (BerkeleyMetadata metadata : keyValue.getValue()) {
+                if (deferredWrite == null) {
+                    deferredWrite = metadata.isDeferredWrite();
+                } else if (deferredWrite != metadata.isDeferredWrite()) {
+                    String message = StringUtility.format("Berkeley贮存[{}]的延迟写配置不一致", keyValue.getKey());
+                    throw new StorageConfigurationException(message);
+                }
+            }
+            deferredWrite = !temporary && (writeDelay || deferredWrite);
+
             StoreConfig storeConfiguration = new StoreConfig();
             storeConfiguration.setAllowCreate(true);
             storeConfiguration.setSecondaryBulkLoad(true);
-            // TODO 注意temporary配置与事务/延迟写配置之间的冲突
-            storeConfiguration.setTransactional(!temporary);
+            // 临时贮存与延迟写贮存都不支持事务
+            storeConfiguration.setTransactional(!temporary && !deferredWrite);
             storeConfiguration.setReadOnly(readOnly);
-            storeConfiguration.setDeferredWrite(!temporary && writeDelay);
+            storeConfiguration.setDeferredWrite(deferredWrite);
             storeConfiguration.setTemporary(temporary);
 
             EntityModel model = new AnnotationModel();
@@ -206,6 +221,26 @@ public class BerkeleyAccessor implements StorageAccessor {
             EntityStore store = new EntityStore(environment, keyValue.getKey(), storeConfiguration);
             stores.put(keyValue.getKey(), store);
 
+            // 配置索引(必须在打开索引之前)
+            HashSet<Class<?>> primaryClasses = new HashSet<>();
+            for (BerkeleyMetadata metadata : keyValue.getValue()) {
+                Class<?> storeClass = metadata.getStoreClass();
+                // 主键索引由存储类型共享,按照排序以第一个实体的配置为准
+                if (primaryClasses.add(storeClass)) {
+                    DatabaseConfig primaryConfiguration = store.getPrimaryConfig(storeClass);
+                    primaryConfiguration.setCacheMode(metadata.getCacheMode());
+                    primaryConfiguration.setKeyPrefixing(primaryConfiguration.getKeyPrefixing() || metadata.isKeyPrefixing());
+                    store.setPrimaryConfig(storeClass, primaryConfiguration);
+                }
+                for (String name : metadata.getIndexNames()) {
+                    SecondaryConfig secondaryConfiguration = store.getSecondaryConfig(metadata.getOrmClass(), name);
+                    secondaryConfiguration.setCacheMode(metadata.getCacheMode());
+                    // 重复键的次键索引强制使用键前缀压缩
+                    secondaryConfiguration.setKeyPrefixing(secondaryConfiguration.getKeyPrefixing() || metadata.isKeyPrefixing());
+                    store.setSecondaryConfig(metadata.getOrmClass(), name, secondaryConfiguration);
+                }
+            }
+
             // 构建索引
             for (BerkeleyMetadata metadata : keyValue.getValue()) {
                 BerkeleyManager manager = new BerkeleyManager(metadata, store);
@@ -0,0 +1,51 @@
+package com.jstarcraft.core.storage.berkeley;
+
+import com.sleepycat.je.Durability;
+import com.sleepycat.je.TransactionConfig;
+
+/**
+ * Berkeley持久策略
+ *
+ * <pre>
+ * 仅作用于没有显式事务的写操作(自动提交),显式事务仍然遵循环境配置.
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+public enum BerkeleyDurability {
+
+    /** 沿用环境配置(je.txn.durability) */
+    DEFAULT(null),
+
+    /** 提交时写入并同步到磁盘 */
+    SYNC(Durability.COMMIT_SYNC),
+
+    /** 提交时写入操作系统缓冲,不同步到磁盘 */
+    WRITE_NO_SYNC(Durability.COMMIT_WRITE_NO_SYNC),
+
+    /** 提交时不写入也不同步 */
+    NO_SYNC(Durability.COMMIT_NO_SYNC);
+
+    /** 事务模型 */
+    private final TransactionConfig transactionModel;
+
+    private BerkeleyDurability(Durability durability) {
+        if (durability == null) {
+            transactionModel = null;
+        } else {
+            transactionModel = new TransactionConfig();
+            transactionModel.setDurability(durability);
+        }
+    }
+
+    /**
+     * 获取事务模型
+     *
+     * @return 沿用环境配置时为null
+     */
+    public TransactionConfig getTransactionModel() {
+        return transactionModel;
+    }
+
+}
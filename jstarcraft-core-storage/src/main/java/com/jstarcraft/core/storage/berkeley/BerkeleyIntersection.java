@@ -0,0 +1,60 @@
+package com.jstarcraft.core.storage.berkeley;
+
+import java.util.List;
+
+import com.sleepycat.persist.ForwardCursor;
+
+/**
+ * Berkeley交集
+ * 
+ * <pre>
+ * 按照主键顺序返回所有游标共有的主键.
+ * 与{@link com.sleepycat.persist.EntityJoin}不同,每个游标都可以从指定主键之后开始,用于键集分页.
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ * @param <K>
+ */
+class BerkeleyIntersection<K extends Comparable> extends BerkeleyMerger<K> {
+
+    BerkeleyIntersection(List<ForwardCursor<K>> cursors) {
+        super(cursors);
+    }
+
+    @Override
+    K next() {
+        if (currents.length == 0) {
+            return null;
+        }
+        while (true) {
+            Comparable maximum = null;
+            for (Comparable current : currents) {
+                if (current == null) {
+                    // 任意游标耗尽则交集结束
+                    return null;
+                }
+                if (maximum == null || current.compareTo(maximum) > 0) {
+                    maximum = current;
+                }
+            }
+            boolean match = true;
+            // 推进所有小于最大主键的游标
+            for (int index = 0; index < currents.length; index++) {
+                while (currents[index] != null && currents[index].compareTo(maximum) < 0) {
+                    move(index);
+                }
+                if (currents[index] == null || currents[index].compareTo(maximum) != 0) {
+                    match = false;
+                }
+            }
+            if (match) {
+                for (int index = 0; index < currents.length; index++) {
+                    move(index);
+                }
+                return (K) maximum;
+            }
+        }
+    }
+
+}
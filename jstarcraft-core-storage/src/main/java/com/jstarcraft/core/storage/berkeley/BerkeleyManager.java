@@ -2,8 +2,10 @@ package com.jstarcraft.core.storage.berkeley;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -18,11 +20,12 @@ import com.jstarcraft.core.storage.StorageIterator;
 import com.jstarcraft.core.storage.StoragePagination;
 import com.jstarcraft.core.utility.ClassUtility;
 import com.jstarcraft.core.utility.StringUtility;
-import com.sleepycat.collections.StoredSortedMap;
 import com.sleepycat.je.CursorConfig;
 import com.sleepycat.je.LockMode;
 import com.sleepycat.je.Transaction;
+import com.sleepycat.je.TransactionConfig;
 import com.sleepycat.persist.EntityCursor;
+import com.sleepycat.persist.EntityIndex;
 import com.sleepycat.persist.EntityJoin;
 import com.sleepycat.persist.EntityStore;
 import com.sleepycat.persist.ForwardCursor;
@@ -50,6 +53,8 @@ public class BerkeleyManager<K extends Comparable, T extends IdentityObject<K>>
 	private HashMap<String, SecondaryIndex> secondaryIndexes = new HashMap<>();
 	/** 存储 */
 	private EntityStore store;
+	/** 持久模型(没有显式事务的写操作使用) */
+	private TransactionConfig durabilityModel;
 
 	/**
 	 * 构造方法
@@ -60,6 +65,10 @@ public class BerkeleyManager<K extends Comparable, T extends IdentityObject<K>>
 	public BerkeleyManager(BerkeleyMetadata metadata, EntityStore store) {
 		this.metadata = metadata;
 		this.store = store;
+		// 只有事务贮存才能控制持久策略
+		if (store.getConfig().getTransactional()) {
+			this.durabilityModel = metadata.getDurability().getTransactionModel();
+		}
 
 		// 通过获取主键索引准备Berkeley环境(有意义,别删除)
 		primaryIndex = this.store.getPrimaryIndex(metadata.getPrimaryClass(), metadata.getStoreClass());
@@ -94,44 +103,107 @@ public class BerkeleyManager<K extends Comparable, T extends IdentityObject<K>>
 		return primaryIndex.contains(transaction, id, lockMode);
 	}
 
-	public boolean createInstance(BerkeleyTransactor transactor, T instance) {
-		Transaction transaction = transactor == null ? null : transactor.getTransaction();
-		if (primaryIndex.putNoOverwrite(transaction, instance)) {
-			return true;
+	/**
+	 * 开始写操作的事务
+	 * 
+	 * <pre>
+	 * 存在显式事务时使用显式事务,否则按照持久策略开始自动事务(沿用环境配置时为null)
+	 * </pre>
+	 * 
+	 * @param transactor
+	 * @return
+	 */
+	private Transaction beginTransaction(BerkeleyTransactor transactor) {
+		if (transactor != null) {
+			return transactor.getTransaction();
+		}
+		if (durabilityModel != null) {
+			return store.getEnvironment().beginTransaction(null, durabilityModel);
+		}
+		return null;
+	}
+
+	/**
+	 * 结束写操作的事务
+	 * 
+	 * <pre>
+	 * 只结束自动事务,显式事务由事务器负责
+	 * </pre>
+	 * 
+	 * @param transactor
+	 * @param transaction
+	 * @param commit
+	 */
+	private void endTransaction(BerkeleyTransactor transactor, Transaction transaction, boolean commit) {
+		if (transactor != null || transaction == null) {
+			return;
+		}
+		if (commit) {
+			transaction.commit();
 		} else {
-			String message = StringUtility.format("创建的实例[{}:{}]已存在", metadata.getOrmName(), instance.getId());
-			if (logger.isDebugEnabled()) {
-				logger.debug(message);
+			transaction.abort();
+		}
+	}
+
+	public boolean createInstance(BerkeleyTransactor transactor, T instance) {
+		Transaction transaction = beginTransaction(transactor);
+		boolean commit = false;
+		try {
+			boolean create = primaryIndex.putNoOverwrite(transaction, instance);
+			commit = true;
+			if (create) {
+				return true;
+			} else {
+				String message = StringUtility.format("创建的实例[{}:{}]已存在", metadata.getOrmName(), instance.getId());
+				if (logger.isDebugEnabled()) {
+					logger.debug(message);
+				}
+				return false;
 			}
-			return false;
+		} finally {
+			endTransaction(transactor, transaction, commit);
 		}
 	}
 
 	public boolean deleteInstance(BerkeleyTransactor transactor, K id) {
-		Transaction transaction = transactor == null ? null : transactor.getTransaction();
-		if (primaryIndex.delete(transaction, id)) {
-			return true;
-		} else {
-			String message = StringUtility.format("删除的实例[{}:{}]不存在", metadata.getOrmName(), id);
-			if (logger.isDebugEnabled()) {
-				logger.debug(message);
+		Transaction transaction = beginTransaction(transactor);
+		boolean commit = false;
+		try {
+			boolean delete = primaryIndex.delete(transaction, id);
+			commit = true;
+			if (delete) {
+				return true;
+			} else {
+				String message = StringUtility.format("删除的实例[{}:{}]不存在", metadata.getOrmName(), id);
+				if (logger.isDebugEnabled()) {
+					logger.debug(message);
+				}
+				return false;
 			}
-			return false;
+		} finally {
+			endTransaction(transactor, transaction, commit);
 		}
 	}
 
 	public boolean updateInstance(BerkeleyTransactor transactor, T instance) {
-		Transaction transaction = transactor == null ? null : transactor.getTransaction();
-		if (primaryIndex.put(transaction, instance) != null) {
-			return true;
-		} else {
-			// TODO 删除保存的实例
-			deleteInstance(transactor, instance.getId());
-			String message = StringUtility.format("修改的实例[{}:{}]不存在", metadata.getOrmName(), instance.getId());
-			if (logger.isDebugEnabled()) {
-				logger.debug(message);
+		Transaction transaction = beginTransaction(transactor);
+		boolean commit = false;
+		try {
+			if (primaryIndex.put(transaction, instance) != null) {
+				commit = true;
+				return true;
+			} else {
+				// TODO 删除保存的实例
+				primaryIndex.delete(transaction, instance.getId());
+				commit = true;
+				String message = StringUtility.format("修改的实例[{}:{}]不存在", metadata.getOrmName(), instance.getId());
+				if (logger.isDebugEnabled()) {
+					logger.debug(message);
+				}
+				return false;
 			}
-			return false;
+		} finally {
+			endTransaction(transactor, transaction, commit);
 		}
 	}
 
@@ -157,144 +229,109 @@ public class BerkeleyManager<K extends Comparable, T extends IdentityObject<K>>
 		}
 	}
 
-	public <I> Map<K, I> queryIdentities(BerkeleyTransactor transactor, String name, StorageCondition<I> condition) {
-		SecondaryIndex secondaryIndex = secondaryIndexes.get(name);
-		StoredSortedMap storeMap = (StoredSortedMap) secondaryIndex.keysIndex().sortedMap();
-		HashMap<K, I> identities = new HashMap<>();
+	/**
+	 * 获取游标模型
+	 * 
+	 * @param transactor
+	 * @return
+	 */
+	private CursorConfig getCursorModel(BerkeleyTransactor transactor) {
+		return transactor == null ? null : transactor.getIsolation().getCursorModel();
+	}
+
+	/**
+	 * 将条件转换为次键索引的有界范围
+	 * 
+	 * <pre>
+	 * Unequal转换为两个范围,In转换为每个不重复值的范围
+	 * </pre>
+	 * 
+	 * @param condition
+	 * @return
+	 */
+	private static <I> List<BerkeleyRange<I>> getRanges(StorageCondition<I> condition) {
 		ConditionType type = condition.getType();
 		I[] values = condition.getValues();
+		ArrayList<BerkeleyRange<I>> ranges = new ArrayList<>(values.length + 1);
 		switch (type) {
 		case All: {
-			for (Object value : storeMap.keySet()) {
-				for (Object identity : storeMap.duplicates(value)) {
-					identities.put((K) identity, (I) value);
-				}
-			}
+			ranges.add(new BerkeleyRange<>(null, true, null, true));
 			break;
 		}
 		case Between: {
-			storeMap = (StoredSortedMap) storeMap.subMap(values[0], true, values[1], true);
-			for (Object value : storeMap.keySet()) {
-				for (Object identity : storeMap.duplicates(value)) {
-					identities.put((K) identity, (I) value);
-				}
-			}
+			ranges.add(new BerkeleyRange<>(values[0], true, values[1], true));
 			break;
 		}
 		case Equal: {
-			I value = values[0];
-			for (Object identity : storeMap.duplicates(value)) {
-				identities.put((K) identity, value);
-			}
+			ranges.add(new BerkeleyRange<>(values[0], true, values[0], true));
 			break;
 		}
 		case Higher: {
-			storeMap = (StoredSortedMap) storeMap.subMap(values[0], false, null, true);
-			for (Object value : storeMap.keySet()) {
-				for (Object identity : storeMap.duplicates(value)) {
-					identities.put((K) identity, (I) value);
-				}
-			}
+			ranges.add(new BerkeleyRange<>(values[0], false, null, true));
 			break;
 		}
 		case In: {
-			for (I value : values) {
-				for (Object identity : storeMap.duplicates(value)) {
-					identities.put((K) identity, value);
-				}
+			for (I value : new LinkedHashSet<>(Arrays.asList(values))) {
+				ranges.add(new BerkeleyRange<>(value, true, value, true));
 			}
 			break;
 		}
 		case Lower: {
-			storeMap = (StoredSortedMap) storeMap.subMap(null, true, values[0], false);
-			for (Object value : storeMap.keySet()) {
-				for (Object identity : storeMap.duplicates(value)) {
-					identities.put((K) identity, (I) value);
-				}
-			}
+			ranges.add(new BerkeleyRange<>(null, true, values[0], false));
 			break;
 		}
 		case Unequal: {
-			for (Object value : storeMap.keySet()) {
-				if (!values[0].equals(value)) {
-					for (Object identity : storeMap.duplicates(value)) {
-						identities.put((K) identity, (I) value);
-					}
-				}
-			}
+			ranges.add(new BerkeleyRange<>(null, true, values[0], false));
+			ranges.add(new BerkeleyRange<>(values[0], false, null, true));
 			break;
 		}
 		}
-		return identities;
+		return ranges;
 	}
 
-	public <I> List<T> queryInstances(BerkeleyTransactor transactor, String name, StorageCondition<I> condition) {
-		SecondaryIndex secondaryIndex = secondaryIndexes.get(name);
-		StoredSortedMap storeMap = (StoredSortedMap) secondaryIndex.sortedMap();
-		ArrayList<T> instances = new ArrayList<>();
-		ConditionType type = condition.getType();
-		I[] values = condition.getValues();
-		switch (type) {
-		case All: {
-			for (Object value : storeMap.keySet()) {
-				for (Object instance : storeMap.duplicates(value)) {
-					instances.add((T) instance);
-				}
-			}
-			break;
-		}
-		case Between: {
-			storeMap = (StoredSortedMap) storeMap.subMap(values[0], true, values[1], true);
-			for (Object value : storeMap.keySet()) {
-				for (Object instance : storeMap.duplicates(value)) {
-					instances.add((T) instance);
-				}
-			}
-			break;
-		}
-		case Equal: {
-			I value = values[0];
-			for (Object instance : storeMap.duplicates(value)) {
-				instances.add((T) instance);
-			}
-			break;
-		}
-		case Higher: {
-			storeMap = (StoredSortedMap) storeMap.subMap(values[0], false, null, true);
-			for (Object value : storeMap.keySet()) {
-				for (Object instance : storeMap.duplicates(value)) {
-					instances.add((T) instance);
-				}
-			}
-			break;
-		}
-		case In: {
-			for (I value : values) {
-				for (Object instance : storeMap.duplicates(value)) {
-					instances.add((T) instance);
-				}
-			}
-			break;
-		}
-		case Lower: {
-			storeMap = (StoredSortedMap) storeMap.subMap(null, true, values[0], false);
-			for (Object value : storeMap.keySet()) {
-				for (Object instance : storeMap.duplicates(value)) {
-					instances.add((T) instance);
+	public <I> Map<K, I> queryIdentities(BerkeleyTransactor transactor, String name, StorageCondition<I> condition) {
+		Transaction transaction = transactor == null ? null : transactor.getTransaction();
+		CursorConfig cursorModel = getCursorModel(transactor);
+		SecondaryIndex<I, K, T> secondaryIndex = secondaryIndexes.get(name);
+		// 键索引只读取次键与主键,不读取实体
+		EntityIndex<I, K> keysIndex = secondaryIndex.keysIndex();
+		HashMap<K, I> identities = new HashMap<>();
+		for (BerkeleyRange<I> range : getRanges(condition)) {
+			if (range.isPoint()) {
+				I value = range.getFrom();
+				try (EntityCursor<K> cursor = keysIndex.entities(transaction, value, true, value, true, cursorModel)) {
+					K identity;
+					while ((identity = cursor.next()) != null) {
+						identities.put(identity, value);
+					}
 				}
-			}
-			break;
-		}
-		case Unequal: {
-			for (Object value : storeMap.keySet()) {
-				if (!values[0].equals(value)) {
-					for (Object instance : storeMap.duplicates(value)) {
-						instances.add((T) instance);
+			} else {
+				// 按照不重复的次键逐个获取主键
+				try (EntityCursor<I> values = keysIndex.keys(transaction, range.getFrom(), range.isFromInclusive(), range.getTo(), range.isToInclusive(), cursorModel)) {
+					I value;
+					while ((value = values.nextNoDup()) != null) {
+						try (EntityCursor<K> cursor = keysIndex.entities(transaction, value, true, value, true, cursorModel)) {
+							K identity;
+							while ((identity = cursor.next()) != null) {
+								identities.put(identity, value);
+							}
+						}
 					}
 				}
 			}
-			break;
 		}
+		return identities;
+	}
+
+	public <I> List<T> queryInstances(BerkeleyTransactor transactor, String name, StorageCondition<I> condition) {
+		Transaction transaction = transactor == null ? null : transactor.getTransaction();
+		CursorConfig cursorModel = getCursorModel(transactor);
+		SecondaryIndex<I, K, T> secondaryIndex = secondaryIndexes.get(name);
+		ArrayList<T> instances = new ArrayList<>();
+		for (BerkeleyRange<I> range : getRanges(condition)) {
+			try (EntityCursor<T> cursor = secondaryIndex.entities(transaction, range.getFrom(), range.isFromInclusive(), range.getTo(), range.isToInclusive(), cursorModel)) {
+				collect(instances, cursor, Long.MAX_VALUE);
+			}
 		}
 		return instances;
 	}
@@ -325,60 +362,101 @@ public class BerkeleyManager<K extends Comparable, T extends IdentityObject<K>>
 		return count;
 	}
 
-	public List<T> queryInstances(BerkeleyTransactor transactor, StoragePagination pagination) {
-		Transaction transaction = transactor == null ? null : transactor.getTransaction();
-		ArrayList<T> instances = new ArrayList<>();
-		long ignore = pagination.getFirst();
-		long size = pagination.getSize();
-		try (EntityCursor<T> cursor = primaryIndex.entities(transaction, transactor.getIsolation().getCursorModel())) {
-			ignore -= ignore(cursor, ignore);
-			if (ignore == 0) {
-				collect(instances, cursor, size);
-			}
-			return instances;
+	private <E> void iterate(StorageIterator<E> iterator, ForwardCursor<E> cursor, long size) {
+		E element;
+		while (size > 0 && (element = cursor.next()) != null) {
+			iterator.iterate(element);
+			size--;
 		}
 	}
 
-	public List<T> queryIntersection(BerkeleyTransactor transactor, Map<String, Object> condition, StoragePagination pagination) {
-		Transaction transaction = transactor == null ? null : transactor.getTransaction();
+	private EntityJoin<K, T> getJoin(Map<String, Object> condition) {
 		EntityJoin<K, T> join = new EntityJoin<K, T>(primaryIndex);
 		for (Entry<String, Object> keyValue : condition.entrySet()) {
 			SecondaryIndex<Object, K, T> secondaryIndex = secondaryIndexes.get(keyValue.getKey());
 			join.addCondition(secondaryIndex, keyValue.getValue());
 		}
-		ArrayList<T> instances = new ArrayList<>();
-		long ignore = pagination.getFirst();
-		long size = pagination.getSize();
-		try (ForwardCursor<T> cursor = join.entities(transaction, transactor.getIsolation().getCursorModel())) {
-			if (ignore == 0) {
-				collect(instances, cursor, size);
+		return join;
+	}
+
+	/**
+	 * 获取每个等值条件的主键游标
+	 * 
+	 * <pre>
+	 * 同一次键值的重复记录按照主键排序,所以每个游标都是有序的
+	 * </pre>
+	 * 
+	 * @param transaction
+	 * @param cursorModel
+	 * @param condition
+	 * @param after
+	 *            起点主键(不包含),null表示从头开始
+	 * @return
+	 */
+	private List<ForwardCursor<K>> getCursors(Transaction transaction, CursorConfig cursorModel, Map<String, Object> condition, K after) {
+		ArrayList<ForwardCursor<K>> cursors = new ArrayList<>(condition.size());
+		try {
+			for (Entry<String, Object> keyValue : condition.entrySet()) {
+				SecondaryIndex<Object, K, T> secondaryIndex = secondaryIndexes.get(keyValue.getKey());
+				EntityIndex<K, T> subIndex = secondaryIndex.subIndex(keyValue.getValue());
+				cursors.add(subIndex.keys(transaction, after, false, null, true, cursorModel));
+			}
+			return cursors;
+		} catch (RuntimeException exception) {
+			for (ForwardCursor<K> cursor : cursors) {
+				cursor.close();
 			}
-			return instances;
+			throw exception;
 		}
 	}
 
-	public List<T> queryUnion(BerkeleyTransactor transactor, Map<String, Object> condition, StoragePagination pagination) {
-		Transaction transaction = transactor == null ? null : transactor.getTransaction();
-		long ignore = pagination.getFirst();
-		long size = pagination.getSize();
-		ArrayList<T> instances = new ArrayList<>();
-		// TODO 应该考虑实例重复计算的情况.
-		for (Entry<String, Object> keyValue : condition.entrySet()) {
-			SecondaryIndex<Object, K, T> secondaryIndex = secondaryIndexes.get(keyValue.getKey());
-			try (ForwardCursor<T> cursor = secondaryIndex.subIndex(keyValue.getValue()).entities(transaction, transactor.getIsolation().getCursorModel())) {
-				if (ignore > 0) {
-					ignore -= ignore(cursor, ignore);
-				}
-				if (ignore == 0) {
-					if (size > instances.size()) {
-						collect(instances, cursor, size - instances.size());
-					}
-					if (size == instances.size()) {
-						break;
-					}
-				}
+	private static long getIgnore(StoragePagination pagination) {
+		return pagination == null || pagination.isKeyset() ? 0 : pagination.getFirst();
+	}
+
+	private static long getSize(StoragePagination pagination) {
+		return pagination == null ? Long.MAX_VALUE : pagination.getSize();
+	}
+
+	private static <K> K getAfter(StoragePagination pagination) {
+		return pagination == null || !pagination.isKeyset() ? null : (K) pagination.getKey();
+	}
+
+	/**
+	 * 按照主键遍历实例
+	 * 
+	 * @param iterator
+	 * @param transaction
+	 * @param lockMode
+	 * @param merger
+	 * @param size
+	 */
+	private void iterate(StorageIterator<T> iterator, Transaction transaction, LockMode lockMode, BerkeleyMerger<K> merger, long size) {
+		K identity;
+		while (size > 0 && (identity = merger.next()) != null) {
+			T instance = (T) primaryIndex.get(transaction, identity, lockMode);
+			if (instance != null) {
+				iterator.iterate(instance);
+				size--;
 			}
 		}
+	}
+
+	public List<T> queryInstances(BerkeleyTransactor transactor, StoragePagination pagination) {
+		ArrayList<T> instances = new ArrayList<>();
+		iterateInstances(instances::add, transactor, pagination);
+		return instances;
+	}
+
+	public List<T> queryIntersection(BerkeleyTransactor transactor, Map<String, Object> condition, StoragePagination pagination) {
+		ArrayList<T> instances = new ArrayList<>();
+		iterateIntersection(instances::add, transactor, condition, pagination);
+		return instances;
+	}
+
+	public List<T> queryUnion(BerkeleyTransactor transactor, Map<String, Object> condition, StoragePagination pagination) {
+		ArrayList<T> instances = new ArrayList<>();
+		iterateUnion(instances::add, transactor, condition, pagination);
 		return instances;
 	}
 
@@ -388,67 +466,49 @@ public class BerkeleyManager<K extends Comparable, T extends IdentityObject<K>>
 
 	public long countIntersection(BerkeleyTransactor transactor, Map<String, Object> condition) {
 		Transaction transaction = transactor == null ? null : transactor.getTransaction();
-		EntityJoin<K, T> join = new EntityJoin<K, T>(primaryIndex);
-		for (Entry<String, Object> keyValue : condition.entrySet()) {
-			SecondaryIndex<Object, K, T> secondaryIndex = secondaryIndexes.get(keyValue.getKey());
-			join.addCondition(secondaryIndex, keyValue.getValue());
-		}
-		try (ForwardCursor<K> cursor = join.keys(transaction, transactor.getIsolation().getCursorModel())) {
+		EntityJoin<K, T> join = getJoin(condition);
+		try (ForwardCursor<K> cursor = join.keys(transaction, getCursorModel(transactor))) {
 			return count(cursor);
 		}
 	}
 
 	public long countUnion(BerkeleyTransactor transactor, Map<String, Object> condition) {
 		Transaction transaction = transactor == null ? null : transactor.getTransaction();
-		long count = 0;
-		// TODO 应该考虑实例重复计算的情况.
-		for (Entry<String, Object> keyValue : condition.entrySet()) {
-			SecondaryIndex<Object, K, T> secondaryIndex = secondaryIndexes.get(keyValue.getKey());
-			try (ForwardCursor<K> cursor = secondaryIndex.subIndex(keyValue.getValue()).keys(transaction, transactor.getIsolation().getCursorModel())) {
-				count += count(cursor);
-			}
+		try (BerkeleyUnion<K> union = new BerkeleyUnion<>(getCursors(transaction, getCursorModel(transactor), condition, null))) {
+			return union.ignore(Long.MAX_VALUE);
 		}
-		return count;
 	}
 
 	public void iterateInstances(StorageIterator<T> iterator, BerkeleyTransactor transactor, StoragePagination pagination) {
 		Transaction transaction = transactor == null ? null : transactor.getTransaction();
-		long first = pagination.getFirst();
-		long last = pagination.getLast();
-		long count = 0;
-		try (ForwardCursor<T> cursor = primaryIndex.entities(transaction, transactor.getIsolation().getCursorModel())) {
-			T element;
-			while ((element = cursor.next()) != null) {
-				if (count >= first && count < last) {
-					iterator.iterate(element);
-				}
-				count++;
-				if (count == last) {
-					break;
-				}
+		long ignore = getIgnore(pagination);
+		long size = getSize(pagination);
+		K after = getAfter(pagination);
+		// 键集分页直接从起点主键之后开始
+		try (ForwardCursor<T> cursor = primaryIndex.entities(transaction, after, false, null, true, getCursorModel(transactor))) {
+			ignore -= ignore(cursor, ignore);
+			if (ignore == 0) {
+				iterate(iterator, cursor, size);
 			}
 		}
 	}
 
 	public void iterateIntersection(StorageIterator<T> iterator, BerkeleyTransactor transactor, Map<String, Object> condition, StoragePagination pagination) {
 		Transaction transaction = transactor == null ? null : transactor.getTransaction();
-		EntityJoin<K, T> join = new EntityJoin<K, T>(primaryIndex);
-		for (Entry<String, Object> keyValue : condition.entrySet()) {
-			SecondaryIndex<Object, K, T> secondaryIndex = secondaryIndexes.get(keyValue.getKey());
-			join.addCondition(secondaryIndex, keyValue.getValue());
-		}
-		long first = pagination.getFirst();
-		long last = pagination.getLast();
-		long count = 0;
-		try (ForwardCursor<T> cursor = join.entities(transaction, transactor.getIsolation().getCursorModel())) {
-			T element;
-			while ((element = cursor.next()) != null) {
-				if (count >= first && count < last) {
-					iterator.iterate(element);
-				}
-				count++;
-				if (count == last) {
-					break;
+		long ignore = getIgnore(pagination);
+		long size = getSize(pagination);
+		if (pagination != null && pagination.isKeyset()) {
+			// 键集分页通过归并每个条件的主键游标,从起点主键之后开始
+			LockMode lockMode = transactor == null ? null : transactor.getIsolation().getLockMode();
+			try (BerkeleyIntersection<K> intersection = new BerkeleyIntersection<>(getCursors(transaction, getCursorModel(transactor), condition, getAfter(pagination)))) {
+				iterate(iterator, transaction, lockMode, intersection, size);
+			}
+		} else {
+			EntityJoin<K, T> join = getJoin(condition);
+			try (ForwardCursor<T> cursor = join.entities(transaction, getCursorModel(transactor))) {
+				ignore -= ignore(cursor, ignore);
+				if (ignore == 0) {
+					iterate(iterator, cursor, size);
 				}
 			}
 		}
@@ -456,28 +516,15 @@ public class BerkeleyManager<K extends Comparable, T extends IdentityObject<K>>
 
 	public void iterateUnion(StorageIterator<T> iterator, BerkeleyTransactor transactor, Map<String, Object> condition, StoragePagination pagination) {
 		Transaction transaction = transactor == null ? null : transactor.getTransaction();
-		long first = pagination.getFirst();
-		long last = pagination.getLast();
-		long count = 0;
-		// TODO 应该考虑实例重复计算的情况.
-		for (Entry<String, Object> keyValue : condition.entrySet()) {
-			SecondaryIndex<Object, K, T> secondaryIndex = secondaryIndexes.get(keyValue.getKey());
-			try (ForwardCursor<T> cursor = secondaryIndex.subIndex(keyValue.getValue()).entities(transaction, transactor.getIsolation().getCursorModel())) {
-				T element;
-				while ((element = cursor.next()) != null) {
-					if (count >= first && count < last) {
-						iterator.iterate(element);
-					}
-					count++;
-					if (count == last) {
-						break;
-					}
-				}
-			}
-			if (count == last) {
-				break;
+		LockMode lockMode = transactor == null ? null : transactor.getIsolation().getLockMode();
+		long ignore = getIgnore(pagination);
+		long size = getSize(pagination);
+		try (BerkeleyUnion<K> union = new BerkeleyUnion<>(getCursors(transaction, getCursorModel(transactor), condition, getAfter(pagination)))) {
+			ignore -= union.ignore(ignore);
+			if (ignore == 0) {
+				iterate(iterator, transaction, lockMode, union, size);
 			}
 		}
 	}
 
-}
\ No newline at end of file
+}
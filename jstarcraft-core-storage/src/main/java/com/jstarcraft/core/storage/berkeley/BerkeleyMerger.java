@@ -0,0 +1,72 @@
+package com.jstarcraft.core.storage.berkeley;
+
+import java.util.List;
+
+import com.sleepycat.persist.ForwardCursor;
+
+/**
+ * Berkeley归并器
+ * 
+ * <pre>
+ * 归并多个按照主键排序的游标,按照主键顺序返回主键.
+ * 同一次键值的重复记录在次键索引中按照主键排序,所以每个等值条件的主键游标都是有序的.
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ * @param <K>
+ */
+abstract class BerkeleyMerger<K extends Comparable> implements AutoCloseable {
+
+    /** 游标 */
+    protected final List<ForwardCursor<K>> cursors;
+
+    /** 每个游标的当前主键 */
+    protected final Comparable[] currents;
+
+    protected BerkeleyMerger(List<ForwardCursor<K>> cursors) {
+        this.cursors = cursors;
+        this.currents = new Comparable[cursors.size()];
+        for (int index = 0, size = cursors.size(); index < size; index++) {
+            currents[index] = cursors.get(index).next();
+        }
+    }
+
+    /**
+     * 推进指定游标
+     * 
+     * @param index
+     */
+    protected void move(int index) {
+        currents[index] = cursors.get(index).next();
+    }
+
+    /**
+     * 获取下一个主键
+     * 
+     * @return 不存在时为null
+     */
+    abstract K next();
+
+    /**
+     * 忽略指定数量的主键
+     * 
+     * @param size
+     * @return 实际忽略的数量
+     */
+    long ignore(long size) {
+        long count = 0;
+        while (count < size && next() != null) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+        for (ForwardCursor<K> cursor : cursors) {
+            cursor.close();
+        }
+    }
+
+}
@@ -22,6 +22,7 @@ import com.jstarcraft.core.storage.berkeley.annotation.BerkeleyConfiguration;
 import com.jstarcraft.core.storage.berkeley.exception.BerkeleyOperationException;
 import com.jstarcraft.core.utility.ClassUtility;
 import com.jstarcraft.core.utility.StringUtility;
+import com.sleepycat.je.CacheMode;
 import com.sleepycat.persist.model.Entity;
 import com.sleepycat.persist.model.PrimaryKey;
 import com.sleepycat.persist.model.SecondaryKey;
@@ -51,6 +52,14 @@ public class BerkeleyMetadata implements StorageMetadata, Comparable<BerkeleyMet
     private final Field versionField;
     /** 存储空间 */
     private final String storeName;
+    /** 持久策略 */
+    private final BerkeleyDurability durability;
+    /** 是否延迟写 */
+    private final boolean deferredWrite;
+    /** 缓存模式 */
+    private final CacheMode cacheMode;
+    /** 是否键前缀压缩 */
+    private final boolean keyPrefixing;
 
     /** 依赖类型集合 */
     private final HashSet<Class<?>> relativeClasses;
@@ -94,6 +103,10 @@ public class BerkeleyMetadata implements StorageMetadata, Comparable<BerkeleyMet
             throw new IllegalArgumentException();
         }
         storeName = configuration.store();
+        durability = configuration.durability();
+        deferredWrite = configuration.deferredWrite();
+        cacheMode = configuration.cacheMode();
+        keyPrefixing = configuration.keyPrefixing();
 
         if (StringUtility.isNotBlank(configuration.version())) {
             versionField = ReflectionUtility.findField(clazz, configuration.version());
@@ -208,6 +221,22 @@ public class BerkeleyMetadata implements StorageMetadata, Comparable<BerkeleyMet
         return storeName;
     }
 
+    public BerkeleyDurability getDurability() {
+        return durability;
+    }
+
+    public boolean isDeferredWrite() {
+        return deferredWrite;
+    }
+
+    public CacheMode getCacheMode() {
+        return cacheMode;
+    }
+
+    public boolean isKeyPrefixing() {
+        return keyPrefixing;
+    }
+
     @Override
     public int compareTo(BerkeleyMetadata that) {
         if (this.equals(that)) {
@@ -0,0 +1,57 @@
+package com.jstarcraft.core.storage.berkeley;
+
+/**
+ * Berkeley范围
+ * 
+ * <pre>
+ * 对应{@link com.sleepycat.persist.EntityIndex#entities(com.sleepycat.je.Transaction, Object, boolean, Object, boolean, com.sleepycat.je.CursorConfig)}的边界,null表示无边界
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ * @param <I>
+ */
+class BerkeleyRange<I> {
+
+    /** 起始值 */
+    private final I from;
+    /** 是否包含起始值 */
+    private final boolean fromInclusive;
+    /** 结束值 */
+    private final I to;
+    /** 是否包含结束值 */
+    private final boolean toInclusive;
+
+    BerkeleyRange(I from, boolean fromInclusive, I to, boolean toInclusive) {
+        this.from = from;
+        this.fromInclusive = fromInclusive;
+        this.to = to;
+        this.toInclusive = toInclusive;
+    }
+
+    I getFrom() {
+        return from;
+    }
+
+    boolean isFromInclusive() {
+        return fromInclusive;
+    }
+
+    I getTo() {
+        return to;
+    }
+
+    boolean isToInclusive() {
+        return toInclusive;
+    }
+
+    /**
+     * 是否为单值范围
+     * 
+     * @return
+     */
+    boolean isPoint() {
+        return from != null && fromInclusive && toInclusive && from.equals(to);
+    }
+
+}
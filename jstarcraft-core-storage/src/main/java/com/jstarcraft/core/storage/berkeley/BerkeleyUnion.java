@@ -0,0 +1,44 @@
+package com.jstarcraft.core.storage.berkeley;
+
+import java.util.List;
+
+import com.sleepycat.persist.ForwardCursor;
+
+/**
+ * Berkeley并集
+ * 
+ * <pre>
+ * 按照主键顺序返回任意游标包含的主键(不重复)
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ * @param <K>
+ */
+class BerkeleyUnion<K extends Comparable> extends BerkeleyMerger<K> {
+
+    BerkeleyUnion(List<ForwardCursor<K>> cursors) {
+        super(cursors);
+    }
+
+    @Override
+    K next() {
+        Comparable minimum = null;
+        for (Comparable current : currents) {
+            if (current != null && (minimum == null || current.compareTo(minimum) < 0)) {
+                minimum = current;
+            }
+        }
+        if (minimum == null) {
+            return null;
+        }
+        // 推进所有指向最小主键的游标
+        for (int index = 0; index < currents.length; index++) {
+            if (currents[index] != null && currents[index].compareTo(minimum) == 0) {
+                move(index);
+            }
+        }
+        return (K) minimum;
+    }
+
+}
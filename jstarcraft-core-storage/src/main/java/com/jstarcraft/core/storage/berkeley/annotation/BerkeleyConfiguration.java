@@ -5,7 +5,9 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+import com.jstarcraft.core.storage.berkeley.BerkeleyDurability;
 import com.jstarcraft.core.utility.StringUtility;
+import com.sleepycat.je.CacheMode;
 
 /**
  * Berkeley配置
@@ -23,4 +25,16 @@ public @interface BerkeleyConfiguration {
     /** 版本字段(类型必须是{@link Integer}) */
     String version() default StringUtility.EMPTY;
 
+    /** 持久策略(仅作用于没有显式事务的写操作) */
+    BerkeleyDurability durability() default BerkeleyDurability.DEFAULT;
+
+    /** 是否延迟写(同一贮存的实体必须一致,延迟写贮存不支持事务) */
+    boolean deferredWrite() default false;
+
+    /** 缓存模式(作用于主键索引与次键索引) */
+    CacheMode cacheMode() default CacheMode.DEFAULT;
+
+    /** 是否键前缀压缩(作用于主键索引与次键索引) */
+    boolean keyPrefixing() default false;
+
 }
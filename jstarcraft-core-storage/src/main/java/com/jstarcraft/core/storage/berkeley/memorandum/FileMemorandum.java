@@ -8,6 +8,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.nio.file.Files;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
@@ -28,6 +29,18 @@ import com.sleepycat.je.Environment;
 import com.sleepycat.je.util.DbBackup;
 import com.sleepycat.je.util.LogVerificationInputStream;
 
+/**
+ * 文件备忘录
+ * 
+ * <pre>
+ * 基于{@link DbBackup}的增量热备份,每次备份只复制上次备份之后新增的日志文件.
+ * 备份目录按照[日期]/[时间]分层,每个备份目录的备忘文件记录恢复该时刻所需的全部日志文件.
+ * 还原时由新到旧回放增量备份,每个日志文件只复制一次.
+ * </pre>
+ * 
+ * @author Birdy
+ *
+ */
 // 备份数据目录要做层多层，例如:[年-月]/[日]/[时间]
 public class FileMemorandum implements Memorandum {
 
@@ -40,6 +53,12 @@ public class FileMemorandum implements Memorandum {
 
     private final int cacheSize;
 
+    /** 是否尝试硬链接(日志文件备份后不再修改,文件系统不支持时退化为复制) */
+    private final boolean link;
+
+    /** 复制速率(字节/秒,小于等于0表示不限制) */
+    private final long rate;
+
     /** 环境目录 */
     private final File environmentDirectory;
     /** 备忘目录 */
@@ -50,7 +69,13 @@ public class FileMemorandum implements Memorandum {
     private long markNumber;
 
     public FileMemorandum(int cacheSize, File environmentDirectory, File memorandumDirectory) {
+        this(cacheSize, environmentDirectory, memorandumDirectory, false, 0L);
+    }
+
+    public FileMemorandum(int cacheSize, File environmentDirectory, File memorandumDirectory, boolean link, long rate) {
         this.cacheSize = cacheSize;
+        this.link = link;
+        this.rate = rate;
         this.environmentDirectory = environmentDirectory;
         this.memorandumDirectory = memorandumDirectory;
         this.markFile = new File(memorandumDirectory, MARK_FILE);
@@ -60,7 +85,8 @@ public class FileMemorandum implements Memorandum {
                 markNumber = -1L;
             } else {
                 try (FileInputStream input = new FileInputStream(markFile); InputStreamReader reader = new InputStreamReader(input, StringUtility.CHARSET); BufferedReader buffer = new BufferedReader(reader)) {
-                    markNumber = Long.valueOf(buffer.readLine());
+                    String line = buffer.readLine();
+                    markNumber = StringUtility.isBlank(line) ? -1L : Long.valueOf(line.trim());
                 }
             }
         } catch (Exception exception) {
@@ -69,8 +95,34 @@ public class FileMemorandum implements Memorandum {
 
     }
 
+    /**
+     * 限制复制速率
+     * 
+     * @param begin
+     *            开始时间(纳秒)
+     * @param count
+     *            已复制字节数
+     */
+    private void throttle(long begin, long count) throws IOException {
+        if (rate <= 0) {
+            return;
+        }
+        long expect = count * 1000L / rate;
+        long actual = (System.nanoTime() - begin) / 1000000L;
+        if (expect > actual) {
+            try {
+                Thread.sleep(expect - actual);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IOException(exception);
+            }
+        }
+    }
+
     private void copyFile(Environment environment, File from, File to) throws IOException {
         final byte[] cache = new byte[cacheSize];
+        final long begin = System.nanoTime();
+        long count = 0L;
         try (FileInputStream input = new FileInputStream(from); LogVerificationInputStream log = new LogVerificationInputStream(environment, input, from.getName()); FileOutputStream output = new FileOutputStream(to)) {
             while (true) {
                 final int length = log.read(cache);
@@ -78,8 +130,41 @@ public class FileMemorandum implements Memorandum {
                     break;
                 }
                 output.write(cache, 0, length);
+                count += length;
+                throttle(begin, count);
+            }
+        }
+    }
+
+    private void linkFile(Environment environment, File from, File to) throws IOException {
+        if (link) {
+            try {
+                Files.createLink(to.toPath(), from.toPath());
+                return;
+            } catch (UnsupportedOperationException | IOException exception) {
+                // 跨文件系统或者不支持硬链接
+                LOGGER.debug("日志文件[{}]无法硬链接,退化为复制", from.getName());
+            }
+        }
+        copyFile(environment, from, to);
+    }
+
+    private void writeMark(long number) throws IOException {
+        try (FileOutputStream output = new FileOutputStream(markFile); OutputStreamWriter writer = new OutputStreamWriter(output, StringUtility.CHARSET); BufferedWriter buffer = new BufferedWriter(writer);) {
+            buffer.write(String.valueOf(number));
+            buffer.newLine();
+        }
+    }
+
+    private Collection<String> readNames(File file) throws IOException {
+        final Collection<String> names = new HashSet<String>();
+        try (FileInputStream input = new FileInputStream(file); InputStreamReader reader = new InputStreamReader(input, StringUtility.CHARSET); BufferedReader buffer = new BufferedReader(reader);) {
+            String line;
+            while ((line = buffer.readLine()) != null) {
+                names.add(line);
             }
         }
+        return names;
     }
 
     @Override
@@ -103,19 +188,22 @@ public class FileMemorandum implements Memorandum {
             }
             for (File from : memorandumFiles) {
                 final File to = new File(directory, from.getName());
-                copyFile(environment, from, to);
+                linkFile(environment, from, to);
             }
 
+            // 备忘文件记录恢复当前时刻所需的全部日志文件(包括之前备份的日志文件)
             File memorandumFile = new File(directory, MEMORANDUM_FILE);
             memorandumFile.createNewFile();
             try (FileOutputStream output = new FileOutputStream(memorandumFile); OutputStreamWriter writer = new OutputStreamWriter(output, StringUtility.CHARSET); BufferedWriter buffer = new BufferedWriter(writer);) {
-                final String[] environmentNames = environmentDirectory.list();
+                final String[] environmentNames = berkeley.getLogFilesInSnapshot();
                 for (String name : environmentNames) {
                     buffer.write(name);
                     buffer.newLine();
                 }
             }
-            markNumber = berkeley.getLastFileInBackupSet();
+            long number = berkeley.getLastFileInBackupSet();
+            writeMark(number);
+            markNumber = number;
         } catch (Exception exception) {
             String message = StringUtility.format("备份异常");
             LOGGER.error(message, exception);
@@ -166,25 +254,28 @@ public class FileMemorandum implements Memorandum {
             throw new BerkeleyMemorandumException("备忘文件不存在");
         }
 
-        // 恢复的文件列表
-        final Collection<String> names = new HashSet<String>();
-
-        try (FileInputStream fileInputStream = new FileInputStream(listFile); InputStreamReader dataInputStream = new InputStreamReader(fileInputStream, StringUtility.CHARSET); BufferedReader bufferedReader = new BufferedReader(dataInputStream);) {
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                names.add(line);
-            }
+        try {
+            // 恢复的文件列表
+            final Collection<String> names = readNames(listFile);
 
-            // 恢复目标目录
-            for (Entry<Instant, File> keyValue : restoreDirectoryMap.entrySet()) {
-                final File restoreDirectory = keyValue.getValue();
+            // 由新到旧回放增量备份,每个文件只复制一次
+            for (File restoreDirectory : restoreDirectoryMap.descendingMap().values()) {
+                if (names.isEmpty()) {
+                    break;
+                }
                 for (File fromFile : restoreDirectory.listFiles()) {
-                    if (names.contains(fromFile.getName()) && fromFile.isFile()) {
+                    if (fromFile.isFile() && names.remove(fromFile.getName())) {
                         final File toFile = new File(environmentDirectory, fromFile.getName());
                         FileUtils.copyFile(fromFile, toFile);
                     }
                 }
             }
+
+            if (!names.isEmpty()) {
+                throw new BerkeleyMemorandumException(StringUtility.format("恢复区间缺少日志文件{}", names));
+            }
+        } catch (BerkeleyMemorandumException exception) {
+            throw exception;
         } catch (Exception exception) {
             throw new BerkeleyMemorandumException("恢复文件失败", exception);
         }
@@ -220,12 +311,9 @@ public class FileMemorandum implements Memorandum {
         }
 
         // 保留的文件列表
-        final Collection<String> saveList = new HashSet<String>();
-        try (FileInputStream input = new FileInputStream(listFile); InputStreamReader reader = new InputStreamReader(input, StringUtility.CHARSET); BufferedReader buffer = new BufferedReader(reader);) {
-            String line;
-            while ((line = buffer.readLine()) != null) {
-                saveList.add(line);
-            }
+        final Collection<String> saveList;
+        try {
+            saveList = readNames(listFile);
         } catch (Exception exception) {
             throw new BerkeleyMemorandumException("清理文件失败", exception);
         }
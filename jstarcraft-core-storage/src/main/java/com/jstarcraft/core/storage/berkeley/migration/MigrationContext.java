@@ -1,6 +1,8 @@
 package com.jstarcraft.core.storage.berkeley.migration;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -13,7 +15,16 @@ import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.sleepycat.bind.EntryBinding;
+import com.sleepycat.bind.tuple.StringBinding;
+import com.sleepycat.bind.tuple.TupleInput;
+import com.sleepycat.bind.tuple.TupleOutput;
+import com.sleepycat.je.Database;
+import com.sleepycat.je.DatabaseConfig;
+import com.sleepycat.je.DatabaseEntry;
 import com.sleepycat.je.Environment;
+import com.sleepycat.je.LockMode;
+import com.sleepycat.je.OperationStatus;
 import com.sleepycat.persist.raw.RawObject;
 import com.sleepycat.persist.raw.RawStore;
 
@@ -42,10 +53,28 @@ public class MigrationContext {
     /** 警戒数量(当出现拒绝任务异常以后,会停止任务提交,直到任务队列低于警戒数量)(TODO 考虑配置项) */
     public static final int ALERT_SIZE = MigrationContext.QUEUE_SIZE / 2;
 
+    /** 每个实体的分区数量(TODO 考虑配置项) */
+    public static final int PARTITION_SIZE = Runtime.getRuntime().availableProcessors();
+
+    /** 批次写入的尝试次数(TODO 考虑配置项) */
+    public static final int TRY_TIMES = 10;
+
+    /** 检查点数据库名称(不能使用persist前缀,防止被当作实体数据库) */
+    public static final String CHECKPOINT_DATABASE = "migration#checkpoints";
+
+    private static final String PARTITION_SUFFIX = "#partitions";
+
+    private static final String COMPLETE_SUFFIX = "#complete";
+
     private final ThreadPoolExecutor readeExecutor;
 
+    private final ThreadPoolExecutor partitionExecutor;
+
     private final ThreadPoolExecutor writeExecutor;
 
+    /** 检查点数据库 */
+    private final Database checkpointDatabase;
+
     /** 所有迁移任务的映射集合 */
     private final ConcurrentMap<String, Future<MigrationReadTask>> migrationTaskMap = new ConcurrentHashMap<String, Future<MigrationReadTask>>();
 
@@ -74,6 +103,7 @@ public class MigrationContext {
         }
 
         this.readeExecutor = new ThreadPoolExecutor(0, classNameMap.size(), 0, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(1));
+        this.partitionExecutor = new ThreadPoolExecutor(PARTITION_SIZE, PARTITION_SIZE, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
         this.writeExecutor = new ThreadPoolExecutor(Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors(), 0, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(QUEUE_SIZE));
         this.entityConverterMap = entityConverterMap;
         this.entityDependencyMap = entityDependencyMap;
@@ -81,16 +111,170 @@ public class MigrationContext {
         this.newDatabaseEnvironment = newDatabaseEnvironment;
         this.oldEntityStoreMap = oldEntityStoreMap;
         this.newEntityStoreMap = newEntityStoreMap;
+
+        // 检查点与迁移数据保存在同一个环境,恢复迁移时从检查点继续
+        final DatabaseConfig databaseConfiguration = new DatabaseConfig();
+        databaseConfiguration.setAllowCreate(true);
+        databaseConfiguration.setTransactional(newDatabaseEnvironment.getConfig().getTransactional());
+        this.checkpointDatabase = newDatabaseEnvironment.openDatabase(null, CHECKPOINT_DATABASE, databaseConfiguration);
     }
 
     public ThreadPoolExecutor getReadeExecutor() {
         return readeExecutor;
     }
 
+    public ThreadPoolExecutor getPartitionExecutor() {
+        return partitionExecutor;
+    }
+
     public ThreadPoolExecutor getWriteExecutor() {
         return writeExecutor;
     }
 
+    public MigrationCounter getMigrationCounter(String entityName) {
+        return counterMap.get(entityName);
+    }
+
+    /**
+     * 新环境是否支持事务
+     * 
+     * @return
+     */
+    public boolean isTransactional() {
+        return newDatabaseEnvironment.getConfig().getTransactional();
+    }
+
+    private EntryBinding<Object> getKeyBinding(String entityName) {
+        final String oldEntityName = classNameMap.get(entityName);
+        return oldEntityStoreMap.get(oldEntityName).getPrimaryIndex(oldEntityName).getKeyBinding();
+    }
+
+    private byte[] getCheckpoint(String name) {
+        final DatabaseEntry key = new DatabaseEntry();
+        final DatabaseEntry value = new DatabaseEntry();
+        StringBinding.stringToEntry(name, key);
+        if (checkpointDatabase.get(null, key, value, LockMode.READ_UNCOMMITTED) == OperationStatus.SUCCESS) {
+            return value.getData();
+        }
+        return null;
+    }
+
+    private void setCheckpoint(String name, byte[] data) {
+        final DatabaseEntry key = new DatabaseEntry();
+        StringBinding.stringToEntry(name, key);
+        checkpointDatabase.put(null, key, new DatabaseEntry(data));
+    }
+
+    /**
+     * 获取指定实体的分区边界
+     * 
+     * @param entityName
+     * @return 不存在时为null
+     */
+    public List<Object> getPartitionKeys(String entityName) {
+        final byte[] data = getCheckpoint(entityName + PARTITION_SUFFIX);
+        if (data == null) {
+            return null;
+        }
+        final EntryBinding<Object> binding = getKeyBinding(entityName);
+        final TupleInput input = new TupleInput(data);
+        final int size = input.readInt();
+        final List<Object> keys = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            final byte[] bytes = new byte[input.readInt()];
+            input.readFast(bytes);
+            keys.add(binding.entryToObject(new DatabaseEntry(bytes)));
+        }
+        return keys;
+    }
+
+    /**
+     * 设置指定实体的分区边界
+     * 
+     * <pre>
+     * 恢复迁移时必须沿用相同的分区边界,检查点才有意义.
+     * </pre>
+     * 
+     * @param entityName
+     * @param keys
+     */
+    public void setPartitionKeys(String entityName, List<Object> keys) {
+        final EntryBinding<Object> binding = getKeyBinding(entityName);
+        final TupleOutput output = new TupleOutput();
+        output.writeInt(keys.size());
+        for (Object key : keys) {
+            final DatabaseEntry entry = new DatabaseEntry();
+            binding.objectToEntry(key, entry);
+            output.writeInt(entry.getSize());
+            output.writeFast(entry.getData(), entry.getOffset(), entry.getSize());
+        }
+        setCheckpoint(entityName + PARTITION_SUFFIX, output.toByteArray());
+    }
+
+    /**
+     * 获取指定分区的检查点
+     * 
+     * @param entityName
+     * @param index
+     * @return 不存在时为null
+     */
+    public Object getCheckpoint(String entityName, int index) {
+        final byte[] data = getCheckpoint(entityName + "#" + index);
+        if (data == null) {
+            return null;
+        }
+        return getKeyBinding(entityName).entryToObject(new DatabaseEntry(data));
+    }
+
+    /**
+     * 设置指定分区的检查点
+     * 
+     * @param partition
+     * @param checkpoint
+     */
+    void setCheckpoint(MigrationPartition partition, Object checkpoint) {
+        final DatabaseEntry entry = new DatabaseEntry();
+        getKeyBinding(partition.getEntityName()).objectToEntry(checkpoint, entry);
+        final byte[] data = new byte[entry.getSize()];
+        System.arraycopy(entry.getData(), entry.getOffset(), data, 0, entry.getSize());
+        setCheckpoint(partition.toString(), data);
+    }
+
+    /**
+     * 指定实体是否已经完成迁移
+     * 
+     * @param entityName
+     * @return
+     */
+    public boolean isComplete(String entityName) {
+        return getCheckpoint(entityName + COMPLETE_SUFFIX) != null;
+    }
+
+    /**
+     * 设置指定实体已经完成迁移
+     * 
+     * @param entityName
+     */
+    public void setComplete(String entityName) {
+        setCheckpoint(entityName + COMPLETE_SUFFIX, new byte[0]);
+    }
+
+    /**
+     * 关闭上下文
+     * 
+     * @param complete
+     *            是否全部完成(全部完成时删除检查点)
+     */
+    public void close(boolean complete) {
+        readeExecutor.shutdown();
+        partitionExecutor.shutdown();
+        writeExecutor.shutdown();
+        checkpointDatabase.close();
+        if (complete) {
+            newDatabaseEnvironment.removeDatabase(null, CHECKPOINT_DATABASE);
+        }
+    }
+
     public Map<String, String> getClassNameMap() {
         return classNameMap;
     }
@@ -135,13 +319,13 @@ public class MigrationContext {
         return entityDependencyMap;
     }
 
-    public Future<MigrationWriteTask> getMigrationWriteTask(String entityName, Collection<RawObject> dataCollection) {
+    public Future<MigrationWriteTask> getMigrationWriteTask(String entityName, MigrationPartition partition, long sequence, Object key, Collection<RawObject> dataCollection) {
         final String oldEntityName = this.classNameMap.get(entityName);
         final String newEntityName = entityName;
         final MigrationConverter converter = this.entityConverterMap.get(entityName);
         while (true) {
             try {
-                return this.writeExecutor.submit(new MigrationWriteTask(oldEntityName, newEntityName, this, this.counterMap.get(entityName), converter, dataCollection));
+                return this.writeExecutor.submit(new MigrationWriteTask(oldEntityName, newEntityName, this, this.counterMap.get(entityName), converter, partition, sequence, key, dataCollection));
             } catch (RejectedExecutionException exception) {
                 logger.debug("迁移实体[{}]拒绝任务异常", newEntityName);
                 // 任务队列超过警戒数量,停止提交任务,防止RejectedExecutionException
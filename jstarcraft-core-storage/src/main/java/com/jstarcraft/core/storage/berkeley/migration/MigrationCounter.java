@@ -4,7 +4,7 @@ import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 迁移计数器
- * 
+ *
  * @author Birdy
  *
  */
@@ -16,9 +16,27 @@ public class MigrationCounter {
     /** 写出记录数量 */
     private final AtomicLong writeRecordNumber = new AtomicLong();
 
+    /** 忽略记录数量(转换器返回false) */
+    private final AtomicLong ignoreRecordNumber = new AtomicLong();
+
+    /** 失败记录数量 */
+    private final AtomicLong failRecordNumber = new AtomicLong();
+
+    /** 写出批次数量 */
+    private final AtomicLong writeBatchNumber = new AtomicLong();
+
+    /** 重试批次数量 */
+    private final AtomicLong retryBatchNumber = new AtomicLong();
+
     /** 当前任务数量 */
     private final AtomicLong currentTaskNumber = new AtomicLong();
 
+    /** 开始时间 */
+    private volatile long startTime;
+
+    /** 结束时间 */
+    private volatile long stopTime;
+
     public AtomicLong getReadRecordNumber() {
         return readRecordNumber;
     }
@@ -27,8 +45,66 @@ public class MigrationCounter {
         return writeRecordNumber;
     }
 
+    public AtomicLong getIgnoreRecordNumber() {
+        return ignoreRecordNumber;
+    }
+
+    public AtomicLong getFailRecordNumber() {
+        return failRecordNumber;
+    }
+
+    public AtomicLong getWriteBatchNumber() {
+        return writeBatchNumber;
+    }
+
+    public AtomicLong getRetryBatchNumber() {
+        return retryBatchNumber;
+    }
+
     public AtomicLong getCurrentTaskNumber() {
         return currentTaskNumber;
     }
 
+    void start() {
+        startTime = System.currentTimeMillis();
+        stopTime = 0L;
+    }
+
+    void stop() {
+        stopTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 获取消耗时间(毫秒)
+     *
+     * @return
+     */
+    public long getElapsedTime() {
+        if (startTime == 0L) {
+            return 0L;
+        }
+        long time = stopTime == 0L ? System.currentTimeMillis() : stopTime;
+        return time - startTime;
+    }
+
+    /**
+     * 获取读入速度(记录/秒)
+     *
+     * @return
+     */
+    public double getReadSpeed() {
+        long time = getElapsedTime();
+        return time == 0L ? 0D : readRecordNumber.get() * 1000D / time;
+    }
+
+    /**
+     * 获取写出速度(记录/秒)
+     *
+     * @return
+     */
+    public double getWriteSpeed() {
+        long time = getElapsedTime();
+        return time == 0L ? 0D : writeRecordNumber.get() * 1000D / time;
+    }
+
 }
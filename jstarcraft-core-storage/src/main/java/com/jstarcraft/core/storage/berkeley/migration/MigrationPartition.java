@@ -0,0 +1,132 @@
+package com.jstarcraft.core.storage.berkeley.migration;
+
+import java.util.TreeMap;
+
+/**
+ * 迁移分区
+ *
+ * <pre>
+ * 按照旧实体的主键范围[from,to)划分,每个分区由独立的读任务读取.
+ * 每个批次有连续的序号,写任务可以乱序完成,检查点只推进到连续完成的最后一个批次,保证检查点之前的数据都已经写入.
+ * 检查点不会越过失败批次(包括部分数据转换失败的批次).
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+public class MigrationPartition {
+
+    /** 新实体名称 */
+    private final String entityName;
+
+    /** 分区序号 */
+    private final int index;
+
+    /** 起始主键(包含,null表示不限制) */
+    private final Object from;
+
+    /** 结束主键(不包含,null表示不限制) */
+    private final Object to;
+
+    /** 检查点主键(不包含,null表示从起始主键开始) */
+    private Object checkpoint;
+
+    /** 下一个批次序号 */
+    private long sequence;
+
+    /** 下一个等待完成的批次序号 */
+    private long watermark;
+
+    /** 已经完成但是不连续的批次 */
+    private final TreeMap<Long, Object> completions = new TreeMap<>();
+
+    /** 第一个失败批次的序号(检查点不会推进到这个批次及其之后) */
+    private long failure = Long.MAX_VALUE;
+
+    /** 是否存在失败批次 */
+    private volatile boolean failed;
+
+    public MigrationPartition(String entityName, int index, Object from, Object to, Object checkpoint) {
+        this.entityName = entityName;
+        this.index = index;
+        this.from = from;
+        this.to = to;
+        this.checkpoint = checkpoint;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Object getFrom() {
+        return from;
+    }
+
+    public Object getTo() {
+        return to;
+    }
+
+    public synchronized Object getCheckpoint() {
+        return checkpoint;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * 分配批次序号(仅由读任务调用)
+     *
+     * @return
+     */
+    long nextSequence() {
+        return sequence++;
+    }
+
+    /**
+     * 完成批次
+     *
+     * @param context
+     * @param sequence
+     *            批次序号
+     * @param key
+     *            批次最后一条数据的主键
+     */
+    synchronized void complete(MigrationContext context, long sequence, Object key) {
+        completions.put(sequence, key);
+        Object current = null;
+        while (!completions.isEmpty() && completions.firstKey() == watermark && watermark < failure) {
+            current = completions.pollFirstEntry().getValue();
+            watermark++;
+        }
+        if (current != null) {
+            checkpoint = current;
+            // 在同步块中保存检查点,保证检查点不会回退
+            context.setCheckpoint(this, current);
+        }
+    }
+
+    /**
+     * 批次失败
+     *
+     * <pre>
+     * 失败批次之后的检查点不再推进,恢复迁移时会从失败批次重新开始.
+     * </pre>
+     *
+     * @param sequence
+     */
+    synchronized void fail(long sequence) {
+        failure = Math.min(failure, sequence);
+        failed = true;
+    }
+
+    @Override
+    public String toString() {
+        return entityName + "#" + index;
+    }
+
+}
@@ -3,6 +3,7 @@ package com.jstarcraft.core.storage.berkeley.migration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -18,11 +19,13 @@ import com.jstarcraft.core.utility.StringUtility;
 import com.sleepycat.bind.tuple.StringBinding;
 import com.sleepycat.je.Database;
 import com.sleepycat.je.DatabaseConfig;
+import com.sleepycat.je.CursorConfig;
 import com.sleepycat.je.DatabaseEntry;
 import com.sleepycat.je.LockMode;
 import com.sleepycat.persist.EntityCursor;
 import com.sleepycat.persist.PrimaryIndex;
 import com.sleepycat.persist.model.Entity;
+import com.sleepycat.persist.model.PrimaryKeyMetadata;
 import com.sleepycat.persist.model.SecondaryKey;
 import com.sleepycat.persist.raw.RawObject;
 import com.sleepycat.persist.raw.RawStore;
@@ -30,6 +33,11 @@ import com.sleepycat.persist.raw.RawStore;
 /**
  * 迁移读任务
  * 
+ * <pre>
+ * 每个实体一个读任务,等待依赖的实体迁移完成以后,按照主键范围划分分区并发读取.
+ * 分区边界与每个分区的检查点保存在新环境,中断以后再次迁移会从检查点继续.
+ * </pre>
+ * 
  * @author Birdy
  *
  */
@@ -57,6 +65,105 @@ public class MigrationReadTask implements Callable<MigrationReadTask> {
         return ReflectionToStringBuilder.toString(this);
     }
 
+    /**
+     * 获取旧数据的主键
+     * 
+     * @param data
+     * @param metadata
+     * @return
+     */
+    private Object getPrimaryValue(RawObject data, PrimaryKeyMetadata metadata) {
+        while (data != null) {
+            if (data.getType().getClassName().equals(metadata.getDeclaringClassName())) {
+                return data.getValues().get(metadata.getName());
+            }
+            data = data.getSuper();
+        }
+        throw new BerkeleyMigrationException(StringUtility.format("迁移实体[{}]主键不存在", this.oldEntityName));
+    }
+
+    /**
+     * 获取分区
+     * 
+     * <pre>
+     * 分区边界只在第一次迁移时计算(仅遍历主键),恢复迁移时沿用保存的分区边界.
+     * </pre>
+     * 
+     * @param oldIndex
+     * @return
+     */
+    private List<MigrationPartition> getPartitions(PrimaryIndex<Object, RawObject> oldIndex) {
+        List<Object> keys = context.getPartitionKeys(this.newEntityName);
+        if (keys == null) {
+            keys = new ArrayList<>();
+            final long count = oldIndex.count();
+            final long step = Math.max(this.batchSize, count / MigrationContext.PARTITION_SIZE + 1);
+            if (count > step) {
+                try (EntityCursor<Object> cursor = oldIndex.keys(null, CursorConfig.READ_UNCOMMITTED)) {
+                    long index = 0;
+                    Object key;
+                    while ((key = cursor.next()) != null) {
+                        if (index > 0 && index % step == 0) {
+                            keys.add(key);
+                        }
+                        index++;
+                    }
+                }
+            }
+            context.setPartitionKeys(this.newEntityName, keys);
+        }
+        final List<MigrationPartition> partitions = new ArrayList<>(keys.size() + 1);
+        for (int index = 0, size = keys.size(); index <= size; index++) {
+            final Object from = index == 0 ? null : keys.get(index - 1);
+            final Object to = index == size ? null : keys.get(index);
+            partitions.add(new MigrationPartition(this.newEntityName, index, from, to, context.getCheckpoint(this.newEntityName, index)));
+        }
+        return partitions;
+    }
+
+    /**
+     * 读取分区
+     * 
+     * @param oldIndex
+     * @param metadata
+     * @param partition
+     */
+    private void readPartition(PrimaryIndex<Object, RawObject> oldIndex, PrimaryKeyMetadata metadata, MigrationPartition partition) {
+        Object from = partition.getCheckpoint();
+        boolean inclusive = false;
+        if (from == null) {
+            from = partition.getFrom();
+            inclusive = true;
+        } else {
+            logger.debug("迁移分区[{}]从检查点[{}]恢复", partition, from);
+        }
+        try (EntityCursor<RawObject> cursor = oldIndex.entities(null, from, inclusive, partition.getTo(), false, CursorConfig.READ_UNCOMMITTED)) {
+            while (true) {
+                final List<RawObject> dataCollection = new ArrayList<RawObject>(this.batchSize);
+                RawObject oldData;
+                while (dataCollection.size() < this.batchSize && (oldData = cursor.next()) != null) {
+                    dataCollection.add(oldData);
+                }
+                if (dataCollection.isEmpty()) {
+                    break;
+                }
+                final long readNumber = this.counter.getReadRecordNumber().addAndGet(dataCollection.size());
+                final Object key = this.getPrimaryValue(dataCollection.get(dataCollection.size() - 1), metadata);
+                this.counter.getCurrentTaskNumber().incrementAndGet();
+                this.context.getMigrationWriteTask(this.newEntityName, partition, partition.nextSequence(), key, dataCollection);
+
+                if (readNumber % 10000 < dataCollection.size()) {
+                    final Object[] parameters = new Object[] { this.newEntityName, readNumber, (long) this.counter.getReadSpeed(), context.getWriteExecutor().getQueue().size(), context.getWriteExecutor().getActiveCount() };
+                    logger.debug("迁移实体[{}],数量[{}],速度[{}/秒],队列[{}],线程[{}]", parameters);
+                }
+
+                if (dataCollection.size() < this.batchSize) {
+                    break;
+                }
+            }
+        }
+    }
+
     @Override
     public MigrationReadTask call() {
         if (this.context.getEntityConverterMap().get(this.newEntityName) instanceof IgnoreConverter) {
@@ -100,56 +207,54 @@ public class MigrationReadTask implements Callable<MigrationReadTask> {
                 dependencyTask.get();
             }
 
+            if (this.context.isComplete(this.newEntityName)) {
+                // 已经完成迁移(恢复迁移时跳过)
+                logger.debug("迁移实体[{}]已经完成", this.newEntityName);
+                return this;
+            }
+
             logger.debug("迁移实体{}-{}", new Object[] { this.oldEntityName, this.newEntityName });
 
             // 开始迁移时间
-            final long startTime = System.currentTimeMillis();
+            this.counter.start();
 
             final RawStore oldRawStore = context.getOldEntityStoreMap().get(this.oldEntityName);
             final RawStore newRawStore = context.getNewEntityStoreMap().get(this.newEntityName);
 
             final PrimaryIndex<Object, RawObject> oldIndex = oldRawStore.getPrimaryIndex(this.oldEntityName);
-            final EntityCursor<RawObject> cursor = oldIndex.entities();
-
-            while (true) {
-                final Collection<RawObject> dataCollection = new ArrayList<RawObject>(this.batchSize);
-                while (true) {
-                    final RawObject oldData = cursor.next();
-                    if ((oldData != null)) {
-                        dataCollection.add(oldData);
-                        counter.getReadRecordNumber().incrementAndGet();
-                    } else {
-                        break;
-                    }
-                    if (dataCollection.size() == this.batchSize) {
-                        break;
-                    }
-                }
-
-                this.counter.getCurrentTaskNumber().incrementAndGet();
-                this.context.getMigrationWriteTask(newEntityName, dataCollection);
-
-                if (counter.getReadRecordNumber().get() % 10000 == 0) {
-                    final Object[] parameters = new Object[] { newEntityName, this.counter.getReadRecordNumber().get(), context.getWriteExecutor().getQueue().size(), context.getWriteExecutor().getActiveCount() };
-                    logger.debug("迁移实体[{}],数量[{}],队列[{}],线程[{}]", parameters);
-                }
-
-                if (dataCollection.size() < this.batchSize) {
-                    break;
-                }
+            final PrimaryKeyMetadata metadata = oldRawStore.getModel().getEntityMetadata(this.oldEntityName).getPrimaryKey();
+
+            // 并发读取分区
+            final List<MigrationPartition> partitions = this.getPartitions(oldIndex);
+            final Collection<Future<?>> partitionTasks = new ArrayList<>(partitions.size());
+            for (MigrationPartition partition : partitions) {
+                partitionTasks.add(context.getPartitionExecutor().submit(() -> {
+                    this.readPartition(oldIndex, metadata, partition);
+                }));
+            }
+            for (Future<?> partitionTask : partitionTasks) {
+                partitionTask.get();
             }
 
             try {
+                long now = System.currentTimeMillis();
                 while (this.counter.getCurrentTaskNumber().get() != 0) {
-                    Thread.yield();
-                    if (logger.isDebugEnabled()) {
-                        Thread.sleep(TimeUnit.MILLISECONDS.convert(1, TimeUnit.SECONDS));
+                    Thread.sleep(10L);
+                    if (logger.isDebugEnabled() && System.currentTimeMillis() - now >= TimeUnit.MILLISECONDS.convert(1, TimeUnit.SECONDS)) {
+                        now = System.currentTimeMillis();
                         logger.debug("迁移实体[{}],剩余任务[{}],线程[{}]", new Object[] { newEntityName, this.counter.getCurrentTaskNumber().get(), context.getWriteExecutor().getActiveCount() });
                     }
                 }
                 // 结束迁移时间
-                long endTime = System.currentTimeMillis();
-                logger.debug("迁移实体:旧实体名称[{}],新实体名称[{}],旧数量[{}],新数量[{}],消耗时间[{}]", new Object[] { oldEntityName, newEntityName, this.counter.getReadRecordNumber().get(), this.counter.getWriteRecordNumber().get(), (endTime - startTime) });
+                this.counter.stop();
+                logger.debug("迁移实体:旧实体名称[{}],新实体名称[{}],分区[{}],旧数量[{}],新数量[{}],忽略数量[{}],失败数量[{}],重试批次[{}],消耗时间[{}],写入速度[{}/秒]", new Object[] { oldEntityName, newEntityName, partitions.size(), this.counter.getReadRecordNumber().get(), this.counter.getWriteRecordNumber().get(), this.counter.getIgnoreRecordNumber().get(), this.counter.getFailRecordNumber().get(), this.counter.getRetryBatchNumber().get(), this.counter.getElapsedTime(), (long) this.counter.getWriteSpeed() });
+
+                for (MigrationPartition partition : partitions) {
+                    if (partition.isFailed()) {
+                        String message = StringUtility.format("迁移实体[{}]存在失败批次,可以从检查点恢复迁移", this.newEntityName);
+                        throw new BerkeleyMigrationException(message);
+                    }
+                }
 
                 // 迁移序列
                 final String oldSequenceName = oldRawStore.getModel().getEntityMetadata(oldEntityName).getPrimaryKey().getSequenceName();
@@ -177,12 +282,15 @@ public class MigrationReadTask implements Callable<MigrationReadTask> {
                     newSequenceDatabase.close();
                 }
 
+                this.context.setComplete(this.newEntityName);
             } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
                 String message = StringUtility.format("警告!等待被中断");
                 logger.error(message, exception);
-            } finally {
-                cursor.close();
+                throw new BerkeleyMigrationException(message, exception);
             }
+        } catch (BerkeleyMigrationException exception) {
+            throw exception;
         } catch (Exception exception) {
             throw new BerkeleyMigrationException(exception);
         }
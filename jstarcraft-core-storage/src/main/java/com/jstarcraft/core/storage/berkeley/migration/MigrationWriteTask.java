@@ -1,9 +1,9 @@
 package com.jstarcraft.core.storage.berkeley.migration;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.concurrent.Callable;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import com.jstarcraft.core.storage.berkeley.exception.BerkeleyMigrationException;
 import com.jstarcraft.core.utility.StringUtility;
 import com.sleepycat.je.LockConflictException;
+import com.sleepycat.je.Transaction;
 import com.sleepycat.persist.PrimaryIndex;
 import com.sleepycat.persist.raw.RawObject;
 import com.sleepycat.persist.raw.RawStore;
@@ -19,6 +20,12 @@ import com.sleepycat.persist.raw.RawType;
 /**
  * 迁移写任务
  * 
+ * <pre>
+ * 每个写任务负责一个批次,新环境支持事务时整个批次在一个事务中写入.
+ * 锁冲突时整个批次重试,写入成功以后推进分区的检查点.
+ * 批次中任意数据转换失败时不推进检查点,恢复迁移时整个批次重新迁移(写入是覆盖操作).
+ * </pre>
+ * 
  * @author Birdy
  *
  */
@@ -36,6 +43,14 @@ public class MigrationWriteTask implements Callable<MigrationWriteTask> {
 
     private final String newEntityName;
 
+    private final MigrationPartition partition;
+
+    /** 批次序号 */
+    private final long sequence;
+
+    /** 批次最后一条数据的主键 */
+    private final Object key;
+
     private final Collection<RawObject> dataCollection;
 
     private RawObject buildRawObject(RawType rawType) {
@@ -44,50 +59,100 @@ public class MigrationWriteTask implements Callable<MigrationWriteTask> {
         return new RawObject(rawType, new HashMap<String, Object>(), superObject);
     }
 
-    public MigrationWriteTask(String oldEntityName, String newEntityName, MigrationContext context, MigrationCounter counter, MigrationConverter converter, Collection<RawObject> dataCollection) {
+    public MigrationWriteTask(String oldEntityName, String newEntityName, MigrationContext context, MigrationCounter counter, MigrationConverter converter, MigrationPartition partition, long sequence, Object key, Collection<RawObject> dataCollection) {
         this.oldEntityName = oldEntityName;
         this.newEntityName = newEntityName;
         this.context = context;
         this.counter = counter;
         this.converter = converter;
+        this.partition = partition;
+        this.sequence = sequence;
+        this.key = key;
         this.dataCollection = dataCollection;
     }
 
+    /**
+     * 写入批次
+     * 
+     * @param newIndex
+     * @param newDatas
+     */
+    private void write(PrimaryIndex<Object, RawObject> newIndex, Collection<RawObject> newDatas) {
+        final Transaction transaction = context.isTransactional() ? context.getNewDatabaseEnvironment().beginTransaction(null, null) : null;
+        boolean commit = false;
+        try {
+            for (RawObject newData : newDatas) {
+                newIndex.putNoReturn(transaction, newData);
+            }
+            commit = true;
+        } finally {
+            if (transaction != null) {
+                if (commit) {
+                    transaction.commit();
+                } else {
+                    transaction.abort();
+                }
+            }
+        }
+    }
+
     @Override
     public MigrationWriteTask call() throws Exception {
+        // 转换失败的数据数量(已经计入失败数量)
+        int failures = 0;
         try {
             final RawStore oldRawStore = context.getOldEntityStoreMap().get(oldEntityName);
             final RawStore newRawStore = context.getNewEntityStoreMap().get(newEntityName);
             final PrimaryIndex<Object, RawObject> newIndex = newRawStore.getPrimaryIndex(newEntityName);
             final RawType rawType = newRawStore.getModel().getRawType(newEntityName);
+            final Collection<RawObject> newDatas = new ArrayList<>(dataCollection.size());
             for (RawObject oldData : dataCollection) {
-                final AtomicInteger tryTimes = new AtomicInteger(10);
                 final RawObject newData = this.buildRawObject(rawType);
                 try {
                     boolean migrate = converter.convert(context, oldRawStore, newRawStore, oldData, newData);
                     if (migrate) {
-                        do {
-                            try {
-                                newIndex.putNoReturn(newData);
-                                counter.getWriteRecordNumber().incrementAndGet();
-                                break;
-                            } catch (LockConflictException exception) {
-                                // TODO 可能存在次级键原因导致锁冲突,等待100毫秒进行重试
-                                Thread.sleep(100);
-                                if (tryTimes.decrementAndGet() < 0) {
-                                    String message = StringUtility.format("迁移数据[{}]尝试次数到达限制", oldData);
-                                    throw new BerkeleyMigrationException(message);
-                                }
-                            }
-                        } while (true);
+                        newDatas.add(newData);
                     } else {
+                        counter.getIgnoreRecordNumber().incrementAndGet();
                         logger.debug("忽略数据[{}]", new Object[] { oldData });
                     }
                 } catch (Throwable exception) {
+                    failures++;
+                    counter.getFailRecordNumber().incrementAndGet();
                     String message = StringUtility.format("迁移异常:旧数据[{}],新数据[{}]", oldData, newData);
                     logger.error(message, exception);
                 }
             }
+            int tryTimes = MigrationContext.TRY_TIMES;
+            do {
+                try {
+                    write(newIndex, newDatas);
+                    break;
+                } catch (LockConflictException exception) {
+                    // TODO 可能存在次级键原因导致锁冲突,等待100毫秒进行重试(写入是覆盖操作,整个批次重试是幂等的)
+                    counter.getRetryBatchNumber().incrementAndGet();
+                    if (--tryTimes < 0) {
+                        String message = StringUtility.format("迁移批次[{}]尝试次数到达限制", partition);
+                        throw new BerkeleyMigrationException(message, exception);
+                    }
+                    Thread.sleep(100);
+                }
+            } while (true);
+            counter.getWriteRecordNumber().addAndGet(newDatas.size());
+            counter.getWriteBatchNumber().incrementAndGet();
+            if (failures == 0) {
+                partition.complete(context, sequence, key);
+            } else {
+                // 存在转换失败的数据,检查点停在这个批次之前,恢复迁移时重新迁移整个批次
+                partition.fail(sequence);
+                String message = StringUtility.format("迁移批次存在失败数据:分区[{}],批次[{}],失败数量[{}]", partition, sequence, failures);
+                logger.error(message);
+            }
+        } catch (Throwable exception) {
+            partition.fail(sequence);
+            counter.getFailRecordNumber().addAndGet(dataCollection.size() - failures);
+            String message = StringUtility.format("迁移批次异常:分区[{}],批次[{}]", partition, sequence);
+            logger.error(message, exception);
         } finally {
             this.counter.getCurrentTaskNumber().decrementAndGet();
         }
@@ -9,6 +9,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FileUtils;
@@ -31,6 +32,9 @@ import com.sleepycat.persist.raw.RawStore;
  * 2.构建新环境,通常是在旧环境基础,以仓储(Stroe)为单位重构建,重构建的仓储所包含的全部实体都要进行迁移;
  * 3.确定迁移实体以后,从旧环境获取数据,通过(Converter)转换器转换以后,将数据填充到新环境;
  * 
+ * 每个实体按照主键范围划分分区并发读取,按照批次写入(新环境支持事务时每个批次一个事务).
+ * 迁移进度以检查点的形式保存在新环境,迁移中断以后跳过第2步直接再次执行第3步即可从检查点继续.
+ * 
  * 注意:在迁移过程将缓存设置到最低是为了提高迁移的效率
  * 原因在于缓存的数据,在缓存填充满以后,要通过LRU算法交换出去,缓存的数据越多,开销越大,反而导致插入的性能下降.
  * 在迁移过程主要操作是插入,所以要将缓存设置到最小.
@@ -164,6 +168,11 @@ public class Migrator {
                     logger.debug("删除数据库[{}]", databaseName);
                 }
             }
+            // 重新构建的环境不能沿用之前的检查点
+            if (databaseName.equals(MigrationContext.CHECKPOINT_DATABASE)) {
+                environment.removeDatabase(null, databaseName);
+                logger.debug("删除检查点[{}]", databaseName);
+            }
         }
 
         environment.close();
@@ -215,6 +224,7 @@ public class Migrator {
      */
     private Map<String, RawStore> bulidRawStoreMap(Environment environment, Map<String, String> entityStoreNameMap) {
         final StoreConfig storeConfiguration = new StoreConfig();
+        storeConfiguration.setTransactional(environment.getConfig().getTransactional());
         final Map<String, RawStore> rawStoreMap = new HashMap<String, RawStore>();
         for (String storeName : entityStoreNameMap.values()) {
             if (!rawStoreMap.containsKey(storeName)) {
@@ -227,11 +237,12 @@ public class Migrator {
     /**
      * 迁移流程
      * 
+     * @return 是否全部完成(未完成时可以再次迁移从检查点继续)
      * @throws ClassNotFoundException
      * @throws IllegalAccessException
      * @throws InstantiationException
      */
-    public void migrate() throws InstantiationException, IllegalAccessException, ClassNotFoundException {
+    public boolean migrate() throws InstantiationException, IllegalAccessException, ClassNotFoundException {
         final EnvironmentConfig environmentConfiguration = new EnvironmentConfig(environmentProperties);
 
         final Environment newDatabaseEnvironment = new Environment(this.newDatabaseDirectory, environmentConfiguration);
@@ -315,16 +326,29 @@ public class Migrator {
 
         context.getReadeExecutor().shutdown();
 
+        boolean complete = false;
         try {
             if (context.getReadeExecutor().awaitTermination(60, TimeUnit.MINUTES)) {
+                complete = true;
+                // 只检查确定迁移的实体
+                for (String entityName : entityConverterMap.keySet()) {
+                    try {
+                        context.getMigrationReadTask(entityName).get();
+                    } catch (ExecutionException exception) {
+                        complete = false;
+                        logger.error("迁移实体[" + entityName + "]异常", exception.getCause());
+                    }
+                }
+            }
+            if (complete) {
                 logger.debug("迁移成功");
             } else {
-                logger.debug("迁移失败");
+                logger.debug("迁移失败,可以再次迁移从检查点继续");
             }
         } catch (InterruptedException exception) {
             logger.error("迁移异常", exception);
         } finally {
-            context.getWriteExecutor().shutdown();
+            context.close(complete);
 
             for (RawStore store : oldEntityStoreMap.values()) {
                 store.close();
@@ -337,7 +361,7 @@ public class Migrator {
             oldDatabaseEnvironment.close();
             newDatabaseEnvironment.close();
         }
-
+        return complete;
     }
 
     public File getNewDatabaseDirectory() {
@@ -0,0 +1,290 @@
+package com.jstarcraft.core.storage.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap.Builder;
+import com.jstarcraft.core.common.identification.IdentityObject;
+import com.jstarcraft.core.storage.StorageAccessor;
+import com.jstarcraft.core.storage.StorageCondition;
+import com.jstarcraft.core.storage.StorageIterator;
+import com.jstarcraft.core.storage.StorageMetadata;
+import com.jstarcraft.core.storage.StoragePagination;
+
+/**
+ * 缓存访问器
+ *
+ * <pre>
+ * 装饰任意访问器,按照(类型,方法,条件,分页)缓存查询与统计的结果.
+ * 通过本访问器的增删改操作会使对应类型的所有缓存失效;绕过本访问器的写操作需要调用{@link #invalidate(Class)}.
+ * 每个类型的缓存按照最近最少使用淘汰,并且在指定时间之后过期.
+ * 缓存的对象是共享的,调用者不应该修改查询得到的对象.
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+public class CacheAccessor implements StorageAccessor {
+
+    /** 缓存元素 */
+    private static class CacheElement {
+
+        private final Object value;
+
+        private final long expireTime;
+
+        private CacheElement(Object value, long expireTime) {
+            this.value = value;
+            this.expireTime = expireTime;
+        }
+
+    }
+
+    /** 被装饰的访问器 */
+    private final StorageAccessor accessor;
+
+    /** 每个类型的最大缓存数量 */
+    private final int maximumSize;
+
+    /** 过期时间(毫秒,不大于0表示不过期) */
+    private final long expireTime;
+
+    /** 类型-缓存 */
+    private final ConcurrentHashMap<Class<?>, ConcurrentLinkedHashMap<CacheKey, CacheElement>> caches = new ConcurrentHashMap<>();
+
+    /** 类型-版本(每次失效递增,防止失效之前加载的结果在失效之后写入缓存) */
+    private final ConcurrentHashMap<Class<?>, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private final CacheCounter counter = new CacheCounter();
+
+    public CacheAccessor(StorageAccessor accessor, int maximumSize, long expireTime) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("缓存的最大数量至少为1");
+        }
+        this.accessor = accessor;
+        this.maximumSize = maximumSize;
+        this.expireTime = expireTime;
+    }
+
+    private ConcurrentLinkedHashMap<CacheKey, CacheElement> getCache(Class<?> clazz) {
+        return caches.computeIfAbsent(clazz, (key) -> {
+            Builder<CacheKey, CacheElement> builder = new Builder<>();
+            builder.maximumWeightedCapacity(maximumSize);
+            builder.listener((cacheKey, cacheElement) -> {
+                counter.getEvictNumber().incrementAndGet();
+            });
+            return builder.build();
+        });
+    }
+
+    private AtomicLong getVersion(Class<?> clazz) {
+        return versions.computeIfAbsent(clazz, (key) -> {
+            return new AtomicLong();
+        });
+    }
+
+    private <V> V getValue(Class<?> clazz, CacheKey key, Supplier<V> loader) {
+        ConcurrentLinkedHashMap<CacheKey, CacheElement> cache = getCache(clazz);
+        long now = System.currentTimeMillis();
+        CacheElement element = cache.get(key);
+        if (element != null) {
+            if (element.expireTime > now) {
+                counter.getHitNumber().incrementAndGet();
+                return (V) element.value;
+            }
+            if (cache.remove(key, element)) {
+                counter.getExpireNumber().incrementAndGet();
+            }
+        }
+        counter.getMissNumber().incrementAndGet();
+        AtomicLong version = getVersion(clazz);
+        long current = version.get();
+        V value = loader.get();
+        element = new CacheElement(value, expireTime > 0L ? now + expireTime : Long.MAX_VALUE);
+        cache.put(key, element);
+        if (version.get() != current) {
+            // 加载期间发生了写操作
+            cache.remove(key, element);
+        }
+        return value;
+    }
+
+    /**
+     * 使指定类型的缓存失效
+     *
+     * @param clazz
+     */
+    public void invalidate(Class<?> clazz) {
+        getVersion(clazz).incrementAndGet();
+        ConcurrentLinkedHashMap<CacheKey, CacheElement> cache = caches.get(clazz);
+        if (cache != null) {
+            cache.clear();
+        }
+        counter.getInvalidateNumber().incrementAndGet();
+    }
+
+    /**
+     * 获取指定类型的缓存数量
+     *
+     * @param clazz
+     * @return
+     */
+    public int getSize(Class<?> clazz) {
+        ConcurrentLinkedHashMap<CacheKey, CacheElement> cache = caches.get(clazz);
+        return cache == null ? 0 : cache.size();
+    }
+
+    public CacheCounter getCounter() {
+        return counter;
+    }
+
+    @Override
+    public Collection<? extends StorageMetadata> getAllMetadata() {
+        return accessor.getAllMetadata();
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> T getInstance(Class<T> clazz, K id) {
+        return accessor.getInstance(clazz, id);
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> boolean createInstance(Class<T> clazz, T object) {
+        try {
+            return accessor.createInstance(clazz, object);
+        } finally {
+            invalidate(clazz);
+        }
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> boolean deleteInstance(Class<T> clazz, K id) {
+        try {
+            return accessor.deleteInstance(clazz, id);
+        } finally {
+            invalidate(clazz);
+        }
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> boolean deleteInstance(Class<T> clazz, T object) {
+        try {
+            return accessor.deleteInstance(clazz, object);
+        } finally {
+            invalidate(clazz);
+        }
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> boolean updateInstance(Class<T> clazz, T object) {
+        try {
+            return accessor.updateInstance(clazz, object);
+        } finally {
+            invalidate(clazz);
+        }
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> K maximumIdentity(Class<T> clazz, K from, K to) {
+        // 主键标识用于IdentityManager,不能缓存
+        return accessor.maximumIdentity(clazz, from, to);
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> K minimumIdentity(Class<T> clazz, K from, K to) {
+        // 主键标识用于IdentityManager,不能缓存
+        return accessor.minimumIdentity(clazz, from, to);
+    }
+
+    @Override
+    public <K extends Comparable, I, T extends IdentityObject<K>> Map<K, I> queryIdentities(Class<T> clazz, String name, StorageCondition<I> condition) {
+        CacheKey key = new CacheKey(CacheMethod.QUERY_IDENTITIES, name, condition, null);
+        Map<K, I> identities = getValue(clazz, key, () -> {
+            return accessor.queryIdentities(clazz, name, condition);
+        });
+        return new HashMap<>(identities);
+    }
+
+    @Override
+    public <K extends Comparable, I, T extends IdentityObject<K>> List<T> queryInstances(Class<T> clazz, String name, StorageCondition<I> condition) {
+        CacheKey key = new CacheKey(CacheMethod.QUERY_INSTANCES, name, condition, null);
+        List<T> instances = getValue(clazz, key, () -> {
+            return accessor.queryInstances(clazz, name, condition);
+        });
+        return new ArrayList<>(instances);
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> List<T> queryInstances(Class<T> clazz, StoragePagination pagination) {
+        CacheKey key = new CacheKey(CacheMethod.QUERY_PAGINATION, null, null, pagination);
+        List<T> instances = getValue(clazz, key, () -> {
+            return accessor.queryInstances(clazz, pagination);
+        });
+        return new ArrayList<>(instances);
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> List<T> queryIntersection(Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
+        CacheKey key = new CacheKey(CacheMethod.QUERY_INTERSECTION, null, new HashMap<>(condition), pagination);
+        List<T> instances = getValue(clazz, key, () -> {
+            return accessor.queryIntersection(clazz, condition, pagination);
+        });
+        return new ArrayList<>(instances);
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> List<T> queryUnion(Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
+        CacheKey key = new CacheKey(CacheMethod.QUERY_UNION, null, new HashMap<>(condition), pagination);
+        List<T> instances = getValue(clazz, key, () -> {
+            return accessor.queryUnion(clazz, condition, pagination);
+        });
+        return new ArrayList<>(instances);
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> long countInstances(Class<T> clazz) {
+        CacheKey key = new CacheKey(CacheMethod.COUNT_INSTANCES, null, null, null);
+        return getValue(clazz, key, () -> {
+            return accessor.countInstances(clazz);
+        });
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> long countIntersection(Class<T> clazz, Map<String, Object> condition) {
+        CacheKey key = new CacheKey(CacheMethod.COUNT_INTERSECTION, null, new HashMap<>(condition), null);
+        return getValue(clazz, key, () -> {
+            return accessor.countIntersection(clazz, condition);
+        });
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> long countUnion(Class<T> clazz, Map<String, Object> condition) {
+        CacheKey key = new CacheKey(CacheMethod.COUNT_UNION, null, new HashMap<>(condition), null);
+        return getValue(clazz, key, () -> {
+            return accessor.countUnion(clazz, condition);
+        });
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> void iterate(StorageIterator<T> iterator, Class<T> clazz, StoragePagination pagination) {
+        accessor.iterate(iterator, clazz, pagination);
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> void iterateIntersection(StorageIterator<T> iterator, Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
+        accessor.iterateIntersection(iterator, clazz, condition, pagination);
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> void iterateUnion(StorageIterator<T> iterator, Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
+        accessor.iterateUnion(iterator, clazz, condition, pagination);
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.jstarcraft.core.storage.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 缓存计数器
+ *
+ * @author Birdy
+ *
+ */
+public class CacheCounter {
+
+    /** 命中数量 */
+    private final AtomicLong hitNumber = new AtomicLong();
+
+    /** 未命中数量 */
+    private final AtomicLong missNumber = new AtomicLong();
+
+    /** 过期数量 */
+    private final AtomicLong expireNumber = new AtomicLong();
+
+    /** 淘汰数量(超过容量) */
+    private final AtomicLong evictNumber = new AtomicLong();
+
+    /** 失效次数(写操作导致) */
+    private final AtomicLong invalidateNumber = new AtomicLong();
+
+    public AtomicLong getHitNumber() {
+        return hitNumber;
+    }
+
+    public AtomicLong getMissNumber() {
+        return missNumber;
+    }
+
+    public AtomicLong getExpireNumber() {
+        return expireNumber;
+    }
+
+    public AtomicLong getEvictNumber() {
+        return evictNumber;
+    }
+
+    public AtomicLong getInvalidateNumber() {
+        return invalidateNumber;
+    }
+
+    /**
+     * 获取命中率
+     *
+     * @return
+     */
+    public double getHitRate() {
+        long hit = hitNumber.get();
+        long total = hit + missNumber.get();
+        return total == 0L ? 0D : hit * 1D / total;
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.jstarcraft.core.storage.cache;
+
+import java.util.Objects;
+
+import com.jstarcraft.core.storage.StoragePagination;
+
+/**
+ * 缓存键
+ *
+ * <pre>
+ * 由方法,字段名称,条件与分页组成,类型由所在的缓存区分.
+ * </pre>
+ *
+ * @author Birdy
+ *
+ */
+class CacheKey {
+
+    /** 方法 */
+    private final CacheMethod method;
+
+    /** 字段名称 */
+    private final String name;
+
+    /** 条件(StorageCondition或者条件映射的副本) */
+    private final Object condition;
+
+    /** 分页 */
+    private final StoragePagination pagination;
+
+    /** 哈希值 */
+    private final int hash;
+
+    CacheKey(CacheMethod method, String name, Object condition, StoragePagination pagination) {
+        this.method = method;
+        this.name = name;
+        this.condition = condition;
+        this.pagination = pagination;
+        this.hash = Objects.hash(method, name, condition, pagination);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object)
+            return true;
+        if (object == null)
+            return false;
+        if (getClass() != object.getClass())
+            return false;
+        CacheKey that = (CacheKey) object;
+        return this.hash == that.hash && this.method == that.method && Objects.equals(this.name, that.name) && Objects.equals(this.condition, that.condition) && Objects.equals(this.pagination, that.pagination);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.jstarcraft.core.storage.cache;
+
+/**
+ * 缓存方法
+ *
+ * @author Birdy
+ *
+ */
+enum CacheMethod {
+
+    QUERY_IDENTITIES,
+
+    QUERY_INSTANCES,
+
+    QUERY_PAGINATION,
+
+    QUERY_INTERSECTION,
+
+    QUERY_UNION,
+
+    COUNT_INSTANCES,
+
+    COUNT_INTERSECTION,
+
+    COUNT_UNION;
+
+}
@@ -1,21 +1,37 @@
 package com.jstarcraft.core.storage.elasticsearch;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.support.WriteRequest.RefreshPolicy;
+import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.sort.SortBuilders;
 import org.elasticsearch.search.sort.SortOrder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.ElasticsearchException;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.BulkOptions;
 import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
 import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
 import org.springframework.data.elasticsearch.repository.support.ElasticsearchEntityInformation;
 import org.springframework.data.elasticsearch.repository.support.ElasticsearchRepositoryFactory;
@@ -29,7 +45,10 @@ import com.jstarcraft.core.storage.StorageCondition;
 import com.jstarcraft.core.storage.StorageIterator;
 import com.jstarcraft.core.storage.StorageMetadata;
 import com.jstarcraft.core.storage.StoragePagination;
+import com.jstarcraft.core.storage.exception.StorageAccessException;
 import com.jstarcraft.core.storage.exception.StorageException;
+import com.jstarcraft.core.storage.exception.StorageQueryException;
+import com.jstarcraft.core.utility.StringUtility;
 
 /**
  * Elasticsearch访问器
@@ -39,10 +58,24 @@ import com.jstarcraft.core.storage.exception.StorageException;
  */
 public class ElasticsearchAccessor implements StorageAccessor {
 
+    /** 最大结果窗口的索引配置 */
+    private final static String WINDOW_SETTING = "index.max_result_window";
+
+    /** 最大结果窗口的默认值(索引配置不存在时使用) */
+    private final static int DEFAULT_WINDOW = 10000;
+
+    /** 滚动批量大小 */
+    private final static int SCROLL_SIZE = 1000;
+
+    /** 批量操作选项(立即刷新,保证写入之后可以被搜索) */
+    private final static BulkOptions BULK_OPTIONS = BulkOptions.builder().withRefreshPolicy(RefreshPolicy.IMMEDIATE).build();
+
     /** 元数据集合 */
     private HashMap<Class<?>, ElasticsearchMetadata> metadatas = new HashMap<>();
     /** 仓储映射 */
     private Map<Class<?>, SimpleElasticsearchRepository> repositories = new HashMap<>();
+    /** 最大结果窗口(首次使用时从索引配置读取) */
+    private Map<Class<?>, Integer> windows = new ConcurrentHashMap<>();
 
     private ElasticsearchOperations template;
 
@@ -170,8 +203,7 @@ public class ElasticsearchAccessor implements StorageAccessor {
             builder.withQuery(QueryBuilders.boolQuery().mustNot(QueryBuilders.termQuery(name, values[0])));
             break;
         }
-        // TODO 此处分页大小取决于Elasticsearch配置
-        builder.withPageable(PageRequest.of(0, 10000));
+        builder.withPageable(PageRequest.of(0, getWindow(clazz, template.getIndexCoordinatesFor(clazz))));
         Page<T> page = repository.search(builder.build());
         Map<K, I> map = new HashMap<>();
         try {
@@ -219,54 +251,115 @@ public class ElasticsearchAccessor implements StorageAccessor {
             builder.withQuery(QueryBuilders.boolQuery().mustNot(QueryBuilders.termQuery(name, values[0])));
             break;
         }
-        // TODO 此处分页大小取决于Elasticsearch配置
-        builder.withPageable(PageRequest.of(0, 10000));
+        builder.withPageable(PageRequest.of(0, getWindow(clazz, template.getIndexCoordinatesFor(clazz))));
         Page<T> page = repository.search(builder.build());
         return page.getContent();
     }
 
-    @Override
-    public <K extends Comparable, T extends IdentityObject<K>> List<T> queryInstances(Class<T> clazz, StoragePagination pagination) {
-        SimpleElasticsearchRepository<T, K> repository = repositories.get(clazz);
+    /**
+     * 搜索
+     * 
+     * <pre>
+     * 没有分页时通过滚动(scroll)逐批遍历全部命中,不受max_result_window限制.
+     * 键集分页转换为主键范围过滤并按照主键排序(与search_after按照主键排序等价),不需要跳过偏移量之前的命中.
+     * 偏移量分页只支持窗口(max_result_window)之内的from+size,超过窗口时抛出{@link StorageQueryException},深度分页必须使用{@link StoragePagination#keysetOf}.
+     * </pre>
+     * 
+     * @param iterator
+     * @param clazz
+     * @param query
+     * @param pagination
+     */
+    private <T> void search(StorageIterator<T> iterator, Class<T> clazz, QueryBuilder query, StoragePagination pagination) {
+        ElasticsearchMetadata metadata = metadatas.get(clazz);
+        IndexCoordinates coordinates = template.getIndexCoordinatesFor(clazz);
         NativeSearchQueryBuilder builder = new NativeSearchQueryBuilder();
+        if (pagination != null && pagination.isKeyset()) {
+            if (pagination.getKey() != null) {
+                query = QueryBuilders.boolQuery().must(query).filter(QueryBuilders.rangeQuery(metadata.getPrimaryName()).gt(pagination.getKey()));
+            }
+            builder.withQuery(query);
+            builder.withSort(SortBuilders.fieldSort(metadata.getPrimaryName()).order(SortOrder.ASC));
+            builder.withPageable(PageRequest.of(0, pagination.getSize()));
+            for (SearchHit<T> hit : template.search(builder.build(), clazz, coordinates)) {
+                iterator.iterate(hit.getContent());
+            }
+            return;
+        }
         if (pagination != null) {
+            int window = getWindow(clazz, coordinates);
+            if (pagination.getFirst() + pagination.getSize() > window) {
+                throw new StorageQueryException(StringUtility.format("偏移量分页超过窗口[{}],深度分页请使用键集分页", window));
+            }
+            builder.withQuery(query);
             builder.withPageable(PageRequest.of(pagination.getPage() - 1, pagination.getSize()));
+            for (SearchHit<T> hit : template.search(builder.build(), clazz, coordinates)) {
+                iterator.iterate(hit.getContent());
+            }
+            return;
+        }
+        builder.withQuery(query);
+        builder.withPageable(PageRequest.of(0, SCROLL_SIZE));
+        try (SearchHitsIterator<T> hits = template.searchForStream(builder.build(), clazz, coordinates)) {
+            while (hits.hasNext()) {
+                iterator.iterate(hits.next().getContent());
+            }
         }
-        builder.withQuery(QueryBuilders.matchAllQuery());
-        Page<T> page = repository.search(builder.build());
-        return page.getContent();
     }
 
-    @Override
-    public <K extends Comparable, T extends IdentityObject<K>> List<T> queryIntersection(Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
-        SimpleElasticsearchRepository<T, K> repository = repositories.get(clazz);
-        NativeSearchQueryBuilder builder = new NativeSearchQueryBuilder();
-        if (pagination != null) {
-            builder.withPageable(PageRequest.of(pagination.getPage() - 1, pagination.getSize()));
-        }
+    /**
+     * 获取最大结果窗口
+     * 
+     * <pre>
+     * 每个类型第一次使用时读取索引的index.max_result_window(包括默认配置)并缓存,之后修改索引配置需要重新构建访问器.
+     * </pre>
+     * 
+     * @param clazz
+     * @param coordinates
+     * @return
+     */
+    private int getWindow(Class<?> clazz, IndexCoordinates coordinates) {
+        return windows.computeIfAbsent(clazz, (key) -> {
+            Object window = template.indexOps(coordinates).getSettings(true).get(WINDOW_SETTING);
+            return window == null ? DEFAULT_WINDOW : Integer.valueOf(window.toString());
+        });
+    }
+
+    private BoolQueryBuilder getIntersection(Map<String, Object> condition) {
         BoolQueryBuilder query = QueryBuilders.boolQuery();
         for (Entry<String, Object> term : condition.entrySet()) {
             query.must(QueryBuilders.termQuery(term.getKey(), term.getValue()));
         }
-        builder.withQuery(query);
-        Page<T> page = repository.search(builder.build());
-        return page.getContent();
+        return query;
     }
 
-    @Override
-    public <K extends Comparable, T extends IdentityObject<K>> List<T> queryUnion(Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
-        SimpleElasticsearchRepository<T, K> repository = repositories.get(clazz);
-        NativeSearchQueryBuilder builder = new NativeSearchQueryBuilder();
-        if (pagination != null) {
-            builder.withPageable(PageRequest.of(pagination.getPage() - 1, pagination.getSize()));
-        }
+    private BoolQueryBuilder getUnion(Map<String, Object> condition) {
         BoolQueryBuilder query = QueryBuilders.boolQuery();
         for (Entry<String, Object> term : condition.entrySet()) {
             query.should(QueryBuilders.termQuery(term.getKey(), term.getValue()));
         }
-        builder.withQuery(query);
-        Page<T> page = repository.search(builder.build());
-        return page.getContent();
+        return query;
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> List<T> queryInstances(Class<T> clazz, StoragePagination pagination) {
+        List<T> instances = new ArrayList<>();
+        search(instances::add, clazz, QueryBuilders.matchAllQuery(), pagination);
+        return instances;
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> List<T> queryIntersection(Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
+        List<T> instances = new ArrayList<>();
+        search(instances::add, clazz, getIntersection(condition), pagination);
+        return instances;
+    }
+
+    @Override
+    public <K extends Comparable, T extends IdentityObject<K>> List<T> queryUnion(Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
+        List<T> instances = new ArrayList<>();
+        search(instances::add, clazz, getUnion(condition), pagination);
+        return instances;
     }
 
     @Override
@@ -279,11 +372,7 @@ public class ElasticsearchAccessor implements StorageAccessor {
     public <K extends Comparable, T extends IdentityObject<K>> long countIntersection(Class<T> clazz, Map<String, Object> condition) {
         SimpleElasticsearchRepository<T, K> repository = repositories.get(clazz);
         NativeSearchQueryBuilder builder = new NativeSearchQueryBuilder();
-        BoolQueryBuilder query = QueryBuilders.boolQuery();
-        for (Entry<String, Object> term : condition.entrySet()) {
-            query.must(QueryBuilders.termQuery(term.getKey(), term.getValue()));
-        }
-        builder.withQuery(query);
+        builder.withQuery(getIntersection(condition));
         return template.count(builder.build(), clazz, template.getIndexCoordinatesFor(clazz));
     }
 
@@ -291,33 +380,86 @@ public class ElasticsearchAccessor implements StorageAccessor {
     public <K extends Comparable, T extends IdentityObject<K>> long countUnion(Class<T> clazz, Map<String, Object> condition) {
         SimpleElasticsearchRepository<T, K> repository = repositories.get(clazz);
         NativeSearchQueryBuilder builder = new NativeSearchQueryBuilder();
-        BoolQueryBuilder query = QueryBuilders.boolQuery();
-        for (Entry<String, Object> term : condition.entrySet()) {
-            query.should(QueryBuilders.termQuery(term.getKey(), term.getValue()));
-        }
-        builder.withQuery(query);
+        builder.withQuery(getUnion(condition));
         return template.count(builder.build(), clazz, template.getIndexCoordinatesFor(clazz));
     }
 
     @Override
     public <K extends Comparable, T extends IdentityObject<K>> void iterate(StorageIterator<T> iterator, Class<T> clazz, StoragePagination pagination) {
-        for (T instance : queryInstances(clazz, pagination)) {
-            iterator.iterate(instance);
-        }
+        search(iterator, clazz, QueryBuilders.matchAllQuery(), pagination);
     }
 
     @Override
     public <K extends Comparable, T extends IdentityObject<K>> void iterateIntersection(StorageIterator<T> iterator, Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
-        for (T instance : queryIntersection(clazz, condition, pagination)) {
-            iterator.iterate(instance);
-        }
+        search(iterator, clazz, getIntersection(condition), pagination);
     }
 
     @Override
     public <K extends Comparable, T extends IdentityObject<K>> void iterateUnion(StorageIterator<T> iterator, Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
-        for (T instance : queryUnion(clazz, condition, pagination)) {
-            iterator.iterate(instance);
+        search(iterator, clazz, getUnion(condition), pagination);
+    }
+
+    /**
+     * 批量创建或者更新(通过一个BulkRequest索引)
+     * 
+     * @param clazz
+     * @param objects
+     * @return 成功索引的数量
+     */
+    public <K extends Comparable, T extends IdentityObject<K>> int saveInstances(Class<T> clazz, Collection<T> objects) {
+        if (objects.isEmpty()) {
+            return 0;
         }
+        List<IndexQuery> queries = new ArrayList<>(objects.size());
+        for (T object : objects) {
+            queries.add(new IndexQueryBuilder().withId(String.valueOf(object.getId())).withObject(object).build());
+        }
+        try {
+            return template.bulkIndex(queries, BULK_OPTIONS, template.getIndexCoordinatesFor(clazz)).size();
+        } catch (ElasticsearchException exception) {
+            return objects.size() - exception.getFailedDocuments().size();
+        }
+    }
+
+    /**
+     * 批量删除
+     * 
+     * <pre>
+     * 使用ElasticsearchRestTemplate时通过一个BulkRequest删除(立即刷新),不需要delete-by-query的搜索与额外的刷新请求;
+     * 其它实现退化为ids查询删除并刷新.
+     * </pre>
+     * 
+     * @param clazz
+     * @param ids
+     */
+    public <K extends Comparable, T extends IdentityObject<K>> void deleteInstances(Class<T> clazz, Collection<K> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        IndexCoordinates coordinates = template.getIndexCoordinatesFor(clazz);
+        if (template instanceof ElasticsearchRestTemplate) {
+            BulkRequest request = new BulkRequest();
+            request.setRefreshPolicy(RefreshPolicy.IMMEDIATE);
+            for (K id : ids) {
+                request.add(new DeleteRequest(coordinates.getIndexName(), String.valueOf(id)));
+            }
+            BulkResponse response = ((ElasticsearchRestTemplate) template).execute((client) -> {
+                return client.bulk(request, RequestOptions.DEFAULT);
+            });
+            if (response.hasFailures()) {
+                throw new StorageAccessException(response.buildFailureMessage());
+            }
+            return;
+        }
+        String[] values = new String[ids.size()];
+        int index = 0;
+        for (K id : ids) {
+            values[index++] = String.valueOf(id);
+        }
+        NativeSearchQueryBuilder builder = new NativeSearchQueryBuilder();
+        builder.withQuery(QueryBuilders.idsQuery().addIds(values));
+        template.delete(builder.build(), clazz, coordinates);
+        template.indexOps(coordinates).refresh();
     }
 
 }
@@ -1,8 +1,10 @@
 package com.jstarcraft.core.storage.hibernate;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -15,6 +17,7 @@ import javax.persistence.LockModeType;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
@@ -76,7 +79,7 @@ public class HibernateAccessor extends HibernateDaoSupport implements StorageAcc
 
 	private final static String HIGHER_CONDITION = " WHERE clazz.{} > ?0";
 
-	private final static String IN_CONDITION = " WHERE clazz.{} IN (?0{})";
+	private final static String IN_CONDITION = " WHERE clazz.{} IN (?0)";
 
 	private final static String LOWER_CONDITION = " WHERE clazz.{} < ?0";
 
@@ -91,6 +94,12 @@ public class HibernateAccessor extends HibernateDaoSupport implements StorageAcc
 	/** HQL查询语句(查询指定范围的最小主键标识),用于IdentityManager */
 	private Map<Class, String> minimumIdHqls = new ConcurrentHashMap<>();
 
+	/** HQL查询语句(按照字段与条件类型查询主键与字段),用于queryIdentities */
+	private Map<Class, Map<String, EnumMap<ConditionType, String>>> identityHqls = new ConcurrentHashMap<>();
+
+	/** HQL查询语句(按照字段与条件类型查询对象),用于queryInstances */
+	private Map<Class, Map<String, EnumMap<ConditionType, String>>> instanceHqls = new ConcurrentHashMap<>();
+
 	/** Hibernate元信息 */
 	protected Map<String, HibernateMetadata> metadatas = new ConcurrentHashMap<>();
 
@@ -111,6 +120,15 @@ public class HibernateAccessor extends HibernateDaoSupport implements StorageAcc
 
 					String minimumIdHql = StringUtility.format(MINIMUM_ID, metadata.getPrimaryName(), ormClass.getSimpleName(), metadata.getPrimaryName());
 					minimumIdHqls.put(ormClass, minimumIdHql);
+
+					Map<String, EnumMap<ConditionType, String>> identityHqls = new ConcurrentHashMap<>();
+					Map<String, EnumMap<ConditionType, String>> instanceHqls = new ConcurrentHashMap<>();
+					for (String name : metadata.getFields().keySet()) {
+						identityHqls.put(name, getIdentityHqls(ormClass, metadata, name));
+						instanceHqls.put(name, getInstanceHqls(ormClass, name));
+					}
+					this.identityHqls.put(ormClass, identityHqls);
+					this.instanceHqls.put(ormClass, instanceHqls);
 				} catch (ClassNotFoundException exception) {
 					throw new StorageException(exception);
 				}
@@ -121,6 +139,77 @@ public class HibernateAccessor extends HibernateDaoSupport implements StorageAcc
 		setSessionFactory((SessionFactory) sessionFactory);
 	}
 
+	private static String getCondition(ConditionType type) {
+		switch (type) {
+		case All:
+			return StringUtility.EMPTY;
+		case Between:
+			return BETWEEN_CONDITION;
+		case Equal:
+			return EQUAL_CONDITION;
+		case Higher:
+			return HIGHER_CONDITION;
+		case In:
+			return IN_CONDITION;
+		case Lower:
+			return LOWER_CONDITION;
+		case Unequal:
+			return UNEQUAL_CONDITION;
+		default:
+			throw new StorageQueryException();
+		}
+	}
+
+	private static EnumMap<ConditionType, String> getIdentityHqls(Class<?> clazz, HibernateMetadata metadata, String name) {
+		EnumMap<ConditionType, String> hqls = new EnumMap<>(ConditionType.class);
+		for (ConditionType type : ConditionType.values()) {
+			String hql = INDEX_2_ID_MAP + getCondition(type);
+			hqls.put(type, StringUtility.format(hql, metadata.getPrimaryName(), name, clazz.getSimpleName(), name));
+		}
+		return hqls;
+	}
+
+	private static EnumMap<ConditionType, String> getInstanceHqls(Class<?> clazz, String name) {
+		EnumMap<ConditionType, String> hqls = new EnumMap<>(ConditionType.class);
+		for (ConditionType type : ConditionType.values()) {
+			String hql = INDEX_2_OBJECT_SET + getCondition(type);
+			hqls.put(type, StringUtility.format(hql, clazz.getSimpleName(), name));
+		}
+		return hqls;
+	}
+
+	/**
+	 * 设置条件参数
+	 * 
+	 * <pre>
+	 * IN条件使用集合参数,并且参数数量向上取整到2的幂(重复最后一个参数填充).
+	 * 使HQL语句保持不变,Hibernate展开集合参数得到的查询计划数量也只与参数数量的对数相关,避免查询计划缓存膨胀.
+	 * </pre>
+	 * 
+	 * @param query
+	 * @param type
+	 * @param values
+	 */
+	private static <I> void setParameters(Query<?> query, ConditionType type, I[] values) {
+		if (type == ConditionType.In) {
+			int size = values.length;
+			int padding = Integer.highestOneBit(size);
+			if (padding < size) {
+				padding <<= 1;
+			}
+			List<I> parameters = new ArrayList<>(padding);
+			parameters.addAll(Arrays.asList(values));
+			for (int index = size; index < padding; index++) {
+				parameters.add(values[size - 1]);
+			}
+			query.setParameterList(0, parameters);
+		} else {
+			for (int index = 0; index < values.length; index++) {
+				query.setParameter(index, values[index]);
+			}
+		}
+	}
+
 	@Override
 	public Collection<? extends StorageMetadata> getAllMetadata() {
 		return metadatas.values();
@@ -243,43 +332,14 @@ public class HibernateAccessor extends HibernateDaoSupport implements StorageAcc
 
 			@Override
 			public Map<K, I> doInHibernate(Session session) throws HibernateException {
-				StringBuilder buffer = new StringBuilder(INDEX_2_ID_MAP);
 				ConditionType type = condition.getType();
 				I[] values = condition.getValues();
-				switch (type) {
-				case All:
-					break;
-				case Between:
-					buffer.append(BETWEEN_CONDITION);
-					break;
-				case Equal:
-					buffer.append(EQUAL_CONDITION);
-					break;
-				case Higher:
-					buffer.append(HIGHER_CONDITION);
-					break;
-				case In:
-					StringBuilder string = new StringBuilder();
-					for (int index = 1, size = values.length - 1; index <= size; index++) {
-						string.append(", ?");
-						string.append(index);
-					}
-					buffer.append(StringUtility.format(IN_CONDITION, name, string.toString()));
-					break;
-				case Lower:
-					buffer.append(LOWER_CONDITION);
-					break;
-				case Unequal:
-					buffer.append(UNEQUAL_CONDITION);
-					break;
-				}
-				String hql = buffer.toString();
 				HibernateMetadata metadata = metadatas.get(clazz.getName());
-				hql = StringUtility.format(hql, metadata.getPrimaryName(), name, clazz.getSimpleName(), name);
+				String hql = identityHqls.get(clazz).computeIfAbsent(name, (key) -> {
+					return getIdentityHqls(clazz, metadata, key);
+				}).get(type);
 				Query<Object[]> query = session.createQuery(hql);
-				for (int index = 0; index < values.length; index++) {
-					query.setParameter(index, values[index]);
-				}
+				setParameters(query, type, values);
 				List<Object[]> list = query.getResultList();
 				Map<K, I> map = new HashMap<>();
 				for (Object[] element : list) {
@@ -297,42 +357,13 @@ public class HibernateAccessor extends HibernateDaoSupport implements StorageAcc
 
 			@Override
 			public List<T> doInHibernate(Session session) throws HibernateException {
-				StringBuilder buffer = new StringBuilder(INDEX_2_OBJECT_SET);
 				ConditionType type = condition.getType();
 				I[] values = condition.getValues();
-				switch (type) {
-				case All:
-					break;
-				case Between:
-					buffer.append(BETWEEN_CONDITION);
-					break;
-				case Equal:
-					buffer.append(EQUAL_CONDITION);
-					break;
-				case Higher:
-					buffer.append(HIGHER_CONDITION);
-					break;
-				case In:
-					StringBuilder string = new StringBuilder();
-					for (int index = 1, size = values.length - 1; index <= size; index++) {
-						string.append(", ?");
-						string.append(index);
-					}
-					buffer.append(StringUtility.format(IN_CONDITION, name, string.toString()));
-					break;
-				case Lower:
-					buffer.append(LOWER_CONDITION);
-					break;
-				case Unequal:
-					buffer.append(UNEQUAL_CONDITION);
-					break;
-				}
-				String hql = buffer.toString();
-				hql = StringUtility.format(hql, clazz.getSimpleName(), name);
+				String hql = instanceHqls.get(clazz).computeIfAbsent(name, (key) -> {
+					return getInstanceHqls(clazz, key);
+				}).get(type);
 				Query<T> query = session.createQuery(hql);
-				for (int index = 0; index < values.length; index++) {
-					query.setParameter(index, values[index]);
-				}
+				setParameters(query, type, values);
 				List<T> list = query.getResultList();
 				return list;
 			}
@@ -340,6 +371,36 @@ public class HibernateAccessor extends HibernateDaoSupport implements StorageAcc
 		});
 	}
 
+	/**
+	 * 键集分页
+	 * 
+	 * <pre>
+	 * 键集分页转换为WHERE id > ? ORDER BY id,数据库直接定位到起点主键,不需要扫描并丢弃偏移量之前的记录.
+	 * </pre>
+	 * 
+	 * @param criteriaBuilder
+	 * @param criteriaQuery
+	 * @param root
+	 * @param predicate
+	 * @param clazz
+	 * @param pagination
+	 * @return
+	 */
+	private <T> Predicate seek(CriteriaBuilder criteriaBuilder, CriteriaQuery<T> criteriaQuery, Root<T> root, Predicate predicate, Class<T> clazz, StoragePagination pagination) {
+		if (pagination == null || !pagination.isKeyset()) {
+			return predicate;
+		}
+		HibernateMetadata metadata = metadatas.get(clazz.getName());
+		Path<Comparable> path = root.get(metadata.getPrimaryName());
+		criteriaQuery.orderBy(criteriaBuilder.asc(path));
+		Comparable key = pagination.getKey();
+		if (key == null) {
+			return predicate;
+		}
+		Predicate seek = criteriaBuilder.greaterThan(path, key);
+		return predicate == null ? seek : criteriaBuilder.and(predicate, seek);
+	}
+
 	private <K extends Comparable, T extends IdentityObject<K>> List<T> query(Class<T> clazz, Operation operation, Map<String, Object> condition, StoragePagination pagination) {
 		return getHibernateTemplate().executeWithNativeSession(new HibernateCallback<List<T>>() {
 
@@ -348,8 +409,9 @@ public class HibernateAccessor extends HibernateDaoSupport implements StorageAcc
 				CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
 				CriteriaQuery<T> criteriaQuery = criteriaBuilder.createQuery(clazz);
 				Root<T> root = criteriaQuery.from(clazz);
+				Predicate left = null;
 				if (condition != null) {
-					Predicate left = null, right = null;
+					Predicate right = null;
 					final Iterator<Entry<String, Object>> iterator = condition.entrySet().iterator();
 					if (iterator.hasNext()) {
 						Entry<String, Object> entry = iterator.next();
@@ -369,9 +431,10 @@ public class HibernateAccessor extends HibernateDaoSupport implements StorageAcc
 							throw new UnsupportedOperationException();
 						}
 					}
-					if (left != null) {
-						criteriaQuery.where(left);
-					}
+				}
+				left = seek(criteriaBuilder, criteriaQuery, root, left, clazz, pagination);
+				if (left != null) {
+					criteriaQuery.where(left);
 				}
 				TypedQuery<T> typedQuery = session.createQuery(criteriaQuery);
 				if (pagination != null) {
@@ -465,8 +528,9 @@ public class HibernateAccessor extends HibernateDaoSupport implements StorageAcc
 				CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
 				CriteriaQuery<T> criteriaQuery = criteriaBuilder.createQuery(clazz);
 				Root<T> root = criteriaQuery.from(clazz);
+				Predicate left = null;
 				if (condition != null) {
-					Predicate left = null, right = null;
+					Predicate right = null;
 					final Iterator<Entry<String, Object>> cursor = condition.entrySet().iterator();
 					if (cursor.hasNext()) {
 						Entry<String, Object> entry = cursor.next();
@@ -486,9 +550,10 @@ public class HibernateAccessor extends HibernateDaoSupport implements StorageAcc
 							throw new UnsupportedOperationException();
 						}
 					}
-					if (left != null) {
-						criteriaQuery.where(left);
-					}
+				}
+				left = seek(criteriaBuilder, criteriaQuery, root, left, clazz, pagination);
+				if (left != null) {
+					criteriaQuery.where(left);
 				}
 				TypedQuery<T> typedQuery = session.createQuery(criteriaQuery);
 				if (pagination != null) {
@@ -549,6 +614,9 @@ public class HibernateAccessor extends HibernateDaoSupport implements StorageAcc
 					query.setParameter(name, value);
 				}
 				if (pagination != null) {
+					if (pagination.isKeyset()) {
+						throw new StorageQueryException("命名查询不支持键集分页");
+					}
 					query.setFirstResult(pagination.getFirst());
 					query.setMaxResults(pagination.getSize());
 				}
@@ -580,6 +648,9 @@ public class HibernateAccessor extends HibernateDaoSupport implements StorageAcc
 					query.setParameter(index, parameters[index]);
 				}
 				if (pagination != null) {
+					if (pagination.isKeyset()) {
+						throw new StorageQueryException("命名查询不支持键集分页");
+					}
 					query.setFirstResult(pagination.getFirst());
 					query.setMaxResults(pagination.getSize());
 				}
@@ -1,38 +1,41 @@
 package com.jstarcraft.core.storage.hibernate;
 
 import java.io.Serializable;
-import java.lang.reflect.Field;
 import java.lang.reflect.Type;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
-import javax.persistence.Column;
+import java.util.Properties;
 
 import org.hibernate.HibernateException;
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.type.TextType;
+import org.hibernate.usertype.DynamicParameterizedType;
 import org.hibernate.usertype.UserType;
 
 import com.jstarcraft.core.common.conversion.json.JsonUtility;
-import com.jstarcraft.core.common.reflection.ReflectionUtility;
-import com.jstarcraft.core.storage.exception.StorageAccessException;
-import com.jstarcraft.core.utility.StringUtility;
 
 /**
  * JSON格式
  * 
+ * <pre>
+ * 字段类型在映射时通过Hibernate提供的实体与属性参数解析,读取时不依赖宿主对象(数据库快照的宿主为null).
+ * </pre>
+ * 
  * @author Birdy
  *
  */
-public class JsonType implements UserType {
+public class JsonType implements UserType, DynamicParameterizedType {
 
     public final static String CLASS_NAME = "com.jstarcraft.core.storage.hibernate.JsonType";
 
-    private static Map<Class<?>, Map<String, String>> CLAZZ_2_COLUMN = new ConcurrentHashMap<>();
+    /** 字段类型 */
+    private Type type;
+
+    @Override
+    public void setParameterValues(Properties parameters) {
+        type = ZipJsonType.getType(parameters);
+    }
 
     @Override
     public int[] sqlTypes() {
@@ -62,17 +65,9 @@ public class JsonType implements UserType {
 
     @Override
     public Object nullSafeGet(ResultSet resultSet, String[] names, SharedSessionContractImplementor session, Object object) throws HibernateException, SQLException {
-        if (object == null) {
-            return null;
-        }
         String json = resultSet.getString(names[0]);
-        String columnName = getColumnName(resultSet, names[0]);
-        String fieldName = getFieldName(object.getClass(), columnName);
-        Type type = null;
-        try {
-            type = ReflectionUtility.findField(object.getClass(), fieldName).getGenericType();
-        } catch (Exception exception) {
-            throw new StorageAccessException(exception);
+        if (json == null) {
+            return null;
         }
         Object value = JsonUtility.string2Object(json, type);
         return value;
@@ -116,57 +111,4 @@ public class JsonType implements UserType {
         return original;
     }
 
-    private static String getFieldName(Class<?> clazz, String columnName) {
-        Map<String, String> column2Field = CLAZZ_2_COLUMN.get(clazz);
-        synchronized (CLAZZ_2_COLUMN) {
-            if (column2Field == null) {
-                column2Field = new ConcurrentHashMap<>();
-                CLAZZ_2_COLUMN.put(clazz, column2Field);
-            }
-        }
-        String fieldName = column2Field.get(columnName);
-        if (fieldName != null) {
-            return fieldName;
-        }
-        synchronized (column2Field) {
-            while (clazz != null) {
-                Field[] fields = clazz.getDeclaredFields();
-                for (Field field : fields) {
-                    org.hibernate.annotations.Type typeAnnotation = field.getDeclaredAnnotation(org.hibernate.annotations.Type.class);
-                    if (typeAnnotation != null && typeAnnotation.type().equals(JsonType.class.getName())) {
-                        if (field.getName().equalsIgnoreCase(columnName)) {
-                            fieldName = field.getName();
-                            column2Field.put(columnName, fieldName);
-                            return fieldName;
-                        } else {
-                            Column columnAnnotation = field.getDeclaredAnnotation(Column.class);
-                            if (columnAnnotation != null && columnAnnotation.name().equalsIgnoreCase(columnName)) {
-                                fieldName = field.getName();
-                                column2Field.put(columnName, fieldName);
-                                return fieldName;
-                            }
-                        }
-                    }
-                }
-                clazz = clazz.getSuperclass();
-            }
-        }
-        String message = StringUtility.format("数据列{}对应字段的不存在", columnName);
-        throw new StorageAccessException(message);
-    }
-
-    private static String getColumnName(ResultSet resultSet, String fieldName) throws SQLException {
-        ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
-        int count = resultSetMetaData.getColumnCount();
-        for (int index = 1; index <= count; index++) {
-            String columnLabel = resultSetMetaData.getColumnLabel(index);
-            String columnName = resultSetMetaData.getColumnName(index);
-            if (columnLabel.equalsIgnoreCase(fieldName)) {
-                return columnName;
-            }
-        }
-        String message = StringUtility.format("字段{}对应的数据列不存在", fieldName);
-        throw new StorageAccessException(message);
-    }
-
 }
@@ -1,6 +1,7 @@
 package com.jstarcraft.core.storage.hibernate;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
@@ -8,36 +9,98 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Type;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
-
-import javax.persistence.Column;
+import java.util.Properties;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 import org.hibernate.HibernateException;
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.type.BlobType;
+import org.hibernate.usertype.DynamicParameterizedType;
 import org.hibernate.usertype.UserType;
 
+import com.jstarcraft.core.codec.ContentCodec;
 import com.jstarcraft.core.common.conversion.json.JsonUtility;
 import com.jstarcraft.core.common.reflection.ReflectionUtility;
 import com.jstarcraft.core.storage.exception.StorageAccessException;
-import com.jstarcraft.core.utility.PressUtility;
+import com.jstarcraft.core.storage.exception.StorageConfigurationException;
 import com.jstarcraft.core.utility.StringUtility;
 
 /**
  * 压缩格式
  * 
+ * <pre>
+ * 在调用线程直接通过Deflater/Inflater与JDBC字节流交换数据,不产生中间的JSON字符串与未压缩字节数组.
+ * 数据格式与PressUtility.zip(等级5)一致,兼容已有数据.
+ * 可以通过codec参数指定编解码器(需要有无参构造器,例如CborContentCodec),默认使用JSON.
+ * 字段类型在映射时通过Hibernate提供的实体与属性参数解析,读取时不依赖宿主对象(数据库快照的宿主为null).
+ * </pre>
+ * 
  * @author Birdy
  *
  */
-public class ZipJsonType implements UserType {
+public class ZipJsonType implements UserType, DynamicParameterizedType {
 
     public final static String CLASS_NAME = "com.jstarcraft.core.storage.hibernate.ZipJsonType";
 
-    private static Map<Class<?>, Map<String, String>> CLAZZ_2_COLUMN = new ConcurrentHashMap<>();
+    /** 编解码器参数 */
+    public final static String CODEC = "codec";
+
+    /** 压缩等级 */
+    private final static int LEVEL = 5;
+
+    /** 缓冲大小 */
+    private final static int BUFFER_SIZE = 1024;
+
+    /** 压缩器(每个线程复用) */
+    private final static ThreadLocal<Deflater> DEFLATERS = ThreadLocal.withInitial(() -> {
+        return new Deflater(LEVEL);
+    });
+
+    /** 解压器(每个线程复用) */
+    private final static ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(() -> {
+        return new Inflater();
+    });
+
+    /** 编解码器(null表示JSON) */
+    private ContentCodec codec;
+
+    /** 字段类型 */
+    private Type type;
+
+    /**
+     * 压缩缓冲(直接暴露内部数组,避免toByteArray的复制)
+     */
+    private static class ZipBuffer extends ByteArrayOutputStream {
+
+        private ZipBuffer() {
+            super(BUFFER_SIZE);
+        }
+
+        private InputStream getStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+
+    }
+
+    @Override
+    public void setParameterValues(Properties parameters) {
+        type = getType(parameters);
+        String name = parameters.getProperty(CODEC);
+        if (StringUtility.isBlank(name)) {
+            codec = null;
+            return;
+        }
+        try {
+            codec = (ContentCodec) Class.forName(name).newInstance();
+        } catch (Exception exception) {
+            String message = StringUtility.format("编解码器{}无法实例化", name);
+            throw new StorageConfigurationException(message, exception);
+        }
+    }
 
     @Override
     public int[] sqlTypes() {
@@ -68,39 +131,41 @@ public class ZipJsonType implements UserType {
     @Override
     public Object nullSafeGet(ResultSet resultSet, String[] names, SharedSessionContractImplementor session, Object object) throws HibernateException, SQLException {
         InputStream inputStream = resultSet.getBinaryStream(names[0]);
-        byte[] bytes;
-        try {
-            int length = inputStream.available();
-            bytes = new byte[length];
-            inputStream.read(bytes);
+        if (inputStream == null) {
+            return null;
+        }
+        Inflater inflater = INFLATERS.get();
+        inflater.reset();
+        try (InflaterInputStream stream = new InflaterInputStream(inputStream, inflater, BUFFER_SIZE)) {
+            if (codec == null) {
+                return JsonUtility.stream2Object(stream, type);
+            } else {
+                return codec.decode(type, stream);
+            }
         } catch (IOException exception) {
             throw new StorageAccessException("BLOB字节流异常", exception);
         }
-        byte[] unzip = PressUtility.unzip(bytes, 30, TimeUnit.SECONDS);
-        String columnName = getColumnName(resultSet, names[0]);
-        String fieldName = getFieldName(object.getClass(), columnName);
-        Type type = null;
-        try {
-            type = ReflectionUtility.findField(object.getClass(), fieldName).getGenericType();
-        } catch (Exception exception) {
-            throw new StorageAccessException(exception);
-        }
-        String json = new String(unzip, StringUtility.CHARSET);
-        Object value = JsonUtility.string2Object(json, type);
-        return value;
     }
 
     @Override
     public void nullSafeSet(PreparedStatement preparedStatement, Object value, int index, SharedSessionContractImplementor session) throws HibernateException, SQLException {
         if (value != null) {
-            String json;
-            synchronized (value) {
-                json = JsonUtility.object2String(value);
+            ZipBuffer buffer = new ZipBuffer();
+            Deflater deflater = DEFLATERS.get();
+            deflater.reset();
+            // 使用外部的Deflater时,关闭流只会结束压缩,不会释放Deflater
+            try (DeflaterOutputStream stream = new DeflaterOutputStream(buffer, deflater, BUFFER_SIZE)) {
+                synchronized (value) {
+                    if (codec == null) {
+                        JsonUtility.object2Stream(value, stream);
+                    } else {
+                        codec.encode(value.getClass(), value, stream);
+                    }
+                }
+            } catch (IOException exception) {
+                throw new StorageAccessException("BLOB字节流异常", exception);
             }
-            byte[] bytes = json.getBytes(StringUtility.CHARSET);
-            byte[] zip = PressUtility.zip(bytes, 5);
-            ByteArrayInputStream inputStream = new ByteArrayInputStream(zip);
-            preparedStatement.setBinaryStream(index, inputStream);
+            preparedStatement.setBinaryStream(index, buffer.getStream(), buffer.size());
         } else {
             preparedStatement.setNull(index, BlobType.INSTANCE.sqlType());
         }
@@ -131,57 +196,29 @@ public class ZipJsonType implements UserType {
         return original;
     }
 
-    private static String getFieldName(Class<?> clazz, String columnName) {
-        Map<String, String> column2Field = CLAZZ_2_COLUMN.get(clazz);
-        synchronized (CLAZZ_2_COLUMN) {
-            if (column2Field == null) {
-                column2Field = new ConcurrentHashMap<>();
-                CLAZZ_2_COLUMN.put(clazz, column2Field);
-            }
-        }
-        String fieldName = column2Field.get(columnName);
-        if (fieldName != null) {
-            return fieldName;
-        }
-        synchronized (column2Field) {
-            while (clazz != null) {
-                Field[] fields = clazz.getDeclaredFields();
-                for (Field field : fields) {
-                    org.hibernate.annotations.Type typeAnnotation = field.getDeclaredAnnotation(org.hibernate.annotations.Type.class);
-                    if (typeAnnotation != null && typeAnnotation.type().equals(JsonType.class.getName())) {
-                        if (field.getName().equalsIgnoreCase(columnName)) {
-                            fieldName = field.getName();
-                            column2Field.put(columnName, fieldName);
-                            return fieldName;
-                        } else {
-                            Column columnAnnotation = field.getDeclaredAnnotation(Column.class);
-                            if (columnAnnotation != null && columnAnnotation.name().equalsIgnoreCase(columnName)) {
-                                fieldName = field.getName();
-                                column2Field.put(columnName, fieldName);
-                                return fieldName;
-                            }
-                        }
-                    }
-                }
-                clazz = clazz.getSuperclass();
-            }
+    /**
+     * 根据Hibernate提供的实体与属性参数获取字段类型
+     * 
+     * @param parameters
+     * @return
+     */
+    static Type getType(Properties parameters) {
+        String entityName = parameters == null ? null : parameters.getProperty(ENTITY);
+        String propertyName = parameters == null ? null : parameters.getProperty(PROPERTY);
+        if (entityName == null || propertyName == null) {
+            throw new StorageConfigurationException("缺少实体或者属性参数");
         }
-        String message = StringUtility.format("数据列{}对应字段的不存在", columnName);
-        throw new StorageAccessException(message);
-    }
-
-    private static String getColumnName(ResultSet resultSet, String fieldName) throws SQLException {
-        ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
-        int count = resultSetMetaData.getColumnCount();
-        for (int index = 1; index <= count; index++) {
-            String columnLabel = resultSetMetaData.getColumnLabel(index);
-            String columnName = resultSetMetaData.getColumnName(index);
-            if (columnLabel.equalsIgnoreCase(fieldName)) {
-                return columnName;
+        try {
+            Field field = ReflectionUtility.findField(Class.forName(entityName), propertyName);
+            if (field == null) {
+                String message = StringUtility.format("实体{}的属性{}不存在", entityName, propertyName);
+                throw new StorageConfigurationException(message);
             }
+            return field.getGenericType();
+        } catch (ClassNotFoundException exception) {
+            String message = StringUtility.format("实体{}不存在", entityName);
+            throw new StorageConfigurationException(message, exception);
         }
-        String message = StringUtility.format("字段{}对应的数据列不存在", fieldName);
-        throw new StorageAccessException(message);
     }
 
 }
@@ -29,6 +29,7 @@ import com.jstarcraft.core.storage.StorageIterator;
 import com.jstarcraft.core.storage.StorageMetadata;
 import com.jstarcraft.core.storage.StoragePagination;
 import com.jstarcraft.core.storage.berkeley.schema.BerkeleyAccessorFactory;
+import com.jstarcraft.core.storage.exception.StorageQueryException;
 import com.jstarcraft.core.storage.lucene.annotation.LuceneIndex;
 import com.jstarcraft.core.storage.lucene.annotation.LuceneSort;
 import com.jstarcraft.core.storage.lucene.annotation.LuceneStore;
@@ -76,6 +77,26 @@ public class LuceneAccessor implements StorageAccessor {
         }
     }
 
+    /**
+     * 获取分页的偏移
+     * 
+     * <pre>
+     * Lucene按照评分与偏移分页,不支持键集分页.
+     * </pre>
+     * 
+     * @param pagination
+     * @return
+     */
+    private int getOffset(StoragePagination pagination) {
+        if (pagination == null) {
+            return 0;
+        }
+        if (pagination.isKeyset()) {
+            throw new StorageQueryException("Lucene访问器不支持键集分页");
+        }
+        return pagination.getFirst();
+    }
+
     @Override
     public Collection<? extends StorageMetadata> getAllMetadata() {
         return metadatas.values();
@@ -253,7 +274,7 @@ public class LuceneAccessor implements StorageAccessor {
     public <K extends Comparable, T extends IdentityObject<K>> List<T> queryInstances(Class<T> clazz, StoragePagination pagination) {
         LuceneMetadata metadata = metadatas.get(clazz);
         Query query = new MatchAllDocsQuery();
-        int offset = pagination == null ? 0 : pagination.getFirst();
+        int offset = getOffset(pagination);
         int size = pagination == null ? Integer.MAX_VALUE : pagination.getSize();
         List<KeyValue<Document, Float>> retrieve = engine.retrieveDocuments(query, null, offset, size);
         List<T> list = new ArrayList<>(BATCH_SIZE);
@@ -276,7 +297,7 @@ public class LuceneAccessor implements StorageAccessor {
             buffer.add(query, Occur.MUST);
         }
         query = buffer.build();
-        int offset = pagination == null ? 0 : pagination.getFirst();
+        int offset = getOffset(pagination);
         int size = pagination == null ? Integer.MAX_VALUE : pagination.getSize();
         List<KeyValue<Document, Float>> retrieve = engine.retrieveDocuments(query, null, offset, size);
         List<T> list = new ArrayList<>(BATCH_SIZE);
@@ -299,7 +320,7 @@ public class LuceneAccessor implements StorageAccessor {
             buffer.add(query, Occur.SHOULD);
         }
         query = buffer.build();
-        int offset = pagination == null ? 0 : pagination.getFirst();
+        int offset = getOffset(pagination);
         int size = pagination == null ? Integer.MAX_VALUE : pagination.getSize();
         List<KeyValue<Document, Float>> retrieve = engine.retrieveDocuments(query, null, offset, size);
         List<T> list = new ArrayList<>(BATCH_SIZE);
@@ -351,7 +372,7 @@ public class LuceneAccessor implements StorageAccessor {
     public <K extends Comparable, T extends IdentityObject<K>> void iterate(StorageIterator<T> iterator, Class<T> clazz, StoragePagination pagination) {
         LuceneMetadata metadata = metadatas.get(clazz);
         Query query = new MatchAllDocsQuery();
-        int offset = pagination == null ? 0 : pagination.getFirst();
+        int offset = getOffset(pagination);
         int size = pagination == null ? Integer.MAX_VALUE : pagination.getSize();
         engine.iterateDocuments((document) -> {
             iterator.iterate((T) metadata.decodeDocument(document));
@@ -371,7 +392,7 @@ public class LuceneAccessor implements StorageAccessor {
             buffer.add(query, Occur.MUST);
         }
         query = buffer.build();
-        int offset = pagination == null ? 0 : pagination.getFirst();
+        int offset = getOffset(pagination);
         int size = pagination == null ? Integer.MAX_VALUE : pagination.getSize();
         engine.iterateDocuments((document) -> {
             iterator.iterate((T) metadata.decodeDocument(document));
@@ -391,7 +412,7 @@ public class LuceneAccessor implements StorageAccessor {
             buffer.add(query, Occur.SHOULD);
         }
         query = buffer.build();
-        int offset = pagination == null ? 0 : pagination.getFirst();
+        int offset = getOffset(pagination);
         int size = pagination == null ? Integer.MAX_VALUE : pagination.getSize();
         engine.iterateDocuments((document) -> {
             iterator.iterate((T) metadata.decodeDocument(document));
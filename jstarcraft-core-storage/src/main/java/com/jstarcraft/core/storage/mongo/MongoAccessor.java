@@ -1,5 +1,6 @@
 package com.jstarcraft.core.storage.mongo;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -10,11 +11,15 @@ import java.util.Map.Entry;
 import org.bson.Document;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.util.CloseableIterator;
+import org.springframework.data.util.Pair;
 
 import com.jstarcraft.core.common.identification.IdentityObject;
 import com.jstarcraft.core.storage.StorageAccessor;
@@ -23,7 +28,10 @@ import com.jstarcraft.core.storage.ConditionType;
 import com.jstarcraft.core.storage.StorageIterator;
 import com.jstarcraft.core.storage.StorageMetadata;
 import com.jstarcraft.core.storage.StoragePagination;
+import com.jstarcraft.core.storage.exception.StorageAccessException;
 import com.jstarcraft.core.storage.exception.StorageQueryException;
+import com.jstarcraft.core.utility.StringUtility;
+import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
@@ -36,13 +44,24 @@ import com.mongodb.client.result.UpdateResult;
  */
 public class MongoAccessor implements StorageAccessor {
 
+	/** 默认游标批量大小 */
+	public final static int DEFAULT_BATCH_SIZE = 1000;
+
 	/** 元数据集合 */
 	private HashMap<Class<?>, MongoMetadata> metadatas = new HashMap<>();
 
 	private MongoTemplate template;
 
+	/** 游标批量大小(每次从服务器获取的文档数量) */
+	private int batchSize;
+
 	public MongoAccessor(Collection<Class<?>> classes, MongoTemplate template) {
+		this(classes, template, DEFAULT_BATCH_SIZE);
+	}
+
+	public MongoAccessor(Collection<Class<?>> classes, MongoTemplate template, int batchSize) {
 		this.template = template;
+		this.batchSize = batchSize;
 
 		for (Class<?> ormClass : classes) {
 			MongoMetadata metadata = new MongoMetadata(ormClass);
@@ -50,6 +69,68 @@ public class MongoAccessor implements StorageAccessor {
 		}
 	}
 
+	/**
+	 * 获取主键条件
+	 * 
+	 * <pre>
+	 * 键集分页转换为{_id: {$gt: key}},配合按照_id排序,数据库直接定位到起点主键,不需要跳过偏移量之前的文档.
+	 * </pre>
+	 * 
+	 * @param pagination
+	 * @return
+	 */
+	private Criteria getCriteria(StoragePagination pagination) {
+		Criteria criteria = Criteria.where(MongoMetadata.mongoId);
+		if (pagination != null && pagination.isKeyset() && pagination.getKey() != null) {
+			return criteria.gt(pagination.getKey());
+		} else {
+			return criteria.exists(true);
+		}
+	}
+
+	private void setPagination(Query query, StoragePagination pagination) {
+		if (pagination != null) {
+			if (pagination.isKeyset()) {
+				query.with(Sort.by(Direction.ASC, MongoMetadata.mongoId));
+			} else {
+				query.skip(pagination.getFirst());
+			}
+			query.limit(pagination.getSize());
+		}
+	}
+
+	private <T> void iterate(StorageIterator<T> iterator, Class<T> clazz, MongoMetadata metadata, Query query) {
+		query.cursorBatchSize(batchSize);
+		try (CloseableIterator<T> stream = template.stream(query, clazz, metadata.getOrmName())) {
+			while (stream.hasNext()) {
+				try {
+					// TODO 需要考虑中断
+					final T object = stream.next();
+					iterator.iterate(object);
+				} catch (Throwable throwable) {
+					throw new StorageQueryException(throwable);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 转换为$set更新
+	 * 
+	 * @param object
+	 * @return
+	 */
+	private Update getUpdate(Object object) {
+		Document document = new Document();
+		template.getConverter().write(object, document);
+		document.remove(MongoMetadata.mongoId);
+		Update update = new Update();
+		for (Entry<String, Object> keyValue : document.entrySet()) {
+			update.set(keyValue.getKey(), keyValue.getValue());
+		}
+		return update;
+	}
+
 	@Override
 	public Collection<? extends StorageMetadata> getAllMetadata() {
 		return metadatas.values();
@@ -200,11 +281,8 @@ public class MongoAccessor implements StorageAccessor {
 	@Override
 	public <K extends Comparable, T extends IdentityObject<K>> List<T> queryInstances(Class<T> clazz, StoragePagination pagination) {
 		MongoMetadata metadata = metadatas.get(clazz);
-		Query query = new Query(Criteria.where(MongoMetadata.mongoId).exists(true));
-		if (pagination != null) {
-			query.skip(pagination.getFirst());
-			query.limit(pagination.getSize());
-		}
+		Query query = new Query(getCriteria(pagination));
+		setPagination(query, pagination);
 		return template.find(query, clazz, metadata.getOrmName());
 	}
 
@@ -212,7 +290,7 @@ public class MongoAccessor implements StorageAccessor {
 	public <K extends Comparable, T extends IdentityObject<K>> List<T> queryIntersection(Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
 		MongoMetadata metadata = metadatas.get(clazz);
 		final Iterator<Entry<String, Object>> conditionIterator = condition.entrySet().iterator();
-		Criteria criteria = Criteria.where(MongoMetadata.mongoId).exists(true);
+		Criteria criteria = getCriteria(pagination);
 		Criteria[] andCriterias = new Criteria[condition.size()];
 		int index = 0;
 		while (conditionIterator.hasNext()) {
@@ -225,10 +303,7 @@ public class MongoAccessor implements StorageAccessor {
 			andCriterias[index++] = Criteria.where(key).is(value);
 		}
 		Query query = Query.query(criteria.andOperator(andCriterias));
-		if (pagination != null) {
-			query.skip(pagination.getFirst());
-			query.limit(pagination.getSize());
-		}
+		setPagination(query, pagination);
 		return template.find(query, clazz, metadata.getOrmName());
 	}
 
@@ -236,7 +311,7 @@ public class MongoAccessor implements StorageAccessor {
 	public <K extends Comparable, T extends IdentityObject<K>> List<T> queryUnion(Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
 		MongoMetadata metadata = metadatas.get(clazz);
 		final Iterator<Entry<String, Object>> conditionIterator = condition.entrySet().iterator();
-		Criteria criteria = Criteria.where(MongoMetadata.mongoId).exists(true);
+		Criteria criteria = getCriteria(pagination);
 		Criteria[] orCriterias = new Criteria[condition.size()];
 		int index = 0;
 		while (conditionIterator.hasNext()) {
@@ -249,10 +324,7 @@ public class MongoAccessor implements StorageAccessor {
 			orCriterias[index++] = Criteria.where(key).is(value);
 		}
 		Query query = Query.query(criteria.orOperator(orCriterias));
-		if (pagination != null) {
-			query.skip(pagination.getFirst());
-			query.limit(pagination.getSize());
-		}
+		setPagination(query, pagination);
 		return template.find(query, clazz, metadata.getOrmName());
 	}
 
@@ -306,29 +378,16 @@ public class MongoAccessor implements StorageAccessor {
 	@Override
 	public <K extends Comparable, T extends IdentityObject<K>> void iterate(StorageIterator<T> iterator, Class<T> clazz, StoragePagination pagination) {
 		MongoMetadata metadata = metadatas.get(clazz);
-		Query query = new Query(Criteria.where(MongoMetadata.mongoId).exists(true));
-		if (pagination != null) {
-			query.skip(pagination.getFirst());
-			query.limit(pagination.getSize());
-		}
-		try (CloseableIterator<T> stream = template.stream(query, clazz, metadata.getOrmName())) {
-			while (stream.hasNext()) {
-				try {
-					// TODO 需要考虑中断
-					final T object = stream.next();
-					iterator.iterate(object);
-				} catch (Throwable throwable) {
-					throw new StorageQueryException(throwable);
-				}
-			}
-		}
+		Query query = new Query(getCriteria(pagination));
+		setPagination(query, pagination);
+		iterate(iterator, clazz, metadata, query);
 	}
 
 	@Override
 	public <K extends Comparable, T extends IdentityObject<K>> void iterateIntersection(StorageIterator<T> iterator, Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
 		MongoMetadata metadata = metadatas.get(clazz);
 		final Iterator<Entry<String, Object>> conditionIterator = condition.entrySet().iterator();
-		Criteria criteria = Criteria.where(MongoMetadata.mongoId).exists(true);
+		Criteria criteria = getCriteria(pagination);
 		Criteria[] andCriterias = new Criteria[condition.size()];
 		int index = 0;
 		while (conditionIterator.hasNext()) {
@@ -341,28 +400,15 @@ public class MongoAccessor implements StorageAccessor {
 			andCriterias[index++] = Criteria.where(key).is(value);
 		}
 		Query query = Query.query(criteria.andOperator(andCriterias));
-		if (pagination != null) {
-			query.skip(pagination.getFirst());
-			query.limit(pagination.getSize());
-		}
-		try (CloseableIterator<T> stream = template.stream(query, clazz, metadata.getOrmName())) {
-			while (stream.hasNext()) {
-				try {
-					// TODO 需要考虑中断
-					final T object = stream.next();
-					iterator.iterate(object);
-				} catch (Throwable throwable) {
-					throw new StorageQueryException(throwable);
-				}
-			}
-		}
+		setPagination(query, pagination);
+		iterate(iterator, clazz, metadata, query);
 	}
 
 	@Override
 	public <K extends Comparable, T extends IdentityObject<K>> void iterateUnion(StorageIterator<T> iterator, Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
 		MongoMetadata metadata = metadatas.get(clazz);
 		final Iterator<Entry<String, Object>> conditionIterator = condition.entrySet().iterator();
-		Criteria criteria = Criteria.where(MongoMetadata.mongoId).exists(true);
+		Criteria criteria = getCriteria(pagination);
 		Criteria[] orCriterias = new Criteria[condition.size()];
 		int index = 0;
 		while (conditionIterator.hasNext()) {
@@ -375,21 +421,115 @@ public class MongoAccessor implements StorageAccessor {
 			orCriterias[index++] = Criteria.where(key).is(value);
 		}
 		Query query = Query.query(criteria.orOperator(orCriterias));
-		if (pagination != null) {
-			query.skip(pagination.getFirst());
-			query.limit(pagination.getSize());
+		setPagination(query, pagination);
+		iterate(iterator, clazz, metadata, query);
+	}
+
+	/**
+	 * 批量创建(无序的bulkWrite)
+	 * 
+	 * <pre>
+	 * 无序执行时单个文档失败(例如主键冲突)不会中断其它文档.
+	 * </pre>
+	 * 
+	 * @param clazz
+	 * @param objects
+	 * @return 成功创建的数量
+	 */
+	public <K extends Comparable, T extends IdentityObject<K>> int createInstances(Class<T> clazz, Collection<T> objects) {
+		if (objects.isEmpty()) {
+			return 0;
 		}
-		try (CloseableIterator<T> stream = template.stream(query, clazz, metadata.getOrmName())) {
-			while (stream.hasNext()) {
-				try {
-					// TODO 需要考虑中断
-					final T object = stream.next();
-					iterator.iterate(object);
-				} catch (Throwable throwable) {
-					throw new StorageQueryException(throwable);
-				}
+		MongoMetadata metadata = metadatas.get(clazz);
+		BulkOperations operations = template.bulkOps(BulkMode.UNORDERED, clazz, metadata.getOrmName());
+		operations.insert(new ArrayList<>(objects));
+		try {
+			BulkWriteResult result = operations.execute();
+			return result.getInsertedCount();
+		} catch (BulkOperationException exception) {
+			return exception.getResult().getInsertedCount();
+		}
+	}
+
+	/**
+	 * 批量更新(无序的bulkWrite)
+	 * 
+	 * <pre>
+	 * 每个对象转换为按照_id匹配的$set更新,不替换整个文档,也不会插入不存在的文档.
+	 * 批量更新不做版本检查,版本字段按照对象的值写入.
+	 * </pre>
+	 * 
+	 * @param clazz
+	 * @param objects
+	 * @return 匹配的数量
+	 */
+	public <K extends Comparable, T extends IdentityObject<K>> int updateInstances(Class<T> clazz, Collection<T> objects) {
+		if (objects.isEmpty()) {
+			return 0;
+		}
+		MongoMetadata metadata = metadatas.get(clazz);
+		List<Pair<Query, Update>> updates = new ArrayList<>(objects.size());
+		for (T object : objects) {
+			Query query = Query.query(Criteria.where(MongoMetadata.mongoId).is(object.getId()));
+			updates.add(Pair.of(query, getUpdate(object)));
+		}
+		BulkOperations operations = template.bulkOps(BulkMode.UNORDERED, clazz, metadata.getOrmName());
+		operations.updateOne(updates);
+		try {
+			BulkWriteResult result = operations.execute();
+			return result.getMatchedCount();
+		} catch (BulkOperationException exception) {
+			return exception.getResult().getMatchedCount();
+		}
+	}
+
+	/**
+	 * 批量删除
+	 * 
+	 * <pre>
+	 * 按照主键集合转换为一次{_id: {$in: ids}}删除.
+	 * </pre>
+	 * 
+	 * @param clazz
+	 * @param ids
+	 * @return 删除的数量
+	 */
+	public <K extends Comparable, T extends IdentityObject<K>> long deleteInstances(Class<T> clazz, Collection<K> ids) {
+		if (ids.isEmpty()) {
+			return 0L;
+		}
+		MongoMetadata metadata = metadatas.get(clazz);
+		DeleteResult state = template.remove(Query.query(Criteria.where(MongoMetadata.mongoId).in(ids)), metadata.getOrmName());
+		return state.getDeletedCount();
+	}
+
+	/**
+	 * 部分更新
+	 * 
+	 * <pre>
+	 * 只通过$set修改指定的字段,不需要读取和替换整个文档.
+	 * MongoDB不允许修改_id,所以字段不可以包含主键.
+	 * </pre>
+	 * 
+	 * @param clazz
+	 * @param id
+	 * @param values
+	 *            字段名称与值
+	 * @return
+	 */
+	public <K extends Comparable, T extends IdentityObject<K>> boolean updateInstance(Class<T> clazz, K id, Map<String, Object> values) {
+		MongoMetadata metadata = metadatas.get(clazz);
+		Update update = new Update();
+		for (Entry<String, Object> keyValue : values.entrySet()) {
+			String key = keyValue.getKey();
+			if (metadata.getPrimaryName().equals(key) || MongoMetadata.mongoId.equals(key)) {
+				String message = StringUtility.format("部分更新不可以修改主键[{}]", key);
+				throw new StorageAccessException(message);
 			}
+			update.set(key, keyValue.getValue());
 		}
+		UpdateResult state = template.updateFirst(Query.query(Criteria.where(MongoMetadata.mongoId).is(id)), update, clazz, metadata.getOrmName());
+		return state.getMatchedCount() > 0;
 	}
 
 	public <K extends Comparable, T extends IdentityObject<K>> long update(Class<T> clazz, Query query, Update update) {
@@ -26,10 +26,12 @@ public class MongoAccessorFactory implements FactoryBean<MongoAccessor> {
 
     private MongoTemplate template;
 
+    private int batchSize = MongoAccessor.DEFAULT_BATCH_SIZE;
+
     @Override
     public MongoAccessor getObject() {
         if (accessor == null) {
-            accessor = new MongoAccessor(classes, template);
+            accessor = new MongoAccessor(classes, template, batchSize);
         }
         return accessor;
     }
@@ -52,4 +54,8 @@ public class MongoAccessorFactory implements FactoryBean<MongoAccessor> {
         this.template = template;
     }
 
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
 }
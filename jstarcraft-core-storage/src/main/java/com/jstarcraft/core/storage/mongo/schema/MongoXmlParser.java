@@ -83,6 +83,11 @@ public class MongoXmlParser extends AbstractBeanDefinitionParser {
         String templateBeanName = element.getAttribute(AttributeDefinition.TEMPLATE.getName());
         factory.addPropertyReference(AttributeDefinition.TEMPLATE.getName(), templateBeanName);
 
+        String batchSize = element.getAttribute(AttributeDefinition.BATCH_SIZE.getName());
+        if (StringUtility.isNotBlank(batchSize)) {
+            factory.addPropertyValue(AttributeDefinition.BATCH_SIZE.getName(), Integer.valueOf(batchSize));
+        }
+
         // 设置接口定义集合
         NodeList nodes = XmlUtility.getChildElementByTagName(element, ElementDefinition.SCAN.getName()).getChildNodes();
         HashSet<Class<?>> classes = new HashSet<>();
@@ -174,6 +179,9 @@ public class MongoXmlParser extends AbstractBeanDefinitionParser {
         /** 引用 */
         TEMPLATE("template"),
 
+        /** 游标批量大小 */
+        BATCH_SIZE("batchSize"),
+
         /** 名称 */
         NAME("name");
 
@@ -9,6 +9,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultSetType;
 import org.apache.ibatis.session.Configuration;
 import org.mybatis.spring.SqlSessionTemplate;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.jstarcraft.core.common.identification.IdentityObject;
 import com.jstarcraft.core.storage.ConditionType;
@@ -42,6 +45,15 @@ public class MyBatisAccessor implements StorageAccessor {
 	/** 查询指定范围的最小主键标识 */
 	private final static String MINIMUM_ID = "MIN({})";
 
+	/** 列表查询语句 */
+	private final static String SELECT_LIST = "{}.selectList";
+
+	/** 游标查询语句(与列表查询语句相同,但是逐行处理结果集) */
+	private final static String SELECT_CURSOR = "{}.selectCursor";
+
+	/** 默认的JDBC获取数量 */
+	public final static int DEFAULT_FETCH_SIZE = 1000;
+
 	private SqlSessionTemplate template;
 
 	/** MyBatis元信息 */
@@ -53,6 +65,9 @@ public class MyBatisAccessor implements StorageAccessor {
 	/** SQL查询语句(查询指定范围的最小主键标识),用于IdentityManager */
 	private Map<Class, String> minimumIdSqls = new ConcurrentHashMap<>();
 
+	/** 游标查询语句,用于iterate */
+	private Map<Class, String> cursorSqls = new ConcurrentHashMap<>();
+
 	private StorageCaseStrategy caseStrategy;
 
 	public synchronized StorageCaseStrategy getCaseStrategy() {
@@ -75,6 +90,17 @@ public class MyBatisAccessor implements StorageAccessor {
 	}
 
 	public MyBatisAccessor(Collection<Class<?>> classes, SqlSessionTemplate template) {
+		this(classes, template, DEFAULT_FETCH_SIZE);
+	}
+
+	/**
+	 * 构造方法
+	 * 
+	 * @param classes
+	 * @param template
+	 * @param fetchSize JDBC获取数量(iterate每次从数据库获取的行数,小于等于0表示使用驱动的默认值)
+	 */
+	public MyBatisAccessor(Collection<Class<?>> classes, SqlSessionTemplate template, int fetchSize) {
 		this.template = template;
 
 		Configuration configuration = template.getConfiguration();
@@ -91,7 +117,97 @@ public class MyBatisAccessor implements StorageAccessor {
 
 			String minimumIdSql = StringUtility.format(MINIMUM_ID, metadata.getColumnName(metadata.getPrimaryName()));
 			minimumIdSqls.put(metadata.getOrmClass(), minimumIdSql);
+
+			String cursorSql = StringUtility.format(SELECT_CURSOR, metadata.getMapperClass().getName());
+			synchronized (configuration) {
+				if (!configuration.hasStatement(cursorSql, false)) {
+					MappedStatement statement = configuration.getMappedStatement(StringUtility.format(SELECT_LIST, metadata.getMapperClass().getName()));
+					configuration.addMappedStatement(getCursorStatement(configuration, statement, cursorSql, fetchSize));
+				}
+			}
+			cursorSqls.put(metadata.getOrmClass(), cursorSql);
+		}
+	}
+
+	/**
+	 * 根据列表查询语句构建游标查询语句
+	 * 
+	 * <pre>
+	 * 只向前的结果集与获取数量保证驱动逐批获取数据,不使用二级缓存保证结果不会被缓存.
+	 * </pre>
+	 * 
+	 * @param configuration
+	 * @param statement
+	 * @param id
+	 * @param fetchSize
+	 * @return
+	 */
+	private static MappedStatement getCursorStatement(Configuration configuration, MappedStatement statement, String id, int fetchSize) {
+		MappedStatement.Builder builder = new MappedStatement.Builder(configuration, id, statement.getSqlSource(), statement.getSqlCommandType());
+		builder.resource(statement.getResource());
+		builder.databaseId(statement.getDatabaseId());
+		builder.lang(statement.getLang());
+		builder.statementType(statement.getStatementType());
+		builder.parameterMap(statement.getParameterMap());
+		builder.resultMaps(statement.getResultMaps());
+		builder.timeout(statement.getTimeout());
+		builder.resultSetType(ResultSetType.FORWARD_ONLY);
+		builder.fetchSize(fetchSize > 0 ? fetchSize : null);
+		builder.flushCacheRequired(false);
+		builder.useCache(false);
+		return builder.build();
+	}
+
+	/**
+	 * 获取分页
+	 * 
+	 * <pre>
+	 * 键集分页转换为WHERE id > ? ORDER BY id LIMIT ?,数据库直接定位到起点主键,不需要扫描并丢弃偏移量之前的记录.
+	 * 键集分页总是第一页且不统计总数.
+	 * </pre>
+	 * 
+	 * @param metadata
+	 * @param query
+	 * @param pagination
+	 * @param count
+	 *            是否统计总数
+	 * @return
+	 */
+	private Page getPage(MyBatisMetadata metadata, QueryWrapper<?> query, StoragePagination pagination, boolean count) {
+		if (pagination.isKeyset()) {
+			String column = metadata.getColumnName(metadata.getPrimaryName());
+			if (pagination.getKey() != null) {
+				query.gt(column, pagination.getKey());
+			}
+			query.orderByAsc(column);
+			return new Page(1, pagination.getSize(), false);
+		} else {
+			return new Page(pagination.getPage(), pagination.getSize(), count);
+		}
+	}
+
+	/**
+	 * 逐行遍历查询结果
+	 * 
+	 * <pre>
+	 * 通过ResultHandler逐行处理结果集,不会把整个结果集加载到内存.
+	 * 分页仍然由分页插件转换为数据库的分页语句(不统计总数).
+	 * </pre>
+	 * 
+	 * @param iterator
+	 * @param metadata
+	 * @param query
+	 * @param pagination
+	 */
+	private <T> void iterate(StorageIterator<T> iterator, MyBatisMetadata metadata, QueryWrapper<?> query, StoragePagination pagination) {
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put(Constants.WRAPPER, query);
+		if (pagination != null) {
+			parameters.put("page", getPage(metadata, query, pagination, false));
 		}
+		template.select(cursorSqls.get(metadata.getOrmClass()), parameters, (context) -> {
+			iterator.iterate((T) context.getResultObject());
+		});
 	}
 
 	@Override
@@ -249,7 +365,7 @@ public class MyBatisAccessor implements StorageAccessor {
 		if (pagination == null) {
 			return mapper.selectList(query);
 		} else {
-			IPage<T> page = mapper.selectPage(new Page(pagination.getPage(), pagination.getSize()), query);
+			IPage<T> page = mapper.selectPage(getPage(metadata, query, pagination, true), query);
 			return page.getRecords();
 		}
 	}
@@ -267,7 +383,7 @@ public class MyBatisAccessor implements StorageAccessor {
 		if (pagination == null) {
 			return mapper.selectList(query);
 		} else {
-			IPage<T> page = mapper.selectPage(new Page(pagination.getPage(), pagination.getSize()), query);
+			IPage<T> page = mapper.selectPage(getPage(metadata, query, pagination, true), query);
 			return page.getRecords();
 		}
 	}
@@ -277,15 +393,19 @@ public class MyBatisAccessor implements StorageAccessor {
 		MyBatisMetadata metadata = metadatas.get(clazz);
 		BaseMapper mapper = template.getMapper(metadata.getMapperClass());
 		QueryWrapper<?> query = new QueryWrapper<>();
-		for (Entry<String, Object> term : condition.entrySet()) {
-			query.or((wrapper) -> {
-				return wrapper.eq(metadata.getColumnName(term.getKey()), term.getValue());
-			});
-		}
+		// 嵌套并集条件,保证键集分页的条件与整个并集是与关系
+		query.and((union) -> {
+			for (Entry<String, Object> term : condition.entrySet()) {
+				union.or((wrapper) -> {
+					return wrapper.eq(metadata.getColumnName(term.getKey()), term.getValue());
+				});
+			}
+			return union;
+		});
 		if (pagination == null) {
 			return mapper.selectList(query);
 		} else {
-			IPage<T> page = mapper.selectPage(new Page(pagination.getPage(), pagination.getSize()), query);
+			IPage<T> page = mapper.selectPage(getPage(metadata, query, pagination, true), query);
 			return page.getRecords();
 		}
 	}
@@ -327,44 +447,36 @@ public class MyBatisAccessor implements StorageAccessor {
 	@Override
 	public <K extends Comparable, T extends IdentityObject<K>> void iterate(StorageIterator<T> iterator, Class<T> clazz, StoragePagination pagination) {
 		MyBatisMetadata metadata = metadatas.get(clazz);
-		BaseMapper mapper = template.getMapper(metadata.getMapperClass());
 		QueryWrapper<?> query = new QueryWrapper<>();
-		IPage<T> page = mapper.selectPage(new Page(pagination.getPage(), pagination.getSize()), query);
-		for (T object : page.getRecords()) {
-			iterator.iterate(object);
-		}
+		iterate(iterator, metadata, query, pagination);
 	}
 
 	@Override
 	public <K extends Comparable, T extends IdentityObject<K>> void iterateIntersection(StorageIterator<T> iterator, Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
 		MyBatisMetadata metadata = metadatas.get(clazz);
-		BaseMapper mapper = template.getMapper(metadata.getMapperClass());
 		QueryWrapper<?> query = new QueryWrapper<>();
 		for (Entry<String, Object> term : condition.entrySet()) {
 			query.and((wrapper) -> {
 				return wrapper.eq(metadata.getColumnName(term.getKey()), term.getValue());
 			});
 		}
-		IPage<T> page = mapper.selectPage(new Page(pagination.getPage(), pagination.getSize()), query);
-		for (T object : page.getRecords()) {
-			iterator.iterate(object);
-		}
+		iterate(iterator, metadata, query, pagination);
 	}
 
 	@Override
 	public <K extends Comparable, T extends IdentityObject<K>> void iterateUnion(StorageIterator<T> iterator, Class<T> clazz, Map<String, Object> condition, StoragePagination pagination) {
 		MyBatisMetadata metadata = metadatas.get(clazz);
-		BaseMapper mapper = template.getMapper(metadata.getMapperClass());
 		QueryWrapper<?> query = new QueryWrapper<>();
-		for (Entry<String, Object> term : condition.entrySet()) {
-			query.or((wrapper) -> {
-				return wrapper.eq(metadata.getColumnName(term.getKey()), term.getValue());
-			});
-		}
-		IPage<T> page = mapper.selectPage(new Page(pagination.getPage(), pagination.getSize()), query);
-		for (T object : page.getRecords()) {
-			iterator.iterate(object);
-		}
+		// 嵌套并集条件,保证键集分页的条件与整个并集是与关系
+		query.and((union) -> {
+			for (Entry<String, Object> term : condition.entrySet()) {
+				union.or((wrapper) -> {
+					return wrapper.eq(metadata.getColumnName(term.getKey()), term.getValue());
+				});
+			}
+			return union;
+		});
+		iterate(iterator, metadata, query, pagination);
 	}
 
 }
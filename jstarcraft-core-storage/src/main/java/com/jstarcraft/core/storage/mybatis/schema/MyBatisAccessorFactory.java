@@ -26,10 +26,12 @@ public class MyBatisAccessorFactory implements FactoryBean<MyBatisAccessor> {
 
     private SqlSessionTemplate template;
 
+    private int fetchSize = MyBatisAccessor.DEFAULT_FETCH_SIZE;
+
     @Override
     public MyBatisAccessor getObject() {
         if (accessor == null) {
-            accessor = new MyBatisAccessor(classes, template);
+            accessor = new MyBatisAccessor(classes, template, fetchSize);
         }
         return accessor;
     }
@@ -52,4 +54,8 @@ public class MyBatisAccessorFactory implements FactoryBean<MyBatisAccessor> {
         this.template = template;
     }
 
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
 }
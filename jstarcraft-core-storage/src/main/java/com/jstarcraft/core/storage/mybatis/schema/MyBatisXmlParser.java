@@ -77,6 +77,11 @@ public class MyBatisXmlParser extends AbstractBeanDefinitionParser {
         String templateBeanName = element.getAttribute(AttributeDefinition.TEMPLATE.getName());
         factory.addPropertyReference(AttributeDefinition.TEMPLATE.getName(), templateBeanName);
 
+        String fetchSize = element.getAttribute(AttributeDefinition.FETCH_SIZE.getName());
+        if (StringUtility.isNotBlank(fetchSize)) {
+            factory.addPropertyValue(AttributeDefinition.FETCH_SIZE.getName(), Integer.valueOf(fetchSize));
+        }
+
         // 设置接口定义集合
         NodeList nodes = XmlUtility.getChildElementByTagName(element, ElementDefinition.SCAN.getName()).getChildNodes();
         HashSet<Class<?>> classes = new HashSet<>();
@@ -168,6 +173,9 @@ public class MyBatisXmlParser extends AbstractBeanDefinitionParser {
         /** 引用 */
         TEMPLATE("template"),
 
+        /** JDBC获取数量 */
+        FETCH_SIZE("fetchSize"),
+
         /** 名称 */
         NAME("name");
 
@@ -2,6 +2,7 @@ package com.jstarcraft.core.storage.neo4j;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -14,6 +15,7 @@ import org.neo4j.ogm.annotation.NodeEntity;
 import org.neo4j.ogm.annotation.RelationshipEntity;
 import org.neo4j.ogm.metadata.ClassInfo;
 import org.neo4j.ogm.metadata.MetaData;
+import org.neo4j.ogm.model.Result;
 import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.session.SessionFactory;
 
@@ -30,7 +32,12 @@ import com.jstarcraft.core.utility.StringUtility;
 
 /**
  * Neo4j访问器
- * 
+ *
+ * <pre>
+ * 所有CQL都是参数化的(包括SKIP与LIMIT),并且按照(类型,操作,条件)缓存,保证相同形状的查询使用相同的文本,可以命中Neo4j的执行计划缓存.
+ * 键集分页使用clazz.id > $key ORDER BY clazz.id LIMIT $limit,代价与页码无关.
+ * </pre>
+ *
  * @author Birdy
  *
  */
@@ -44,13 +51,16 @@ public class Neo4jAccessor implements StorageAccessor {
 
 	// 内置查询
 	/** MATCH (clazz:Class) WHERE clazz.id = ? DELETE clazz */
-	private final static String DELETE_CQL = "MATCH (clazz:{}) WHERE clazz.{} = {id} DELETE clazz";
+	private final static String DELETE_CQL = "MATCH (clazz:{}) WHERE clazz.{} = $id DELETE clazz";
+
+	/** UNWIND $ids AS id MATCH (clazz:Class) WHERE clazz.id = id DELETE clazz */
+	private final static String DELETE_ALL_CQL = "UNWIND $ids AS id MATCH (clazz:{}) WHERE clazz.{} = id DELETE clazz";
 
 	/** 查询指定范围的最大主键标识 */
-	private final static String MAXIMUM_ID = "MATCH (clazz:{}) WHERE clazz.{} >= {from} AND clazz.{} < {to} RETURN max(clazz.{})";
+	private final static String MAXIMUM_ID = "MATCH (clazz:{}) WHERE clazz.{} >= $from AND clazz.{} < $to RETURN max(clazz.{})";
 
 	/** 查询指定范围的最小主键标识 */
-	private final static String MINIMUM_ID = "MATCH (clazz:{}) WHERE clazz.{} >= {from} AND clazz.{} < {to} RETURN min(clazz.{})";
+	private final static String MINIMUM_ID = "MATCH (clazz:{}) WHERE clazz.{} >= $from AND clazz.{} < $to RETURN min(clazz.{})";
 
 	/** 查询指定索引范围的主键映射 */
 	private final static String INDEX_2_ID_MAP_BEGIN = "MATCH (clazz:{})";
@@ -62,23 +72,28 @@ public class Neo4jAccessor implements StorageAccessor {
 
 	private final static String INDEX_2_OBJECT_SET_END = " RETURN clazz";
 
-	private final static String BETWEEN_CONDITION = " WHERE clazz.{} >= {0} AND clazz.{} <= {1}";
+	private final static String BETWEEN_CONDITION = " WHERE clazz.{} >= $0 AND clazz.{} <= $1";
+
+	private final static String EQUAL_CONDITION = " WHERE clazz.{} = $0";
+
+	private final static String HIGHER_CONDITION = " WHERE clazz.{} > $0";
 
-	private final static String EQUAL_CONDITION = " WHERE clazz.{} = {0}";
+	private final static String IN_CONDITION = " WHERE clazz.{} IN $0";
 
-	private final static String HIGHER_CONDITION = " WHERE clazz.{} > {0}";
+	private final static String LOWER_CONDITION = " WHERE clazz.{} < $0";
 
-	private final static String IN_CONDITION = " WHERE clazz.{} IN [{0}{}]";
+	private final static String UNEQUAL_CONDITION = " WHERE clazz.{} <> $0";
 
-	private final static String LOWER_CONDITION = " WHERE clazz.{} < {0}";
+	private final static String AND_CONDITION = " AND clazz.{} = ${}";
 
-	private final static String UNEQUAL_CONDITION = " WHERE clazz.{} <> {0}";
+	private final static String OR_CONDITION = " OR clazz.{} = ${}";
 
-	private final static String AND_CONDITION = " AND clazz.{} = {{}}";
+	private final static String PAGINATION_CONDITION = " SKIP $skip LIMIT $limit";
 
-	private final static String OR_CONDITION = " OR clazz.{} = {{}}";
+	/** 键集分页(从上一页最后一条记录的主键之后开始) */
+	private final static String KEYSET_CONDITION = " WITH clazz WHERE clazz.{} > $key";
 
-	private final static String PAGINATION_CONDITION = " SKIP {} LIMIT {}";
+	private final static String KEYSET_ORDER = " ORDER BY clazz.{} LIMIT $limit";
 
 	private final static String ITERATE_BEGIN = "MATCH (clazz:{})";
 
@@ -91,19 +106,26 @@ public class Neo4jAccessor implements StorageAccessor {
 	/** CQL删除语句 */
 	private Map<Class, String> deleteCqls = new ConcurrentHashMap<>();
 
+	/** CQL批量删除语句 */
+	private Map<Class, String> deleteAllCqls = new ConcurrentHashMap<>();
+
 	/** CQL查询语句(查询指定范围的最大主键标识),用于IdentityManager */
 	private Map<Class, String> maximumIdCqls = new ConcurrentHashMap<>();
 
 	/** CQL查询语句(查询指定范围的最小主键标识),用于IdentityManager */
 	private Map<Class, String> minimumIdCqls = new ConcurrentHashMap<>();
 
+	/** CQL查询语句(按照类型-条件缓存) */
+	private Map<Class, Map<String, String>> queryCqls = new ConcurrentHashMap<>();
+
 	/** 元数据集合 */
 	private HashMap<Class<?>, Neo4jMetadata> metadatas = new HashMap<>();
 
-	private Session template;
+	/** 会话工厂(Session不是线程安全的,并且会保留主键与原生标识的映射,所以每次操作打开独立的会话) */
+	private SessionFactory factory;
 
 	public Neo4jAccessor(SessionFactory factory) {
-		this.template = factory.openSession();
+		this.factory = factory;
 		MetaData metaData = factory.metaData();
 		for (ClassInfo information : metaData.persistentEntities()) {
 			Class<?> ormClass = information.getUnderlyingClass();
@@ -120,11 +142,16 @@ public class Neo4jAccessor implements StorageAccessor {
 			String deletecCql = StringUtility.format(DELETE_CQL, ormName, idName);
 			deleteCqls.put(ormClass, deletecCql);
 
+			String deleteAllCql = StringUtility.format(DELETE_ALL_CQL, ormName, idName);
+			deleteAllCqls.put(ormClass, deleteAllCql);
+
 			String maximumIdCql = StringUtility.format(MAXIMUM_ID, ormName, idName, idName, idName);
 			maximumIdCqls.put(ormClass, maximumIdCql);
 
 			String minimumIdCql = StringUtility.format(MINIMUM_ID, ormName, idName, idName, idName);
 			minimumIdCqls.put(ormClass, minimumIdCql);
+
+			queryCqls.put(ormClass, new ConcurrentHashMap<>());
 		}
 	}
 
@@ -135,244 +162,321 @@ public class Neo4jAccessor implements StorageAccessor {
 
 	@Override
 	public <K extends Comparable, T extends IdentityObject<K>> T getInstance(Class<T> clazz, K id) {
-		try {
-			// TODO 注意:Neo4j-OGM对原始类型支持似乎有问题,必须使用包装类型,否则Session.load无法装载到指定对象.
-			return template.load(clazz, (Serializable) id);
-		} finally {
-			template.clear();
-		}
+		Session session = factory.openSession();
+		// TODO 注意:Neo4j-OGM对原始类型支持似乎有问题,必须使用包装类型,否则Session.load无法装载到指定对象.
+		return session.load(clazz, (Serializable) id);
 	}
 
 	@Override
 	public <K extends Comparable, T extends IdentityObject<K>> boolean createInstance(Class<T> clazz, T object) {
+		Session session = factory.openSession();
 		try {
-			template.save(object);
+			session.save(object);
 			return true;
 		} catch (Exception exception) {
 			return false;
-		} finally {
-			template.clear();
 		}
 	}
 
 	@Override
 	public <K extends Comparable, T extends IdentityObject<K>> boolean deleteInstance(Class<T> clazz, K id) {
+		Session session = factory.openSession();
 		try {
-			Neo4jMetadata metadata = metadatas.get(clazz);
 			HashMap<String, Object> parameters = new HashMap<>();
-			parameters.put(metadata.getPrimaryName(), id);
+			parameters.put("id", id);
 			String cql = deleteCqls.get(clazz);
-			template.query(cql, parameters);
+			session.query(cql, parameters);
 			return true;
 		} catch (Exception exception) {
 			return false;
-		} finally {
-			template.clear();
 		}
 	}
 
 	@Override
 	public <K extends Comparable, T extends IdentityObject<K>> boolean deleteInstance(Class<T> clazz, T object) {
+		Session session = factory.openSession();
 		try {
-			template.delete(object);
+			session.delete(object);
 			return true;
 		} catch (Exception exception) {
 			return false;
-		} finally {
-			template.clear();
 		}
 	}
 
 	@Override
 	public <K extends Comparable, T extends IdentityObject<K>> boolean updateInstance(Class<T> clazz, T object) {
+		Session session = factory.openSession();
 		try {
-			template.save(object);
+			session.save(object);
 			return true;
 		} catch (Exception exception) {
 			return false;
-		} finally {
-			template.clear();
 		}
 	}
 
-	@Override
-	public <K extends Comparable, T extends IdentityObject<K>> K maximumIdentity(Class<T> clazz, K from, K to) {
+	/**
+	 * 批量创建
+	 *
+	 * <pre>
+	 * 整个集合在一个事务中保存,Neo4j-OGM会将相同标签的实体编译为UNWIND $rows语句.
+	 * </pre>
+	 *
+	 * @param clazz
+	 * @param objects
+	 * @return
+	 */
+	public <K extends Comparable, T extends IdentityObject<K>> boolean createInstances(Class<T> clazz, Collection<T> objects) {
+		Session session = factory.openSession();
+		try {
+			session.save(objects);
+			return true;
+		} catch (Exception exception) {
+			return false;
+		}
+	}
+
+	/**
+	 * 批量更新
+	 *
+	 * <pre>
+	 * 整个集合在一个事务中保存,Neo4j-OGM会将相同标签的实体编译为UNWIND $rows语句.
+	 * </pre>
+	 *
+	 * @param clazz
+	 * @param objects
+	 * @return
+	 */
+	public <K extends Comparable, T extends IdentityObject<K>> boolean updateInstances(Class<T> clazz, Collection<T> objects) {
+		Session session = factory.openSession();
+		try {
+			session.save(objects);
+			return true;
+		} catch (Exception exception) {
+			return false;
+		}
+	}
+
+	/**
+	 * 批量删除
+	 *
+	 * <pre>
+	 * 通过UNWIND $ids在一个语句中删除,任意实体受关系限制无法删除时整批失败.
+	 * </pre>
+	 *
+	 * @param clazz
+	 * @param ids
+	 * @return 删除的数量
+	 */
+	public <K extends Comparable, T extends IdentityObject<K>> int deleteInstances(Class<T> clazz, Collection<K> ids) {
+		Session session = factory.openSession();
 		try {
-			Neo4jMetadata metadata = metadatas.get(clazz);
 			HashMap<String, Object> parameters = new HashMap<>();
-			parameters.put("from", from);
-			parameters.put("to", to);
-			String cql = maximumIdCqls.get(clazz);
-			return template.queryForObject(metadata.getPrimaryClass(), cql, parameters);
-		} finally {
-			template.clear();
+			parameters.put("ids", ids);
+			String cql = deleteAllCqls.get(clazz);
+			Result result = session.query(cql, parameters);
+			return result.queryStatistics().getNodesDeleted();
+		} catch (Exception exception) {
+			return 0;
 		}
 	}
 
+	@Override
+	public <K extends Comparable, T extends IdentityObject<K>> K maximumIdentity(Class<T> clazz, K from, K to) {
+		Session session = factory.openSession();
+		Neo4jMetadata metadata = metadatas.get(clazz);
+		HashMap<String, Object> parameters = new HashMap<>();
+		parameters.put("from", from);
+		parameters.put("to", to);
+		String cql = maximumIdCqls.get(clazz);
+		return session.queryForObject(metadata.getPrimaryClass(), cql, parameters);
+	}
+
 	@Override
 	public <K extends Comparable, T extends IdentityObject<K>> K minimumIdentity(Class<T> clazz, K from, K to) {
-		try {
-			Neo4jMetadata metadata = metadatas.get(clazz);
-			HashMap<String, Object> parameters = new HashMap<>();
-			parameters.put("from", from);
-			parameters.put("to", to);
-			String cql = minimumIdCqls.get(clazz);
-			return template.queryForObject(metadata.getPrimaryClass(), cql, parameters);
-		} finally {
-			template.clear();
+		Session session = factory.openSession();
+		Neo4jMetadata metadata = metadatas.get(clazz);
+		HashMap<String, Object> parameters = new HashMap<>();
+		parameters.put("from", from);
+		parameters.put("to", to);
+		String cql = minimumIdCqls.get(clazz);
+		return session.queryForObject(metadata.getPrimaryClass(), cql, parameters);
+	}
+
+	/**
+	 * 获取条件语句
+	 *
+	 * @param type
+	 * @return
+	 */
+	private static String getCondition(ConditionType type) {
+		switch (type) {
+		case All:
+			return StringUtility.EMPTY;
+		case Between:
+			return BETWEEN_CONDITION;
+		case Equal:
+			return EQUAL_CONDITION;
+		case Higher:
+			return HIGHER_CONDITION;
+		case In:
+			return IN_CONDITION;
+		case Lower:
+			return LOWER_CONDITION;
+		case Unequal:
+			return UNEQUAL_CONDITION;
+		default:
+			throw new StorageQueryException();
+		}
+	}
+
+	/**
+	 * 设置条件参数
+	 *
+	 * <pre>
+	 * In条件的所有值作为一个列表参数,保证不同数量的值使用相同的CQL.
+	 * </pre>
+	 *
+	 * @param parameters
+	 * @param type
+	 * @param values
+	 */
+	private static void setParameters(Map<String, Object> parameters, ConditionType type, Object[] values) {
+		if (type == ConditionType.In) {
+			parameters.put("0", Arrays.asList(values));
+			return;
+		}
+		for (int index = 0; index < values.length; index++) {
+			parameters.put(String.valueOf(index), values[index]);
 		}
 	}
 
 	@Override
 	public <K extends Comparable, I, T extends IdentityObject<K>> Map<K, I> queryIdentities(Class<T> clazz, String name, StorageCondition<I> condition) {
-		try {
-			Neo4jMetadata metadata = metadatas.get(clazz);
-			HashMap<String, Object> parameters = new HashMap<>();
+		Session session = factory.openSession();
+		Neo4jMetadata metadata = metadatas.get(clazz);
+		HashMap<String, Object> parameters = new HashMap<>();
+		ConditionType type = condition.getType();
+		I[] values = condition.getValues();
+		String cql = queryCqls.get(clazz).computeIfAbsent("IDENTITY:" + name + ":" + type, (key) -> {
 			StringBuilder buffer = new StringBuilder(INDEX_2_ID_MAP_BEGIN);
-			ConditionType type = condition.getType();
-			I[] values = condition.getValues();
-			switch (type) {
-			case All:
-				break;
-			case Between:
-				buffer.append(BETWEEN_CONDITION);
-				break;
-			case Equal:
-				buffer.append(EQUAL_CONDITION);
-				break;
-			case Higher:
-				buffer.append(HIGHER_CONDITION);
-				break;
-			case In:
-				StringBuilder string = new StringBuilder();
-				for (int index = 1, size = values.length - 1; index <= size; index++) {
-					string.append(", {");
-					string.append(index);
-					string.append("}");
-				}
-				buffer.append(StringUtility.format(IN_CONDITION, name, string.toString()));
-				break;
-			case Lower:
-				buffer.append(LOWER_CONDITION);
-				break;
-			case Unequal:
-				buffer.append(UNEQUAL_CONDITION);
-				break;
-			}
+			buffer.append(getCondition(type));
 			buffer.append(StringUtility.format(INDEX_2_ID_MAP_END, metadata.getPrimaryName(), name));
-			String cql = buffer.toString();
-			cql = StringUtility.format(cql, metadata.getOrmName(), name, name);
-			for (int index = 0; index < values.length; index++) {
-				parameters.put(String.valueOf(index), values[index]);
-			}
-			Iterable<Map<String, Object>> keyValues = template.query(cql, parameters);
-			Map<K, I> map = new HashMap<>();
-			for (Map<String, Object> keyValue : keyValues) {
-				Object key = keyValue.get("key");
-				Object value = keyValue.get("value");
-				key = ConversionUtility.convert(key, metadata.getFields().get(metadata.getPrimaryName()));
-				value = ConversionUtility.convert(value, metadata.getFields().get(name));
-				map.put((K) key, (I) value);
-			}
-			return map;
-		} finally {
-			template.clear();
+			return StringUtility.format(buffer.toString(), metadata.getOrmName(), name, name);
+		});
+		setParameters(parameters, type, values);
+		Iterable<Map<String, Object>> keyValues = session.query(cql, parameters);
+		Map<K, I> map = new HashMap<>();
+		for (Map<String, Object> keyValue : keyValues) {
+			Object key = keyValue.get("key");
+			Object value = keyValue.get("value");
+			key = ConversionUtility.convert(key, metadata.getFields().get(metadata.getPrimaryName()));
+			value = ConversionUtility.convert(value, metadata.getFields().get(name));
+			map.put((K) key, (I) value);
 		}
+		return map;
 	}
 
 	@Override
 	public <K extends Comparable, I, T extends IdentityObject<K>> List<T> queryInstances(Class<T> clazz, String name, StorageCondition<I> condition) {
-		try {
-			Neo4jMetadata metadata = metadatas.get(clazz);
-			HashMap<String, Object> parameters = new HashMap<>();
+		Session session = factory.openSession();
+		Neo4jMetadata metadata = metadatas.get(clazz);
+		HashMap<String, Object> parameters = new HashMap<>();
+		ConditionType type = condition.getType();
+		I[] values = condition.getValues();
+		String cql = queryCqls.get(clazz).computeIfAbsent("INSTANCE:" + name + ":" + type, (key) -> {
 			StringBuilder buffer = new StringBuilder(INDEX_2_OBJECT_SET_BEGIN);
-			ConditionType type = condition.getType();
-			I[] values = condition.getValues();
-			switch (type) {
-			case All:
-				break;
-			case Between:
-				buffer.append(BETWEEN_CONDITION);
-				break;
-			case Equal:
-				buffer.append(EQUAL_CONDITION);
-				break;
-			case Higher:
-				buffer.append(HIGHER_CONDITION);
-				break;
-			case In:
-				StringBuilder string = new StringBuilder();
-				for (int index = 1, size = values.length - 1; index <= size; index++) {
-					string.append(", {");
-					string.append(index);
-					string.append("}");
-				}
-				buffer.append(StringUtility.format(IN_CONDITION, name, string.toString()));
-				break;
-			case Lower:
-				buffer.append(LOWER_CONDITION);
-				break;
-			case Unequal:
-				buffer.append(UNEQUAL_CONDITION);
-				break;
-			}
+			buffer.append(getCondition(type));
 			buffer.append(INDEX_2_OBJECT_SET_END);
-			String cql = buffer.toString();
-			cql = StringUtility.format(cql, metadata.getOrmName(), name, name);
-			for (int index = 0; index < values.length; index++) {
-				parameters.put(String.valueOf(index), values[index]);
-			}
-			Iterable<T> keyValues = template.query(clazz, cql, parameters);
-			List<T> list = new ArrayList<>(BATCH_SIZE);
-			for (T keyValue : keyValues) {
-				list.add(keyValue);
-			}
-			return list;
-		} finally {
-			template.clear();
+			return StringUtility.format(buffer.toString(), metadata.getOrmName(), name, name);
+		});
+		setParameters(parameters, type, values);
+		Iterable<T> keyValues = session.query(clazz, cql, parameters);
+		List<T> list = new ArrayList<>(BATCH_SIZE);
+		for (T keyValue : keyValues) {
+			list.add(keyValue);
 		}
+		return list;
 	}
 
-	private <K extends Comparable, T extends IdentityObject<K>> Iterable<T> iterate(Class<T> clazz, Operation operation, Map<String, Object> condition, StoragePagination pagination) {
-		try {
-			Neo4jMetadata metadata = metadatas.get(clazz);
-			HashMap<String, Object> parameters = new HashMap<>();
-			StringBuilder buffer = new StringBuilder(StringUtility.format(ITERATE_BEGIN, metadata.getOrmName()));
-			if (condition != null) {
-				int index = 0;
-				final Iterator<Entry<String, Object>> iterator = condition.entrySet().iterator();
-				if (iterator.hasNext()) {
-					Entry<String, Object> entry = iterator.next();
-					buffer.append(StringUtility.format(EQUAL_CONDITION, entry.getKey()));
-					parameters.put(String.valueOf(index), entry.getValue());
-					index++;
-				}
-				while (iterator.hasNext()) {
-					Entry<String, Object> entry = iterator.next();
-					switch (operation) {
-					case AND:
-						buffer.append(StringUtility.format(AND_CONDITION, entry.getKey(), index));
-						break;
-					case OR:
-						buffer.append(StringUtility.format(OR_CONDITION, entry.getKey(), index));
-						break;
-					default:
-						throw new UnsupportedOperationException();
-					}
-					parameters.put(String.valueOf(index), entry.getValue());
-					index++;
+	/**
+	 * 获取CQL语句
+	 *
+	 * <pre>
+	 * 条件参数按照条件的遍历顺序命名为$0,$1...,缓存的键由操作与条件名称组成.
+	 * </pre>
+	 *
+	 * @param clazz
+	 * @param begin
+	 * @param end
+	 * @param operation
+	 * @param condition
+	 * @param parameters
+	 * @return
+	 */
+	private String getCql(Class<?> clazz, String begin, String end, Operation operation, Map<String, Object> condition, Map<String, Object> parameters) {
+		Neo4jMetadata metadata = metadatas.get(clazz);
+		StringBuilder key = new StringBuilder(end);
+		List<String> names = new ArrayList<>(condition == null ? 0 : condition.size());
+		if (condition != null) {
+			key.append(':').append(operation);
+			int index = 0;
+			for (Entry<String, Object> term : condition.entrySet()) {
+				key.append(':').append(term.getKey());
+				names.add(term.getKey());
+				parameters.put(String.valueOf(index++), term.getValue());
+			}
+		}
+		return queryCqls.get(clazz).computeIfAbsent(key.toString(), (cache) -> {
+			StringBuilder buffer = new StringBuilder(StringUtility.format(begin, metadata.getOrmName()));
+			Iterator<String> iterator = names.iterator();
+			if (iterator.hasNext()) {
+				buffer.append(StringUtility.format(EQUAL_CONDITION, iterator.next()));
+			}
+			int index = 1;
+			while (iterator.hasNext()) {
+				String name = iterator.next();
+				switch (operation) {
+				case AND:
+					buffer.append(StringUtility.format(AND_CONDITION, name, index));
+					break;
+				case OR:
+					buffer.append(StringUtility.format(OR_CONDITION, name, index));
+					break;
+				default:
+					throw new UnsupportedOperationException();
 				}
+				index++;
 			}
-			buffer.append(ITERATE_END);
-			if (pagination != null) {
-				buffer.append(StringUtility.format(PAGINATION_CONDITION, pagination.getFirst(), pagination.getSize()));
+			buffer.append(end);
+			return buffer.toString();
+		});
+	}
+
+	private <K extends Comparable, T extends IdentityObject<K>> Iterable<T> iterate(Class<T> clazz, Operation operation, Map<String, Object> condition, StoragePagination pagination) {
+		Session session = factory.openSession();
+		HashMap<String, Object> parameters = new HashMap<>();
+		String cql;
+		if (pagination == null) {
+			cql = getCql(clazz, ITERATE_BEGIN, ITERATE_END, operation, condition, parameters);
+		} else if (pagination.isKeyset()) {
+			// 键集分页按照主键排序,从起点之后开始获取
+			String primaryName = metadatas.get(clazz).getPrimaryName();
+			StringBuilder end = new StringBuilder();
+			Comparable key = pagination.getKey();
+			if (key != null) {
+				end.append(StringUtility.format(KEYSET_CONDITION, primaryName));
+				parameters.put("key", key);
 			}
-			String cql = buffer.toString();
-			Iterable<T> iterable = template.query(clazz, cql, parameters);
-			return iterable;
-		} finally {
-			template.clear();
+			end.append(ITERATE_END).append(StringUtility.format(KEYSET_ORDER, primaryName));
+			cql = getCql(clazz, ITERATE_BEGIN, end.toString(), operation, condition, parameters);
+			parameters.put("limit", pagination.getSize());
+		} else {
+			cql = getCql(clazz, ITERATE_BEGIN, ITERATE_END + PAGINATION_CONDITION, operation, condition, parameters);
+			parameters.put("skip", pagination.getFirst());
+			parameters.put("limit", pagination.getSize());
 		}
+		Iterable<T> iterable = session.query(clazz, cql, parameters);
+		return iterable;
 	}
 
 	@Override
@@ -406,42 +510,11 @@ public class Neo4jAccessor implements StorageAccessor {
 	}
 
 	private <K extends Comparable, T extends IdentityObject<K>> long count(Class<T> clazz, Operation operation, Map<String, Object> condition) {
-		try {
-			Neo4jMetadata metadata = metadatas.get(clazz);
-			HashMap<String, Object> parameters = new HashMap<>();
-			StringBuilder buffer = new StringBuilder(StringUtility.format(COUNT_BEGIN, metadata.getOrmName()));
-			if (condition != null) {
-				int index = 0;
-				final Iterator<Entry<String, Object>> iterator = condition.entrySet().iterator();
-				if (iterator.hasNext()) {
-					Entry<String, Object> entry = iterator.next();
-					buffer.append(StringUtility.format(EQUAL_CONDITION, entry.getKey()));
-					parameters.put(String.valueOf(index), entry.getValue());
-					index++;
-				}
-				while (iterator.hasNext()) {
-					Entry<String, Object> entry = iterator.next();
-					switch (operation) {
-					case AND:
-						buffer.append(StringUtility.format(AND_CONDITION, entry.getKey(), index));
-						break;
-					case OR:
-						buffer.append(StringUtility.format(OR_CONDITION, entry.getKey(), index));
-						break;
-					default:
-						throw new UnsupportedOperationException();
-					}
-					parameters.put(String.valueOf(index), entry.getValue());
-					index++;
-				}
-			}
-			buffer.append(COUNT_END);
-			String cql = buffer.toString();
-			Long count = template.queryForObject(Long.class, cql, parameters);
-			return count;
-		} finally {
-			template.clear();
-		}
+		Session session = factory.openSession();
+		HashMap<String, Object> parameters = new HashMap<>();
+		String cql = getCql(clazz, COUNT_BEGIN, COUNT_END, operation, condition, parameters);
+		Long count = session.queryForObject(Long.class, cql, parameters);
+		return count;
 	}
 
 	@Override
@@ -483,8 +556,4 @@ public class Neo4jAccessor implements StorageAccessor {
 		}
 	}
 
-	void clear() {
-		template.clear();
-	}
-
 }
@@ -0,0 +1,102 @@
+package com.jstarcraft.core.storage.asynchronous;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import com.jstarcraft.core.storage.StoragePagination;
+import com.jstarcraft.core.storage.hibernate.HibernateAccessor;
+import com.jstarcraft.core.storage.hibernate.MockEnumeration;
+import com.jstarcraft.core.storage.hibernate.MockObject;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = "classpath:com/jstarcraft/core/storage/hibernate/HibernateAccessorTestCase-context.xml")
+public class ExecutorAccessorTestCase {
+
+    @Autowired
+    private HibernateAccessor accessor;
+
+    @Test
+    public void testAsynchronous() throws Exception {
+        int size = 100;
+        try (ExecutorAccessor asynchronous = new ExecutorAccessor(accessor, 4, size)) {
+            List<CompletableFuture<Boolean>> futures = new ArrayList<>(size);
+            for (int index = 0; index < size; index++) {
+                MockObject object = MockObject.instanceOf(index, "birdy", "mickey" + index, index, LocalDateTime.of(2010, 1, 1, 0, 0, 0), MockEnumeration.RANDOM);
+                futures.add(asynchronous.createInstance(MockObject.class, object));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[size])).join();
+            for (CompletableFuture<Boolean> future : futures) {
+                Assert.assertTrue(future.get());
+            }
+
+            Assert.assertThat(asynchronous.countInstances(MockObject.class).get(), CoreMatchers.equalTo((long) size));
+            Assert.assertThat(asynchronous.getInstance(MockObject.class, 0).get().getName(), CoreMatchers.equalTo("birdy"));
+            Map<String, Object> condition = new HashMap<>();
+            condition.put("race", MockEnumeration.RANDOM);
+            Assert.assertThat(asynchronous.queryIntersection(MockObject.class, condition, new StoragePagination(1, 15)).get().size(), CoreMatchers.equalTo(15));
+
+            AtomicInteger times = new AtomicInteger();
+            asynchronous.iterate((object) -> {
+                times.incrementAndGet();
+            }, MockObject.class, null).get();
+            Assert.assertThat(times.get(), CoreMatchers.equalTo(size));
+
+            for (MockObject object : accessor.queryInstances(MockObject.class, (StoragePagination) null)) {
+                asynchronous.deleteInstance(MockObject.class, object.getId());
+            }
+        }
+        Assert.assertThat(accessor.countInstances(MockObject.class), CoreMatchers.equalTo(0L));
+    }
+
+    @Test
+    public void testReject() throws Exception {
+        MockObject object = MockObject.instanceOf(0, "birdy", "mickey", 0, LocalDateTime.of(2010, 1, 1, 0, 0, 0), MockEnumeration.RANDOM);
+        accessor.createInstance(MockObject.class, object);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch stop = new CountDownLatch(1);
+        try (ExecutorAccessor asynchronous = new ExecutorAccessor(accessor, 1, 1)) {
+            // 占用唯一的线程
+            CompletableFuture<Void> blocking = asynchronous.iterate((instance) -> {
+                start.countDown();
+                try {
+                    stop.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }, MockObject.class, null);
+            start.await();
+            // 占用唯一的队列位置
+            CompletableFuture<Long> queued = asynchronous.countInstances(MockObject.class);
+            // 队列已满,立即失败而不是阻塞
+            CompletableFuture<Long> rejected = asynchronous.countInstances(MockObject.class);
+            Assert.assertTrue(rejected.isCompletedExceptionally());
+            try {
+                rejected.get();
+                Assert.fail();
+            } catch (ExecutionException exception) {
+                Assert.assertTrue(exception.getCause() instanceof RejectedExecutionException);
+            }
+            stop.countDown();
+            blocking.get();
+            Assert.assertThat(queued.get(), CoreMatchers.equalTo(1L));
+        }
+        accessor.deleteInstance(MockObject.class, 0);
+    }
+
+}
@@ -1,27 +1,38 @@
 package com.jstarcraft.core.storage.berkeley;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import com.jstarcraft.core.storage.ConditionType;
 import com.jstarcraft.core.storage.StorageCondition;
+import com.jstarcraft.core.storage.StoragePagination;
 import com.jstarcraft.core.storage.berkeley.entity.Pack;
 import com.jstarcraft.core.storage.berkeley.entity.Person;
 import com.jstarcraft.core.storage.berkeley.exception.BerkeleyVersionException;
 import com.jstarcraft.core.storage.berkeley.persistent.Item;
+import com.jstarcraft.core.utility.StringUtility;
 import com.sleepycat.je.UniqueConstraintException;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration
 public class BerkeleyAccessorTestCase {
 
+	private static final Logger logger = LoggerFactory.getLogger(BerkeleyAccessorTestCase.class);
+
 	@Autowired
 	private BerkeleyAccessor accessor;
 
@@ -128,4 +139,189 @@ public class BerkeleyAccessorTestCase {
 		testCommitTransactor(pack, BerkeleyIsolation.READ_COMMITTED);
 	}
 
+	/**
+	 * 测试条件查询
+	 */
+	@Test
+	public void testQuery() {
+		int personSize = 5;
+		int packSize = 20;
+		for (long index = 0; index < personSize; index++) {
+			accessor.createInstance(Person.class, new Person(index, "person" + index));
+		}
+		for (long index = 0; index < packSize; index++) {
+			accessor.createInstance(Pack.class, new Pack(index, (int) (index % 2), index % personSize));
+		}
+
+		Assert.assertThat(accessor.queryInstances(Pack.class, "personId", new StorageCondition<>(ConditionType.All)).size(), CoreMatchers.equalTo(20));
+		Assert.assertThat(accessor.queryInstances(Pack.class, "personId", new StorageCondition<>(ConditionType.Between, 1L, 2L)).size(), CoreMatchers.equalTo(8));
+		Assert.assertThat(accessor.queryInstances(Pack.class, "personId", new StorageCondition<>(ConditionType.Equal, 1L)).size(), CoreMatchers.equalTo(4));
+		Assert.assertThat(accessor.queryInstances(Pack.class, "personId", new StorageCondition<>(ConditionType.Higher, 2L)).size(), CoreMatchers.equalTo(8));
+		Assert.assertThat(accessor.queryInstances(Pack.class, "personId", new StorageCondition<>(ConditionType.In, 1L, 3L, 3L)).size(), CoreMatchers.equalTo(8));
+		Assert.assertThat(accessor.queryInstances(Pack.class, "personId", new StorageCondition<>(ConditionType.Lower, 2L)).size(), CoreMatchers.equalTo(8));
+		Assert.assertThat(accessor.queryInstances(Pack.class, "personId", new StorageCondition<>(ConditionType.Unequal, 2L)).size(), CoreMatchers.equalTo(16));
+
+		Map<Long, Long> identities = accessor.queryIdentities(Pack.class, "personId", new StorageCondition<>(ConditionType.Between, 1L, 2L));
+		Assert.assertThat(identities.size(), CoreMatchers.equalTo(8));
+		for (Entry<Long, Long> keyValue : identities.entrySet()) {
+			Assert.assertThat(keyValue.getKey() % personSize, CoreMatchers.equalTo(keyValue.getValue()));
+		}
+		identities = accessor.queryIdentities(Pack.class, "personId", new StorageCondition<>(ConditionType.Unequal, 2L));
+		Assert.assertThat(identities.size(), CoreMatchers.equalTo(16));
+		Assert.assertFalse(identities.containsValue(2L));
+
+		// 交集
+		Map<String, Object> condition = new HashMap<>();
+		condition.put("personId", 1L);
+		condition.put("size", 1);
+		Assert.assertThat(accessor.countIntersection(Pack.class, condition), CoreMatchers.equalTo(2L));
+		Assert.assertThat(accessor.queryIntersection(Pack.class, condition, new StoragePagination(2, 1)).size(), CoreMatchers.equalTo(1));
+
+		// 并集(不重复,按照主键排序)
+		Assert.assertThat(accessor.countUnion(Pack.class, condition), CoreMatchers.equalTo(12L));
+		List<Pack> packs = accessor.queryUnion(Pack.class, condition, new StoragePagination(2, 4));
+		Assert.assertThat(packs.size(), CoreMatchers.equalTo(4));
+		Assert.assertThat(packs.get(0).getId(), CoreMatchers.equalTo(7L));
+		Assert.assertThat(packs.get(3).getId(), CoreMatchers.equalTo(13L));
+		AtomicInteger count = new AtomicInteger();
+		accessor.iterateUnion((pack) -> {
+			count.incrementAndGet();
+		}, Pack.class, condition, null);
+		Assert.assertThat(count.get(), CoreMatchers.equalTo(12));
+
+		for (long index = 0; index < packSize; index++) {
+			accessor.deleteInstance(Pack.class, index);
+		}
+		for (long index = 0; index < personSize; index++) {
+			accessor.deleteInstance(Person.class, index);
+		}
+	}
+
+	/**
+	 * 测试键集分页
+	 */
+	@Test
+	public void testKeyset() {
+		int personSize = 5;
+		int packSize = 20;
+		for (long index = 0; index < personSize; index++) {
+			accessor.createInstance(Person.class, new Person(index, "person" + index));
+		}
+		for (long index = 0; index < packSize; index++) {
+			accessor.createInstance(Pack.class, new Pack(index, (int) (index % 2), index % personSize));
+		}
+
+		// 全量
+		List<Pack> packs = accessor.queryInstances(Pack.class, StoragePagination.keysetOf(null, 6));
+		Assert.assertThat(packs.size(), CoreMatchers.equalTo(6));
+		Assert.assertThat(packs.get(0).getId(), CoreMatchers.equalTo(0L));
+		long count = 0;
+		while (!packs.isEmpty()) {
+			count += packs.size();
+			Long last = packs.get(packs.size() - 1).getId();
+			packs = accessor.queryInstances(Pack.class, StoragePagination.keysetOf(last, 6));
+			if (!packs.isEmpty()) {
+				Assert.assertThat(packs.get(0).getId(), CoreMatchers.equalTo(last + 1));
+			}
+		}
+		Assert.assertThat(count, CoreMatchers.equalTo((long) packSize));
+
+		// 交集
+		Map<String, Object> condition = new HashMap<>();
+		condition.put("personId", 1L);
+		condition.put("size", 1);
+		packs = accessor.queryIntersection(Pack.class, condition, StoragePagination.keysetOf(null, 1));
+		Assert.assertThat(packs.size(), CoreMatchers.equalTo(1));
+		Assert.assertThat(packs.get(0).getId(), CoreMatchers.equalTo(1L));
+		packs = accessor.queryIntersection(Pack.class, condition, StoragePagination.keysetOf(1L, 1));
+		Assert.assertThat(packs.size(), CoreMatchers.equalTo(1));
+		Assert.assertThat(packs.get(0).getId(), CoreMatchers.equalTo(11L));
+		packs = accessor.queryIntersection(Pack.class, condition, StoragePagination.keysetOf(11L, 1));
+		Assert.assertTrue(packs.isEmpty());
+
+		// 并集
+		packs = accessor.queryUnion(Pack.class, condition, StoragePagination.keysetOf(6L, 4));
+		Assert.assertThat(packs.size(), CoreMatchers.equalTo(4));
+		Assert.assertThat(packs.get(0).getId(), CoreMatchers.equalTo(7L));
+		Assert.assertThat(packs.get(3).getId(), CoreMatchers.equalTo(13L));
+		AtomicInteger size = new AtomicInteger();
+		accessor.iterateUnion((pack) -> {
+			size.incrementAndGet();
+		}, Pack.class, condition, StoragePagination.keysetOf(13L, 10));
+		Assert.assertThat(size.get(), CoreMatchers.equalTo(4));
+
+		for (long index = 0; index < packSize; index++) {
+			accessor.deleteInstance(Pack.class, index);
+		}
+		for (long index = 0; index < personSize; index++) {
+			accessor.deleteInstance(Person.class, index);
+		}
+	}
+
+	/**
+	 * 测试条件查询性能
+	 */
+	@Test
+	public void testPerformance() {
+		int personSize = 100;
+		int packSize = 10000;
+		for (long index = 0; index < personSize; index++) {
+			accessor.createInstance(Person.class, new Person(index, "person" + index));
+		}
+		for (long index = 0; index < packSize; index++) {
+			accessor.createInstance(Pack.class, new Pack(index, (int) (index % 10), index % personSize));
+		}
+
+		int times = 100;
+		long now = System.currentTimeMillis();
+		for (int time = 0; time < times; time++) {
+			Assert.assertThat(accessor.queryIdentities(Pack.class, "personId", new StorageCondition<>(ConditionType.Higher, 98L)).size(), CoreMatchers.equalTo(packSize / personSize));
+		}
+		logger.debug(StringUtility.format("Higher查询{}次一共消耗{}毫秒.", times, System.currentTimeMillis() - now));
+
+		now = System.currentTimeMillis();
+		for (int time = 0; time < times; time++) {
+			Assert.assertThat(accessor.queryInstances(Pack.class, "personId", new StorageCondition<>(ConditionType.Between, 10L, 11L)).size(), CoreMatchers.equalTo(packSize / personSize * 2));
+		}
+		logger.debug(StringUtility.format("Between查询{}次一共消耗{}毫秒.", times, System.currentTimeMillis() - now));
+
+		now = System.currentTimeMillis();
+		for (int time = 0; time < times; time++) {
+			Assert.assertThat(accessor.queryIdentities(Pack.class, "personId", new StorageCondition<>(ConditionType.Unequal, 0L)).size(), CoreMatchers.equalTo(packSize - packSize / personSize));
+		}
+		logger.debug(StringUtility.format("Unequal查询{}次一共消耗{}毫秒.", times, System.currentTimeMillis() - now));
+
+		Map<String, Object> condition = new HashMap<>();
+		condition.put("personId", 1L);
+		condition.put("size", 1);
+		now = System.currentTimeMillis();
+		for (int time = 0; time < times; time++) {
+			Assert.assertThat(accessor.countUnion(Pack.class, condition), CoreMatchers.equalTo((long) (packSize / 10)));
+		}
+		logger.debug(StringUtility.format("Union统计{}次一共消耗{}毫秒.", times, System.currentTimeMillis() - now));
+
+		// 偏移分页与键集分页遍历全部实例
+		int pageSize = 100;
+		now = System.currentTimeMillis();
+		for (int page = 1; page <= packSize / pageSize; page++) {
+			Assert.assertThat(accessor.queryInstances(Pack.class, new StoragePagination(page, pageSize)).size(), CoreMatchers.equalTo(pageSize));
+		}
+		logger.debug(StringUtility.format("偏移分页遍历{}条一共消耗{}毫秒.", packSize, System.currentTimeMillis() - now));
+		now = System.currentTimeMillis();
+		Long last = null;
+		for (int page = 1; page <= packSize / pageSize; page++) {
+			List<Pack> packs = accessor.queryInstances(Pack.class, StoragePagination.keysetOf(last, pageSize));
+			Assert.assertThat(packs.size(), CoreMatchers.equalTo(pageSize));
+			last = packs.get(pageSize - 1).getId();
+		}
+		logger.debug(StringUtility.format("键集分页遍历{}条一共消耗{}毫秒.", packSize, System.currentTimeMillis() - now));
+
+		for (long index = 0; index < packSize; index++) {
+			accessor.deleteInstance(Pack.class, index);
+		}
+		for (long index = 0; index < personSize; index++) {
+			accessor.deleteInstance(Person.class, index);
+		}
+	}
+
 }
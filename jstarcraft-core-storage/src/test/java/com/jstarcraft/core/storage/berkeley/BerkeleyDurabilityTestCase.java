@@ -0,0 +1,175 @@
+package com.jstarcraft.core.storage.berkeley;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.function.BiFunction;
+
+import org.apache.commons.io.FileUtils;
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jstarcraft.core.common.identification.IdentityObject;
+import com.jstarcraft.core.storage.ConditionType;
+import com.jstarcraft.core.storage.StorageCondition;
+import com.jstarcraft.core.storage.berkeley.annotation.BerkeleyConfiguration;
+import com.jstarcraft.core.utility.StringUtility;
+import com.sleepycat.je.CacheMode;
+import com.sleepycat.persist.model.Entity;
+import com.sleepycat.persist.model.PrimaryKey;
+import com.sleepycat.persist.model.Relationship;
+import com.sleepycat.persist.model.SecondaryKey;
+
+public class BerkeleyDurabilityTestCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(BerkeleyDurabilityTestCase.class);
+
+    @BerkeleyConfiguration(store = "durability", durability = BerkeleyDurability.SYNC)
+    @Entity
+    public static class SyncRecord implements IdentityObject<Long> {
+
+        @PrimaryKey
+        private long id;
+
+        private String content;
+
+        private SyncRecord() {
+        }
+
+        public SyncRecord(long id, String content) {
+            this.id = id;
+            this.content = content;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+    }
+
+    @BerkeleyConfiguration(store = "durability", durability = BerkeleyDurability.WRITE_NO_SYNC)
+    @Entity
+    public static class WriteNoSyncRecord implements IdentityObject<Long> {
+
+        @PrimaryKey
+        private long id;
+
+        private String content;
+
+        private WriteNoSyncRecord() {
+        }
+
+        public WriteNoSyncRecord(long id, String content) {
+            this.id = id;
+            this.content = content;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+    }
+
+    @BerkeleyConfiguration(store = "durability", durability = BerkeleyDurability.NO_SYNC, cacheMode = CacheMode.EVICT_LN, keyPrefixing = true)
+    @Entity
+    public static class NoSyncRecord implements IdentityObject<Long> {
+
+        @PrimaryKey
+        private long id;
+
+        @SecondaryKey(relate = Relationship.MANY_TO_ONE)
+        private String content;
+
+        private NoSyncRecord() {
+        }
+
+        public NoSyncRecord(long id, String content) {
+            this.id = id;
+            this.content = content;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+    }
+
+    @BerkeleyConfiguration(store = "deferred", deferredWrite = true, cacheMode = CacheMode.KEEP_HOT)
+    @Entity
+    public static class DeferredRecord implements IdentityObject<Long> {
+
+        @PrimaryKey
+        private long id;
+
+        private String content;
+
+        private DeferredRecord() {
+        }
+
+        public DeferredRecord(long id, String content) {
+            this.id = id;
+            this.content = content;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+    }
+
+    private <T extends IdentityObject<Long>> void testPerformance(BerkeleyAccessor accessor, Class<T> clazz, BiFunction<Long, String, T> constructor, int size) {
+        long now = System.currentTimeMillis();
+        for (long index = 0; index < size; index++) {
+            Assert.assertTrue(accessor.createInstance(clazz, constructor.apply(index, "content" + (index % 10))));
+        }
+        long create = System.currentTimeMillis() - now;
+        now = System.currentTimeMillis();
+        for (long index = 0; index < size; index++) {
+            Assert.assertTrue(accessor.updateInstance(clazz, constructor.apply(index, "content" + (index % 10))));
+        }
+        long update = System.currentTimeMillis() - now;
+        now = System.currentTimeMillis();
+        for (long index = 0; index < size; index++) {
+            Assert.assertTrue(accessor.deleteInstance(clazz, index));
+        }
+        long delete = System.currentTimeMillis() - now;
+        String message = StringUtility.format("[{}]写入{}次,创建消耗{}毫秒,更新消耗{}毫秒,删除消耗{}毫秒", clazz.getSimpleName(), size, create, update, delete);
+        logger.debug(message);
+    }
+
+    /**
+     * 测试不同持久策略的写入性能
+     */
+    @Test
+    public void testPerformance() throws Exception {
+        File directory = new File("target/durability");
+        FileUtils.deleteQuietly(directory);
+        Collection<Class<?>> classes = Arrays.asList(SyncRecord.class, WriteNoSyncRecord.class, NoSyncRecord.class, DeferredRecord.class);
+        BerkeleyAccessor accessor = new BerkeleyAccessor(classes, directory, new Properties(), false, false, false, 60000L);
+        accessor.start();
+        try {
+            int size = 1000;
+            testPerformance(accessor, SyncRecord.class, SyncRecord::new, size);
+            testPerformance(accessor, WriteNoSyncRecord.class, WriteNoSyncRecord::new, size);
+            testPerformance(accessor, NoSyncRecord.class, NoSyncRecord::new, size);
+            testPerformance(accessor, DeferredRecord.class, DeferredRecord::new, size);
+
+            // 键前缀压缩与缓存模式不影响次键查询
+            for (long index = 0; index < size; index++) {
+                accessor.createInstance(NoSyncRecord.class, new NoSyncRecord(index, "content" + (index % 10)));
+            }
+            Assert.assertThat(accessor.queryInstances(NoSyncRecord.class, "content", new StorageCondition<>(ConditionType.Equal, "content0")).size(), CoreMatchers.equalTo(size / 10));
+        } finally {
+            accessor.stop();
+        }
+    }
+
+}
@@ -11,6 +11,8 @@ import com.jstarcraft.core.storage.berkeley.migration.MigrationTestCase;
 @SuiteClasses({
         // Berkeley访问器测试
         BerkeleyAccessorTestCase.class, BerkeleyMetadataTestCase.class,
+        // Berkeley持久策略测试
+        BerkeleyDurabilityTestCase.class,
         // Berleley文件备份测试
         FileMemorandumTestCase.class,
         // Berkeley迁移测试
@@ -21,7 +21,7 @@ import com.sleepycat.persist.model.SecondaryKey;
  *
  */
 @BerkeleyConfiguration(store = "berkeley", version = "version")
-@Entity
+@Entity(version = 1)
 public class Pack implements IdentityObject<Long> {
 
     @PrimaryKey
@@ -38,6 +38,7 @@ public class Pack implements IdentityObject<Long> {
     private Long personId;
 
     /** 大小 */
+    @SecondaryKey(relate = Relationship.MANY_TO_ONE)
     private int size;
 
     private Pack() {
@@ -5,6 +5,8 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 
 import org.apache.commons.io.FileUtils;
@@ -47,6 +49,15 @@ public class FileMemorandumTestCase {
         FileUtils.forceDelete(memorandumDirectory);
     }
 
+    private Collection<String> getLogNames() {
+        Collection<String> names = new HashSet<>();
+        Iterator<File> iterator = FileUtils.iterateFiles(memorandumDirectory, new String[] { "jdb" }, true);
+        while (iterator.hasNext()) {
+            names.add(iterator.next().getName());
+        }
+        return names;
+    }
+
     @Test
     public void testMemorandum() throws Exception {
         FileMemorandum fileMemorandum = new FileMemorandum(10485760, environmentDirectory, memorandumDirectory);
@@ -68,14 +79,23 @@ public class FileMemorandumTestCase {
             }
         }
         Assert.assertTrue(memorandum == 1);
+        Collection<String> names = getLogNames();
 
         for (long index = 0; index < size; index++) {
             Pack pack = new Pack(index, size, index);
             accessor.createInstance(Pack.class, pack);
         }
         Instant to = from.plus(1, ChronoUnit.HOURS);
-        // 执行备份
+        // 模拟重启,从标记文件恢复上次备份的位置,并且使用硬链接与限速
+        fileMemorandum = new FileMemorandum(10485760, environmentDirectory, memorandumDirectory, true, 1024L * 1024L * 1024L);
+        // 执行增量备份
         fileMemorandum.checkIn(accessor.getEnvironment(), to);
+        Iterator<File> increment = FileUtils.iterateFiles(new File(memorandumDirectory, "2017-01-01" + File.separator + "01-00-00"), new String[] { "jdb" }, false);
+        Assert.assertTrue(increment.hasNext());
+        while (increment.hasNext()) {
+            // 增量备份不包含已经备份的日志文件
+            Assert.assertFalse(names.contains(increment.next().getName()));
+        }
         memorandum = 0;
         iterator = FileUtils.iterateFiles(memorandumDirectory, null, true);
         while (iterator.hasNext()) {
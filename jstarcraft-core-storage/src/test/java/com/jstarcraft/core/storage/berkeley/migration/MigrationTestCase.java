@@ -3,13 +3,17 @@ package com.jstarcraft.core.storage.berkeley.migration;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.slf4j.Logger;
@@ -19,6 +23,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
+import com.jstarcraft.core.common.lifecycle.LifecycleState;
 import com.jstarcraft.core.storage.berkeley.BerkeleyAccessor;
 import com.jstarcraft.core.storage.berkeley.migration.BerkeleyConverter;
 import com.jstarcraft.core.storage.berkeley.migration.Migrator;
@@ -30,6 +35,20 @@ import com.jstarcraft.core.storage.berkeley.migration.older.Player;
 @ContextConfiguration
 public class MigrationTestCase {
 
+    private static final String OLDER_DIRECTORY = "target/older";
+
+    private static final String NEWER_DIRECTORY = "target/newer";
+
+    private static final String OLDER_PLAYER = "com.jstarcraft.core.storage.berkeley.migration.older.Player";
+
+    private static final String OLDER_INFORMATION = "com.jstarcraft.core.storage.berkeley.migration.older.Information";
+
+    private static final String NEWER_PLAYER = "com.jstarcraft.core.storage.berkeley.migration.newer.Player";
+
+    private static final String NEWER_ITEM = "com.jstarcraft.core.storage.berkeley.migration.newer.Item";
+
+    private static final String NEWER_INFORMATION = "com.jstarcraft.core.storage.berkeley.migration.newer.Information";
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     @Autowired
@@ -40,10 +59,30 @@ public class MigrationTestCase {
     @Qualifier("older")
     private BerkeleyAccessor olderAccessor;
 
-    @Test
-    public void testMigrate() throws Exception {
-        final int numberOfThread = 10;
-        final int batchSize = 100;
+    /**
+     * 清空新旧环境,启动旧环境并且停止新环境
+     */
+    private void prepare() {
+        if (olderAccessor.getState() == LifecycleState.STARTED) {
+            olderAccessor.stop();
+        }
+        if (newerAccessor.getState() == LifecycleState.STARTED) {
+            newerAccessor.stop();
+        }
+        FileUtils.deleteQuietly(new File(OLDER_DIRECTORY));
+        FileUtils.deleteQuietly(new File(NEWER_DIRECTORY));
+        new File(OLDER_DIRECTORY).mkdirs();
+        olderAccessor.start();
+    }
+
+    /**
+     * 并发插入旧数据
+     * 
+     * @param numberOfThread
+     * @param batchSize
+     * @throws Exception
+     */
+    private void insert(int numberOfThread, int batchSize) throws Exception {
         final Collection<Batch> threads = new ArrayList<Batch>(numberOfThread);
 
         final CyclicBarrier barrier = new CyclicBarrier(numberOfThread + 1);
@@ -76,44 +115,100 @@ public class MigrationTestCase {
         logger.debug("information count is : " + olderAccessor.countInstances(Information.class));
         long end = System.currentTimeMillis();
         logger.debug("count total time is : " + (end - start));
+    }
 
-        File olderFile = olderAccessor.getEnvironment().getHome();
-        File newerFile = newerAccessor.getEnvironment().getHome();
-        olderAccessor.stop();
-        newerAccessor.stop();
-        FileUtils.forceDelete(newerFile);
-
+    private Migrator getMigrator(Map<String, String> entityConverterMap) {
         // 设置需要迁移的库
         Collection<String> migrateStroreNames = new HashSet<String>();
         migrateStroreNames.add("migration");
 
         // 设置新旧实体名称的映射,默认新旧实体名称是一致的
         Map<String, String> entityNameMap = new HashMap<String, String>();
-        entityNameMap.put("com.jstarcraft.core.storage.berkeley.migration.newer.Player", "com.jstarcraft.core.storage.berkeley.migration.older.Player");
-        entityNameMap.put("com.jstarcraft.core.storage.berkeley.migration.newer.Item", "com.jstarcraft.core.storage.berkeley.migration.older.Item");
-        entityNameMap.put("com.jstarcraft.core.storage.berkeley.migration.newer.Information", "com.jstarcraft.core.storage.berkeley.migration.older.Information");
-        // 设置实体与转换器的映射,默认使用BerkeleyConverter作为转换器
-        Map<String, String> entityConverterMap = new HashMap<String, String>();
-        entityConverterMap.put("com.jstarcraft.core.storage.berkeley.migration.newer.Player", "com.jstarcraft.core.storage.berkeley.migration.Old2NewPlayerConverter");
+        entityNameMap.put(NEWER_PLAYER, OLDER_PLAYER);
+        entityNameMap.put(NEWER_ITEM, "com.jstarcraft.core.storage.berkeley.migration.older.Item");
+        entityNameMap.put(NEWER_INFORMATION, OLDER_INFORMATION);
 
         Map<String, Collection<String>> entityDependencyMap = new HashMap<String, Collection<String>>();
         String configurationFile = "migration.properties";
-        String oldDatabaseDirectory = "target/older";
-        String newDatabaseDirectory = "target/newer";
         String berkeleyConverter = BerkeleyConverter.class.getName();
-        Migrator migrator = new Migrator(migrateStroreNames, entityNameMap, entityConverterMap, entityDependencyMap, configurationFile, oldDatabaseDirectory, newDatabaseDirectory, berkeleyConverter);
+        Migrator migrator = new Migrator(migrateStroreNames, entityNameMap, entityConverterMap, entityDependencyMap, configurationFile, OLDER_DIRECTORY, NEWER_DIRECTORY, berkeleyConverter);
 
         // 拷贝旧环境,通常是文件复制过程,目的在于为迁移做基础准备;
         migrator.copyOldEnvironment(migrator.getOldDatabaseDirectory(), migrator.getNewDatabaseDirectory());
 
         // 构建新环境,通常是在旧环境基础,以仓储(Stroe)为单位重构建,重构建的仓储所包含的全部实体都要进行迁移;
         migrator.buildNewEnvironment(newerAccessor);
+        return migrator;
+    }
+
+    private void check(long size) {
+        newerAccessor.start();
+        Assert.assertEquals(size, newerAccessor.countInstances(com.jstarcraft.core.storage.berkeley.migration.newer.Player.class));
+        Assert.assertEquals(size, newerAccessor.countInstances(com.jstarcraft.core.storage.berkeley.migration.newer.Item.class));
+        Assert.assertEquals(size, newerAccessor.countInstances(com.jstarcraft.core.storage.berkeley.migration.newer.Information.class));
+        newerAccessor.stop();
+
+        FileUtils.deleteQuietly(new File(OLDER_DIRECTORY));
+        FileUtils.deleteQuietly(new File(NEWER_DIRECTORY));
+    }
+
+    @Test
+    public void testMigrate() throws Exception {
+        final int numberOfThread = 10;
+        final int batchSize = 300;
+        prepare();
+        insert(numberOfThread, batchSize);
+        olderAccessor.stop();
+
+        // 设置实体与转换器的映射,默认使用BerkeleyConverter作为转换器
+        Map<String, String> entityConverterMap = new HashMap<String, String>();
+        entityConverterMap.put(NEWER_PLAYER, "com.jstarcraft.core.storage.berkeley.migration.Old2NewPlayerConverter");
+        Migrator migrator = getMigrator(entityConverterMap);
 
         // 确定迁移实体以后,从旧环境获取数据,通过(Converter)转换器转换以后,将数据填充到新环境;
-        migrator.migrate();
+        Assert.assertTrue(migrator.migrate());
+        check(numberOfThread * batchSize);
+    }
 
-        FileUtils.forceDelete(olderFile);
-        FileUtils.forceDelete(newerFile);
+    @Test
+    public void testResume() throws Exception {
+        final int numberOfThread = 10;
+        final int batchSize = 300;
+        prepare();
+        insert(numberOfThread, batchSize);
+        List<Long> ids = new ArrayList<>(numberOfThread * batchSize);
+        olderAccessor.iterate((player) -> {
+            ids.add(player.getId());
+        }, Player.class, null);
+        Collections.sort(ids);
+        olderAccessor.stop();
+
+        Map<String, String> entityConverterMap = new HashMap<String, String>();
+        entityConverterMap.put(NEWER_PLAYER, ResumeConverter.class.getName());
+        entityConverterMap.put(NEWER_ITEM, ResumeConverter.class.getName());
+        entityConverterMap.put(NEWER_INFORMATION, ResumeConverter.class.getName());
+        Migrator migrator = getMigrator(entityConverterMap);
+
+        // 中间的玩家转换失败,所在批次不推进检查点
+        Long failure = ids.get(ids.size() / 2);
+        ResumeConverter.reset(failure);
+        Assert.assertFalse(migrator.migrate());
+        Assert.assertTrue(ResumeConverter.getKeys(OLDER_PLAYER).contains(failure));
+        Assert.assertEquals(numberOfThread * batchSize, ResumeConverter.getKeys(OLDER_INFORMATION).size());
+
+        // 在相同的环境再次迁移,从检查点恢复
+        ResumeConverter.reset(null);
+        Assert.assertTrue(migrator.migrate());
+        Set<Object> players = ResumeConverter.getKeys(OLDER_PLAYER);
+        // 失败的批次重新迁移
+        Assert.assertTrue(players.contains(failure));
+        Assert.assertTrue(players.contains(ids.get(ids.size() - 1)));
+        // 已经完成的批次跳过
+        Assert.assertFalse(players.contains(ids.get(0)));
+        Assert.assertTrue(players.size() < ids.size());
+        // 已经完成的实体跳过
+        Assert.assertTrue(ResumeConverter.getKeys(OLDER_INFORMATION).isEmpty());
+        check(numberOfThread * batchSize);
     }
 
 }
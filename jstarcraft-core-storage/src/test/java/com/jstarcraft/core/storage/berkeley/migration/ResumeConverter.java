@@ -0,0 +1,51 @@
+package com.jstarcraft.core.storage.berkeley.migration;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.jstarcraft.core.storage.berkeley.migration.older.Player;
+import com.sleepycat.persist.raw.RawObject;
+import com.sleepycat.persist.raw.RawStore;
+
+/**
+ * ResumeConverter记录转换过的旧数据主键,并且可以指定转换失败的主键,用于测试从检查点恢复迁移
+ *
+ * @author Birdy
+ *
+ */
+public class ResumeConverter extends Old2NewPlayerConverter {
+
+    public static final String ID_FIELD = "id";
+
+    /** 旧实体名称与转换过的主键的映射 */
+    private static final ConcurrentHashMap<String, Set<Object>> keys = new ConcurrentHashMap<>();
+
+    /** 转换失败的主键 */
+    private static volatile Object failure;
+
+    public static void reset(Object failure) {
+        ResumeConverter.keys.clear();
+        ResumeConverter.failure = failure;
+    }
+
+    public static Set<Object> getKeys(String entityName) {
+        Set<Object> keys = ResumeConverter.keys.get(entityName);
+        return keys == null ? Collections.emptySet() : keys;
+    }
+
+    @Override
+    public boolean convert(MigrationContext context, RawStore oldRawStore, RawStore newRawStore, RawObject oldObject, RawObject newObject) throws Exception {
+        String entityName = oldObject.getType().getClassName();
+        Object key = oldObject.getValues().get(ID_FIELD);
+        // 嵌套对象没有主键
+        if (key != null) {
+            keys.computeIfAbsent(entityName, (name) -> ConcurrentHashMap.newKeySet()).add(key);
+            if (key.equals(failure) && entityName.equals(Player.class.getName())) {
+                throw new IllegalStateException("模拟转换失败");
+            }
+        }
+        return super.convert(context, oldRawStore, newRawStore, oldObject, newObject);
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.jstarcraft.core.storage.cache;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import com.jstarcraft.core.storage.ConditionType;
+import com.jstarcraft.core.storage.StorageCondition;
+import com.jstarcraft.core.storage.StoragePagination;
+import com.jstarcraft.core.storage.hibernate.HibernateAccessor;
+import com.jstarcraft.core.storage.hibernate.MockEnumeration;
+import com.jstarcraft.core.storage.hibernate.MockObject;
+import com.jstarcraft.core.utility.StringUtility;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = "classpath:com/jstarcraft/core/storage/hibernate/HibernateAccessorTestCase-context.xml")
+public class CacheAccessorTestCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheAccessorTestCase.class);
+
+    @Autowired
+    private HibernateAccessor accessor;
+
+    @Test
+    public void testCache() throws Exception {
+        int size = 100;
+        CacheAccessor cache = new CacheAccessor(accessor, 1000, 0L);
+        CacheCounter counter = cache.getCounter();
+
+        for (int index = 0; index < size; index++) {
+            MockObject object = MockObject.instanceOf(index, "birdy", "mickey" + index, index, LocalDateTime.of(2010, 1, 1, 0, 0, 0), MockEnumeration.RANDOM);
+            cache.createInstance(MockObject.class, object);
+        }
+
+        Map<String, Object> condition = new HashMap<>();
+        condition.put("race", MockEnumeration.RANDOM);
+        condition.put("name", "birdy");
+        StoragePagination pagination = new StoragePagination(1, 15);
+
+        // 第一次未命中,之后命中
+        for (int index = 0; index < 10; index++) {
+            Assert.assertTrue(cache.countIntersection(MockObject.class, condition) == size);
+            Assert.assertThat(cache.queryIntersection(MockObject.class, condition, pagination).size(), CoreMatchers.equalTo(15));
+            Assert.assertThat(cache.queryIdentities(MockObject.class, "money", new StorageCondition<>(ConditionType.Between, 1, 50)).size(), CoreMatchers.equalTo(50));
+        }
+        Assert.assertThat(counter.getMissNumber().get(), CoreMatchers.equalTo(3L));
+        Assert.assertThat(counter.getHitNumber().get(), CoreMatchers.equalTo(27L));
+        Assert.assertThat(cache.getSize(MockObject.class), CoreMatchers.equalTo(3));
+
+        // 相同的分页与条件命中同一个缓存
+        Assert.assertThat(cache.queryIntersection(MockObject.class, new HashMap<>(condition), new StoragePagination(1, 15)).size(), CoreMatchers.equalTo(15));
+        Assert.assertThat(counter.getHitNumber().get(), CoreMatchers.equalTo(28L));
+
+        // 写操作使缓存失效
+        MockObject object = cache.getInstance(MockObject.class, 0);
+        object.setName("mickey");
+        cache.updateInstance(MockObject.class, object);
+        Assert.assertThat(cache.getSize(MockObject.class), CoreMatchers.equalTo(0));
+        Assert.assertTrue(cache.countIntersection(MockObject.class, condition) == size - 1);
+        cache.deleteInstance(MockObject.class, 1);
+        Assert.assertTrue(cache.countIntersection(MockObject.class, condition) == size - 2);
+
+        // 过期
+        CacheAccessor expire = new CacheAccessor(accessor, 1000, 100L);
+        Assert.assertTrue(expire.countInstances(MockObject.class) == size - 1);
+        Assert.assertTrue(expire.countInstances(MockObject.class) == size - 1);
+        Assert.assertThat(expire.getCounter().getHitNumber().get(), CoreMatchers.equalTo(1L));
+        Thread.sleep(200L);
+        Assert.assertTrue(expire.countInstances(MockObject.class) == size - 1);
+        Assert.assertThat(expire.getCounter().getExpireNumber().get(), CoreMatchers.equalTo(1L));
+
+        // 容量
+        CacheAccessor evict = new CacheAccessor(accessor, 10, 0L);
+        for (int index = 1; index <= 15; index++) {
+            List<MockObject> objects = evict.queryInstances(MockObject.class, new StoragePagination(index, 5));
+            Assert.assertThat(objects.size(), CoreMatchers.equalTo(5));
+        }
+        Assert.assertThat(evict.getSize(MockObject.class), CoreMatchers.equalTo(10));
+        Assert.assertThat(evict.getCounter().getEvictNumber().get(), CoreMatchers.equalTo(5L));
+
+        int times = 1000;
+        long time = System.currentTimeMillis();
+        for (int index = 0; index < times; index++) {
+            accessor.countIntersection(MockObject.class, condition);
+        }
+        logger.debug(StringUtility.format("直接统计{}次,耗时{}毫秒", times, System.currentTimeMillis() - time));
+        time = System.currentTimeMillis();
+        for (int index = 0; index < times; index++) {
+            cache.countIntersection(MockObject.class, condition);
+        }
+        logger.debug(StringUtility.format("缓存统计{}次,耗时{}毫秒,命中率{}", times, System.currentTimeMillis() - time, counter.getHitRate()));
+
+        for (MockObject element : accessor.queryInstances(MockObject.class, (StoragePagination) null)) {
+            cache.deleteInstance(MockObject.class, element);
+        }
+        Assert.assertTrue(cache.countInstances(MockObject.class) == 0);
+    }
+
+}
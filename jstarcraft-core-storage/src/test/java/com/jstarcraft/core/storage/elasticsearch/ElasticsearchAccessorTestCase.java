@@ -1,22 +1,30 @@
 package com.jstarcraft.core.storage.elasticsearch;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.settings.Settings;
 import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import com.jstarcraft.core.storage.ConditionType;
 import com.jstarcraft.core.storage.StorageCondition;
 import com.jstarcraft.core.storage.StoragePagination;
+import com.jstarcraft.core.storage.exception.StorageQueryException;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration
@@ -25,6 +33,9 @@ public class ElasticsearchAccessorTestCase {
     @Autowired
     private ElasticsearchAccessor accessor;
 
+    @Autowired
+    private RestHighLevelClient factory;
+
     @Test
     public void testCRUD() {
         int size = 100;
@@ -101,6 +112,27 @@ public class ElasticsearchAccessorTestCase {
             times.incrementAndGet();
         }, MockObject.class, pagination);
         Assert.assertTrue(times.get() == 10);
+        // 超过窗口的偏移量分页
+        try {
+            accessor.queryInstances(MockObject.class, new StoragePagination(1000, 15));
+            Assert.fail();
+        } catch (StorageQueryException exception) {
+        }
+
+        // 查询键集分页
+        pagination = StoragePagination.keysetOf(null, 15);
+        objects = accessor.queryInstances(MockObject.class, pagination);
+        Assert.assertTrue(objects.size() == 15);
+        Assert.assertThat(objects.get(14).getId(), CoreMatchers.equalTo(14));
+        pagination = StoragePagination.keysetOf(objects.get(14).getId(), 15);
+        objects = accessor.queryInstances(MockObject.class, pagination);
+        Assert.assertThat(objects.get(0).getId(), CoreMatchers.equalTo(15));
+        pagination = StoragePagination.keysetOf(size - 10, 15);
+        times.set(0);
+        accessor.iterate((object) -> {
+            times.incrementAndGet();
+        }, MockObject.class, pagination);
+        Assert.assertTrue(times.get() == 9);
 
         // 测试总数
         long count = accessor.countInstances(MockObject.class);
@@ -135,4 +167,56 @@ public class ElasticsearchAccessorTestCase {
         }
     }
 
+    @Test
+    public void testBulk() {
+        int size = 2000;
+        List<MockObject> objects = new ArrayList<>(size);
+        List<Integer> ids = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            objects.add(MockObject.instanceOf(index, "birdy", "mickey" + index, index, Instant.ofEpochMilli(0L), MockEnumeration.RANDOM));
+            ids.add(index);
+        }
+        Assert.assertThat(accessor.saveInstances(MockObject.class, objects), CoreMatchers.equalTo(size));
+        Assert.assertTrue(accessor.countInstances(MockObject.class) == size);
+
+        // 没有分页时遍历全部(滚动)
+        AtomicInteger times = new AtomicInteger();
+        accessor.iterate((object) -> {
+            times.incrementAndGet();
+        }, MockObject.class, null);
+        Assert.assertTrue(times.get() == size);
+
+        for (MockObject object : objects) {
+            object.setName("mickey");
+        }
+        Assert.assertThat(accessor.saveInstances(MockObject.class, objects), CoreMatchers.equalTo(size));
+        Map<String, Object> condition = new HashMap<>();
+        condition.put("name", "mickey");
+        Assert.assertTrue(accessor.countIntersection(MockObject.class, condition) == size);
+
+        accessor.deleteInstances(MockObject.class, ids);
+        Assert.assertTrue(accessor.countInstances(MockObject.class) == 0);
+    }
+
+    /**
+     * 测试偏移量分页的窗口按照索引配置(index.max_result_window)限制
+     */
+    @Test
+    public void testWindow() throws Exception {
+        String index = "elasticsearch";
+        String setting = "index.max_result_window";
+        factory.indices().putSettings(new UpdateSettingsRequest(index).settings(Settings.builder().put(setting, 100)), RequestOptions.DEFAULT);
+        try {
+            ElasticsearchAccessor accessor = new ElasticsearchAccessor(Collections.singleton(MockObject.class), new ElasticsearchRestTemplate(factory));
+            Assert.assertTrue(accessor.queryInstances(MockObject.class, new StoragePagination(6, 15)).isEmpty());
+            try {
+                accessor.queryInstances(MockObject.class, new StoragePagination(7, 15));
+                Assert.fail();
+            } catch (StorageQueryException exception) {
+            }
+        } finally {
+            factory.indices().putSettings(new UpdateSettingsRequest(index).settings(Settings.builder().putNull(setting)), RequestOptions.DEFAULT);
+        }
+    }
+
 }
@@ -4,12 +4,20 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hamcrest.CoreMatchers;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -17,14 +25,20 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import com.jstarcraft.core.storage.ConditionType;
 import com.jstarcraft.core.storage.StorageCondition;
 import com.jstarcraft.core.storage.StoragePagination;
+import com.jstarcraft.core.utility.StringUtility;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration
 public class HibernateAccessorTestCase {
 
+	private static final Logger logger = LoggerFactory.getLogger(HibernateAccessorTestCase.class);
+
 	@Autowired
 	private HibernateAccessor accessor;
 
+	@Autowired
+	private SessionFactory sessionFactory;
+
 	@Test
 	public void testCRUD() {
 		int size = 100;
@@ -122,6 +136,31 @@ public class HibernateAccessorTestCase {
 		objects = accessor.queryUnion(MockObject.class, condition, null);
 		Assert.assertTrue(objects.size() == count);
 
+		// 测试键集分页(WHERE id > ? ORDER BY id)
+		Integer key = null;
+		int total = 0;
+		while (true) {
+			objects = accessor.queryUnion(MockObject.class, condition, StoragePagination.keysetOf(key, 15));
+			if (objects.isEmpty()) {
+				break;
+			}
+			for (MockObject object : objects) {
+				Assert.assertTrue(key == null || object.getId() > key);
+				key = object.getId();
+			}
+			total += objects.size();
+		}
+		Assert.assertThat(total, CoreMatchers.equalTo(size));
+		objects = accessor.queryInstances(MockObject.class, StoragePagination.keysetOf(89, 15));
+		Assert.assertThat(objects.size(), CoreMatchers.equalTo(10));
+		objects = accessor.queryIntersection(MockObject.class, condition, StoragePagination.keysetOf(0, 15));
+		Assert.assertThat(objects.size(), CoreMatchers.equalTo(0));
+		times.set(0);
+		accessor.iterateUnion((object) -> {
+			Assert.assertThat(object.getId(), CoreMatchers.equalTo(times.getAndIncrement() + 30));
+		}, MockObject.class, condition, StoragePagination.keysetOf(29, 30));
+		Assert.assertThat(times.get(), CoreMatchers.equalTo(30));
+
 		// 删除对象并保存
 		for (MockObject object : accessor.queryIntersection(MockObject.class, condition, null)) {
 			accessor.deleteInstance(MockObject.class, object);
@@ -165,4 +204,98 @@ public class HibernateAccessorTestCase {
 		Assert.assertThat(accessor.countInstances(MockObject.class), CoreMatchers.equalTo(0L));
 	}
 
+	/**
+	 * 测试数据库快照(宿主对象为null)可以读取JSON列并且不会被判定为脏数据
+	 */
+	@Test
+	public void testSnapshot() {
+		MockObject object = MockObject.instanceOf(0, "birdy", "mickey", 5, LocalDateTime.of(2010, 1, 1, 0, 0, 0), MockEnumeration.RANDOM);
+		accessor.createInstance(MockObject.class, object);
+		SessionFactoryImplementor factory = (SessionFactoryImplementor) sessionFactory;
+		EntityPersister persister = factory.getMetamodel().entityPersister(MockObject.class);
+		try (Session session = factory.openSession()) {
+			SessionImplementor implementor = (SessionImplementor) session;
+			Object[] snapshot = persister.getDatabaseSnapshot(object.getId(), implementor);
+			Object[] values = persister.getPropertyValues(object);
+			for (String name : new String[] { "children", "zipChildren", "cborChildren" }) {
+				int index = persister.getEntityMetamodel().getPropertyIndex(name);
+				Assert.assertNotNull(snapshot[index]);
+				Assert.assertThat(snapshot[index], CoreMatchers.equalTo(values[index]));
+			}
+			Assert.assertNull(persister.findDirty(values, snapshot, object, implementor));
+		} finally {
+			accessor.deleteInstance(MockObject.class, object.getId());
+		}
+	}
+
+	/**
+	 * 比较偏移量分页与键集分页在不同深度的耗时
+	 */
+	@Test
+	public void testPerformance() {
+		int size = 5000;
+		int limit = 50;
+		for (int index = 0; index < size; index++) {
+			MockObject object = MockObject.instanceOf(index, "birdy", "mickey" + index, index, LocalDateTime.now(), MockEnumeration.RANDOM);
+			accessor.createInstance(MockObject.class, object);
+		}
+
+		try {
+			for (int page : new int[] { 1, 10, 50, 100 }) {
+				long now = System.currentTimeMillis();
+				List<MockObject> offsets = accessor.queryInstances(MockObject.class, new StoragePagination(page, limit));
+				long offset = System.currentTimeMillis() - now;
+				now = System.currentTimeMillis();
+				Integer key = page == 1 ? null : (page - 1) * limit - 1;
+				List<MockObject> keysets = accessor.queryInstances(MockObject.class, StoragePagination.keysetOf(key, limit));
+				long keyset = System.currentTimeMillis() - now;
+				Assert.assertThat(keysets.size(), CoreMatchers.equalTo(limit));
+				Assert.assertThat(keysets.get(0).getId(), CoreMatchers.equalTo((page - 1) * limit));
+				Assert.assertThat(offsets.size(), CoreMatchers.equalTo(limit));
+				String message = StringUtility.format("第{}页(每页{}条),偏移量分页消耗{}毫秒,键集分页消耗{}毫秒", page, limit, offset, keyset);
+				logger.debug(message);
+			}
+		} finally {
+			for (int index = 0; index < size; index++) {
+				accessor.deleteInstance(MockObject.class, index);
+			}
+		}
+	}
+
+	/**
+	 * 测试不同参数数量的IN查询(HQL语句与查询计划可以复用)
+	 */
+	@Test
+	public void testIn() {
+		int size = 1000;
+		for (int index = 0; index < size; index++) {
+			MockObject object = MockObject.instanceOf(index, "birdy", "mickey" + index, index, LocalDateTime.now(), MockEnumeration.RANDOM);
+			accessor.createInstance(MockObject.class, object);
+		}
+
+		try {
+			Random random = new Random(0L);
+			int times = 2000;
+			long now = System.currentTimeMillis();
+			for (int time = 0; time < times; time++) {
+				// 参数数量在1到100之间变化
+				Integer[] values = new Integer[random.nextInt(100) + 1];
+				for (int index = 0; index < values.length; index++) {
+					values[index] = index * 7;
+				}
+				Map<Integer, Object> id2Moneys = accessor.queryIdentities(MockObject.class, "money", new StorageCondition<>(ConditionType.In, values));
+				Assert.assertThat(id2Moneys.size(), CoreMatchers.equalTo(Math.min(values.length, (size + 6) / 7)));
+			}
+			String message = StringUtility.format("IN查询{}次(参数数量1到100),消耗{}毫秒", times, System.currentTimeMillis() - now);
+			logger.debug(message);
+
+			List<MockObject> objects = accessor.queryInstances(MockObject.class, "money", new StorageCondition<>(ConditionType.In, 1, 2, 3));
+			Assert.assertThat(objects.size(), CoreMatchers.equalTo(3));
+		} finally {
+			for (int index = 0; index < size; index++) {
+				accessor.deleteInstance(MockObject.class, index);
+			}
+		}
+	}
+
 }
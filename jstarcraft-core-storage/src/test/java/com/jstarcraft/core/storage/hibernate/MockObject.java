@@ -15,6 +15,7 @@ import javax.persistence.Table;
 import javax.persistence.Version;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.Type;
 
 import com.jstarcraft.core.common.identification.IdentityObject;
@@ -57,6 +58,12 @@ public class MockObject implements IdentityObject<Integer> {
     @Type(type = "com.jstarcraft.core.storage.hibernate.JsonType")
     private LinkedList<NestObject> children;
 
+    @Type(type = ZipJsonType.CLASS_NAME)
+    private LinkedList<NestObject> zipChildren;
+
+    @Type(type = ZipJsonType.CLASS_NAME, parameters = { @Parameter(name = ZipJsonType.CODEC, value = "com.jstarcraft.core.codec.cbor.CborContentCodec") })
+    private LinkedList<NestObject> cborChildren;
+
     @Version
     private long version;
 
@@ -92,6 +99,14 @@ public class MockObject implements IdentityObject<Integer> {
         return children;
     }
 
+    public LinkedList<NestObject> getZipChildren() {
+        return zipChildren;
+    }
+
+    public LinkedList<NestObject> getCborChildren() {
+        return cborChildren;
+    }
+
     public int[] toCurrencies() {
         return new int[] { money };
     }
@@ -112,6 +127,8 @@ public class MockObject implements IdentityObject<Integer> {
         equal.append(this.getInstant(), that.getInstant());
         equal.append(this.getRace(), that.getRace());
         equal.append(this.getChildren(), that.getChildren());
+        equal.append(this.getZipChildren(), that.getZipChildren());
+        equal.append(this.getCborChildren(), that.getCborChildren());
         return equal.isEquals();
     }
 
@@ -131,6 +148,8 @@ public class MockObject implements IdentityObject<Integer> {
         for (int index = 0; index < money; index++) {
             instance.children.add(NestObject.instanceOf(index, childrenName));
         }
+        instance.zipChildren = new LinkedList<>(instance.children.subList(0, Math.min(money, 10)));
+        instance.cborChildren = new LinkedList<>(instance.children.subList(0, Math.min(money, 10)));
         return instance;
     }
 
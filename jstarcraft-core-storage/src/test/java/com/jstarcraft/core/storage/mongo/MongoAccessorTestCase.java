@@ -1,6 +1,8 @@
 package com.jstarcraft.core.storage.mongo;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -10,6 +12,8 @@ import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.test.context.ContextConfiguration;
@@ -18,11 +22,15 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import com.jstarcraft.core.storage.ConditionType;
 import com.jstarcraft.core.storage.StorageCondition;
 import com.jstarcraft.core.storage.StoragePagination;
+import com.jstarcraft.core.storage.exception.StorageAccessException;
+import com.jstarcraft.core.utility.StringUtility;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration
 public class MongoAccessorTestCase {
 
+	private static final Logger logger = LoggerFactory.getLogger(MongoAccessorTestCase.class);
+
 	@Autowired
 	private MongoTemplate template;
 
@@ -127,6 +135,45 @@ public class MongoAccessorTestCase {
 		objects = accessor.queryUnion(MockObject.class, condition, null);
 		Assert.assertTrue(objects.size() == 25);
 
+		// 测试键集分页({_id: {$gt: key}})
+		Integer key = null;
+		int total = 0;
+		while (true) {
+			objects = accessor.queryUnion(MockObject.class, condition, StoragePagination.keysetOf(key, 10));
+			if (objects.isEmpty()) {
+				break;
+			}
+			for (MockObject object : objects) {
+				Assert.assertTrue(key == null || object.getId() > key);
+				key = object.getId();
+			}
+			total += objects.size();
+		}
+		Assert.assertThat(total, CoreMatchers.equalTo(25));
+		objects = accessor.queryInstances(MockObject.class, StoragePagination.keysetOf(89, 15));
+		Assert.assertThat(objects.size(), CoreMatchers.equalTo(10));
+		Assert.assertThat(objects.get(0).getId(), CoreMatchers.equalTo(90));
+		times.set(0);
+		accessor.iterateIntersection((object) -> {
+			times.incrementAndGet();
+		}, MockObject.class, condition, StoragePagination.keysetOf(3, 10));
+		Assert.assertThat(times.get(), CoreMatchers.equalTo(0));
+
+		// 测试部分更新($set)
+		Map<String, Object> values = new HashMap<>();
+		values.put("name", "birdy");
+		Assert.assertTrue(accessor.updateInstance(MockObject.class, 0, values));
+		Assert.assertThat(accessor.getInstance(MockObject.class, 0).getName(), CoreMatchers.equalTo("birdy"));
+		Assert.assertThat(accessor.getInstance(MockObject.class, 0).getMoney(), CoreMatchers.equalTo(0));
+		Assert.assertFalse(accessor.updateInstance(MockObject.class, size, values));
+		// 不可以修改主键
+		values.put("id", size);
+		try {
+			accessor.updateInstance(MockObject.class, 0, values);
+			Assert.fail();
+		} catch (StorageAccessException exception) {
+		}
+
 		// 删除对象并保存
 		for (MockObject object : accessor.queryIntersection(MockObject.class, condition, null)) {
 			accessor.deleteInstance(MockObject.class, object);
@@ -142,4 +189,80 @@ public class MongoAccessorTestCase {
 		template.dropCollection(MockObject.class.getName());
 	}
 
+	/**
+	 * 比较逐个写入与批量写入,偏移量分页与键集分页的耗时
+	 */
+	@Test
+	public void testPerformance() {
+		int size = 10000;
+		int limit = 100;
+		template.dropCollection(MockObject.class.getName());
+
+		List<MockObject> objects = new ArrayList<>(size);
+		for (int index = 0; index < size; index++) {
+			objects.add(MockObject.instanceOf(index, "birdy", "mickey" + index, index % 10, Instant.ofEpochMilli(System.currentTimeMillis()), MockEnumeration.values()[index % MockEnumeration.values().length]));
+		}
+		long now = System.currentTimeMillis();
+		for (MockObject object : objects.subList(0, size / 2)) {
+			Assert.assertTrue(accessor.createInstance(MockObject.class, object));
+		}
+		long single = System.currentTimeMillis() - now;
+		now = System.currentTimeMillis();
+		Assert.assertThat(accessor.createInstances(MockObject.class, objects.subList(size / 2, size)), CoreMatchers.equalTo(size / 2));
+		long bulk = System.currentTimeMillis() - now;
+		String message = StringUtility.format("创建{}个对象,逐个写入消耗{}毫秒,批量写入消耗{}毫秒", size / 2, single, bulk);
+		logger.debug(message);
+		// 重复创建在无序批量写入中只会失败冲突的文档
+		Assert.assertThat(accessor.createInstances(MockObject.class, objects.subList(0, 10)), CoreMatchers.equalTo(0));
+
+		for (MockObject object : objects) {
+			object.setName("mickey");
+		}
+		now = System.currentTimeMillis();
+		for (MockObject object : objects.subList(0, size / 2)) {
+			Assert.assertTrue(accessor.updateInstance(MockObject.class, object));
+		}
+		single = System.currentTimeMillis() - now;
+		now = System.currentTimeMillis();
+		Assert.assertThat(accessor.updateInstances(MockObject.class, objects.subList(size / 2, size)), CoreMatchers.equalTo(size / 2));
+		bulk = System.currentTimeMillis() - now;
+		message = StringUtility.format("更新{}个对象,逐个替换消耗{}毫秒,批量$set消耗{}毫秒", size / 2, single, bulk);
+		logger.debug(message);
+		Assert.assertThat(accessor.getInstance(MockObject.class, size - 1), CoreMatchers.equalTo(objects.get(size - 1)));
+
+		for (int page : new int[] { 1, 10, 50, 100 }) {
+			now = System.currentTimeMillis();
+			List<MockObject> offsets = accessor.queryInstances(MockObject.class, new StoragePagination(page, limit));
+			long offset = System.currentTimeMillis() - now;
+			now = System.currentTimeMillis();
+			Integer key = page == 1 ? null : (page - 1) * limit - 1;
+			List<MockObject> keysets = accessor.queryInstances(MockObject.class, StoragePagination.keysetOf(key, limit));
+			long keyset = System.currentTimeMillis() - now;
+			Assert.assertThat(offsets.size(), CoreMatchers.equalTo(limit));
+			Assert.assertThat(keysets.size(), CoreMatchers.equalTo(limit));
+			Assert.assertThat(keysets.get(0).getId(), CoreMatchers.equalTo((page - 1) * limit));
+			message = StringUtility.format("第{}页(每页{}条),偏移量分页消耗{}毫秒,键集分页消耗{}毫秒", page, limit, offset, keyset);
+			logger.debug(message);
+		}
+
+		AtomicInteger times = new AtomicInteger();
+		now = System.currentTimeMillis();
+		accessor.iterate((object) -> {
+			times.incrementAndGet();
+		}, MockObject.class, null);
+		Assert.assertThat(times.get(), CoreMatchers.equalTo(size));
+		message = StringUtility.format("遍历{}个对象(游标批量大小10)消耗{}毫秒", size, System.currentTimeMillis() - now);
+		logger.debug(message);
+
+		List<Integer> ids = new ArrayList<>(size);
+		for (MockObject object : objects) {
+			ids.add(object.getId());
+		}
+		Collections.shuffle(ids);
+		Assert.assertThat(accessor.deleteInstances(MockObject.class, ids), CoreMatchers.equalTo((long) size));
+		Assert.assertThat(accessor.countInstances(MockObject.class), CoreMatchers.equalTo(0L));
+
+		template.dropCollection(MockObject.class.getName());
+	}
+
 }
@@ -121,6 +121,49 @@ public class MyBatisAccessorTestCase {
 		objects = accessor.queryUnion(MockObject.class, condition, null);
 		Assert.assertTrue(objects.size() == count);
 
+		// 测试遍历(逐行处理结果集)
+		times.set(0);
+		accessor.iterate((object) -> {
+			times.incrementAndGet();
+		}, MockObject.class, null);
+		Assert.assertThat(times.get(), CoreMatchers.equalTo(size));
+		times.set(0);
+		accessor.iterateIntersection((object) -> {
+			times.incrementAndGet();
+		}, MockObject.class, condition, null);
+		Assert.assertThat(times.get(), CoreMatchers.equalTo(1));
+		times.set(0);
+		accessor.iterateUnion((object) -> {
+			Assert.assertThat(object.getRace(), CoreMatchers.equalTo(MockEnumeration.RANDOM));
+			times.incrementAndGet();
+		}, MockObject.class, condition, new StoragePagination(2, 30));
+		Assert.assertThat(times.get(), CoreMatchers.equalTo(30));
+
+		// 测试键集分页(WHERE id > ? ORDER BY id)
+		Integer key = null;
+		int total = 0;
+		while (true) {
+			objects = accessor.queryUnion(MockObject.class, condition, StoragePagination.keysetOf(key, 15));
+			if (objects.isEmpty()) {
+				break;
+			}
+			for (MockObject object : objects) {
+				Assert.assertTrue(key == null || object.getId() > key);
+				key = object.getId();
+			}
+			total += objects.size();
+		}
+		Assert.assertThat(total, CoreMatchers.equalTo(size));
+		objects = accessor.queryInstances(MockObject.class, StoragePagination.keysetOf(89, 15));
+		Assert.assertThat(objects.size(), CoreMatchers.equalTo(10));
+		objects = accessor.queryIntersection(MockObject.class, condition, StoragePagination.keysetOf(0, 15));
+		Assert.assertThat(objects.size(), CoreMatchers.equalTo(0));
+		times.set(0);
+		accessor.iterateUnion((object) -> {
+			Assert.assertThat(object.getId(), CoreMatchers.equalTo(times.getAndIncrement() + 30));
+		}, MockObject.class, condition, StoragePagination.keysetOf(29, 30));
+		Assert.assertThat(times.get(), CoreMatchers.equalTo(30));
+
 		// 删除对象并保存
 		for (MockObject object : accessor.queryIntersection(MockObject.class, condition, null)) {
 			accessor.deleteInstance(MockObject.class, object);
@@ -1,5 +1,6 @@
 package com.jstarcraft.core.storage.neo4j;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -12,6 +13,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.session.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -19,11 +22,14 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import com.jstarcraft.core.storage.ConditionType;
 import com.jstarcraft.core.storage.StorageCondition;
 import com.jstarcraft.core.storage.StoragePagination;
+import com.jstarcraft.core.utility.StringUtility;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration
 public class Neo4jAccessorTestCase {
 
+	private static final Logger logger = LoggerFactory.getLogger(Neo4jAccessorTestCase.class);
+
 	// 清理所有节点与关系
 	private static final String CLEAR = "MATCH (node) OPTIONAL MATCH (node)-[relation]-() DELETE node, relation";
 
@@ -173,4 +179,74 @@ public class Neo4jAccessorTestCase {
 		template.clear();
 	}
 
+	@Test
+	public void testBatch() {
+		Session template = factory.openSession();
+		int size = 1000;
+		template.query(CLEAR, Collections.EMPTY_MAP);
+		template.clear();
+
+		List<MockNode> objects = new ArrayList<>(size);
+		List<Integer> ids = new ArrayList<>(size);
+		for (int index = 0; index < size; index++) {
+			objects.add(new MockNode(index, "birdy", index, MockEnumeration.values()[index % MockEnumeration.values().length]));
+			ids.add(index);
+		}
+
+		long time = System.currentTimeMillis();
+		for (MockNode object : objects) {
+			accessor.createInstance(MockNode.class, object);
+		}
+		logger.debug(StringUtility.format("逐个创建{}个节点,耗时{}毫秒", size, System.currentTimeMillis() - time));
+		Assert.assertTrue(accessor.countInstances(MockNode.class) == size);
+		Assert.assertThat(accessor.deleteInstances(MockNode.class, ids), CoreMatchers.equalTo(size));
+		Assert.assertTrue(accessor.countInstances(MockNode.class) == 0);
+
+		time = System.currentTimeMillis();
+		Assert.assertTrue(accessor.createInstances(MockNode.class, objects));
+		logger.debug(StringUtility.format("批量创建{}个节点,耗时{}毫秒", size, System.currentTimeMillis() - time));
+		Assert.assertTrue(accessor.countInstances(MockNode.class) == size);
+
+		for (MockNode object : objects) {
+			object.setName("mickey");
+		}
+		Assert.assertTrue(accessor.updateInstances(MockNode.class, objects));
+		Map<String, Object> condition = new HashMap<>();
+		condition.put("name", "mickey");
+		Assert.assertTrue(accessor.countIntersection(MockNode.class, condition) == size);
+		Assert.assertThat(accessor.getInstance(MockNode.class, size - 1), CoreMatchers.equalTo(objects.get(size - 1)));
+
+		// 参数化分页(相同的CQL文本)
+		time = System.currentTimeMillis();
+		int count = 0;
+		for (int page = 1; page <= size / 10; page++) {
+			count += accessor.queryIntersection(MockNode.class, condition, new StoragePagination(page, 10)).size();
+		}
+		logger.debug(StringUtility.format("分页查询{}页,耗时{}毫秒", size / 10, System.currentTimeMillis() - time));
+		Assert.assertThat(count, CoreMatchers.equalTo(size));
+
+		// 键集分页(按照主键从上一页最后一条记录之后开始)
+		count = 0;
+		Integer key = null;
+		while (true) {
+			List<MockNode> page = accessor.queryIntersection(MockNode.class, condition, StoragePagination.keysetOf(key, 30));
+			if (page.isEmpty()) {
+				break;
+			}
+			for (MockNode node : page) {
+				Assert.assertThat(node.getId(), CoreMatchers.equalTo(count++));
+			}
+			key = page.get(page.size() - 1).getId();
+		}
+		Assert.assertThat(count, CoreMatchers.equalTo(size));
+
+		time = System.currentTimeMillis();
+		Assert.assertThat(accessor.deleteInstances(MockNode.class, ids), CoreMatchers.equalTo(size));
+		logger.debug(StringUtility.format("批量删除{}个节点,耗时{}毫秒", size, System.currentTimeMillis() - time));
+		Assert.assertTrue(accessor.countInstances(MockNode.class) == 0);
+
+		template.query(CLEAR, Collections.EMPTY_MAP);
+		template.clear();
+	}
+
 }